@@ -0,0 +1,77 @@
+#!/usr/bin/env python
+
+"""
+CPAchecker is a tool for configurable software verification.
+This file is part of CPAchecker.
+
+Copyright (C) 2007-2016  Dirk Beyer
+All rights reserved.
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+
+CPAchecker web page:
+  http://cpachecker.sosy-lab.org
+"""
+
+# prepare for Python 3
+from __future__ import absolute_import, division, print_function, unicode_literals
+
+import argparse
+import io
+import sys
+
+sys.dont_write_bytecode = True # prevent creation of .pyc files
+
+# Convert an ARG log file written by CPAchecker (option cpa.arg.log.file)
+# into the DOT format of Graphviz.
+# The log is processed line by line, so it can also be converted
+# while CPAchecker is still writing it.
+
+def escape(text):
+    return text.replace('\\', '\\\\').replace('"', '\'')
+
+def convert(log, out):
+    out.write('digraph ARG {\n')
+    out.write('node [style="filled" shape="box" color="white"]\n')
+    for line in log:
+        parts = line.rstrip('\n').split(' ', 3)
+        kind = parts[0]
+        if kind == 'S' and len(parts) >= 3:
+            style = ' fillcolor="red"' if len(parts) > 3 and parts[3] == 'T' else ''
+            out.write('{0} [label="{0} @ {1}"{2}]\n'.format(parts[1], escape(parts[2]), style))
+        elif kind == 'E' and len(parts) >= 3:
+            label = ' [label="{0}"]'.format(escape(parts[3])) if len(parts) > 3 else ''
+            out.write('{0} -> {1}{2}\n'.format(parts[1], parts[2], label))
+        elif kind == 'C' and len(parts) >= 3:
+            out.write('{0} -> {1} [style="dashed" weight="0" label="covered by"]\n'.format(parts[1], parts[2]))
+        # ignore comments and incomplete last lines
+    out.write('}\n')
+
+def main(argv=None):
+    parser = argparse.ArgumentParser(
+        description='Convert an ARG log file of CPAchecker to a DOT file.')
+    parser.add_argument('logfile', help='ARG log file (cpa.arg.log.file)')
+    parser.add_argument('-o', '--output', default=None,
+                        help='output file (default: standard output)')
+    options = parser.parse_args(argv)
+
+    with io.open(options.logfile, encoding='utf-8') as log:
+        if options.output:
+            with io.open(options.output, 'w', encoding='utf-8') as out:
+                convert(log, out)
+        else:
+            convert(log, sys.stdout)
+
+if __name__ == '__main__':
+    sys.exit(main())
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -165,6 +166,12 @@ public interface CParser extends Parser {
     @Option(secure=true, description="C dialect for parser")
     private Dialect dialect = Dialect.GNUC;
 
+    @Option(secure=true, description="Number of threads for parsing several source files in parallel."
+        + " The CFA is still created sequentially in the given order of files"
+        + " such that the numbering of CFA nodes is deterministic.")
+    @IntegerOption(min=1)
+    private int parallelParsingThreads = 1;
+
     private ParserOptions() { }
   }
 
@@ -186,7 +193,7 @@ public interface CParser extends Parser {
     }
 
     public static CParser getParser(Configuration config, LogManager logger, ParserOptions options, MachineModel machine) {
-      return EclipseParsers.getCParser(config, logger, options.dialect, machine);
+      return EclipseParsers.getCParser(config, logger, options.dialect, options.parallelParsingThreads, machine);
     }
   }
 }
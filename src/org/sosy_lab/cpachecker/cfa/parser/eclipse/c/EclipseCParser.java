@@ -33,6 +33,11 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
@@ -55,6 +60,7 @@ import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.core.runtime.CoreException;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.io.Path;
@@ -76,6 +82,7 @@ import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
@@ -90,6 +97,7 @@ class EclipseCParser implements CParser {
   protected final IParserLogService parserLog = ParserFactory.createDefaultLogService();
 
   private final MachineModel machine;
+  private final int parallelParsingThreads;
 
   private final LogManager logger;
   private final Configuration config;
@@ -98,10 +106,11 @@ class EclipseCParser implements CParser {
   private final Timer cfaTimer = new Timer();
 
   public EclipseCParser(Configuration pConfig, LogManager pLogger,
-      Dialect pDialect, MachineModel pMachine) {
+      Dialect pDialect, int pParallelParsingThreads, MachineModel pMachine) {
 
     this.logger = pLogger;
     this.machine = pMachine;
+    this.parallelParsingThreads = pParallelParsingThreads;
     this.config = pConfig;
 
     switch (pDialect) {
@@ -152,16 +161,21 @@ class EclipseCParser implements CParser {
     Preconditions.checkNotNull(pWrapperFunction);
 
     Map<String, String> fileNameMapping = new HashMap<>();
-    List<IASTTranslationUnit> astUnits = new ArrayList<>();
-
     for (FileToParse f : pInput) {
-      final String fileName = fixPath(f.getFileName());
-      fileNameMapping.put(fileName, f.getFileName());
+      fileNameMapping.put(fixPath(f.getFileName()), f.getFileName());
+    }
 
-      try {
-        astUnits.add(parse(pWrapperFunction.wrap(fileName, f)));
-      } catch (IOException e) {
-        throw new CParserException("IO failed!", e);
+    List<IASTTranslationUnit> astUnits;
+    if (parallelParsingThreads > 1 && pInput.size() > 1) {
+      astUnits = parseInParallel(pInput, pWrapperFunction);
+    } else {
+      astUnits = new ArrayList<>();
+      for (FileToParse f : pInput) {
+        try {
+          astUnits.add(parse(pWrapperFunction.wrap(fixPath(f.getFileName()), f)));
+        } catch (IOException e) {
+          throw new CParserException("IO failed!", e);
+        }
       }
     }
 
@@ -171,6 +185,55 @@ class EclipseCParser implements CParser {
         CProgramScope.empty());
   }
 
+  /**
+   * Parse the given files on several threads.
+   * The translation units are independent of each other,
+   * and the result is in the same order as the input,
+   * such that the CFA can be built from it deterministically.
+   */
+  private List<IASTTranslationUnit> parseInParallel(List<? extends FileToParse> pInput,
+      final FileParseWrapper pWrapperFunction) throws CParserException {
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(parallelParsingThreads, pInput.size()),
+        Threads.threadFactoryBuilder().setNameFormat("Parser thread %d").setDaemon(true).build());
+
+    parseTimer.start();
+    try {
+      List<Future<IASTTranslationUnit>> futures = new ArrayList<>(pInput.size());
+      for (final FileToParse f : pInput) {
+        futures.add(executor.submit(new Callable<IASTTranslationUnit>() {
+          @Override
+          public IASTTranslationUnit call() throws CParserException, IOException {
+            return parseWithoutTimer(pWrapperFunction.wrap(fixPath(f.getFileName()), f));
+          }
+        }));
+      }
+
+      List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
+      for (Future<IASTTranslationUnit> future : futures) {
+        try {
+          astUnits.add(future.get());
+        } catch (ExecutionException e) {
+          Throwable t = e.getCause();
+          if (t instanceof IOException) {
+            throw new CParserException("IO failed!", t);
+          }
+          Throwables.propagateIfPossible(t, CParserException.class);
+          throw new CParserException(t);
+        }
+      }
+      return astUnits;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CParserException("Parsing was interrupted", e);
+    } finally {
+      executor.shutdownNow();
+      parseTimer.stop();
+    }
+  }
+
   @Override
   public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping sourceOriginMapping)
       throws CParserException, IOException, InvalidConfigurationException {
@@ -317,6 +380,18 @@ class EclipseCParser implements CParser {
 
   private IASTTranslationUnit parse(FileContent codeReader) throws CParserException {
     parseTimer.start();
+    try {
+      return parseWithoutTimer(codeReader);
+    } finally {
+      parseTimer.stop();
+    }
+  }
+
+  /**
+   * Parse the given code without touching the (not thread-safe) timer,
+   * such that this method can be used from several threads.
+   */
+  private IASTTranslationUnit parseWithoutTimer(FileContent codeReader) throws CParserException {
     try {
       IASTTranslationUnit result = getASTTranslationUnit(codeReader);
 
@@ -345,8 +420,6 @@ class EclipseCParser implements CParser {
       throw new CParserException(e);
     } catch (CoreException e) {
       throw new CParserException(e);
-    } finally {
-      parseTimer.stop();
     }
   }
 
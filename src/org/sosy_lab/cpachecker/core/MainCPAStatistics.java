@@ -67,6 +67,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.LocationMappedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.PartitionedReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.PseudoPartitionedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.coverage.CoverageReport;
@@ -442,6 +443,15 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
         out.println();
       }
     }
+    if (reached instanceof PseudoPartitionedReachedSet) {
+      PseudoPartitionedReachedSet p = (PseudoPartitionedReachedSet)reached;
+      long queries = p.getNumberOfQueries();
+      out.println("  Number of coverage queries:    " + queries);
+      if (queries > 0) {
+        out.println("    Avg states in partition:     " + StatisticsUtils.div(p.getNumberOfStatesInQueriedPartitions(), queries));
+        out.println("    Avg candidates examined:     " + StatisticsUtils.div(p.getNumberOfReturnedCandidates(), queries));
+      }
+    }
     out.println("  Number of target states:       " + from(reached).filter(IS_TARGET_STATE).size());
   }
 
@@ -26,20 +26,41 @@ package org.sosy_lab.cpachecker.core.algorithm;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
 import org.sosy_lab.common.Classes;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.ClassOption;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
@@ -64,7 +85,10 @@ import org.sosy_lab.cpachecker.util.Pair;
 
 import com.google.common.base.Functions;
 import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
@@ -88,6 +112,13 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     private int   countStop         = 0;
     private int   countBreak        = 0;
 
+    // only used in parallel mode
+    private int   workerThreads     = 0;
+    private int   countBatches      = 0;
+    private int   maxBatchSize      = 0;
+    private final List<WorkerTimers> workerTimers =
+        Collections.synchronizedList(new ArrayList<WorkerTimers>());
+
     @Override
     public String getName() {
       return "CPA algorithm";
@@ -123,6 +154,49 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       }
       out.println("  Time for stop operator:         " + stopTimer);
       out.println("  Time for adding to reached set: " + addTimer);
+
+      if (workerThreads > 0) {
+        out.println();
+        out.println("Number of worker threads:        " + workerThreads);
+        out.println("Number of parallel batches:      " + countBatches);
+        out.println("Max size of parallel batch:      " + maxBatchSize);
+        synchronized (workerTimers) {
+          List<TimeSpan> transferTimes = new ArrayList<>(workerTimers.size());
+          List<TimeSpan> precisionTimes = new ArrayList<>(workerTimers.size());
+          for (WorkerTimers timers : workerTimers) {
+            transferTimes.add(timers.transferTimer.getSumTime());
+            precisionTimes.add(timers.precisionTimer.getSumTime());
+          }
+          out.println("  Time for transfer relation (sum over workers):    "
+              + TimeSpan.sum(transferTimes.toArray(new TimeSpan[0])).formatAs(TimeUnit.SECONDS));
+          out.println("  Time for precision adjustment (sum over workers): "
+              + TimeSpan.sum(precisionTimes.toArray(new TimeSpan[0])).formatAs(TimeUnit.SECONDS));
+        }
+      }
+    }
+  }
+
+  /**
+   * Timers for the parts of the algorithm that are executed by worker threads
+   * in parallel mode. Each running task borrows one instance, because {@link Timer}
+   * is not thread-safe. They are aggregated when printing statistics.
+   */
+  private static class WorkerTimers {
+    private final Timer transferTimer  = new Timer();
+    private final Timer precisionTimer = new Timer();
+  }
+
+  /**
+   * The result of computing the successors of one state in a worker thread,
+   * already processed by the precision adjustment.
+   */
+  private static class ComputedSuccessors {
+    private final int numSuccessors;
+    private final List<PrecisionAdjustmentResult> adjustedSuccessors;
+
+    private ComputedSuccessors(int pNumSuccessors, List<PrecisionAdjustmentResult> pAdjustedSuccessors) {
+      numSuccessors = pNumSuccessors;
+      adjustedSuccessors = pAdjustedSuccessors;
     }
   }
 
@@ -138,6 +212,27 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         + " Useful for incomplete analysis with no counterexample checking.")
     private boolean reportFalseAsUnknown = false;
 
+    @Option(secure=true, name="parallel.threads",
+        description="Number of threads that compute successors and precision adjustments in parallel. "
+        + "With more than one thread, several states are taken from the waitlist at once "
+        + "and their successors are computed concurrently, whereas merge, stop and adding to the "
+        + "reached set are still done by a single thread. "
+        + "This requires the transfer relation and precision adjustment of all CPAs to be thread-safe.")
+    @IntegerOption(min=1)
+    private int parallelThreads = 1;
+
+    @Option(secure=true, name="parallel.batchSize",
+        description="Maximal number of states that are taken from the waitlist at once in parallel mode "
+        + "(0 for using the number of threads).")
+    @IntegerOption(min=0)
+    private int parallelBatchSize = 0;
+
+    @Option(secure=true, name="parallel.deterministic",
+        description="In parallel mode, wait until the successors of all states of a batch are computed "
+        + "and add them to the reached set in waitlist order, such that the result does not depend "
+        + "on thread scheduling. Otherwise successors are added as soon as they are available.")
+    private boolean parallelDeterministic = true;
+
     private final ForcedCovering forcedCovering;
 
     private final ConfigurableProgramAnalysis cpa;
@@ -163,10 +258,18 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         forcedCovering = null;
       }
 
+      if (parallelThreads > 1 && forcedCovering != null) {
+        throw new InvalidConfigurationException(
+            "Forced covering is not supported in combination with cpa.parallel.threads > 1");
+      }
+      if (parallelBatchSize == 0) {
+        parallelBatchSize = parallelThreads;
+      }
     }
 
     public CPAAlgorithm newInstance() {
-      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, iterationListener, reportFalseAsUnknown);
+      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, iterationListener,
+          reportFalseAsUnknown, parallelThreads, parallelBatchSize, parallelDeterministic);
     }
   }
 
@@ -201,11 +304,22 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
   private final AlgorithmStatus status;
 
+  private final int parallelThreads;
+  private final int parallelBatchSize;
+  private final boolean parallelDeterministic;
+
+  // only used in parallel mode
+  /** one instance per thread, such that a task can always take one without waiting */
+  private final @Nullable BlockingQueue<WorkerTimers> idleWorkerTimers;
+
   private CPAAlgorithm(ConfigurableProgramAnalysis cpa, LogManager logger,
       ShutdownNotifier pShutdownNotifier,
       ForcedCovering pForcedCovering,
       AlgorithmIterationListener pIterationListener,
-      boolean pIsImprecise) {
+      boolean pIsImprecise,
+      int pParallelThreads,
+      int pParallelBatchSize,
+      boolean pParallelDeterministic) {
 
     transferRelation = cpa.getTransferRelation();
     mergeOperator = cpa.getMergeOperator();
@@ -216,12 +330,30 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     this.forcedCovering = pForcedCovering;
     this.iterationListener = pIterationListener;
     status = AlgorithmStatus.SOUND_AND_PRECISE.withPrecise(!pIsImprecise);
+    parallelThreads = pParallelThreads;
+    parallelBatchSize = pParallelBatchSize;
+    parallelDeterministic = pParallelDeterministic;
+
+    if (parallelThreads > 1) {
+      stats.workerThreads = parallelThreads;
+      idleWorkerTimers = new ArrayBlockingQueue<>(parallelThreads);
+      for (int i = 0; i < parallelThreads; i++) {
+        WorkerTimers timers = new WorkerTimers();
+        stats.workerTimers.add(timers);
+        idleWorkerTimers.add(timers);
+      }
+    } else {
+      idleWorkerTimers = null;
+    }
   }
 
   @Override
   public AlgorithmStatus run(final ReachedSet reachedSet) throws CPAException, InterruptedException {
     stats.totalTimer.start();
     try {
+      if (parallelThreads > 1) {
+        return runParallel(reachedSet);
+      }
       return run0(reachedSet);
     } finally {
       stats.totalTimer.stopIfRunning();
@@ -337,103 +469,390 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       Precision successorPrecision = precAdjustmentResult.precision();
       Action action = precAdjustmentResult.action();
 
-      if (action == Action.BREAK) {
-        stats.stopTimer.start();
-        boolean stop;
-        try {
-          stop = stopOperator.stop(successor, reachedSet.getReached(successor), successorPrecision);
-        } finally {
-          stats.stopTimer.stop();
+      if (handleSuccessor(state, successor, successorPrecision, action, !successors.isEmpty(), reachedSet)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Handle one successor whose precision was already adjusted,
+   * i.e., apply merge and stop and add it to the reached set if necessary.
+   * @param state The abstract state whose successor is handled.
+   * @param successor The successor after precision adjustment.
+   * @param successorPrecision The precision of the successor.
+   * @param action The action requested by the precision adjustment.
+   * @param hasUnhandledSuccessors Whether there are further successors of state that still need to be handled.
+   * @param reachedSet The reached set.
+   * @return true if analysis should terminate, false if analysis should continue with next successor
+   */
+  private boolean handleSuccessor(
+      final AbstractState state,
+      final AbstractState successor,
+      final Precision successorPrecision,
+      final Action action,
+      final boolean hasUnhandledSuccessors,
+      final ReachedSet reachedSet)
+      throws CPAException, InterruptedException {
+
+    if (action == Action.BREAK) {
+      stats.stopTimer.start();
+      boolean stop;
+      try {
+        stop = stopOperator.stop(successor, reachedSet.getReached(successor), successorPrecision);
+      } finally {
+        stats.stopTimer.stop();
+      }
+
+      if (AbstractStates.isTargetState(successor) && stop) {
+        // don't signal BREAK for covered states
+        // no need to call merge and stop either, so just ignore this state
+        // and handle next successor
+        stats.countStop++;
+        logger.log(Level.FINER, "Break was signalled but ignored because the state is covered.");
+        return false;
+
+      } else {
+        stats.countBreak++;
+        logger.log(Level.FINER, "Break signalled, CPAAlgorithm will stop.");
+
+        // add the new state
+        reachedSet.add(successor, successorPrecision);
+
+        if (hasUnhandledSuccessors) {
+          // re-add the old state to the waitlist, there are unhandled
+          // successors left that otherwise would be forgotten
+          reachedSet.reAddToWaitlist(state);
         }
 
-        if (AbstractStates.isTargetState(successor) && stop) {
-          // don't signal BREAK for covered states
-          // no need to call merge and stop either, so just ignore this state
-          // and handle next successor
-          stats.countStop++;
-          logger.log(Level.FINER, "Break was signalled but ignored because the state is covered.");
-          continue;
+        return true;
+      }
+    }
+    assert action == Action.CONTINUE : "Enum Action has unhandled values!";
 
-        } else {
-          stats.countBreak++;
-          logger.log(Level.FINER, "Break signalled, CPAAlgorithm will stop.");
+    Collection<AbstractState> reached = reachedSet.getReached(successor);
+
+    // An optimization, we don't bother merging if we know that the
+    // merge operator won't do anything (i.e., it is merge-sep).
+    if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
+      stats.mergeTimer.start();
+      try {
+        List<AbstractState> toRemove = new ArrayList<>();
+        List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
+
+        logger.log(
+            Level.FINER, "Considering", reached.size(), "states from reached set for merge");
+        for (AbstractState reachedState : reached) {
+          AbstractState mergedState =
+              mergeOperator.merge(successor, reachedState, successorPrecision);
+
+          if (!mergedState.equals(reachedState)) {
+            logger.log(Level.FINER, "Successor was merged with state from reached set");
+            logger.log(
+                Level.ALL, "Merged", successor, "\nand", reachedState, "\n-->", mergedState);
+            stats.countMerge++;
+
+            toRemove.add(reachedState);
+            toAdd.add(Pair.of(mergedState, successorPrecision));
+          }
+        }
+        reachedSet.removeAll(toRemove);
+        reachedSet.addAll(toAdd);
 
-          // add the new state
-          reachedSet.add(successor, successorPrecision);
+        if (mergeOperator instanceof ARGMergeJoinCPAEnabledAnalysis) {
+          ((ARGMergeJoinCPAEnabledAnalysis) mergeOperator).cleanUp(reachedSet);
+        }
+
+      } finally {
+        stats.mergeTimer.stop();
+      }
+    }
+
+    stats.stopTimer.start();
+    boolean stop;
+    try {
+      stop = stopOperator.stop(successor, reached, successorPrecision);
+    } finally {
+      stats.stopTimer.stop();
+    }
+
+    if (stop) {
+      logger.log(Level.FINER, "Successor is covered or unreachable, not adding to waitlist");
+      stats.countStop++;
+
+    } else {
+      logger.log(Level.FINER, "No need to stop, adding successor to waitlist");
+
+      stats.addTimer.start();
+      reachedSet.add(successor, successorPrecision);
+      stats.addTimer.stop();
+    }
+
+    return false;
+  }
+
+  /**
+   * Variant of {@link #run0(ReachedSet)} that computes successors in parallel.
+   * In each iteration, a batch of states is taken from the waitlist,
+   * and for each of them the transfer relation and the precision adjustment
+   * are executed by a worker thread.
+   * Merge, stop, and all modifications of the reached set are done by the calling thread.
+   * Worker threads only read the reached set (in the precision adjustment),
+   * which is guarded by a read-write lock, such that the existing
+   * (not thread-safe) reached-set implementations can be used.
+   *
+   * Note that the precision adjustment of the successors of all states in a batch
+   * sees the reached set without the successors of the other states in the same batch
+   * (in deterministic mode) or with an arbitrary subset of them (otherwise).
+   *
+   * The worker threads exist only during this method,
+   * such that no threads are left behind when the algorithm is discarded.
+   */
+  private AlgorithmStatus runParallel(final ReachedSet reachedSet)
+      throws CPAException, InterruptedException {
+    final ReadWriteLock reachedSetLock = new ReentrantReadWriteLock();
+    final ExecutorService executor = Executors.newFixedThreadPool(parallelThreads,
+        Threads.threadFactoryBuilder().setNameFormat("CPAAlgorithm worker %d").build());
 
-          if (!successors.isEmpty()) {
-            // re-add the old state to the waitlist, there are unhandled
-            // successors left that otherwise would be forgotten
-            reachedSet.reAddToWaitlist(state);
+    try {
+      while (reachedSet.hasWaitingState()) {
+        shutdownNotifier.shutdownIfNecessary();
+
+        stats.chooseTimer.start();
+        final List<AbstractState> batch = new ArrayList<>(parallelBatchSize);
+        final List<Precision> batchPrecisions = new ArrayList<>(parallelBatchSize);
+        while (batch.size() < parallelBatchSize && reachedSet.hasWaitingState()) {
+          // count per state as in run0, such that the average is comparable
+          int size = reachedSet.getWaitlist().size();
+          if (size >= stats.maxWaitlistSize) {
+            stats.maxWaitlistSize = size;
           }
+          stats.countWaitlistSize += size;
 
-          return true;
+          AbstractState state = reachedSet.popFromWaitlist();
+          batch.add(state);
+          batchPrecisions.add(reachedSet.getPrecision(state));
+        }
+        stats.chooseTimer.stop();
+
+        stats.countIterations += batch.size();
+        stats.countBatches++;
+        stats.maxBatchSize = Math.max(stats.maxBatchSize, batch.size());
+        logger.log(Level.FINER, "Retrieved", batch.size(), "states from waitlist");
+
+        if (handleBatch(batch, batchPrecisions, reachedSet, reachedSetLock, executor)) {
+          // Prec operator requested break
+          return status;
         }
       }
-      assert action == Action.CONTINUE : "Enum Action has unhandled values!";
+      return status;
+    } finally {
+      // all tasks are finished here, handleBatch() waits for them
+      executor.shutdownNow();
+    }
+  }
 
-      Collection<AbstractState> reached = reachedSet.getReached(successor);
+  /**
+   * Compute the successors of a batch of states in parallel and
+   * add them to the reached set.
+   * If an exception occurs or a break is requested, all states of the batch
+   * that were not yet completely handled are re-added to the waitlist.
+   * @return true if analysis should terminate, false if analysis should continue with next batch
+   */
+  private boolean handleBatch(
+      final List<AbstractState> batch,
+      final List<Precision> batchPrecisions,
+      final ReachedSet reachedSet,
+      final ReadWriteLock reachedSetLock,
+      final ExecutorService executor)
+      throws CPAException, InterruptedException {
 
-      // An optimization, we don't bother merging if we know that the
-      // merge operator won't do anything (i.e., it is merge-sep).
-      if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
-        stats.mergeTimer.start();
-        try {
-          List<AbstractState> toRemove = new ArrayList<>();
-          List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
-
-          logger.log(
-              Level.FINER, "Considering", reached.size(), "states from reached set for merge");
-          for (AbstractState reachedState : reached) {
-            AbstractState mergedState =
-                mergeOperator.merge(successor, reachedState, successorPrecision);
-
-            if (!mergedState.equals(reachedState)) {
-              logger.log(Level.FINER, "Successor was merged with state from reached set");
-              logger.log(
-                  Level.ALL, "Merged", successor, "\nand", reachedState, "\n-->", mergedState);
-              stats.countMerge++;
-
-              toRemove.add(reachedState);
-              toAdd.add(Pair.of(mergedState, successorPrecision));
+    final Lock readLock = reachedSetLock.readLock();
+    final Lock writeLock = reachedSetLock.writeLock();
+
+    // Every task counts down the latch when it is done, even if it was skipped,
+    // such that we know when no worker thread accesses the reached set anymore.
+    // Futures cannot be used for this, because a cancelled future
+    // does not wait for a task that is already running.
+    final CountDownLatch finishedTasks = new CountDownLatch(batch.size());
+    final AtomicBoolean skipRemainingTasks = new AtomicBoolean(false);
+
+    CompletionService<ComputedSuccessors> completionService =
+        new ExecutorCompletionService<>(executor);
+    Map<Future<ComputedSuccessors>, Integer> futures = new HashMap<>(batch.size());
+    List<Future<ComputedSuccessors>> futuresInOrder = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      final AbstractState state = batch.get(i);
+      final Precision precision = batchPrecisions.get(i);
+      Future<ComputedSuccessors> future = completionService.submit(new Callable<ComputedSuccessors>() {
+        @Override
+        public ComputedSuccessors call() throws CPAException, InterruptedException {
+          try {
+            if (skipRemainingTasks.get()) {
+              return null;
             }
+            WorkerTimers timers = idleWorkerTimers.take();
+            try {
+              return computeSuccessors(state, precision, reachedSet, readLock, timers);
+            } finally {
+              idleWorkerTimers.add(timers);
+            }
+          } finally {
+            finishedTasks.countDown();
           }
-          reachedSet.removeAll(toRemove);
-          reachedSet.addAll(toAdd);
+        }
+      });
+      futures.put(future, i);
+      futuresInOrder.add(future);
+    }
 
-          if (mergeOperator instanceof ARGMergeJoinCPAEnabledAnalysis) {
-            ((ARGMergeJoinCPAEnabledAnalysis) mergeOperator).cleanUp(reachedSet);
-          }
+    final boolean[] handled = new boolean[batch.size()];
+    try {
+      if (parallelDeterministic) {
+        // wait for all states, such that the precision adjustment of all of them
+        // is not influenced by the successors added here
+        for (Future<ComputedSuccessors> future : futuresInOrder) {
+          waitForCompletion(future);
+        }
+      }
+
+      for (int i = 0; i < batch.size(); i++) {
+        int index;
+        Future<ComputedSuccessors> future;
+        if (parallelDeterministic) {
+          index = i;
+          future = futuresInOrder.get(i);
+        } else {
+          future = completionService.take();
+          index = futures.get(future);
+        }
+
+        ComputedSuccessors result = getResult(future);
+        AbstractState state = batch.get(index);
 
+        boolean isBreak;
+        writeLock.lock();
+        try {
+          isBreak = handleComputedSuccessors(state, result, reachedSet);
         } finally {
-          stats.mergeTimer.stop();
+          writeLock.unlock();
+        }
+        handled[index] = true;
+
+        if (isBreak) {
+          // Prec operator requested break
+          return true;
+        }
+
+        if (iterationListener != null) {
+          iterationListener.afterAlgorithmIteration(this, reachedSet);
         }
       }
+      return false;
 
-      stats.stopTimer.start();
-      boolean stop;
-      try {
-        stop = stopOperator.stop(successor, reached, successorPrecision);
-      } finally {
-        stats.stopTimer.stop();
+    } finally {
+      // Worker threads may still read the reached set, so wait for them
+      // before we give control back to the caller.
+      skipRemainingTasks.set(true);
+      Uninterruptibles.awaitUninterruptibly(finishedTasks);
+
+      // re-add the unhandled states to the waitlist,
+      // their successors would otherwise be forgotten (which would be unsound)
+      for (int i = 0; i < batch.size(); i++) {
+        if (!handled[i]) {
+          reachedSet.reAddToWaitlist(batch.get(i));
+        }
       }
+    }
+  }
 
-      if (stop) {
-        logger.log(Level.FINER, "Successor is covered or unreachable, not adding to waitlist");
-        stats.countStop++;
+  /**
+   * Compute successors of a state and apply the precision adjustment to them.
+   * This method is called in worker threads.
+   */
+  private ComputedSuccessors computeSuccessors(
+      final AbstractState state,
+      final Precision precision,
+      final ReachedSet reachedSet,
+      final Lock readLock,
+      final WorkerTimers timers)
+      throws CPAException, InterruptedException {
 
-      } else {
-        logger.log(Level.FINER, "No need to stop, adding successor to waitlist");
+    Collection<? extends AbstractState> successors;
+    timers.transferTimer.start();
+    try {
+      successors = transferRelation.getAbstractSuccessors(state, precision);
+    } finally {
+      timers.transferTimer.stop();
+    }
 
-        stats.addTimer.start();
-        reachedSet.add(successor, successorPrecision);
-        stats.addTimer.stop();
+    ImmutableList.Builder<PrecisionAdjustmentResult> adjustedSuccessors = ImmutableList.builder();
+    timers.precisionTimer.start();
+    readLock.lock();
+    try {
+      for (AbstractState successor : successors) {
+        Optional<PrecisionAdjustmentResult> precAdjustmentOptional =
+            precisionAdjustment.prec(
+                successor, precision, reachedSet, Functions.<AbstractState>identity(), successor);
+        if (precAdjustmentOptional.isPresent()) {
+          adjustedSuccessors.add(precAdjustmentOptional.get());
+        }
       }
+    } finally {
+      readLock.unlock();
+      timers.precisionTimer.stop();
     }
 
+    return new ComputedSuccessors(successors.size(), adjustedSuccessors.build());
+  }
+
+  /**
+   * Handle successors that were computed by a worker thread.
+   * @return true if analysis should terminate, false if analysis should continue with next state
+   */
+  private boolean handleComputedSuccessors(
+      final AbstractState state, final ComputedSuccessors result, final ReachedSet reachedSet)
+      throws CPAException, InterruptedException {
+    logger.log(Level.FINER, "Current state has", result.numSuccessors, "successors");
+    stats.countSuccessors += result.numSuccessors;
+    stats.maxSuccessors = Math.max(result.numSuccessors, stats.maxSuccessors);
+
+    List<PrecisionAdjustmentResult> adjustedSuccessors = result.adjustedSuccessors;
+    for (int i = 0; i < adjustedSuccessors.size(); i++) {
+      PrecisionAdjustmentResult precAdjustmentResult = adjustedSuccessors.get(i);
+      logger.log(Level.ALL, "Successor of", state, "\nis", precAdjustmentResult.abstractState());
+
+      boolean hasUnhandledSuccessors = i < adjustedSuccessors.size() - 1;
+      if (handleSuccessor(state, precAdjustmentResult.abstractState(),
+          precAdjustmentResult.precision(), precAdjustmentResult.action(),
+          hasUnhandledSuccessors, reachedSet)) {
+        return true;
+      }
+    }
     return false;
   }
 
+  private static void waitForCompletion(Future<?> future) throws InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      // ignore, exceptions are handled by the caller of getResult()
+    }
+  }
+
+  private static <T> T getResult(Future<T> future) throws CPAException, InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+
+      throw new UnexpectedCheckedException("successor computation", t);
+    }
+  }
+
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     if (forcedCovering instanceof StatisticsProvider) {
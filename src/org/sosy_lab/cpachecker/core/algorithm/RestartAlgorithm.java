@@ -30,18 +30,35 @@ import static org.sosy_lab.cpachecker.util.AbstractStates.IS_TARGET_STATE;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -73,6 +90,7 @@ import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
@@ -88,6 +106,7 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     private final Collection<Statistics> subStats;
     private int noOfAlgorithmsUsed = 0;
     private Timer totalTime = new Timer();
+    private final Map<String, Long> cpuTimePerAnalysis = new LinkedHashMap<>();
 
     public RestartAlgorithmStatistics(int pNoOfAlgorithms) {
       noOfAlgorithms = pNoOfAlgorithms;
@@ -125,6 +144,10 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
       out.println("Number of algorithms provided:    " + noOfAlgorithms);
       out.println("Number of algorithms used:        " + noOfAlgorithmsUsed);
+      for (Entry<String, Long> cpuTime : cpuTimePerAnalysis.entrySet()) {
+        out.println(String.format("CPU time for %s: %.3fs",
+            cpuTime.getKey(), cpuTime.getValue() / 1e9));
+      }
 
       printSubStatistics(out, result, reached);
     }
@@ -152,6 +175,19 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<Path> configFiles;
 
+  @Option(secure=true, name="parallel",
+      description="Run all configurations concurrently (portfolio) instead of one after another,"
+          + " and use the result of the first configuration that finishes with a conclusive result."
+          + " Conditions of configuration files are ignored in this mode."
+          + " Note that resource limits of the configurations are still measured for the whole process.")
+  private boolean runInParallel = false;
+
+  @Option(secure=true, name="parallel.threads",
+      description="maximum number of configurations that are analyzed at the same time"
+          + " if restartAlgorithm.parallel is set (0 for all configurations at once)")
+  @IntegerOption(min=0)
+  private int parallelThreads = 0;
+
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final RestartAlgorithmStatistics stats;
@@ -189,6 +225,10 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     assert initialNodes != null : "Location information needed";
     CFANode mainFunction = Iterables.getOnlyElement(initialNodes);
 
+    if (runInParallel) {
+      return runInParallel(reached, mainFunction);
+    }
+
     PeekingIterator<Path> configFilesIterator = Iterators.peekingIterator(configFiles.iterator());
 
     AlgorithmStatus status = AlgorithmStatus.UNSOUND_AND_PRECISE;
@@ -210,7 +250,7 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
         singleConfigFileName = Paths.get(CONFIG_FILE_CONDITION_SPLITTER.split(singleConfigFileName.toString()).iterator().next());
 
         try {
-          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownManager);
+          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownManager, stats.getSubStatistics());
           currentAlgorithm = currentAlg.getFirst();
           currentCpa = currentAlg.getSecond();
           currentReached = currentAlg.getThird();
@@ -345,6 +385,170 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     return status;
   }
 
+  /** One analysis of the portfolio that is run by {@link RestartAlgorithm#runInParallel}. */
+  private static class ParallelAnalysis implements Callable<AlgorithmStatus> {
+
+    private final String name;
+    private final Algorithm algorithm;
+    private final @Nullable ConfigurableProgramAnalysis cpa;
+    private final ReachedSet reached;
+    private final ShutdownManager shutdownManager;
+    private final Collection<Statistics> statistics;
+
+    private volatile long cpuTime = -1;
+
+    private ParallelAnalysis(String pName, Algorithm pAlgorithm,
+        @Nullable ConfigurableProgramAnalysis pCpa, ReachedSet pReached,
+        ShutdownManager pShutdownManager, Collection<Statistics> pStatistics) {
+      name = pName;
+      algorithm = pAlgorithm;
+      cpa = pCpa;
+      reached = pReached;
+      shutdownManager = pShutdownManager;
+      statistics = pStatistics;
+    }
+
+    @Override
+    public AlgorithmStatus call() throws CPAException, InterruptedException {
+      ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+      long startCpuTime = threadBean.getCurrentThreadCpuTime();
+      try {
+        return algorithm.run(reached);
+      } finally {
+        if (startCpuTime >= 0) {
+          cpuTime = threadBean.getCurrentThreadCpuTime() - startCpuTime;
+        }
+      }
+    }
+
+    private boolean isConclusive(AlgorithmStatus pStatus) {
+      if (from(reached).anyMatch(IS_TARGET_STATE)) {
+        return pStatus.isPrecise();
+      }
+      return pStatus.isSound() && !reached.hasWaitingState();
+    }
+  }
+
+  /**
+   * Run all configurations concurrently, each with its own CPA, reached set,
+   * and child of our shutdown notifier. The CFA is shared (read-only).
+   * The first conclusive result is returned and the remaining analyses are stopped.
+   */
+  private AlgorithmStatus runInParallel(ForwardingReachedSet reached, CFANode mainFunction)
+      throws CPAException, InterruptedException {
+    stats.totalTime.start();
+    List<ParallelAnalysis> analyses = new ArrayList<>(configFiles.size());
+    for (Path configFile : configFiles) {
+      // extract first part out of file name
+      Path singleConfigFileName = Paths.get(CONFIG_FILE_CONDITION_SPLITTER.split(configFile.toString()).iterator().next());
+      ShutdownManager singleShutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+      // only the statistics of the selected analysis are printed, the others are closed before
+      Collection<Statistics> singleStats = new ArrayList<>();
+      try {
+        Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownManager, singleStats);
+        if (currentAlg.getFirst() instanceof StatisticsProvider) {
+          ((StatisticsProvider)currentAlg.getFirst()).collectStatistics(singleStats);
+        }
+        stats.noOfAlgorithmsUsed++;
+        analyses.add(new ParallelAnalysis("analysis " + stats.noOfAlgorithmsUsed + " (" + singleConfigFileName + ")",
+            currentAlg.getFirst(), currentAlg.getSecond(), currentAlg.getThird(), singleShutdownManager, singleStats));
+      } catch (InvalidConfigurationException e) {
+        singleShutdownManager.requestShutdown("Analysis skipped");
+        logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + singleConfigFileName.toString() + " is invalid");
+      } catch (IOException e) {
+        singleShutdownManager.requestShutdown("Analysis skipped");
+        logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + singleConfigFileName.toString() + " could not be read");
+      }
+    }
+
+    if (analyses.isEmpty()) {
+      stats.totalTime.stop();
+      logger.log(Level.INFO, "No further configuration available.");
+      return AlgorithmStatus.UNSOUND_AND_PRECISE;
+    }
+
+    int threads = parallelThreads == 0 ? analyses.size() : Math.min(parallelThreads, analyses.size());
+    ExecutorService executor = Executors.newFixedThreadPool(threads,
+        Threads.threadFactoryBuilder().setNameFormat("RestartAlgorithm analysis %d").setDaemon(true).build());
+    CompletionService<AlgorithmStatus> completionService = new ExecutorCompletionService<>(executor);
+    Map<Future<AlgorithmStatus>, ParallelAnalysis> futures = new HashMap<>();
+    ParallelAnalysis selected = null;
+
+    try {
+      for (ParallelAnalysis analysis : analyses) {
+        futures.put(completionService.submit(analysis), analysis);
+      }
+
+      AlgorithmStatus status = AlgorithmStatus.UNSOUND_AND_PRECISE;
+      CPAException lastException = null;
+      for (int i = 0; i < futures.size(); i++) {
+        Future<AlgorithmStatus> future = completionService.take();
+        ParallelAnalysis analysis = futures.get(future);
+        try {
+          AlgorithmStatus result = future.get();
+          status = result;
+          selected = analysis;
+          if (analysis.isConclusive(result)) {
+            logger.log(Level.INFO, "Using result of", analysis.name);
+            break;
+          }
+          logger.log(Level.INFO, "Result of", analysis.name, "is not conclusive.");
+
+        } catch (ExecutionException e) {
+          Throwable t = e.getCause();
+          if (t instanceof InterruptedException) {
+            shutdownNotifier.shutdownIfNecessary(); // check if we should also stop
+            logger.logUserException(Level.WARNING, t, "Analysis " + analysis.name + " stopped");
+          } else if (t instanceof CPAException) {
+            lastException = (CPAException) t;
+            logger.logUserException(Level.WARNING, t, "Analysis " + analysis.name + " not completed");
+          } else {
+            Throwables.propagateIfPossible(t);
+            throw new UnexpectedCheckedException("parallel analysis", t);
+          }
+        }
+      }
+
+      if (selected == null) {
+        if (lastException != null) {
+          throw lastException;
+        }
+        logger.log(Level.INFO, "No further configuration available.");
+        return status;
+      }
+
+      if (reached instanceof HistoryForwardingReachedSet) {
+        ((HistoryForwardingReachedSet) reached).saveCPA(selected.cpa);
+      }
+      reached.setDelegate(selected.reached);
+      currentAlgorithm = selected.algorithm;
+      stats.getSubStatistics().addAll(selected.statistics);
+      return status;
+
+    } finally {
+      for (ParallelAnalysis analysis : analyses) {
+        analysis.shutdownManager.requestShutdown("Analysis terminated"); // stop remaining analyses
+      }
+      executor.shutdown();
+      // the analyses use their CPAs until they terminate, so wait before closing them
+      while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+        logger.log(Level.FINEST, "Waiting for remaining analyses to terminate");
+      }
+      for (ParallelAnalysis analysis : analyses) {
+        if (analysis.cpuTime >= 0) {
+          stats.cpuTimePerAnalysis.put(analysis.name, analysis.cpuTime);
+        }
+        if (analysis != selected) {
+          if (analysis.cpa != null) {
+            CPAs.closeCpaIfPossible(analysis.cpa, logger);
+          }
+          CPAs.closeIfPossible(analysis.algorithm, logger);
+        }
+      }
+      stats.totalTime.stop();
+    }
+  }
+
   @Options
   private static class RestartAlgorithmOptions {
 
@@ -378,7 +582,7 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   }
 
-  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Path singleConfigFileName, CFANode mainFunction, ShutdownManager singleShutdownManager) throws InvalidConfigurationException, CPAException, IOException {
+  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Path singleConfigFileName, CFANode mainFunction, ShutdownManager singleShutdownManager, Collection<Statistics> pStatsCollection) throws InvalidConfigurationException, CPAException, IOException {
 
     ReachedSet reached;
     ConfigurableProgramAnalysis cpa;
@@ -407,7 +611,7 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       reached = new ReachedSetFactory(singleConfig).create();
     } else {
       ReachedSetFactory singleReachedSetFactory = new ReachedSetFactory(singleConfig);
-      cpa = createCPA(singleReachedSetFactory, singleConfig, singleLogger, singleShutdownManager.getNotifier(), stats);
+      cpa = createCPA(singleReachedSetFactory, singleConfig, singleLogger, singleShutdownManager.getNotifier(), pStatsCollection);
       algorithm = createAlgorithm(cpa, singleConfig, singleLogger, singleShutdownManager, singleReachedSetFactory, singleOptions);
       reached = createInitialReachedSetForRestart(cpa, mainFunction, singleReachedSetFactory, singleLogger);
     }
@@ -432,14 +636,14 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   private ConfigurableProgramAnalysis createCPA(ReachedSetFactory pReachedSetFactory,
       Configuration pConfig, LogManager singleLogger, ShutdownNotifier singleShutdownNotifier,
-      RestartAlgorithmStatistics stats) throws InvalidConfigurationException, CPAException {
+      Collection<Statistics> pStatsCollection) throws InvalidConfigurationException, CPAException {
     singleLogger.log(Level.FINE, "Creating CPAs");
 
     CPABuilder builder = new CPABuilder(pConfig, singleLogger, singleShutdownNotifier, pReachedSetFactory);
     ConfigurableProgramAnalysis cpa = builder.buildCPAWithSpecAutomatas(cfa);
 
     if (cpa instanceof StatisticsProvider) {
-      ((StatisticsProvider)cpa).collectStatistics(stats.getSubStatistics());
+      ((StatisticsProvider)cpa).collectStatistics(pStatsCollection);
     }
     return cpa;
   }
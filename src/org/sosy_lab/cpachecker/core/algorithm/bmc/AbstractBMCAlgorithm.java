@@ -29,18 +29,30 @@ import static org.sosy_lab.cpachecker.util.AbstractStates.*;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.ShutdownNotifier.ShutdownRequestListener;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPABuilder;
@@ -82,11 +94,14 @@ import org.sosy_lab.solver.api.SolverContext.ProverOptions;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 @Options(prefix="bmc")
-abstract class AbstractBMCAlgorithm implements StatisticsProvider {
+abstract class AbstractBMCAlgorithm implements StatisticsProvider, AutoCloseable {
 
   static final Predicate<AbstractState> IS_STOP_STATE =
     Predicates.compose(new Predicate<AssumptionStorageState>() {
@@ -114,12 +129,30 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
   @Option(secure=true, description="Propagates the interrupts of the invariant generator.")
   private boolean propagateInvGenInterrupts = false;
 
+  @Option(secure=true, description="Keep the program formulas of all unrolling steps on the "
+      + "solver stack and check each step under a fresh activation literal, "
+      + "such that the solver can reuse the information it learned in previous steps "
+      + "(the solver needs to support satisfiability checks with assumptions).")
+  private boolean incrementalSatCheck = false;
+
+  @Option(secure=true, description="Run the step case of the induction concurrently to the "
+      + "base case of the same bound, using its own solver instance. "
+      + "Invariants proven by the step case are only used after the base case succeeded.")
+  private boolean parallelInduction = false;
+
   protected final BMCStatistics stats;
   private final Algorithm algorithm;
   private final ConfigurableProgramAnalysis cpa;
 
-  private final ConfigurableProgramAnalysis stepCaseCPA;
-  private final Algorithm stepCaseAlgorithm;
+  private ConfigurableProgramAnalysis stepCaseCPA;
+  private Algorithm stepCaseAlgorithm;
+  private ShutdownManager stepCaseShutdownManager;
+
+  // only used if parallelInduction is enabled
+  private final ExecutorService stepCaseExecutor;
+
+  private final Configuration config;
+  private final ShutdownManager shutdownManager;
 
   protected final InvariantGenerator invariantGenerator;
 
@@ -138,6 +171,16 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
   private final ShutdownRequestListener propagateSafetyInterrupt;
 
+  private int literalCounter = 0;
+
+  /**
+   * For the incremental sat check: the literals that imply the violation of each candidate
+   * in each state. Their definitions are asserted on the prover of the current run.
+   * States for which the violation was already proven infeasible map to false.
+   */
+  private final Map<CandidateInvariant, Map<AbstractState, BooleanFormula>> violationLiterals =
+      new HashMap<>();
+
   protected AbstractBMCAlgorithm(Algorithm pAlgorithm, ConfigurableProgramAnalysis pCPA,
                       Configuration pConfig, LogManager pLogger,
                       ReachedSetFactory pReachedSetFactory,
@@ -153,7 +196,9 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     logger = pLogger;
     reachedSetFactory = pReachedSetFactory;
     cfa = pCFA;
+    config = pConfig;
 
+    shutdownManager = pShutdownManager;
     shutdownNotifier = pShutdownManager.getNotifier();
     targetLocationProvider = new CachingTargetLocationProvider(reachedSetFactory, shutdownNotifier, logger, pConfig, cfa);
 
@@ -161,17 +206,15 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
       induction = checkIfInductionIsPossible(pCFA, pLogger, Optional.of(targetLocationProvider));
     }
 
-    if (induction) {
-      LogManager stepCaseLogger = logger.withComponentName("InductionStepCase");
-      CPABuilder builder =
-          new CPABuilder(
-              pConfig, stepCaseLogger, pShutdownManager.getNotifier(), pReachedSetFactory);
-      stepCaseCPA = builder.buildCPAWithSpecAutomatas(cfa);
-      stepCaseAlgorithm =
-          CPAAlgorithm.create(stepCaseCPA, stepCaseLogger, pConfig, pShutdownManager.getNotifier());
+    if (induction && parallelInduction) {
+      stepCaseExecutor = Executors.newSingleThreadExecutor(
+          Threads.threadFactoryBuilder().setNameFormat("Induction step case").setDaemon(true).build());
     } else {
-      stepCaseCPA = null;
-      stepCaseAlgorithm = null;
+      stepCaseExecutor = null;
+    }
+
+    if (induction) {
+      buildStepCase();
     }
 
     ShutdownManager invariantGeneratorShutdownManager = pShutdownManager;
@@ -259,80 +302,120 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
       AlgorithmStatus status;
 
+      // the literals were defined only on the prover of the previous run
+      violationLiterals.clear();
+
+      if (stepCaseExecutor != null && stepCaseShutdownManager.getNotifier().shouldShutdown()) {
+        shutdownNotifier.shutdownIfNecessary();
+        // A step case of a previous run was cancelled, and shutdown requests are permanent.
+        CPAs.closeCpaIfPossible(stepCaseCPA, logger);
+        CPAs.closeIfPossible(stepCaseAlgorithm, logger);
+        try {
+          buildStepCase();
+        } catch (InvalidConfigurationException e) {
+          throw new CPAException("Could not rebuild the CPA for the induction step case", e);
+        }
+      }
+
       try (ProverEnvironment prover = solver.newProverEnvironment(ProverOptions.GENERATE_MODELS);
            @SuppressWarnings("resource")
           KInductionProver kInductionProver = createInductionProver()) {
 
-        do {
-          shutdownNotifier.shutdownIfNecessary();
-
-          logger.log(Level.INFO, "Creating formula for program");
-          status = BMCHelper.unroll(logger, reachedSet, algorithm, cpa);
-          if (from(reachedSet)
-              .skip(1) // first state of reached is always an abstraction state, so skip it
-              .transform(toState(PredicateAbstractState.class))
-              .anyMatch(FILTER_ABSTRACTION_STATES)) {
-
-            logger.log(Level.WARNING, "BMC algorithm does not work with abstractions. Could not check for satisfiability!");
-            return status;
-          }
-
-          if (invariantGenerator.isProgramSafe()) {
-            // The reachedSet might contain target states which would give a wrong
-            // indication of safety to the caller. So remove them.
-            for (CandidateInvariant candidateInvariant : candidateGenerator) {
-              candidateInvariant.assumeTruth(reachedSet);
+        Future<Boolean> stepCase = null;
+        try {
+          do {
+            shutdownNotifier.shutdownIfNecessary();
+
+            // The step case for the current bound does not depend on the base case,
+            // so in parallel mode it can be started right away.
+            Set<CandidateInvariant> stepCaseCandidates = null;
+            if (stepCaseExecutor != null) {
+              stepCaseCandidates = from(candidateGenerator).toSet();
+              stepCase = startStepCase(kInductionProver, stepCaseCandidates);
             }
-            return AlgorithmStatus.SOUND_AND_PRECISE;
-          }
 
-          // Perform a bounded model check on each candidate invariant
-          Iterator<CandidateInvariant> candidateInvariantIterator = candidateGenerator.iterator();
-          while (candidateInvariantIterator.hasNext()) {
-            CandidateInvariant candidateInvariant = candidateInvariantIterator.next();
-            // first check safety in k iterations
+            logger.log(Level.INFO, "Creating formula for program");
+            status = BMCHelper.unroll(logger, reachedSet, algorithm, cpa);
+            if (from(reachedSet)
+                .skip(1) // first state of reached is always an abstraction state, so skip it
+                .transform(toState(PredicateAbstractState.class))
+                .anyMatch(FILTER_ABSTRACTION_STATES)) {
 
-            boolean safe = boundedModelCheck(reachedSet, prover, candidateInvariant);
-            if (!safe) {
-              candidateInvariantIterator.remove();
+              logger.log(Level.WARNING, "BMC algorithm does not work with abstractions. Could not check for satisfiability!");
+              return status;
             }
 
             if (invariantGenerator.isProgramSafe()) {
+              // The reachedSet might contain target states which would give a wrong
+              // indication of safety to the caller. So remove them.
+              for (CandidateInvariant candidateInvariant : candidateGenerator) {
+                candidateInvariant.assumeTruth(reachedSet);
+              }
               return AlgorithmStatus.SOUND_AND_PRECISE;
             }
-          }
-
-          // second check soundness
-          boolean sound;
-
-          // verify soundness, but don't bother if we are unsound anyway or we have found a bug
-          if (status.isSound()) {
-
-            // check bounding assertions
-            sound = candidateGenerator.hasCandidatesAvailable() ? checkBoundingAssertions(reachedSet, prover) : true;
 
-            if (invariantGenerator.isProgramSafe()) {
-              return AlgorithmStatus.SOUND_AND_PRECISE;
+            // Perform a bounded model check on each candidate invariant
+            final TimeSpan satCheckTimeBefore = stats.satCheck.getSumTime();
+            Iterator<CandidateInvariant> candidateInvariantIterator = candidateGenerator.iterator();
+            while (candidateInvariantIterator.hasNext()) {
+              CandidateInvariant candidateInvariant = candidateInvariantIterator.next();
+              // first check safety in k iterations
+
+              boolean safe = boundedModelCheck(reachedSet, prover, candidateInvariant);
+              if (!safe) {
+                candidateInvariantIterator.remove();
+              }
+
+              if (invariantGenerator.isProgramSafe()) {
+                return AlgorithmStatus.SOUND_AND_PRECISE;
+              }
             }
-
-            // try to prove program safety via induction
-            if (induction) {
-              final int k = CPAs.retrieveCPA(cpa, BoundsCPA.class).getMaxLoopIterations();
-              sound = sound || kInductionProver.check(k, from(candidateGenerator).toSet());
-              candidateGenerator.confirmCandidates(kInductionProver.getConfirmedCandidates());
+            stats.addSatCheckTimeOfUnrolling(TimeSpan.ofNanos(
+                stats.satCheck.getSumTime().asNanos() - satCheckTimeBefore.asNanos()));
+
+            // second check soundness
+            boolean sound;
+
+            // verify soundness, but don't bother if we are unsound anyway or we have found a bug
+            if (status.isSound()) {
+
+              // check bounding assertions
+              sound = candidateGenerator.hasCandidatesAvailable() ? checkBoundingAssertions(reachedSet, prover) : true;
+
+              if (invariantGenerator.isProgramSafe()) {
+                return AlgorithmStatus.SOUND_AND_PRECISE;
+              }
+
+              // try to prove program safety via induction
+              if (induction) {
+                if (stepCase != null) {
+                  boolean stepCaseSound =
+                      joinStepCase(stepCase, kInductionProver, candidateGenerator, stepCaseCandidates);
+                  stepCase = null;
+                  sound = sound || stepCaseSound;
+                } else {
+                  final int k = CPAs.retrieveCPA(cpa, BoundsCPA.class).getMaxLoopIterations();
+                  sound = sound || kInductionProver.check(k, from(candidateGenerator).toSet());
+                }
+                candidateGenerator.confirmCandidates(kInductionProver.getConfirmedCandidates());
+              }
+              if (invariantGenerator.isProgramSafe()
+                  || (sound && !candidateGenerator.produceMoreCandidates())) {
+                return AlgorithmStatus.SOUND_AND_PRECISE;
+              }
             }
-            if (invariantGenerator.isProgramSafe()
-                || (sound && !candidateGenerator.produceMoreCandidates())) {
-              return AlgorithmStatus.SOUND_AND_PRECISE;
+
+            if (!candidateGenerator.hasCandidatesAvailable()) {
+              // no remaining invariants to be proven
+              return status;
             }
           }
-
-          if (!candidateGenerator.hasCandidatesAvailable()) {
-            // no remaining invariants to be proven
-            return status;
+          while (status.isSound() && adjustConditions());
+        } finally {
+          if (stepCase != null) {
+            cancelStepCase(stepCase);
           }
         }
-        while (status.isSound() && adjustConditions());
       }
 
       return AlgorithmStatus.UNSOUND_AND_PRECISE;
@@ -361,6 +444,94 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     }
   }
 
+  /**
+   * Builds the CPA and the algorithm for the step case of the induction.
+   * In parallel mode, they get a new shutdown manager
+   * such that the step case can be stopped if its result is not needed anymore.
+   */
+  private void buildStepCase() throws InvalidConfigurationException, CPAException {
+    if (stepCaseExecutor != null) {
+      stepCaseShutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+    } else {
+      stepCaseShutdownManager = shutdownManager;
+    }
+
+    LogManager stepCaseLogger = logger.withComponentName("InductionStepCase");
+    // The step case uses its own CPAs, and thus its own solver instance.
+    CPABuilder builder =
+        new CPABuilder(
+            config, stepCaseLogger, stepCaseShutdownManager.getNotifier(), reachedSetFactory);
+    stepCaseCPA = builder.buildCPAWithSpecAutomatas(cfa);
+    stepCaseAlgorithm =
+        CPAAlgorithm.create(
+            stepCaseCPA, stepCaseLogger, config, stepCaseShutdownManager.getNotifier());
+  }
+
+  /**
+   * Starts the step case of the induction for the current bound
+   * in the step-case thread.
+   */
+  private Future<Boolean> startStepCase(
+      final KInductionProver pKInductionProver, final Set<CandidateInvariant> pCandidates) {
+    final int k = CPAs.retrieveCPA(cpa, BoundsCPA.class).getMaxLoopIterations();
+    return stepCaseExecutor.submit(new Callable<Boolean>() {
+      @Override
+      public Boolean call() throws CPAException, InterruptedException, SolverException {
+        return pKInductionProver.check(k, pCandidates);
+      }
+    });
+  }
+
+  /**
+   * Waits for the step case that was started concurrently to the base case,
+   * and confirms the invariants it proved if the base case succeeded for all of them.
+   *
+   * @return whether the step case proved all remaining candidates.
+   */
+  private boolean joinStepCase(
+      Future<Boolean> pStepCase,
+      KInductionProver pKInductionProver,
+      CandidateGenerator pCandidateGenerator,
+      Set<CandidateInvariant> pStepCaseCandidates)
+      throws CPAException, InterruptedException, SolverException {
+    final boolean allProven;
+    stats.inductionWait.start();
+    try {
+      allProven = pStepCase.get();
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+      Throwables.propagateIfInstanceOf(t, SolverException.class);
+      throw new UnexpectedCheckedException("induction step case", t);
+    } finally {
+      stats.inductionWait.stop();
+    }
+
+    // The proofs of the step case may rely on each other,
+    // so none of them can be used if the base case failed for one candidate.
+    Set<CandidateInvariant> remainingCandidates = from(pCandidateGenerator).toSet();
+    if (remainingCandidates.containsAll(pStepCaseCandidates)) {
+      pKInductionProver.commitPendingCandidates();
+      return allProven;
+    } else {
+      pKInductionProver.discardPendingCandidates();
+      return false;
+    }
+  }
+
+  /**
+   * Stops the step case that was started concurrently to the base case
+   * and waits for its termination, such that its prover can be closed safely.
+   */
+  private void cancelStepCase(Future<Boolean> pStepCase) {
+    stepCaseShutdownManager.requestShutdown("Result of induction step case not needed");
+    try {
+      Uninterruptibles.getUninterruptibly(pStepCase);
+    } catch (ExecutionException e) {
+      logger.logDebugException(e.getCause(), "Induction step case terminated");
+    }
+  }
+
   private void removeMissingStatesFromARG(ReachedSet pReachedSet) {
     Collection<ARGState> missingChildren = new ArrayList<>();
     for (ARGState e : from(pReachedSet).transform(toState(ARGState.class))) {
@@ -405,13 +576,21 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
 
   protected boolean boundedModelCheck(final ReachedSet pReachedSet, final ProverEnvironment pProver, CandidateInvariant pInductionProblem) throws CPATransferException, InterruptedException, SolverException {
+    if (incrementalSatCheck) {
+      return incrementalBoundedModelCheck(pReachedSet, pProver, pInductionProblem);
+    }
     BooleanFormula program = bfmgr.not(pInductionProblem.getAssertion(pReachedSet, fmgr, pmgr, 0));
+
     logger.log(Level.INFO, "Starting satisfiability check...");
     stats.satCheck.start();
-    pProver.push(program);
-    boolean safe = pProver.isUnsat();
-    // Leave program formula on solver stack until error path is created
-    stats.satCheck.stop();
+    final boolean safe;
+    try {
+      // Leave program formula on solver stack until error path is created
+      pProver.push(program);
+      safe = pProver.isUnsat();
+    } finally {
+      stats.satCheck.stop();
+    }
 
     if (safe) {
       pInductionProblem.assumeTruth(pReachedSet);
@@ -425,6 +604,78 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     return safe;
   }
 
+  /**
+   * Bounded model check that never removes formulas from the solver.
+   * For each state that was added since the last check, a fresh literal is defined
+   * that implies the violation of the candidate in that state.
+   * Only the disjunction of these literals is guarded by an activation literal,
+   * which is passed as an assumption to the satisfiability check.
+   * Thus the solver keeps the path formulas and what it learned about them
+   * for the next unrolling steps, and each path formula is asserted only once.
+   */
+  private boolean incrementalBoundedModelCheck(
+      final ReachedSet pReachedSet,
+      final ProverEnvironment pProver,
+      final CandidateInvariant pInductionProblem)
+      throws CPATransferException, InterruptedException, SolverException {
+    Map<AbstractState, BooleanFormula> literals = violationLiterals.get(pInductionProblem);
+    if (literals == null) {
+      literals = new HashMap<>();
+      violationLiterals.put(pInductionProblem, literals);
+    }
+    // forget states that were removed from the reached set
+    literals.keySet().retainAll(pReachedSet.asCollection());
+
+    logger.log(Level.INFO, "Starting incremental satisfiability check...");
+    stats.satCheck.start();
+    final BooleanFormula activationLiteral;
+    final boolean safe;
+    try {
+      List<BooleanFormula> violations = new ArrayList<>();
+      for (AbstractState state : pReachedSet) {
+        BooleanFormula literal = literals.get(state);
+        if (literal == null) {
+          BooleanFormula violation = bfmgr.not(pInductionProblem.getAssertion(
+              Collections.singleton(state), fmgr, pmgr, 0));
+          if (bfmgr.isFalse(violation)) {
+            literal = violation;
+          } else {
+            literal = bfmgr.makeVariable("__bmc_violation_" + literalCounter++);
+            pProver.addConstraint(bfmgr.implication(literal, violation));
+          }
+          literals.put(state, literal);
+        }
+        if (!bfmgr.isFalse(literal)) {
+          violations.add(literal);
+        }
+      }
+
+      activationLiteral = bfmgr.makeVariable("__bmc_activation_" + literalCounter++);
+      pProver.addConstraint(bfmgr.implication(activationLiteral, bfmgr.or(violations)));
+      safe = pProver.isUnsatWithAssumptions(ImmutableList.of(activationLiteral));
+    } finally {
+      stats.satCheck.stop();
+    }
+
+    if (safe) {
+      // the violation will never be satisfiable, tell the solver to drop it
+      pProver.addConstraint(bfmgr.not(activationLiteral));
+      BooleanFormula infeasible = bfmgr.makeBoolean(false);
+      for (Map.Entry<AbstractState, BooleanFormula> entry : literals.entrySet()) {
+        entry.setValue(infeasible);
+      }
+      pInductionProblem.assumeTruth(pReachedSet);
+    } else {
+      // analyzeCounterexample expects the violation to be asserted
+      BooleanFormula program = bfmgr.not(pInductionProblem.getAssertion(pReachedSet, fmgr, pmgr, 0));
+      pProver.push(activationLiteral);
+      analyzeCounterexample(program, pReachedSet, pProver);
+      pProver.pop();
+    }
+
+    return safe;
+  }
+
   /**
    * This method is called after a violation has been found
    * (i.e., the bounded-model-checking formula was satisfied).
@@ -491,6 +742,17 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     }
   }
 
+  @Override
+  public void close() {
+    if (stepCaseExecutor != null) {
+      stepCaseExecutor.shutdownNow();
+    }
+    if (stepCaseCPA != null) {
+      CPAs.closeCpaIfPossible(stepCaseCPA, logger);
+      CPAs.closeIfPossible(stepCaseAlgorithm, logger);
+    }
+  }
+
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     if (algorithm instanceof StatisticsProvider) {
@@ -511,8 +773,9 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
         invariantGenerator,
         stats,
         reachedSetFactory,
-        shutdownNotifier,
-        getLoopHeads()) : null;
+        stepCaseShutdownManager.getNotifier(),
+        getLoopHeads(),
+        stepCaseExecutor != null) : null;
   }
 
   /**
@@ -41,7 +41,6 @@ import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
-import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
@@ -311,7 +310,7 @@ public class BMCAlgorithm extends AbstractBMCAlgorithm implements Algorithm {
             ARGState rootState =
                 AbstractStates.extractStateByType(pReached.getFirstState(), ARGState.class);
             if (rootState != null && invariantsExport != null) {
-              try (Writer w = Files.openOutputFile(invariantsExport)) {
+              try (Writer w = argPathExporter.openWitnessFile(invariantsExport)) {
                 argPathExporter.writeProofWitness(
                     w,
                     rootState,
@@ -353,5 +352,6 @@ public class BMCAlgorithm extends AbstractBMCAlgorithm implements Algorithm {
             return null; // return null because we do not print statistics
           }
         });
+    pStatsCollection.add(argPathExporter);
   }
 }
@@ -24,7 +24,11 @@
 package org.sosy_lab.cpachecker.core.algorithm.bmc;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -38,13 +42,31 @@ public class BMCStatistics implements Statistics {
 
   final Timer inductionPreparation = new Timer();
   final Timer inductionCheck = new Timer();
+  final Timer inductionWait = new Timer();
   private int inductionCutPoints = 0;
 
+  // sat-check time of each unrolling step
+  private final List<TimeSpan> satCheckTimesPerUnrolling = new ArrayList<>();
+
+  void addSatCheckTimeOfUnrolling(TimeSpan pTime) {
+    satCheckTimesPerUnrolling.add(pTime);
+  }
+
   @Override
   public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
     if (satCheck.getNumberOfIntervals() > 0) {
       out.println("Time for final sat check:            " + satCheck);
     }
+    if (!satCheckTimesPerUnrolling.isEmpty()) {
+      StringBuilder times = new StringBuilder();
+      for (TimeSpan time : satCheckTimesPerUnrolling) {
+        if (times.length() > 0) {
+          times.append(", ");
+        }
+        times.append(time.formatAs(TimeUnit.SECONDS));
+      }
+      out.println("Time for sat check per unrolling:    " + times);
+    }
     if (errorPathCreation.getNumberOfIntervals() > 0) {
       out.println("Time for error path creation:        " + errorPathCreation);
     }
@@ -56,6 +78,9 @@ public class BMCStatistics implements Statistics {
       out.println("Time for induction formula creation: " + inductionPreparation);
       out.println("Time for induction check:            " + inductionCheck);
     }
+    if (inductionWait.getNumberOfIntervals() > 0) {
+      out.println("Time waiting for step case:          " + inductionWait);
+    }
   }
 
   @Override
@@ -28,6 +28,7 @@ import static com.google.common.collect.FluentIterable.from;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -52,6 +53,7 @@ import org.sosy_lab.cpachecker.cpa.bounds.BoundsState;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
@@ -74,6 +76,7 @@ import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -133,12 +136,23 @@ class KInductionProver implements AutoCloseable {
   // The CandidateInvariants that have been proven to hold at the loop heads of {@link loop}.
   private final Set<CandidateInvariant> confirmedCandidates = new CopyOnWriteArraySet<>();
 
+  // The CandidateInvariants that have been proven by the last check,
+  // but that are not confirmed yet because the base case has not been checked.
+  // Only used if deferConfirmations is set.
+  private final Set<CandidateInvariant> pendingCandidates = new LinkedHashSet<>();
+
+  private final boolean deferConfirmations;
+
   private final ImmutableSet<CFANode> loopHeads;
 
   private boolean invariantGenerationRunning = true;
 
   /**
    * Creates an instance of the KInductionProver.
+   *
+   * @param pDeferConfirmations whether candidates proven by {@link #check}
+   * should only be confirmed by a call to {@link #commitPendingCandidates()}
+   * (this is necessary if the base case is checked concurrently to the step case).
   */
   public KInductionProver(
       CFA pCFA,
@@ -149,7 +163,8 @@ class KInductionProver implements AutoCloseable {
       BMCStatistics pStats,
       ReachedSetFactory pReachedSetFactory,
       ShutdownNotifier pShutdownNotifier,
-      Set<CFANode> pLoopHeads) {
+      Set<CFANode> pLoopHeads,
+      boolean pDeferConfirmations) {
     cfa = checkNotNull(pCFA);
     logger = checkNotNull(pLogger);
     algorithm = checkNotNull(pAlgorithm);
@@ -171,6 +186,7 @@ class KInductionProver implements AutoCloseable {
     expressionTreeSupplier = ExpressionTreeSupplier.TrivialInvariantSupplier.INSTANCE;
 
     loopHeads = ImmutableSet.copyOf(pLoopHeads);
+    deferConfirmations = pDeferConfirmations;
   }
 
   public Collection<CandidateInvariant> getConfirmedCandidates() {
@@ -306,6 +322,30 @@ class KInductionProver implements AutoCloseable {
     return invariant;
   }
 
+  /**
+   * Confirms the candidates proven by the last check.
+   * Must only be called if the base case of these candidates holds.
+   */
+  public void commitPendingCandidates() throws UnrecognizedCodeException {
+    Preconditions.checkState(deferConfirmations);
+    for (CandidateInvariant candidateInvariant : pendingCandidates) {
+      confirmedCandidates.add(candidateInvariant);
+
+      // Try to inject the new invariant into the invariant generator
+      candidateInvariant.attemptInjection(invariantGenerator);
+    }
+    pendingCandidates.clear();
+  }
+
+  /**
+   * Forgets the candidates proven by the last check,
+   * because the base case failed for at least one of the checked candidates.
+   */
+  public void discardPendingCandidates() {
+    Preconditions.checkState(deferConfirmations);
+    pendingCandidates.clear();
+  }
+
   private FluentIterable<LocationFormulaInvariant> getConfirmedCandidates(final CFANode pLocation) {
     return from(confirmedCandidates)
         .filter(LocationFormulaInvariant.class)
@@ -366,6 +406,7 @@ class KInductionProver implements AutoCloseable {
   public final boolean check(final int k,
       final Set<CandidateInvariant> candidateInvariants)
       throws CPAException, InterruptedException, SolverException {
+    Preconditions.checkState(pendingCandidates.isEmpty());
     stats.inductionPreparation.start();
 
     // Proving program safety with induction consists of two parts:
@@ -489,7 +530,7 @@ class KInductionProver implements AutoCloseable {
                   loopHeadStates, getCurrentLoopHeadInvariants(stopLocations), fmgr, 1));
       while (!isInvariant && !loopHeadInv.equals(oldLoopHeadInv)) {
         invariants = loopHeadInv;
-        for (CandidateInvariant ci : confirmedCandidates) {
+        for (CandidateInvariant ci : Iterables.concat(confirmedCandidates, pendingCandidates)) {
           invariants = bfmgr.and(invariants, ci.getAssertion(reached, fmgr, pfmgr, 1));
         }
         newInvariants = true;
@@ -512,11 +553,16 @@ class KInductionProver implements AutoCloseable {
       // problems to the set of solved problems
       if (isInvariant) {
         ++numberOfSuccessfulProofs;
-        confirmedCandidates.add(candidateInvariant);
         violationFormulas.remove(candidateInvariant);
 
-        // Try to inject the new invariant into the invariant generator
-        candidateInvariant.attemptInjection(invariantGenerator);
+        if (deferConfirmations) {
+          pendingCandidates.add(candidateInvariant);
+        } else {
+          confirmedCandidates.add(candidateInvariant);
+
+          // Try to inject the new invariant into the invariant generator
+          candidateInvariant.attemptInjection(invariantGenerator);
+        }
       }
       pop(); // Pop invariant successor violation
       pop(); // Pop invariant predecessor assertion
@@ -34,6 +34,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractWrapperState;
 import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
 import org.sosy_lab.cpachecker.core.interfaces.Property;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
 import org.sosy_lab.cpachecker.core.interfaces.Targetable;
 
 import com.google.common.base.Function;
@@ -44,7 +45,7 @@ import com.google.common.collect.ImmutableList;
  * Base class for AbstractStates which wrap the abstract state of exactly
  * one CPA.
  */
-public abstract class AbstractSingleWrapperState implements AbstractWrapperState, Targetable, Partitionable, Serializable {
+public abstract class AbstractSingleWrapperState implements AbstractWrapperState, Targetable, Partitionable, PseudoPartitionable, Serializable {
 
   private static final long serialVersionUID = -332757795984736107L;
   private static final Function<AbstractState, AbstractState> unwrapFunction
@@ -98,6 +99,24 @@ public abstract class AbstractSingleWrapperState implements AbstractWrapperState
     }
   }
 
+  @Override
+  public int getPseudoPartitionKey() {
+    if (wrappedState instanceof PseudoPartitionable) {
+      return ((PseudoPartitionable)wrappedState).getPseudoPartitionKey();
+    } else {
+      return PseudoPartitionable.UNKNOWN_KEY;
+    }
+  }
+
+  @Override
+  public long getPseudoPartitionSignature() {
+    if (wrappedState instanceof PseudoPartitionable) {
+      return ((PseudoPartitionable)wrappedState).getPseudoPartitionSignature();
+    } else {
+      return PseudoPartitionable.UNKNOWN_SIGNATURE;
+    }
+  }
+
   @Override
   public String toString() {
     return wrappedState.toString();
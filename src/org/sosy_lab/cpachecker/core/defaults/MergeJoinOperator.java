@@ -47,6 +47,9 @@ public class MergeJoinOperator implements MergeOperator {
   @Override
   public AbstractState merge(AbstractState el1, AbstractState el2, Precision p)
     throws CPAException, InterruptedException {
+    if (el1 == el2) {
+      return el2;
+    }
     return domain.join(el1, el2);
   }
 
@@ -51,7 +51,7 @@ public class StopSepOperator implements StopOperator {
     throws CPAException, InterruptedException {
 
     for (AbstractState reachedState : reached) {
-      if (domain.isLessOrEqual(el, reachedState)) {
+      if (el == reachedState || domain.isLessOrEqual(el, reachedState)) {
         return true;
       }
     }
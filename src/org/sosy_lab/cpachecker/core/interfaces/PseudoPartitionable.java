@@ -0,0 +1,63 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * Interface for abstract states that provide information for pruning the candidates
+ * of coverage checks, which is used by
+ * {@link org.sosy_lab.cpachecker.core.reachedset.PseudoPartitionedReachedSet}.
+ *
+ * In contrast to {@link Partitionable}, states with different keys may still cover each other.
+ * The key and the signature need to be monotone with respect to the coverage relation,
+ * i.e., for all states s and r, if s is less or equal than r (i.e., r covers s), then
+ * - the key of r is less or equal than the key of s, and
+ * - all bits set in the signature of r are also set in the signature of s.
+ *
+ * For example, for an analysis where a state with more tracked variables is less abstract,
+ * the key can be the number of tracked variables and the signature a bloom filter
+ * of the tracked variables.
+ *
+ * A state that cannot provide monotone values returns {@link #UNKNOWN_KEY}
+ * and {@link #UNKNOWN_SIGNATURE}. Such a state is compared with all states of its partition,
+ * and it is a candidate for covering every other state of its partition.
+ */
+public interface PseudoPartitionable {
+
+  /** The key of states that do not provide information for pruning. */
+  int UNKNOWN_KEY = Integer.MAX_VALUE;
+
+  /** The signature of states that do not provide information for pruning. */
+  long UNKNOWN_SIGNATURE = -1L;
+
+  /**
+   * Returns the key of this state, such that covering states always have a smaller or equal key.
+   */
+  int getPseudoPartitionKey();
+
+  /**
+   * Returns a bit-signature of this state, such that the signature of a covering state
+   * is a subset of the signature of this state.
+   */
+  long getPseudoPartitionSignature();
+}
@@ -0,0 +1,183 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+
+/**
+ * Special implementation of the reached set that partitions the set like
+ * {@link PartitionedReachedSet}, and additionally indexes each partition by the information
+ * that abstract states provide by implementing {@link PseudoPartitionable}.
+ *
+ * The method {@link #getReached(AbstractState)} returns only those states of the partition
+ * that may cover the given state, i.e., those with a smaller or equal key
+ * and a signature that is a subset of the signature of the given state.
+ * States with unknown key and signature (cf. {@link PseudoPartitionable#UNKNOWN_KEY})
+ * are never pruned.
+ * This is only correct for analyses that use merge-sep,
+ * because states that cannot cover the given state are also not returned as candidates for merging
+ * (cf. {@link ReachedSetFactory#checkCompatibility}).
+ */
+public class PseudoPartitionedReachedSet extends PartitionedReachedSet {
+
+  /** For each partition the states sorted by their key, together with their signature. */
+  private final Map<Object, NavigableMap<Integer, Map<AbstractState, Long>>> index = new HashMap<>();
+
+  /** The keys of the states at the time they were added. */
+  private final Map<AbstractState, Integer> pseudoPartitionKeys = new HashMap<>();
+
+  // statistics
+  private long numberOfQueries = 0;
+  private long numberOfStatesInQueriedPartitions = 0;
+  private long numberOfReturnedCandidates = 0;
+
+  public PseudoPartitionedReachedSet(WaitlistFactory waitlistFactory) {
+    super(waitlistFactory);
+  }
+
+  @Override
+  public void add(AbstractState pState, Precision pPrecision) {
+    super.add(pState, pPrecision);
+    if (pseudoPartitionKeys.containsKey(pState)) {
+      // the state was already contained, its key may have changed since
+      return;
+    }
+
+    PseudoPartitionable state = getPseudoPartitionable(pState);
+    int key = state.getPseudoPartitionKey();
+    pseudoPartitionKeys.put(pState, key);
+
+    Object partitionKey = getPartitionKey(pState);
+    NavigableMap<Integer, Map<AbstractState, Long>> partition = index.get(partitionKey);
+    if (partition == null) {
+      partition = new TreeMap<>();
+      index.put(partitionKey, partition);
+    }
+    Map<AbstractState, Long> states = partition.get(key);
+    if (states == null) {
+      states = new LinkedHashMap<>();
+      partition.put(key, states);
+    }
+    states.put(pState, state.getPseudoPartitionSignature());
+  }
+
+  @Override
+  public void remove(AbstractState pState) {
+    super.remove(pState);
+
+    Integer key = pseudoPartitionKeys.remove(pState);
+    if (key == null) {
+      return;
+    }
+    Object partitionKey = getPartitionKey(pState);
+    NavigableMap<Integer, Map<AbstractState, Long>> partition = index.get(partitionKey);
+    Map<AbstractState, Long> states = partition.get(key);
+    states.remove(pState);
+    if (states.isEmpty()) {
+      partition.remove(key);
+      if (partition.isEmpty()) {
+        index.remove(partitionKey);
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+
+    index.clear();
+    pseudoPartitionKeys.clear();
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(AbstractState pState) {
+    Object partitionKey = getPartitionKey(pState);
+    numberOfQueries++;
+
+    NavigableMap<Integer, Map<AbstractState, Long>> partition = index.get(partitionKey);
+    if (partition == null) {
+      return Collections.emptySet();
+    }
+    numberOfStatesInQueriedPartitions += getReachedForKey(partitionKey).size();
+
+    PseudoPartitionable state = getPseudoPartitionable(pState);
+    int key = state.getPseudoPartitionKey();
+    long signature = state.getPseudoPartitionSignature();
+
+    // for a state with unknown key and signature, this returns all states
+    List<AbstractState> candidates = new ArrayList<>();
+    for (Map<AbstractState, Long> states : partition.headMap(key, true).values()) {
+      for (Map.Entry<AbstractState, Long> entry : states.entrySet()) {
+        if ((entry.getValue() & ~signature) == 0) {
+          candidates.add(entry.getKey());
+        }
+      }
+    }
+
+    // states with unknown key and signature may cover every state
+    Map<AbstractState, Long> unknownStates = partition.get(PseudoPartitionable.UNKNOWN_KEY);
+    if (key != PseudoPartitionable.UNKNOWN_KEY && unknownStates != null) {
+      for (Map.Entry<AbstractState, Long> entry : unknownStates.entrySet()) {
+        if (entry.getValue() == PseudoPartitionable.UNKNOWN_SIGNATURE) {
+          candidates.add(entry.getKey());
+        }
+      }
+    }
+    numberOfReturnedCandidates += candidates.size();
+    return Collections.unmodifiableList(candidates);
+  }
+
+  private static PseudoPartitionable getPseudoPartitionable(AbstractState pState) {
+    assert pState instanceof PseudoPartitionable : "PseudoPartitionable states necessary for PseudoPartitionedReachedSet";
+    return (PseudoPartitionable)pState;
+  }
+
+  /** Returns the number of calls to {@link #getReached(AbstractState)}. */
+  public long getNumberOfQueries() {
+    return numberOfQueries;
+  }
+
+  /** Returns the sum of the sizes of all partitions for which {@link #getReached(AbstractState)} was called. */
+  public long getNumberOfStatesInQueriedPartitions() {
+    return numberOfStatesInQueriedPartitions;
+  }
+
+  /** Returns the total number of states that were returned by {@link #getReached(AbstractState)}. */
+  public long getNumberOfReturnedCandidates() {
+    return numberOfReturnedCandidates;
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+import com.google.common.collect.ImmutableList;
+
+public class PseudoPartitionedReachedSetTest {
+
+  private static class TestState implements AbstractState, Partitionable, PseudoPartitionable {
+    private final String partition;
+    private int key;
+    private long signature;
+
+    private TestState(String pPartition, int pKey, long pSignature) {
+      partition = pPartition;
+      key = pKey;
+      signature = pSignature;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return partition;
+    }
+
+    @Override
+    public int getPseudoPartitionKey() {
+      return key;
+    }
+
+    @Override
+    public long getPseudoPartitionSignature() {
+      return signature;
+    }
+
+    @Override
+    public String toString() {
+      return partition + ":" + key + ":" + Long.toBinaryString(signature);
+    }
+  }
+
+  private PseudoPartitionedReachedSet reached;
+
+  @Before
+  public void setUp() {
+    reached = new PseudoPartitionedReachedSet(TraversalMethod.DFS);
+  }
+
+  private void add(AbstractState pState) {
+    reached.add(pState, SingletonPrecision.getInstance());
+  }
+
+  @Test
+  public void testCandidatesAreFilteredByKeyAndSignature() {
+    TestState s1 = new TestState("p", 1, 0b01);
+    TestState s2 = new TestState("p", 2, 0b11);
+    TestState s3 = new TestState("p", 3, 0b01);
+    TestState s4 = new TestState("p", 1, 0b10);
+    TestState s5 = new TestState("p", 2, 0b00);
+    add(s1);
+    add(s2);
+    add(s3);
+    add(s4);
+    add(s5);
+
+    assertEquals(ImmutableList.of(s1, s5), reached.getReached(new TestState("p", 2, 0b01)));
+    assertEquals(ImmutableList.of(s1, s4, s2, s5, s3),
+        reached.getReached(new TestState("p", 3, 0b11)));
+    assertEquals(ImmutableList.of(), reached.getReached(new TestState("p", 0, 0b11)));
+  }
+
+  @Test
+  public void testOtherPartitionsAreNotReturned() {
+    TestState s1 = new TestState("p", 1, 0b01);
+    TestState s2 = new TestState("q", 1, 0b01);
+    add(s1);
+    add(s2);
+
+    assertEquals(ImmutableList.of(s1), reached.getReached(new TestState("p", 1, 0b01)));
+    assertTrue(reached.getReached(new TestState("r", 1, 0b01)).isEmpty());
+  }
+
+  @Test
+  public void testUnknownStatesAreNotPruned() {
+    TestState s1 = new TestState("p", 1, 0b01);
+    TestState s2 = new TestState("p", 5, 0b11);
+    TestState unknown = new TestState("p",
+        PseudoPartitionable.UNKNOWN_KEY, PseudoPartitionable.UNKNOWN_SIGNATURE);
+    add(s1);
+    add(unknown);
+    add(s2);
+
+    // a stored state with unknown values may cover every state
+    assertEquals(ImmutableList.of(unknown), reached.getReached(new TestState("p", 0, 0)));
+
+    // a queried state with unknown values may be covered by every state
+    assertEquals(ImmutableList.of(s1, s2, unknown), reached.getReached(new TestState("p",
+        PseudoPartitionable.UNKNOWN_KEY, PseudoPartitionable.UNKNOWN_SIGNATURE)));
+  }
+
+  @Test
+  public void testRemoveAfterKeyChange() {
+    TestState s1 = new TestState("p", 1, 0b01);
+    TestState s2 = new TestState("p", 2, 0b01);
+    add(s1);
+    add(s2);
+
+    // the index uses the values of the time the state was added
+    s1.key = 3;
+    add(s1);
+    assertEquals(ImmutableList.of(s1, s2), reached.getReached(new TestState("p", 2, 0b01)));
+
+    reached.remove(s1);
+    assertEquals(ImmutableList.of(s2), reached.getReached(new TestState("p", 3, 0b01)));
+
+    reached.remove(s2);
+    assertTrue(reached.getReached(new TestState("p", 3, 0b01)).isEmpty());
+    assertTrue(reached.isEmpty());
+
+    // the state can be added again with its new key
+    add(s1);
+    assertTrue(reached.getReached(new TestState("p", 2, 0b01)).isEmpty());
+    assertEquals(ImmutableList.of(s1), reached.getReached(new TestState("p", 3, 0b01)));
+  }
+
+  @Test
+  public void testClear() {
+    TestState s1 = new TestState("p", 1, 0b01);
+    add(s1);
+    add(new TestState("q", 1, 0b01));
+
+    reached.clear();
+    assertTrue(reached.getReached(new TestState("p", 1, 0b01)).isEmpty());
+    assertTrue(reached.getReached(new TestState("q", 1, 0b01)).isEmpty());
+
+    add(s1);
+    assertEquals(ImmutableList.of(s1), reached.getReached(new TestState("p", 1, 0b01)));
+  }
+}
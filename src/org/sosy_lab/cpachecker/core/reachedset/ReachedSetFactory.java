@@ -27,6 +27,8 @@ import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.waitlist.AutomatonFailedMatchesWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.AutomatonMatchesWaitlist;
 import org.sosy_lab.cpachecker.core.waitlist.CallstackSortedWaitlist;
@@ -43,7 +45,7 @@ import org.sosy_lab.cpachecker.cpa.automaton.AutomatonVariableWaitlist;
 public class ReachedSetFactory {
 
   private static enum ReachedSetType {
-    NORMAL, LOCATIONMAPPED, PARTITIONED
+    NORMAL, LOCATIONMAPPED, PARTITIONED, PSEUDOPARTITIONED
   }
 
   @Option(secure=true, name="traversal.order",
@@ -96,13 +98,32 @@ public class ReachedSetFactory {
       + "\nNORMAL: just a simple set"
       + "\nLOCATIONMAPPED: a different set per location "
       + "(faster, states with different locations cannot be merged)"
-      + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)")
+      + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)"
+      + "\nPSEUDOPARTITIONED: like PARTITIONED, but additionally prunes the candidates "
+      + "for coverage checks based on information from CPAs (requires merge-sep)")
   ReachedSetType reachedSet = ReachedSetType.PARTITIONED;
 
   public ReachedSetFactory(Configuration config) throws InvalidConfigurationException {
     config.inject(this);
   }
 
+  /**
+   * Check whether the reached sets created by this factory can be used
+   * for an analysis with the given CPA.
+   */
+  public void checkCompatibility(ConfigurableProgramAnalysis pCpa)
+      throws InvalidConfigurationException {
+    if (reachedSet == ReachedSetType.PSEUDOPARTITIONED
+        && pCpa.getMergeOperator() != MergeSepOperator.getInstance()) {
+      // getReached() returns only states that may cover the given state,
+      // so other states would be silently skipped as merge candidates
+      throw new InvalidConfigurationException(
+          "Reached set PSEUDOPARTITIONED can only be used with merge-sep,"
+              + " but the merge operator of the CPA is "
+              + pCpa.getMergeOperator().getClass().getSimpleName());
+    }
+  }
+
   public ReachedSet create() {
     WaitlistFactory waitlistFactory = traversalMethod;
 
@@ -139,6 +160,9 @@ public class ReachedSetFactory {
     case PARTITIONED:
       return new PartitionedReachedSet(waitlistFactory);
 
+    case PSEUDOPARTITIONED:
+      return new PseudoPartitionedReachedSet(waitlistFactory);
+
     case LOCATIONMAPPED:
       return new LocationMappedReachedSet(waitlistFactory);
 
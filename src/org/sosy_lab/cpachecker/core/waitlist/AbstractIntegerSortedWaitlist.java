@@ -0,0 +1,239 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.errorprone.annotations.ForOverride;
+
+/**
+ * Implementation of a sorted waitlist for small integer keys
+ * (like reverse-postorder ids or the depth of the callstack).
+ * It behaves like {@link AbstractSortedWaitlist}, but instead of a sorted map
+ * it uses an array of buckets that is indexed by the key,
+ * such that adding a state and finding the bucket with the highest key
+ * does not need to navigate a tree.
+ *
+ * The array covers the range of keys that were added since the waitlist was empty
+ * the last time, so the keys should not be spread too widely.
+ *
+ * The iterators created by this class are unmodifiable.
+ */
+public abstract class AbstractIntegerSortedWaitlist implements Waitlist {
+
+  private static final Waitlist[] EMPTY_BUCKETS = new Waitlist[0];
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final WaitlistFactory wrappedWaitlist;
+
+  // buckets[i] contains the states with key i+offset, or is null if there are none
+  private Waitlist[] buckets = EMPTY_BUCKETS;
+  private int offset = 0;
+
+  // index of the highest non-empty bucket, -1 if the waitlist is empty
+  private int highestIndex = -1;
+
+  private int size = 0;
+
+  /**
+   * Constructor that needs a factory for the waitlist implementation that
+   * should be used to store states with the same sorting key.
+   */
+  protected AbstractIntegerSortedWaitlist(WaitlistFactory pSecondaryStrategy) {
+    wrappedWaitlist = Preconditions.checkNotNull(pSecondaryStrategy);
+  }
+
+  /**
+   * Method that generates the sorting key for any abstract state.
+   * States with largest key are considered first.
+   * If this method throws an exception, no guarantees about the state of the
+   * current instance of this class are made.
+   */
+  @ForOverride
+  protected abstract int getSortKey(AbstractState pState);
+
+  /**
+   * Get the index of the bucket for a key, growing the array if necessary.
+   */
+  private int getIndexForAdding(int pKey) {
+    if (size == 0) {
+      // no buckets are in use, so we can move the range of the array freely
+      if (buckets.length == 0) {
+        buckets = new Waitlist[INITIAL_CAPACITY];
+      }
+      offset = pKey;
+      return 0;
+    }
+
+    int index = pKey - offset;
+    if (index < 0) {
+      // grow at the front
+      int shift = Math.max(-index, buckets.length);
+      Waitlist[] newBuckets = new Waitlist[buckets.length + shift];
+      System.arraycopy(buckets, 0, newBuckets, shift, buckets.length);
+      buckets = newBuckets;
+      offset -= shift;
+      highestIndex += shift;
+      index += shift;
+
+    } else if (index >= buckets.length) {
+      // grow at the end
+      buckets = Arrays.copyOf(buckets, Math.max(index + 1, 2 * buckets.length));
+    }
+    return index;
+  }
+
+  /**
+   * Get the bucket for a key, or null if there is none.
+   */
+  private Waitlist getBucket(int pKey) {
+    int index = pKey - offset;
+    if (index < 0 || index >= buckets.length) {
+      return null;
+    }
+    return buckets[index];
+  }
+
+  /**
+   * Remove the empty bucket at the given index
+   * and update the index of the highest non-empty bucket.
+   *
+   * Finding the next non-empty bucket scans downwards over empty buckets,
+   * which is linear in the range of keys in the worst case (e.g., for the keys 0 and 1000).
+   * However, the highest index only grows when states are added,
+   * so all scans between two additions of states with a higher key
+   * together visit each bucket at most once.
+   */
+  private void removeBucket(int pIndex) {
+    assert buckets[pIndex].isEmpty();
+    buckets[pIndex] = null;
+    if (pIndex == highestIndex) {
+      do {
+        highestIndex--;
+      } while (highestIndex >= 0 && buckets[highestIndex] == null);
+    }
+  }
+
+  @Override
+  public void add(AbstractState pState) {
+    int index = getIndexForAdding(getSortKey(pState));
+    Waitlist localWaitlist = buckets[index];
+    if (localWaitlist == null) {
+      localWaitlist = wrappedWaitlist.createWaitlistInstance();
+      buckets[index] = localWaitlist;
+    } else {
+      assert !localWaitlist.isEmpty();
+    }
+    localWaitlist.add(pState);
+    size++;
+    highestIndex = Math.max(highestIndex, index);
+  }
+
+  @Override
+  public boolean contains(AbstractState pState) {
+    Waitlist localWaitlist = getBucket(getSortKey(pState));
+    if (localWaitlist == null) {
+      return false;
+    }
+    assert !localWaitlist.isEmpty();
+    return localWaitlist.contains(pState);
+  }
+
+  @Override
+  public void clear() {
+    buckets = EMPTY_BUCKETS;
+    offset = 0;
+    highestIndex = -1;
+    size = 0;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    assert (highestIndex == -1) == (size == 0);
+    return size == 0;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return Iterators.unmodifiableIterator(
+        Iterables.concat(
+            Iterables.filter(Arrays.asList(buckets), Predicates.notNull())).iterator());
+  }
+
+  @Override
+  public final AbstractState pop() {
+    Waitlist localWaitlist = buckets[highestIndex];
+    assert !localWaitlist.isEmpty();
+    AbstractState result = localWaitlist.pop();
+    if (localWaitlist.isEmpty()) {
+      removeBucket(highestIndex);
+    }
+    size--;
+    return result;
+  }
+
+  @Override
+  public boolean remove(AbstractState pState) {
+    int key = getSortKey(pState);
+    Waitlist localWaitlist = getBucket(key);
+    if (localWaitlist == null) {
+      return false;
+    }
+    assert !localWaitlist.isEmpty();
+    boolean result = localWaitlist.remove(pState);
+    if (result) {
+      if (localWaitlist.isEmpty()) {
+        removeBucket(key - offset);
+      }
+      size--;
+    }
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int i = 0; i < buckets.length; i++) {
+      if (buckets[i] != null) {
+        if (sb.length() > 1) {
+          sb.append(", ");
+        }
+        sb.append(i + offset).append('=').append(buckets[i]);
+      }
+    }
+    return sb.append('}').toString();
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+public class AbstractIntegerSortedWaitlistTest {
+
+  private static class KeyedState implements AbstractState {
+    private final int key;
+
+    private KeyedState(int pKey) {
+      key = pKey;
+    }
+
+    @Override
+    public String toString() {
+      return "S" + key + "@" + Integer.toHexString(System.identityHashCode(this));
+    }
+  }
+
+  private static class IntegerSortedWaitlist extends AbstractIntegerSortedWaitlist {
+    private IntegerSortedWaitlist() {
+      super(TraversalMethod.DFS);
+    }
+
+    @Override
+    protected int getSortKey(AbstractState pState) {
+      return ((KeyedState) pState).key;
+    }
+  }
+
+  /** The map-based implementation, which is used as reference. */
+  private static class ReferenceWaitlist extends AbstractSortedWaitlist<Integer> {
+    private ReferenceWaitlist() {
+      super(TraversalMethod.DFS);
+    }
+
+    @Override
+    protected Integer getSortKey(AbstractState pState) {
+      return ((KeyedState) pState).key;
+    }
+  }
+
+  @Test
+  public void testPopOrder() {
+    Waitlist waitlist = new IntegerSortedWaitlist();
+    KeyedState s3a = new KeyedState(3);
+    KeyedState s3b = new KeyedState(3);
+    KeyedState s7 = new KeyedState(7);
+    KeyedState sMinus2 = new KeyedState(-2);
+    KeyedState s40 = new KeyedState(40);
+
+    waitlist.add(s3a);
+    waitlist.add(s7);
+    waitlist.add(sMinus2); // grows at the front
+    waitlist.add(s3b);
+    waitlist.add(s40); // grows at the end
+    assertEquals(5, waitlist.size());
+
+    // highest key first, states with the same key in DFS order
+    assertSame(s40, waitlist.pop());
+    assertSame(s7, waitlist.pop());
+    assertSame(s3b, waitlist.pop());
+    assertSame(s3a, waitlist.pop());
+    assertSame(sMinus2, waitlist.pop());
+    assertTrue(waitlist.isEmpty());
+  }
+
+  @Test
+  public void testRemoveEmptiesBuckets() {
+    Waitlist waitlist = new IntegerSortedWaitlist();
+    KeyedState s1 = new KeyedState(1);
+    KeyedState s5 = new KeyedState(5);
+    KeyedState s9 = new KeyedState(9);
+    waitlist.add(s1);
+    waitlist.add(s5);
+    waitlist.add(s9);
+
+    assertFalse(waitlist.remove(new KeyedState(9)));
+    assertFalse(waitlist.remove(new KeyedState(100)));
+    assertFalse(waitlist.remove(new KeyedState(-100)));
+
+    // removing the only state with the highest key empties its bucket
+    assertTrue(waitlist.remove(s9));
+    assertFalse(waitlist.contains(s9));
+    assertEquals("{1=[" + s1 + "], 5=[" + s5 + "]}", waitlist.toString());
+    assertSame(s5, waitlist.pop());
+
+    assertTrue(waitlist.remove(s1));
+    assertTrue(waitlist.isEmpty());
+    assertEquals(0, waitlist.size());
+    assertEquals("{}", waitlist.toString());
+
+    // an empty waitlist can be reused with keys from a different range
+    KeyedState s1000 = new KeyedState(1000);
+    KeyedState s999 = new KeyedState(999);
+    waitlist.add(s1000);
+    waitlist.add(s999);
+    assertSame(s1000, waitlist.pop());
+    assertSame(s999, waitlist.pop());
+    assertTrue(waitlist.isEmpty());
+  }
+
+  @Test
+  public void testClear() {
+    Waitlist waitlist = new IntegerSortedWaitlist();
+    waitlist.add(new KeyedState(2));
+    waitlist.add(new KeyedState(4));
+    waitlist.clear();
+    assertTrue(waitlist.isEmpty());
+    assertFalse(waitlist.iterator().hasNext());
+
+    KeyedState s3 = new KeyedState(3);
+    waitlist.add(s3);
+    assertSame(s3, waitlist.pop());
+  }
+
+  @Test
+  public void testRandomOperationsMatchSortedWaitlist() {
+    Random random = new Random(0);
+    for (int run = 0; run < 100; run++) {
+      Waitlist waitlist = new IntegerSortedWaitlist();
+      Waitlist reference = new ReferenceWaitlist();
+      List<KeyedState> added = new ArrayList<>();
+      int keyRange = 1 + random.nextInt(run < 50 ? 10 : 1000);
+      int keyOffset = random.nextInt(2 * keyRange) - keyRange;
+
+      for (int op = 0; op < 500; op++) {
+        int choice = random.nextInt(10);
+        if (choice < 5 || added.isEmpty()) {
+          KeyedState state = new KeyedState(keyOffset + random.nextInt(keyRange));
+          waitlist.add(state);
+          reference.add(state);
+          added.add(state);
+
+        } else if (choice < 7) {
+          if (!reference.isEmpty()) {
+            assertSame(reference.pop(), waitlist.pop());
+          }
+
+        } else if (choice < 9) {
+          KeyedState state = added.get(random.nextInt(added.size()));
+          assertEquals(reference.remove(state), waitlist.remove(state));
+
+        } else {
+          KeyedState state = added.get(random.nextInt(added.size()));
+          assertEquals(reference.contains(state), waitlist.contains(state));
+        }
+
+        assertEquals(reference.size(), waitlist.size());
+        assertEquals(reference.isEmpty(), waitlist.isEmpty());
+      }
+
+      while (!reference.isEmpty()) {
+        assertSame(reference.pop(), waitlist.pop());
+      }
+      assertTrue(waitlist.isEmpty());
+    }
+  }
+}
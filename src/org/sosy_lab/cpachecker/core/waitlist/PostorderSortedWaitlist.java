@@ -26,7 +26,7 @@ package org.sosy_lab.cpachecker.core.waitlist;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 
-public class PostorderSortedWaitlist extends AbstractSortedWaitlist<Integer> {
+public class PostorderSortedWaitlist extends AbstractIntegerSortedWaitlist {
 
   protected PostorderSortedWaitlist(WaitlistFactory pSecondaryStrategy) {
     super(pSecondaryStrategy);
@@ -39,7 +39,7 @@ public class PostorderSortedWaitlist extends AbstractSortedWaitlist<Integer> {
   }
 
   @Override
-  protected Integer getSortKey(AbstractState pState) {
+  protected int getSortKey(AbstractState pState) {
     return 0 - AbstractStates.extractLocation(pState).getReversePostorderId();
   }
 
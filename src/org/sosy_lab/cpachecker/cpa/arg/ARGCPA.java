@@ -116,9 +116,11 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
   private final PrecisionAdjustment precisionAdjustment;
   private final Reducer reducer;
   private final ARGStatistics stats;
+  private final ARGLogWriter argLog;
   private final ProofChecker wrappedProofChecker;
 
   private final CEXExporter cexExporter;
+  private final ARGPathExporter argPathExporter;
   private final Map<ARGState, CounterexampleInfo> counterexamples = new WeakHashMap<>();
   private final MachineModel machineModel;
 
@@ -153,6 +155,8 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
       this.wrappedProofChecker = null;
     }
 
+    argLog = new ARGLogWriter(config, logger);
+
     MergeOperator wrappedMerge = getWrappedCpa().getMergeOperator();
     if (wrappedMerge == MergeSepOperator.getInstance()) {
       mergeOperator = MergeSepOperator.getInstance();
@@ -160,12 +164,12 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
       if (inCPAEnabledAnalysis) {
         mergeOperator = new ARGMergeJoinCPAEnabledAnalysis(wrappedMerge, deleteInCPAEnabledAnalysis);
       } else {
-        mergeOperator = new ARGMergeJoin(wrappedMerge);
+        mergeOperator = new ARGMergeJoin(wrappedMerge, argLog);
       }
     }
-    stopOperator = new ARGStopSep(getWrappedCpa().getStopOperator(), logger, config);
+    stopOperator = new ARGStopSep(getWrappedCpa().getStopOperator(), logger, config, argLog);
     cexFilter = createCounterexampleFilter(config, logger, cpa);
-    ARGPathExporter argPathExporter = new ARGPathExporter(config, logger, cfa);
+    argPathExporter = new ARGPathExporter(config, logger, cfa);
     cexExporter = new CEXExporter(config, logger, argPathExporter);
     stats = new ARGStatistics(config, logger, this, cfa.getMachineModel(),
         dumpErrorPathImmediately ? null : cexExporter, argPathExporter);
@@ -239,6 +243,7 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(stats);
+    pStatsCollection.add(argPathExporter);
     super.collectStatistics(pStatsCollection);
   }
 
@@ -273,6 +278,10 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
     return stats.getRefinementGraphWriter();
   }
 
+  ARGLogWriter getARGLogWriter() {
+    return argLog;
+  }
+
   @Override
   public boolean areAbstractSuccessors(AbstractState pElement, CFAEdge pCfaEdge,
       Collection<? extends AbstractState> pSuccessors) throws CPATransferException, InterruptedException {
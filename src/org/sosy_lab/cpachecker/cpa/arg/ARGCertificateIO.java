@@ -0,0 +1,223 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Reads and writes ARGs as a flat table of states followed by a table of edges.
+ *
+ * Default serialization of an {@link ARGState} recursively follows its children,
+ * which needs stack space proportional to the depth of the ARG
+ * and stores the bookkeeping of the ArrayLists for every state.
+ * This format writes only the wrapped states (still with Java serialization,
+ * such that shared objects are written only once) and refers to ARG states
+ * by their index in the state table.
+ *
+ * ARGs that contain subclasses of {@link ARGState}, which may have additional fields,
+ * are written with default serialization instead.
+ */
+public final class ARGCertificateIO {
+
+  private static final int MAGIC = 0x41524743; // "ARGC"
+  private static final int FORMAT_VERSION = 2;
+
+  private static final int ENCODING_TABLES = 0;
+  private static final int ENCODING_SERIALIZED = 1;
+
+  private static final int FLAG_HAS_COVERED_PARENT = 1;
+  private static final int FLAG_WAS_EXPANDED = 2;
+  private static final int FLAG_NOT_COVERING = 4;
+
+  private ARGCertificateIO() { }
+
+  /**
+   * Write all states reachable from the given roots
+   * (via children and coverage relations) to the stream.
+   */
+  public static void writeARGs(ObjectOutputStream pOut, Collection<ARGState> pRoots)
+      throws IOException {
+    List<ARGState> states = new ArrayList<>();
+    Map<ARGState, Integer> index = new HashMap<>();
+    boolean onlyPlainStates = true;
+    Deque<ARGState> toVisit = new ArrayDeque<>(pRoots);
+    while (!toVisit.isEmpty()) {
+      ARGState state = toVisit.poll();
+      if (index.containsKey(state)) {
+        continue;
+      }
+      onlyPlainStates &= state.getClass() == ARGState.class;
+      index.put(state, states.size());
+      states.add(state);
+      toVisit.addAll(state.getChildren());
+      if (state.isCovered()) {
+        toVisit.add(state.getCoveringState());
+      }
+    }
+
+    pOut.writeInt(MAGIC);
+    pOut.writeInt(FORMAT_VERSION);
+
+    if (!onlyPlainStates) {
+      // subclasses may have additional state that the tables do not contain
+      pOut.writeByte(ENCODING_SERIALIZED);
+      pOut.writeObject(new ArrayList<>(pRoots));
+      return;
+    }
+    pOut.writeByte(ENCODING_TABLES);
+
+    pOut.writeInt(states.size());
+    for (ARGState state : states) {
+      pOut.writeObject(state.getWrappedState());
+      int flags = 0;
+      if (state.hasCoveredParent()) {
+        flags |= FLAG_HAS_COVERED_PARENT;
+      }
+      if (state.wasExpanded()) {
+        flags |= FLAG_WAS_EXPANDED;
+      }
+      if (!state.mayCover() && !state.isCovered() && !state.hasCoveredParent()) {
+        flags |= FLAG_NOT_COVERING;
+      }
+      pOut.writeByte(flags);
+    }
+
+    // parents are written in their order, which the ARG would otherwise not preserve,
+    // but only if they were reached from the roots
+    List<Integer> parents = new ArrayList<>();
+    for (ARGState state : states) {
+      parents.clear();
+      for (ARGState parent : state.getParents()) {
+        Integer parentIndex = index.get(parent);
+        if (parentIndex != null) {
+          parents.add(parentIndex);
+        }
+      }
+      pOut.writeInt(parents.size());
+      for (int parentIndex : parents) {
+        pOut.writeInt(parentIndex);
+      }
+      pOut.writeInt(state.isCovered() ? index.get(state.getCoveringState()) : -1);
+    }
+
+    pOut.writeInt(pRoots.size());
+    for (ARGState root : pRoots) {
+      pOut.writeInt(index.get(root));
+    }
+  }
+
+  /**
+   * Read ARGs that were written with {@link #writeARGs(ObjectOutputStream, Collection)}.
+   * @return The roots in the same order in which they were given when writing.
+   */
+  public static List<ARGState> readARGs(ObjectInputStream pIn)
+      throws IOException, ClassNotFoundException {
+    if (pIn.readInt() != MAGIC) {
+      throw new StreamCorruptedException("Proof does not contain an ARG certificate");
+    }
+    int version = pIn.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new StreamCorruptedException("Unsupported version " + version + " of ARG certificate");
+    }
+
+    int encoding = pIn.readByte();
+    if (encoding == ENCODING_SERIALIZED) {
+      @SuppressWarnings("unchecked")
+      List<ARGState> roots = (List<ARGState>) pIn.readObject();
+      return ImmutableList.copyOf(roots);
+    } else if (encoding != ENCODING_TABLES) {
+      throw new StreamCorruptedException("Unsupported encoding " + encoding + " of ARG certificate");
+    }
+
+    ARGState[] states = new ARGState[readCount(pIn)];
+    int[] flags = new int[states.length];
+    for (int i = 0; i < states.length; i++) {
+      states[i] = new ARGState((AbstractState) pIn.readObject(), null);
+      flags[i] = pIn.readByte();
+    }
+
+    for (ARGState state : states) {
+      int numParents = readCount(pIn);
+      for (int i = 0; i < numParents; i++) {
+        state.addParent(readState(pIn, states));
+      }
+      int covering = pIn.readInt();
+      if (covering >= 0) {
+        state.setCovered(readState(covering, states));
+      }
+    }
+
+    for (int i = 0; i < states.length; i++) {
+      if ((flags[i] & FLAG_HAS_COVERED_PARENT) != 0) {
+        states[i].setHasCoveredParent(true);
+      }
+      if ((flags[i] & FLAG_WAS_EXPANDED) != 0) {
+        states[i].markExpanded();
+      }
+      if ((flags[i] & FLAG_NOT_COVERING) != 0) {
+        states[i].setNotCovering();
+      }
+    }
+
+    int numRoots = readCount(pIn);
+    ImmutableList.Builder<ARGState> roots = ImmutableList.builder();
+    for (int i = 0; i < numRoots; i++) {
+      roots.add(readState(pIn, states));
+    }
+    return roots.build();
+  }
+
+  private static int readCount(ObjectInputStream pIn) throws IOException {
+    int count = pIn.readInt();
+    if (count < 0) {
+      throw new StreamCorruptedException("Invalid size " + count + " in ARG certificate");
+    }
+    return count;
+  }
+
+  private static ARGState readState(ObjectInputStream pIn, ARGState[] pStates) throws IOException {
+    return readState(pIn.readInt(), pStates);
+  }
+
+  private static ARGState readState(int pIndex, ARGState[] pStates) throws IOException {
+    if (pIndex < 0 || pIndex >= pStates.length) {
+      throw new StreamCorruptedException("Invalid state reference " + pIndex + " in ARG certificate");
+    }
+    return pStates[pIndex];
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.BitSet;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+
+/**
+ * Writes the ARG to a line-based file while it is being constructed,
+ * such that long-running analyses can be inspected before they finish
+ * and without building the whole ARG representation in memory at the end.
+ *
+ * The file is append-only and contains one event per line:
+ * <ul>
+ * <li><code>S id location</code> (followed by <code>T</code> for target states)
+ * for a state that was added to the reached set,</li>
+ * <li><code>E parent child label</code> for an edge of the ARG,</li>
+ * <li><code>C covered covering</code> for a coverage relation.</li>
+ * </ul>
+ * States that are later removed from the ARG (e.g., by refinements) stay in the file.
+ * The script <code>scripts/arg-log-to-dot.py</code> converts such a file to DOT.
+ */
+@Options(prefix="cpa.arg.log")
+class ARGLogWriter {
+
+  private static final String FORMAT_HEADER = "# CPAchecker ARG log, version 1";
+
+  @Option(secure=true, name="file",
+      description="write all states and edges of the ARG to this file while the analysis runs")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path logFile = null;
+
+  @Option(secure=true, name="flushInterval",
+      description="number of states after which the ARG log file is flushed")
+  @IntegerOption(min=1)
+  private int flushInterval = 10000;
+
+  private final LogManager logger;
+
+  private @Nullable Writer out = null;
+
+  /** Ids of the states that were already written. */
+  private final BitSet writtenStates = new BitSet();
+  private int statesSinceLastFlush = 0;
+
+  ARGLogWriter(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+
+    if (logFile != null) {
+      try {
+        out = Files.openOutputFile(logFile);
+        out.append(FORMAT_HEADER).append('\n');
+      } catch (IOException e) {
+        handleException(e);
+      }
+    }
+  }
+
+  boolean isEnabled() {
+    return out != null;
+  }
+
+  /**
+   * Write a state that is added to the reached set,
+   * together with the edges from its parents.
+   */
+  void stateAdded(ARGState pState) {
+    if (out == null) {
+      return;
+    }
+    try {
+      for (ARGState parent : pState.getParents()) {
+        // parents are usually written already, except for the root state
+        writeState(parent);
+      }
+      writeState(pState);
+      for (ARGState parent : pState.getParents()) {
+        writeEdge(parent, pState);
+      }
+
+      if (++statesSinceLastFlush >= flushInterval) {
+        statesSinceLastFlush = 0;
+        out.flush();
+      }
+    } catch (IOException e) {
+      handleException(e);
+    }
+  }
+
+  /**
+   * Write a coverage relation.
+   */
+  void stateCovered(ARGState pCovered, ARGState pCovering) {
+    if (out == null) {
+      return;
+    }
+    try {
+      writeState(pCovered);
+      for (ARGState parent : pCovered.getParents()) {
+        writeEdge(parent, pCovered);
+      }
+      out.append("C ").append(Integer.toString(pCovered.getStateId()))
+         .append(' ').append(Integer.toString(pCovering.getStateId())).append('\n');
+    } catch (IOException e) {
+      handleException(e);
+    }
+  }
+
+  private void writeState(ARGState pState) throws IOException {
+    if (writtenStates.get(pState.getStateId())) {
+      return;
+    }
+    writtenStates.set(pState.getStateId());
+
+    CFANode location = AbstractStates.extractLocation(pState);
+    out.append("S ").append(Integer.toString(pState.getStateId()))
+       .append(' ').append(location == null ? "-" : location.toString());
+    if (pState.isTarget()) {
+      out.append(" T");
+    }
+    out.append('\n');
+  }
+
+  private void writeEdge(ARGState pParent, ARGState pChild) throws IOException {
+    out.append("E ").append(Integer.toString(pParent.getStateId()))
+       .append(' ').append(Integer.toString(pChild.getStateId()));
+    CFAEdge edge = pParent.getEdgeToChild(pChild);
+    if (edge != null) {
+      out.append(" Line ").append(Integer.toString(edge.getLineNumber())).append(": ")
+         .append(edge.getDescription().replace('\n', ' '));
+    }
+    out.append('\n');
+  }
+
+  /**
+   * Flush and close the file, no more events are written afterwards.
+   */
+  void close() {
+    if (out == null) {
+      return;
+    }
+    try {
+      out.close();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write ARG log to file");
+    }
+    out = null;
+  }
+
+  private void handleException(IOException e) {
+    logger.logUserException(Level.WARNING, e, "Could not write ARG log to file");
+    if (out != null) {
+      try {
+        out.close();
+      } catch (IOException innerException) {
+        e.addSuppressed(innerException);
+      }
+    }
+    out = null; // ensure we won't try again
+  }
+}
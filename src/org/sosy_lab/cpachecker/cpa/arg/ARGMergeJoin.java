@@ -31,9 +31,11 @@ import org.sosy_lab.cpachecker.exceptions.CPAException;
 public class ARGMergeJoin implements MergeOperator {
 
   private final MergeOperator wrappedMerge;
+  private final ARGLogWriter argLog;
 
-  public ARGMergeJoin(MergeOperator pWrappedMerge) {
+  ARGMergeJoin(MergeOperator pWrappedMerge, ARGLogWriter pArgLog) {
     wrappedMerge = pWrappedMerge;
+    argLog = pArgLog;
   }
 
   @Override
@@ -81,6 +83,7 @@ public class ARGMergeJoin implements MergeOperator {
     // ARGElement1 will only be removed from ARG if stop(e1, reached) returns true.
     // So we can't actually remove it now, but we need to remember this later.
     argElement1.setMergedWith(mergedElement);
+    argLog.stateAdded(mergedElement);
     return mergedElement;
   }
 }
@@ -26,6 +26,10 @@ package org.sosy_lab.cpachecker.cpa.arg;
 import static org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.SINK_NODE_ID;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -42,16 +46,18 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.Nullable;
-import javax.xml.parsers.ParserConfigurationException;
 
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.Language;
@@ -87,6 +93,7 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.counterexample.AssumptionToEdgeAllocator;
 import org.sosy_lab.cpachecker.core.counterexample.CExpressionToOrinalCodeVisitor;
 import org.sosy_lab.cpachecker.core.counterexample.CFAEdgeWithAssumptions;
@@ -94,6 +101,8 @@ import org.sosy_lab.cpachecker.core.counterexample.ConcreteState;
 import org.sosy_lab.cpachecker.core.counterexample.CounterexampleInfo;
 import org.sosy_lab.cpachecker.core.interfaces.ExpressionTreeReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Property;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisConcreteErrorPathAllocator;
 import org.sosy_lab.cpachecker.util.AbstractStates;
@@ -113,7 +122,8 @@ import org.sosy_lab.cpachecker.util.expressions.ExpressionTreeFactory;
 import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
 import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
 import org.sosy_lab.cpachecker.util.expressions.Simplifier;
-import org.w3c.dom.Element;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Function;
@@ -129,6 +139,7 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapDifference.ValueDifference;
 import com.google.common.collect.Maps;
@@ -139,7 +150,7 @@ import com.google.common.collect.SortedMapDifference;
 import com.google.common.collect.TreeMultimap;
 
 @Options(prefix="cpa.arg.witness")
-public class ARGPathExporter {
+public class ARGPathExporter implements Statistics {
 
   private static final Function<ARGState, ARGState> COVERED_TO_COVERING = new Function<ARGState, ARGState>() {
 
@@ -175,6 +186,9 @@ public class ARGPathExporter {
   @Option(secure=true, description="Verification witness: Include the offset within the file?")
   boolean exportOffset = true;
 
+  @Option(secure=true, description="Verification witness: Compress the witness files with gzip? The suffix .gz is appended to the file names.")
+  boolean compressWitness = false;
+
   private final LogManager logger;
 
   private final CFA cfa;
@@ -188,6 +202,11 @@ public class ARGPathExporter {
   private final ExpressionTreeFactory<Object> factory = ExpressionTrees.newCachingFactory();
   private final Simplifier<Object> simplifier = ExpressionTrees.newSimplifier(factory);
 
+  private final StatTimer witnessExportTime = new StatTimer("Time for witness export");
+  private final StatTimer graphBuildTime = new StatTimer("Time for building witness graph");
+  private final StatTimer graphSimplificationTime = new StatTimer("Time for merging witness nodes");
+  private final StatTimer witnessWriteTime = new StatTimer("Time for writing witness");
+
   /**
    * This is a temporary hack to easily obtain specification and verification tasks.
    * TODO: Move the witness export out of the ARG CPA after the new error report has been integrated
@@ -229,6 +248,21 @@ public class ARGPathExporter {
     this.assumptionToEdgeAllocator = new AssumptionToEdgeAllocator(pConfig, pLogger, machineModel);
   }
 
+  /**
+   * Open the given file for writing a witness to it.
+   * The witness is compressed with gzip if this is configured,
+   * in which case the suffix ".gz" is appended to the file name.
+   */
+  public Writer openWitnessFile(Path pFile) throws IOException {
+    if (!compressWitness) {
+      return Files.openOutputFile(pFile);
+    }
+    Path compressedFile = Paths.get(pFile.getPath() + ".gz");
+    Files.createParentDirs(compressedFile);
+    return new OutputStreamWriter(
+        new GZIPOutputStream(compressedFile.asByteSink().openStream()), StandardCharsets.UTF_8);
+  }
+
   public void writeErrorWitness(Appendable pTarget,
       final ARGState pRootState,
       final Predicate<? super ARGState> pIsRelevantState,
@@ -238,7 +272,12 @@ public class ARGPathExporter {
 
     String defaultFileName = getInitialFileName(pRootState);
     WitnessWriter writer = new WitnessWriter(defaultFileName, GraphType.ERROR_WITNESS);
-    writer.writePath(pTarget, pRootState, pIsRelevantState, pIsRelevantEdge, Optional.of(pCounterExample), GraphBuilder.ARG_PATH);
+    witnessExportTime.start();
+    try {
+      writer.writePath(pTarget, pRootState, pIsRelevantState, pIsRelevantEdge, Optional.of(pCounterExample), GraphBuilder.ARG_PATH);
+    } finally {
+      witnessExportTime.stop();
+    }
   }
 
   public void writeProofWitness(Appendable pTarget,
@@ -315,13 +354,35 @@ public class ARGPathExporter {
     String defaultFileName = getInitialFileName(pRootState);
     WitnessWriter writer =
         new WitnessWriter(defaultFileName, GraphType.PROOF_WITNESS, pInvariantProvider);
-    writer.writePath(
-        pTarget,
-        pRootState,
-        pIsRelevantState,
-        pIsRelevantEdge,
-        Optional.<CounterexampleInfo>absent(),
-        pGraphBuilder);
+    witnessExportTime.start();
+    try {
+      writer.writePath(
+          pTarget,
+          pRootState,
+          pIsRelevantState,
+          pIsRelevantEdge,
+          Optional.<CounterexampleInfo>absent(),
+          pGraphBuilder);
+    } finally {
+      witnessExportTime.stop();
+    }
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+    if (witnessExportTime.getUpdateCount() > 0) {
+      StatisticsWriter writer = StatisticsWriter.writingStatisticsTo(pOut);
+      writer.put(witnessExportTime)
+          .beginLevel()
+          .put(graphBuildTime)
+          .put(graphSimplificationTime)
+          .put(witnessWriteTime);
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "Witness export";
   }
 
   private String getInitialFileName(ARGState pRootState) {
@@ -376,7 +437,6 @@ public class ARGPathExporter {
 
     @Override
     public void appendNewEdge(
-        final GraphMlBuilder pDoc,
         String pFrom,
         final String pTo,
         final CFAEdge pEdge,
@@ -394,12 +454,11 @@ public class ARGPathExporter {
 
     @Override
     public void appendNewEdgeToSink(
-        GraphMlBuilder pDoc,
         String pFrom,
         CFAEdge pEdge,
         Optional<Collection<ARGState>> pFromState,
         Map<ARGState, CFAEdgeWithAssumptions> pValueMap) {
-      appendNewEdge(pDoc, pFrom, SINK_NODE_ID, pEdge, pFromState, pValueMap);
+      appendNewEdge(pFrom, SINK_NODE_ID, pEdge, pFromState, pValueMap);
     }
 
     private void attemptSwitchToFunctionScope(CFAEdge pEdge) {
@@ -797,35 +856,6 @@ public class ARGPathExporter {
         valueMap = pCounterExample.get().getExactVariableValues();
       }
 
-      GraphMlBuilder doc;
-      try {
-        doc =
-            new GraphMlBuilder(
-                graphType,
-                defaultSourcefileName,
-                language,
-                machineModel,
-                hackyOptions.handlePointerAliasing ? "precise" : "simple",
-                FluentIterable.from(hackyOptions.propertyFiles)
-                    .transform(
-                        new Function<Path, String>() {
-
-                          @Override
-                          public String apply(Path pArg0) {
-                            try {
-                              return pArg0.asCharSource(Charsets.UTF_8).read().trim();
-                            } catch (IOException e) {
-                              logger.logUserException(
-                                  Level.WARNING, e, "Could not export specification to witness.");
-                              return "Unknown specification";
-                            }
-                          }
-                        }),
-                hackyOptions.programs);
-      } catch (ParserConfigurationException e) {
-        throw new IOException(e);
-      }
-
       String entryStateNodeId = pGraphBuilder.getId(pRootState);
 
       // Collect node flags in advance
@@ -843,8 +873,52 @@ public class ARGPathExporter {
       nodeFlags.put(SINK_NODE_ID, NodeFlag.ISSINKNODE);
 
       // Build the actual graph
-      pGraphBuilder.buildGraph(pRootState, pIsRelevantState, pIsRelevantEdge, valueMap, doc, collectPathEdges(pRootState, successorFunction, pIsRelevantState), this);
+      graphBuildTime.start();
+      try {
+        pGraphBuilder.buildGraph(pRootState, pIsRelevantState, pIsRelevantEdge, valueMap, collectPathEdges(pRootState, successorFunction, pIsRelevantState), this);
+      } finally {
+        graphBuildTime.stop();
+      }
+
+      graphSimplificationTime.start();
+      try {
+        simplifyGraph(entryStateNodeId);
+      } finally {
+        graphSimplificationTime.stop();
+      }
+
+      witnessWriteTime.start();
+      try (GraphMlBuilder doc =
+          new GraphMlBuilder(
+              pTarget,
+              graphType,
+              defaultSourcefileName,
+              language,
+              machineModel,
+              hackyOptions.handlePointerAliasing ? "precise" : "simple",
+              FluentIterable.from(hackyOptions.propertyFiles)
+                  .transform(
+                      new Function<Path, String>() {
 
+                        @Override
+                        public String apply(Path pArg0) {
+                          try {
+                            return pArg0.asCharSource(Charsets.UTF_8).read().trim();
+                          } catch (IOException e) {
+                            logger.logUserException(
+                                Level.WARNING, e, "Could not export specification to witness.");
+                            return "Unknown specification";
+                          }
+                        }
+                      }),
+              hackyOptions.programs)) {
+        writeElements(doc, entryStateNodeId);
+      } finally {
+        witnessWriteTime.stop();
+      }
+    }
+
+    private void simplifyGraph(String entryStateNodeId) {
       // Remove edges that lead to the sink but have a sibling edge that has the same label
       Collection<Edge> toRemove = FluentIterable.from(leavingEdges.values()).filter(new Predicate<Edge>() {
 
@@ -881,45 +955,54 @@ public class ARGPathExporter {
         redundantEdgeIterator = redundantEdgeIteratorSupplier.get();
         assert leavingEdges.isEmpty() || leavingEdges.containsKey(entryStateNodeId);
       }
+    }
 
-      // Write elements
-      {
-        Map<String, Element> nodes = Maps.newHashMap();
-        Deque<String> waitlist = Queues.newArrayDeque();
-        waitlist.push(entryStateNodeId);
-        Element entryNode = createNewNode(doc, entryStateNodeId);
-        addInvariantsData(doc, entryNode, entryStateNodeId);
-        nodes.put(entryStateNodeId, entryNode);
-        while (!waitlist.isEmpty()) {
-          String source = waitlist.pop();
-          for (Edge edge : leavingEdges.get(source)) {
-            Element targetNode = nodes.get(edge.target);
-            if (targetNode == null) {
-              targetNode = createNewNode(doc, edge.target);
-              if (!ExpressionTrees.getFalse()
-                  .equals(addInvariantsData(doc, targetNode, edge.target))) {
-                waitlist.push(edge.target);
-              }
-              nodes.put(edge.target, targetNode);
+    /**
+     * Write the nodes and edges reachable from the entry node.
+     * Each node is written completely before its first entering edge,
+     * so nothing needs to be buffered.
+     */
+    private void writeElements(GraphMlBuilder pDoc, String entryStateNodeId) throws IOException {
+      Set<Edge> writtenEdges = getEdgesToWrite(entryStateNodeId);
+      Set<String> nodes = new HashSet<>();
+      Deque<String> waitlist = Queues.newArrayDeque();
+      waitlist.push(entryStateNodeId);
+      writeNode(pDoc, entryStateNodeId, writtenEdges);
+      nodes.add(entryStateNodeId);
+      while (!waitlist.isEmpty()) {
+        String source = waitlist.pop();
+        for (Edge edge : leavingEdges.get(source)) {
+          if (nodes.add(edge.target)) {
+            if (!ExpressionTrees.getFalse().equals(writeNode(pDoc, edge.target, writtenEdges))) {
+              waitlist.push(edge.target);
             }
-            createNewEdge(doc, edge, targetNode);
           }
+          writeEdge(pDoc, edge);
         }
       }
-      doc.appendTo(pTarget);
     }
 
-    private ExpressionTree<Object> addInvariantsData(
-        GraphMlBuilder pDoc, Element pNode, String pStateId) {
-      ExpressionTree<Object> tree = getStateInvariant(pStateId);
-      if (!tree.equals(ExpressionTrees.getTrue())) {
-        pDoc.addDataElementChild(pNode, KeyDef.INVARIANT, tree.toString());
-        String scope = stateScopes.get(pStateId);
-        if (scope != null && !scope.isEmpty() && !tree.equals(ExpressionTrees.getFalse())) {
-          pDoc.addDataElementChild(pNode, KeyDef.INVARIANTSCOPE, scope);
+    /**
+     * Get the edges that {@link #writeElements} writes,
+     * i.e., the edges leaving the reachable nodes that do not have the invariant false.
+     */
+    private Set<Edge> getEdgesToWrite(String entryStateNodeId) {
+      Set<Edge> edges = new HashSet<>();
+      Set<String> nodes = new HashSet<>();
+      Deque<String> waitlist = Queues.newArrayDeque();
+      waitlist.push(entryStateNodeId);
+      nodes.add(entryStateNodeId);
+      while (!waitlist.isEmpty()) {
+        String source = waitlist.pop();
+        for (Edge edge : leavingEdges.get(source)) {
+          if (nodes.add(edge.target)
+              && !ExpressionTrees.getFalse().equals(getStateInvariant(edge.target))) {
+            waitlist.push(edge.target);
+          }
+          edges.add(edge);
         }
       }
-      return tree;
+      return edges;
     }
 
     private final Predicate<String> isNodeRedundant =
@@ -1142,29 +1225,50 @@ public class ARGPathExporter {
       return false;
     }
 
-    private Element createNewEdge(GraphMlBuilder pDoc, Edge pEdge, Element pTargetNode) {
-      Element edge = pDoc.createEdgeElement(pEdge.source, pEdge.target);
+    private void writeEdge(GraphMlBuilder pDoc, Edge pEdge) throws IOException {
+      Multimap<KeyDef, String> data = LinkedHashMultimap.create();
       for (Map.Entry<KeyDef, String> entry : pEdge.label.keyValues.entrySet()) {
-        KeyDef keyDef = entry.getKey();
-        String value = entry.getValue();
-        if (keyDef.keyFor.equals(ElementType.EDGE)) {
-          pDoc.addDataElementChild(edge, keyDef, value);
-        } else if (keyDef.keyFor.equals(ElementType.NODE)) {
-          pDoc.addDataElementChild(pTargetNode, keyDef, value);
+        if (entry.getKey().keyFor.equals(ElementType.EDGE)) {
+          data.put(entry.getKey(), entry.getValue());
         }
       }
-      return edge;
+      pDoc.appendEdge(pEdge.source, pEdge.target, data);
     }
 
-    private Element createNewNode(GraphMlBuilder pDoc, String pEntryStateNodeId) {
-      Element result = pDoc.createNodeElement(pEntryStateNodeId, NodeType.ONPATH);
-      for (NodeFlag f : nodeFlags.get(pEntryStateNodeId)) {
-        pDoc.addDataElementChild(result, f.key, "true");
+    /**
+     * Write the node with the given id and return its invariant.
+     * Node data attached to entering edges is only written for the given written edges.
+     */
+    private ExpressionTree<Object> writeNode(
+        GraphMlBuilder pDoc, String pStateId, Set<Edge> pWrittenEdges) throws IOException {
+      Multimap<KeyDef, String> data = LinkedHashMultimap.create();
+      for (NodeFlag f : nodeFlags.get(pStateId)) {
+        data.put(f.key, "true");
       }
-      for (Property violation : violatedProperties.get(pEntryStateNodeId)) {
-        pDoc.addDataElementChild(result, KeyDef.VIOLATEDPROPERTY, violation.toString());
+      for (Property violation : violatedProperties.get(pStateId)) {
+        data.put(KeyDef.VIOLATEDPROPERTY, violation.toString());
       }
-      return result;
+      ExpressionTree<Object> tree = getStateInvariant(pStateId);
+      if (!tree.equals(ExpressionTrees.getTrue())) {
+        data.put(KeyDef.INVARIANT, tree.toString());
+        String scope = stateScopes.get(pStateId);
+        if (scope != null && !scope.isEmpty() && !tree.equals(ExpressionTrees.getFalse())) {
+          data.put(KeyDef.INVARIANTSCOPE, scope);
+        }
+      }
+      // Node data attached to the labels of entering edges
+      for (Edge edge : enteringEdges.get(pStateId)) {
+        if (!pWrittenEdges.contains(edge)) {
+          continue;
+        }
+        for (Map.Entry<KeyDef, String> entry : edge.label.keyValues.entrySet()) {
+          if (entry.getKey().keyFor.equals(ElementType.NODE)) {
+            data.put(entry.getKey(), entry.getValue());
+          }
+        }
+      }
+      pDoc.appendNode(pStateId, NodeType.ONPATH, data);
+      return tree;
     }
 
     private Collection<NodeFlag> extractNodeFlags(ARGState pState) {
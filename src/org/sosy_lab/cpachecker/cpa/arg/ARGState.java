@@ -233,6 +233,10 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
     mayCover = false;
   }
 
+  boolean hasCoveredParent() {
+    return hasCoveredParent;
+  }
+
   void setHasCoveredParent(boolean pHasCoveredParent) {
     assert !destroyed : "Don't use destroyed ARGState " + this;
     hasCoveredParent = pHasCoveredParent;
@@ -170,6 +170,12 @@ public class ARGStatistics implements IterationStatistics {
   @Override
   public void printStatistics(PrintStream pOut, Result pResult,
       ReachedSet pReached) {
+    // the analysis has finished, no more states will be added to the ARG
+    cpa.getARGLogWriter().close();
+    exportFiles(pReached);
+  }
+
+  private void exportFiles(ReachedSet pReached) {
     if (cexExporter == null && !exportARG) {
       return;
     }
@@ -227,7 +233,8 @@ public class ARGStatistics implements IterationStatistics {
     Function<ARGState, Collection<ARGState>> relevantSuccessorFunction = Functions.forMap(relevantSuccessorRelation.asMap(), ImmutableSet.<ARGState>of());
 
     if (proofWitness != null) {
-      try (Writer w = Files.openOutputFile(adjustPathNameForPartitioning(rootState, proofWitness))) {
+      try (Writer w =
+          argPathExporter.openWitnessFile(adjustPathNameForPartitioning(rootState, proofWitness))) {
         argPathExporter.writeProofWitness(w, rootState,
             Predicates.alwaysTrue(),
             Predicates.alwaysTrue());
@@ -345,7 +352,7 @@ public class ARGStatistics implements IterationStatistics {
   @Override
   public void printIterationStatistics(PrintStream pOut, ReachedSet pReached) {
     if (dumpArgInEachCpaIteration) {
-      printStatistics(pOut, Result.UNKNOWN, pReached);
+      exportFiles(pReached);
     }
   }
 }
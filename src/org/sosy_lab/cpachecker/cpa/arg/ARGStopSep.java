@@ -52,11 +52,14 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
 
   private final StopOperator wrappedStop;
   private final LogManager logger;
+  private final ARGLogWriter argLog;
 
-  public ARGStopSep(StopOperator pWrappedStop, LogManager pLogger, Configuration config) throws InvalidConfigurationException {
+  ARGStopSep(StopOperator pWrappedStop, LogManager pLogger, Configuration config,
+      ARGLogWriter pArgLog) throws InvalidConfigurationException {
     config.inject(this);
     wrappedStop = pWrappedStop;
     logger = pLogger;
+    argLog = pArgLog;
   }
 
   @Override
@@ -82,6 +85,7 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
           // merged and covered
           if (inCPAEnabledAnalysis) {
             argElement.setCovered(mergedWith);
+            argLog.stateCovered(argElement, mergedWith);
           } else {
             argElement.removeFromARG();
           }
@@ -104,6 +108,7 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
 
     // Never try to cover target states
     if (argElement.isTarget()) {
+      argLog.stateAdded(argElement);
       return false;
     }
 
@@ -116,6 +121,7 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
         return !keepCoveredStatesInReached;
       }
     }
+    argLog.stateAdded(argElement);
     return false;
 
   }
@@ -144,6 +150,7 @@ public class ARGStopSep implements StopOperator, ForcedCoveringStopOperator {
 
     if (stop) {
       pElement.setCovered(pReachedState);
+      argLog.stateCovered(pElement, pReachedState);
     }
     return stop;
   }
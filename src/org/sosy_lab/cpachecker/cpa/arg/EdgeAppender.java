@@ -28,14 +28,12 @@ import java.util.Map;
 
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.core.counterexample.CFAEdgeWithAssumptions;
-import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlBuilder;
 
 import com.google.common.base.Optional;
 
 interface EdgeAppender {
 
   void appendNewEdge(
-      final GraphMlBuilder pDoc,
       String pFrom,
       String pTo,
       CFAEdge pEdge,
@@ -43,7 +41,6 @@ interface EdgeAppender {
       Map<ARGState, CFAEdgeWithAssumptions> pValueMap);
 
   void appendNewEdgeToSink(
-      final GraphMlBuilder pDoc,
       String pFrom,
       CFAEdge pEdge,
       Optional<Collection<ARGState>> pFromState,
@@ -42,7 +42,6 @@ import org.sosy_lab.cpachecker.core.counterexample.CFAEdgeWithAssumptions;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.Pair;
-import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlBuilder;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
@@ -73,7 +72,6 @@ public enum GraphBuilder {
         Predicate<? super ARGState> pPathStates,
         Predicate<? super Pair<ARGState, ARGState>> pIsRelevantEdge,
         Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
-        GraphMlBuilder pDocument,
         Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
         EdgeAppender pEdgeAppender) {
       int multiEdgeCount = 0;
@@ -107,7 +105,7 @@ public enum GraphBuilder {
               assert (!(innerEdge instanceof AssumeEdge));
 
               Optional<Collection<ARGState>> absentStates = Optional.absent();
-              pEdgeAppender.appendNewEdge(pDocument, prevStateId, pseudoStateId, innerEdge, absentStates, pValueMap);
+              pEdgeAppender.appendNewEdge(prevStateId, pseudoStateId, innerEdge, absentStates, pValueMap);
               prevStateId = pseudoStateId;
             }
 
@@ -122,11 +120,11 @@ public enum GraphBuilder {
           if (pPathStates.apply(child) && pIsRelevantEdge.apply(Pair.of(s, child))) {
             // Child belongs to the path!
             pEdgeAppender.appendNewEdge(
-                pDocument, prevStateId, childStateId, edgeToNextState, state, pValueMap);
+                prevStateId, childStateId, edgeToNextState, state, pValueMap);
           } else {
             // Child does not belong to the path --> add a branch to the SINK node!
             pEdgeAppender.appendNewEdgeToSink(
-                pDocument, prevStateId, edgeToNextState, state, pValueMap);
+                prevStateId, edgeToNextState, state, pValueMap);
           }
         }
       }
@@ -146,7 +144,6 @@ public enum GraphBuilder {
         final Predicate<? super ARGState> pPathStates,
         final Predicate<? super Pair<ARGState, ARGState>> pIsRelevantEdge,
         Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
-        GraphMlBuilder pDocument,
         Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
         EdgeAppender pEdgeAppender) {
 
@@ -187,7 +184,7 @@ public enum GraphBuilder {
           } else {
             locationStates = Collections.<ARGState>emptySet();
           }
-          appendEdge(pDocument, pEdgeAppender, leavingEdge, Optional.of(locationStates), pValueMap);
+          appendEdge(pEdgeAppender, leavingEdge, Optional.of(locationStates), pValueMap);
         }
       }
     }
@@ -206,7 +203,6 @@ public enum GraphBuilder {
         final Predicate<? super ARGState> pPathStates,
         final Predicate<? super Pair<ARGState, ARGState>> pIsRelevantEdge,
         Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
-        GraphMlBuilder pDocument,
         Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
         EdgeAppender pEdgeAppender) {
 
@@ -249,7 +245,7 @@ public enum GraphBuilder {
             waitlist.offer(successor);
           }
           if (appended.add(leavingEdge)) {
-            appendEdge(pDocument, pEdgeAppender, leavingEdge, locationStates, pValueMap);
+            appendEdge(pEdgeAppender, leavingEdge, locationStates, pValueMap);
           }
         }
         for (CFAEdge enteringEdge : CFAUtils.enteringEdges(current)) {
@@ -264,7 +260,7 @@ public enum GraphBuilder {
             waitlist.offer(predecessor);
           }
           if (appended.add(enteringEdge)) {
-            appendEdge(pDocument, pEdgeAppender, enteringEdge, locationStates, pValueMap);
+            appendEdge(pEdgeAppender, enteringEdge, locationStates, pValueMap);
           }
         }
       }
@@ -273,7 +269,6 @@ public enum GraphBuilder {
   };
 
   private static void appendEdge(
-      GraphMlBuilder pDocument,
       EdgeAppender pEdgeAppender,
       CFAEdge pEdge,
       Optional<Collection<ARGState>> pStates,
@@ -283,7 +278,6 @@ public enum GraphBuilder {
       while (edgeIterator.hasNext()) {
         CFAEdge edge = edgeIterator.next();
         appendEdge(
-            pDocument,
             pEdgeAppender,
             edge,
             edgeIterator.hasNext() ? Optional.<Collection<ARGState>>absent() : pStates,
@@ -293,7 +287,7 @@ public enum GraphBuilder {
       String sourceId = pEdge.getPredecessor().toString();
       String targetId = pEdge.getSuccessor().toString();
       if (!(pEdge instanceof CFunctionSummaryStatementEdge)) {
-        pEdgeAppender.appendNewEdge(pDocument, sourceId, targetId, pEdge, pStates, pValueMap);
+        pEdgeAppender.appendNewEdge(sourceId, targetId, pEdge, pStates, pValueMap);
       }
     }
   }
@@ -304,7 +298,6 @@ public enum GraphBuilder {
       Predicate<? super ARGState> pPathStates,
       Predicate<? super Pair<ARGState, ARGState>> pIsRelevantEdge,
       Map<ARGState, CFAEdgeWithAssumptions> pValueMap,
-      GraphMlBuilder pDocument,
       Iterable<Pair<ARGState, Iterable<ARGState>>> pARGEdges,
       EdgeAppender pEdgeAppender);
 
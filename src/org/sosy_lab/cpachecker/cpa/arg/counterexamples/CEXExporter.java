@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.cpa.arg.counterexamples;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -254,15 +255,18 @@ public class CEXExporter {
       }
     }
 
-    writeErrorPathFile(errorPathAutomatonGraphmlFile, cexIndex, new Appender() {
-      @Override
-      public void appendTo(Appendable pAppendable) throws IOException {
-        witnessExporter.writeErrorWitness(pAppendable, rootState,
+    if (errorPathAutomatonGraphmlFile != null) {
+      Path file = errorPathAutomatonGraphmlFile.getPath(cexIndex);
+      try (Writer w = witnessExporter.openWitnessFile(file)) {
+        witnessExporter.writeErrorWitness(w, rootState,
                 Predicates.in(pathElements),
                 isTargetPathEdge,
                 counterexample);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e,
+                "Could not write information about the error path to file");
       }
-    });
+    }
   }
 
   private void writeErrorPathFile(PathTemplate template, int cexIndex, Object content) {
@@ -403,6 +403,10 @@ interface AutomatonBoolExpr extends AutomatonExpression {
       return CONST_FALSE;
     }
 
+    boolean matchesPositiveCase() {
+      return matchPositiveCase;
+    }
+
     @Override
     public String toString() {
       return "MATCH ASSUME CASE " + matchPositiveCase;
@@ -532,6 +536,10 @@ interface AutomatonBoolExpr extends AutomatonExpression {
       return false;
     }
 
+    LocationDescriptor getLocationDescriptor() {
+      return matchDescriptor;
+    }
+
     @Override
     public String toString() {
       return "MATCH " + matchDescriptor;
@@ -45,10 +45,13 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.annotation.Nullable;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -110,10 +113,6 @@ import org.sosy_lab.cpachecker.util.expressions.ExpressionTreeFactory;
 import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
 import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
 import org.sosy_lab.cpachecker.util.expressions.Simplifier;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -128,6 +127,11 @@ import com.google.common.base.Strings;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -214,17 +218,10 @@ public class AutomatonGraphmlParser {
         CParser.Factory.getParser(config, logger, CParser.Factory.getOptions(config), machine);
     try (InputStream input = pInputFile.openStream()) {
       // Parse the XML document ----
-      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(input);
-      doc.getDocumentElement().normalize();
-
-      GraphMlDocumentData docDat = new GraphMlDocumentData(doc);
+      GraphMlDocumentData docDat = GraphMlDocumentData.read(input);
 
       // (The one) root node of the graph ----
-      NodeList graphs = doc.getElementsByTagName(GraphMlTag.GRAPH.toString());
-      checkParsable(graphs.getLength() == 1, "The graph file must describe exactly one automaton.");
-      Node graphNode = graphs.item(0);
+      GraphMlElement graphNode = docDat.getGraph();
 
       Set<String> graphTypeText = GraphMlDocumentData.getDataOnNode(graphNode, KeyDef.GRAPH_TYPE);
       final GraphType graphType;
@@ -247,37 +244,36 @@ public class AutomatonGraphmlParser {
       }
 
       // Extract the information on the automaton ----
-      Node nameAttribute = graphNode.getAttributes().getNamedItem("name");
+      String nameAttribute = graphNode.getAttribute("name");
       String automatonName = WITNESS_AUTOMATON_NAME;
       if (nameAttribute != null) {
-        automatonName += "_" + nameAttribute.getTextContent();
+        automatonName += "_" + nameAttribute;
       }
       String initialStateName = null;
 
       // Create transitions ----
       //AutomatonBoolExpr epsilonTrigger = new SubsetMatchEdgeTokens(Collections.<Comparable<Integer>>emptySet());
-      NodeList edges = doc.getElementsByTagName(GraphMlTag.EDGE.toString());
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
+      List<GraphMlElement> edges = docDat.getEdges();
+      List<GraphMlElement> nodes = docDat.getNodes();
       Map<String, LinkedList<AutomatonTransition>> stateTransitions = Maps.newHashMap();
       Map<String, Deque<String>> stacks = Maps.newHashMap();
 
       // Create graph
-      Multimap<String, Node> leavingEdges = HashMultimap.create();
-      Multimap<String, Node> enteringEdges = HashMultimap.create();
+      Multimap<String, GraphMlElement> leavingEdges = HashMultimap.create();
+      Multimap<String, GraphMlElement> enteringEdges = HashMultimap.create();
       String entryNodeId = null;
 
       Set<String> violationStates = Sets.newHashSet();
 
-      for (int i = 0; i < edges.getLength(); i++) {
-        Node stateTransitionEdge = edges.item(i);
+      for (GraphMlElement stateTransitionEdge : edges) {
 
         String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
         String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
         leavingEdges.put(sourceStateId, stateTransitionEdge);
         enteringEdges.put(targetStateId, stateTransitionEdge);
 
-        Element sourceStateNode = docDat.getNodeWithId(sourceStateId);
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
+        GraphMlElement sourceStateNode = docDat.getNodeWithId(sourceStateId);
+        GraphMlElement targetStateNode = docDat.getNodeWithId(targetStateId);
         EnumSet<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceStateNode);
         EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
         if (targetNodeFlags.contains(NodeFlag.ISVIOLATION)) {
@@ -289,8 +285,7 @@ public class AutomatonGraphmlParser {
       }
 
       // Find entry
-      for (int i = 0; i < nodes.getLength(); ++i) {
-        Node node = nodes.item(i);
+      for (GraphMlElement node : nodes) {
         if (Boolean.parseBoolean(docDat.getDataValueWithDefault(node, KeyDef.ISENTRYNODE, "false"))) {
           entryNodeId = GraphMlDocumentData.getAttributeValue(node, "id", "Every node needs an id!");
           break;
@@ -310,7 +305,7 @@ public class AutomatonGraphmlParser {
       while (!waitlist.isEmpty()) {
         String current = waitlist.poll();
         int newDistance = distances.get(current) + 1;
-        for (Node enteringEdge : enteringEdges.get(current)) {
+        for (GraphMlElement enteringEdge : enteringEdges.get(current)) {
           String sourceStateId = GraphMlDocumentData.getAttributeValue(enteringEdge, "source", "Every transition needs a source!");
           Integer oldDistance = distances.get(sourceStateId);
           if (oldDistance == null || oldDistance > newDistance) {
@@ -324,12 +319,12 @@ public class AutomatonGraphmlParser {
 
       Map<String, AutomatonBoolExpr> stutterConditions = Maps.newHashMap();
 
-      Set<Node> visitedEdges = new HashSet<>();
-      Queue<Node> waitingEdges = new ArrayDeque<>();
+      Set<GraphMlElement> visitedEdges = new HashSet<>();
+      Queue<GraphMlElement> waitingEdges = new ArrayDeque<>();
       waitingEdges.addAll(leavingEdges.get(entryNodeId));
       visitedEdges.addAll(waitingEdges);
       while (!waitingEdges.isEmpty()) {
-        Node stateTransitionEdge = waitingEdges.poll();
+        GraphMlElement stateTransitionEdge = waitingEdges.poll();
 
         String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
         String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
@@ -339,13 +334,13 @@ public class AutomatonGraphmlParser {
           throw new WitnessParseException("Proof witnesses do not allow sink nodes.");
         }
 
-        for (Node successorEdge : leavingEdges.get(targetStateId)) {
+        for (GraphMlElement successorEdge : leavingEdges.get(targetStateId)) {
           if (visitedEdges.add(successorEdge)) {
             waitingEdges.add(successorEdge);
           }
         }
 
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
+        GraphMlElement targetStateNode = docDat.getNodeWithId(targetStateId);
         EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
 
         boolean leadsToViolationNode = targetNodeFlags.contains(NodeFlag.ISVIOLATION);
@@ -567,7 +562,7 @@ public class AutomatonGraphmlParser {
         // Multiple CFA edges in a sequence might match the triggers,
         // so in that case we ALSO need a transition back to the source state
         if (strictMatching || !assumptions.isEmpty() || !actions.isEmpty() || !candidateInvariants.equals(ExpressionTrees.getTrue()) || leadsToViolationNode) {
-          Element sourceNode = docDat.getNodeWithId(sourceStateId);
+          GraphMlElement sourceNode = docDat.getNodeWithId(sourceStateId);
           Set<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceNode);
           boolean sourceIsViolationNode = sourceNodeFlags.contains(NodeFlag.ISVIOLATION);
           transitions.add(
@@ -586,9 +581,9 @@ public class AutomatonGraphmlParser {
 
       // Create states ----
       List<AutomatonInternalState> automatonStates = Lists.newArrayList();
-      for (Map.Entry<String, Element> stateEntry : docDat.getIdToNodeMap().entrySet()) {
+      for (Map.Entry<String, GraphMlElement> stateEntry : docDat.getIdToNodeMap().entrySet()) {
         String stateId = stateEntry.getKey();
-        Element stateNode = stateEntry.getValue();
+        GraphMlElement stateNode = stateEntry.getValue();
         EnumSet<NodeFlag> nodeFlags = docDat.getNodeFlags(stateNode);
 
         List<AutomatonTransition> transitions = stateTransitions.get(stateId);
@@ -686,7 +681,7 @@ public class AutomatonGraphmlParser {
 
       return result;
 
-    } catch (IOException | ParserConfigurationException | SAXException e) {
+    } catch (IOException | XMLStreamException e) {
       throw new InvalidConfigurationException("Error while accessing automaton file!", e);
     } catch (InvalidAutomatonException e) {
       throw new InvalidConfigurationException("The automaton provided is invalid!", e);
@@ -1247,97 +1242,263 @@ public class AutomatonGraphmlParser {
     return pAssumeCode;
   }
 
+  /**
+   * The parts of a GraphML witness that are needed for building the automaton.
+   * The document is read with a streaming parser and only the relevant data
+   * is kept, which needs much less memory than a DOM tree of the whole witness.
+   */
   private static class GraphMlDocumentData {
 
-    private final HashMap<String, Optional<String>> defaultDataValues = Maps.newHashMap();
-    private final Document doc;
+    /**
+     * The keys of data elements that are stored,
+     * the values of all other data elements are skipped while reading.
+     * "type" is kept for backwards-compatibility with the old name of the graph-type key.
+     */
+    private static final ImmutableSet<String> RELEVANT_KEYS;
+
+    static {
+      ImmutableSet.Builder<String> relevantKeys = ImmutableSet.builder();
+      for (NodeFlag flag : NodeFlag.values()) {
+        relevantKeys.add(flag.key.id);
+      }
+      for (KeyDef key :
+          EnumSet.of(
+              KeyDef.INVARIANT,
+              KeyDef.INVARIANTSCOPE,
+              KeyDef.SOURCECODE,
+              KeyDef.ORIGINLINE,
+              KeyDef.OFFSET,
+              KeyDef.ORIGINFILE,
+              KeyDef.CONTROLCASE,
+              KeyDef.ASSUMPTION,
+              KeyDef.ASSUMPTIONSCOPE,
+              KeyDef.FUNCTIONENTRY,
+              KeyDef.FUNCTIONEXIT,
+              KeyDef.GRAPH_TYPE)) {
+        relevantKeys.add(key.id);
+      }
+      relevantKeys.add("type");
+      RELEVANT_KEYS = relevantKeys.build();
+    }
+
+    private static final ImmutableSet<String> RELEVANT_ATTRIBUTES =
+        ImmutableSet.of("id", "source", "target", "name");
+
+    /** The default tags of the first key definition for each key id. */
+    private final Map<String, List<String>> keyDefaults = Maps.newHashMap();
+    private final Map<String, GraphMlElement> idToNodeMap = Maps.newHashMap();
+    private final List<GraphMlElement> nodes = new ArrayList<>();
+    private final List<GraphMlElement> edges = new ArrayList<>();
+    private GraphMlElement graph = null;
 
-    private Map<String, Element> idToNodeMap = null;
+    /**
+     * Node ids and many data values (file names, function names, scopes)
+     * occur over and over again in a witness, so they are shared.
+     */
+    private final Interner<String> strings = Interners.newStrongInterner();
+
+    private GraphMlDocumentData() {}
 
-    public GraphMlDocumentData(Document doc) {
-      this.doc = doc;
+    public static GraphMlDocumentData read(InputStream pInput) throws XMLStreamException {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      XMLStreamReader reader = factory.createXMLStreamReader(pInput);
+      try {
+        GraphMlDocumentData result = new GraphMlDocumentData();
+        result.readDocument(reader);
+        return result;
+      } finally {
+        reader.close();
+      }
     }
 
-    public EnumSet<NodeFlag> getNodeFlags(Element pStateNode) {
-      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
+    private void readDocument(XMLStreamReader pReader) throws XMLStreamException {
+      Deque<GraphMlElementBuilder> openElements = new ArrayDeque<>();
+      List<String> currentKeyDefaults = null;
+      int graphCount = 0;
+
+      while (pReader.hasNext()) {
+        int event = pReader.next();
+
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          String tag = getQualifiedName(pReader);
+
+          if (tag.equals(GraphMlTag.GRAPH.toString())) {
+            graphCount++;
+            checkParsable(graphCount == 1, "The graph file must describe exactly one automaton.");
+            openElements.push(new GraphMlElementBuilder(readAttributes(pReader)));
+
+          } else if (tag.equals(GraphMlTag.NODE.toString())
+              || tag.equals(GraphMlTag.EDGE.toString())) {
+            openElements.push(new GraphMlElementBuilder(readAttributes(pReader)));
+
+          } else if (tag.equals(GraphMlTag.DATA.toString())) {
+            String key = pReader.getAttributeValue(null, "key");
+            Preconditions.checkNotNull(key, "Every data element must have a key attribute!");
+            if (openElements.isEmpty()) {
+              skipElement(pReader);
+              continue;
+            }
+            GraphMlElementBuilder owner = openElements.peek();
+            NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
+            if (flag != null) {
+              owner.flags.add(flag);
+            }
+            if (RELEVANT_KEYS.contains(key)) {
+              owner.data.put(strings.intern(key), strings.intern(readTextContent(pReader)));
+            } else {
+              skipElement(pReader);
+            }
+
+          } else if (tag.equals(GraphMlTag.KEY.toString())) {
+            String id = pReader.getAttributeValue(null, "id");
+            if (id != null && !keyDefaults.containsKey(id)) {
+              currentKeyDefaults = new ArrayList<>(1);
+              keyDefaults.put(id, currentKeyDefaults);
+            }
+
+          } else if (tag.equals(GraphMlTag.DEFAULT.toString()) && currentKeyDefaults != null) {
+            currentKeyDefaults.add(readTextContent(pReader));
+          }
+
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          String tag = getQualifiedName(pReader);
+
+          if (tag.equals(GraphMlTag.NODE.toString())) {
+            GraphMlElement node = openElements.pop().build();
+            idToNodeMap.put(getNodeId(node), node);
+            nodes.add(node);
 
-      NodeList dataChilds = pStateNode.getElementsByTagName(GraphMlTag.DATA.toString());
+          } else if (tag.equals(GraphMlTag.EDGE.toString())) {
+            edges.add(openElements.pop().build());
 
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String key = attribute.getTextContent();
-        NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
-        if (flag != null) {
-          result.add(flag);
+          } else if (tag.equals(GraphMlTag.GRAPH.toString())) {
+            graph = openElements.pop().build();
+
+          } else if (tag.equals(GraphMlTag.KEY.toString())) {
+            currentKeyDefaults = null;
+          }
         }
       }
 
-      return result;
+      checkParsable(graph != null, "The graph file must describe exactly one automaton.");
     }
 
-    public Map<String, Element> getIdToNodeMap() {
-      if (idToNodeMap != null) {
-        return idToNodeMap;
+    private ImmutableMap<String, String> readAttributes(XMLStreamReader pReader) {
+      ImmutableMap.Builder<String, String> attributes = ImmutableMap.builder();
+      for (int i = 0; i < pReader.getAttributeCount(); i++) {
+        String name = pReader.getAttributeLocalName(i);
+        if (Strings.isNullOrEmpty(pReader.getAttributePrefix(i))
+            && RELEVANT_ATTRIBUTES.contains(name)) {
+          attributes.put(name, strings.intern(pReader.getAttributeValue(i)));
+        }
       }
+      return attributes.build();
+    }
 
-      idToNodeMap = Maps.newHashMap();
+    /**
+     * Get the tag name as it is written in the document,
+     * i.e., including the prefix if there is one.
+     */
+    private static String getQualifiedName(XMLStreamReader pReader) {
+      String prefix = pReader.getPrefix();
+      if (Strings.isNullOrEmpty(prefix)) {
+        return pReader.getLocalName();
+      }
+      return prefix + ":" + pReader.getLocalName();
+    }
 
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
-      for (int i=0; i<nodes.getLength(); i++) {
-        Element stateNode = (Element) nodes.item(i);
-        String stateId = getNodeId(stateNode);
+    /**
+     * Read the concatenated text of all descendants of the current element
+     * and move the reader to the end of the current element.
+     */
+    private static String readTextContent(XMLStreamReader pReader) throws XMLStreamException {
+      StringBuilder result = new StringBuilder();
+      int depth = 1;
+      while (depth > 0) {
+        switch (pReader.next()) {
+          case XMLStreamConstants.START_ELEMENT:
+            depth++;
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            depth--;
+            break;
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+          case XMLStreamConstants.SPACE:
+            result.append(pReader.getTextCharacters(), pReader.getTextStart(), pReader.getTextLength());
+            break;
+          default:
+            break;
+        }
+      }
+      return result.toString();
+    }
 
-        idToNodeMap.put(stateId, stateNode);
+    /**
+     * Move the reader to the end of the current element.
+     */
+    private static void skipElement(XMLStreamReader pReader) throws XMLStreamException {
+      int depth = 1;
+      while (depth > 0) {
+        int event = pReader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          depth++;
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          depth--;
+        }
       }
+    }
+
+    public GraphMlElement getGraph() {
+      return graph;
+    }
+
+    public List<GraphMlElement> getNodes() {
+      return nodes;
+    }
+
+    public List<GraphMlElement> getEdges() {
+      return edges;
+    }
+
+    public EnumSet<NodeFlag> getNodeFlags(GraphMlElement pStateNode) {
+      // EnumSet.copyOf fails for empty sets that are not EnumSets
+      return Sets.newEnumSet(pStateNode.flags, NodeFlag.class);
+    }
 
+    public Map<String, GraphMlElement> getIdToNodeMap() {
       return idToNodeMap;
     }
 
-    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage) {
-      Node attribute = of.getAttributes().getNamedItem(attributeName);
+    private static String getAttributeValue(GraphMlElement of, String attributeName, String exceptionMessage) {
+      String attribute = of.getAttribute(attributeName);
       Preconditions.checkNotNull(attribute, exceptionMessage);
-      return attribute.getTextContent();
+      return attribute;
     }
 
     private Optional<String> getDataDefault(KeyDef dataKey) {
-      Optional<String> result = defaultDataValues.get(dataKey.id);
-      if (result != null) {
-        return result;
-      }
-
-      NodeList keyDefs = doc.getElementsByTagName(GraphMlTag.KEY.toString());
-      for (int i=0; i<keyDefs.getLength(); i++) {
-        Element keyDef = (Element) keyDefs.item(i);
-        Node id = keyDef.getAttributes().getNamedItem("id");
-        if (dataKey.id.equals(id.getTextContent())) {
-          NodeList defaultTags = keyDef.getElementsByTagName(GraphMlTag.DEFAULT.toString());
-          result = Optional.absent();
-          if (defaultTags.getLength() > 0) {
-            checkParsable(
-                defaultTags.getLength() == 1,
-                "There should not be multiple default tags for one key.");
-            result = Optional.of(defaultTags.item(0).getTextContent());
-          }
-          defaultDataValues.put(dataKey.id, result);
-          return result;
-        }
+      List<String> defaultTags = keyDefaults.get(dataKey.id);
+      if (defaultTags == null || defaultTags.isEmpty()) {
+        return Optional.absent();
       }
-      return Optional.absent();
+      checkParsable(
+          defaultTags.size() == 1,
+          "There should not be multiple default tags for one key.");
+      return Optional.of(defaultTags.get(0));
     }
 
-    private static String getNodeId(Node stateNode) {
+    private static String getNodeId(GraphMlElement stateNode) {
       return getAttributeValue(stateNode, "id", "Every state needs an ID!");
     }
 
-    private Element getNodeWithId(String nodeId) {
-      Element result = getIdToNodeMap().get(nodeId);
+    private GraphMlElement getNodeWithId(String nodeId) {
+      GraphMlElement result = getIdToNodeMap().get(nodeId);
       Preconditions.checkNotNull(result, "Node not found. Id: " + nodeId);
       return result;
     }
 
-    private String getDataValueWithDefault(Node dataOnNode, KeyDef dataKey, final String defaultValue) {
+    private String getDataValueWithDefault(GraphMlElement dataOnNode, KeyDef dataKey, final String defaultValue) {
       Set<String> values = getDataOnNode(dataOnNode, dataKey);
       if (values.size() == 0) {
         Optional<String> dataDefault = getDataDefault(dataKey);
@@ -1351,49 +1512,59 @@ public class AutomatonGraphmlParser {
       }
     }
 
-    private static Set<String> getDataOnNode(Node node, final KeyDef dataKey) {
+    private static Set<String> getDataOnNode(GraphMlElement node, final KeyDef dataKey) {
       Preconditions.checkNotNull(node);
-      Preconditions.checkArgument(node.getNodeType() == Node.ELEMENT_NODE);
-
-      Element nodeElement = (Element) node;
-      Set<Node> dataNodes = findKeyedDataNode(nodeElement, dataKey);
 
-      Set<String> result = Sets.newHashSet();
-      for (Node n: dataNodes) {
-        result.add(n.getTextContent());
+      Set<String> result = node.data.get(dataKey.id);
+      // Backwards-compatibility: type/graph-type
+      if (result.isEmpty() && dataKey.equals(KeyDef.GRAPH_TYPE)) {
+        Set<String> alternative = node.data.get("type");
+        if (!alternative.isEmpty()) {
+          return ImmutableSet.of(alternative.iterator().next());
+        }
       }
-
       return result;
     }
 
-    private static Set<Node> findKeyedDataNode(Element of, final KeyDef dataKey) {
-      Set<Node> result = Sets.newHashSet();
-      Set<Node> alternative = null;
-      NodeList dataChilds = of.getElementsByTagName(GraphMlTag.DATA.toString());
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String nodeKey = attribute.getTextContent();
-        if (nodeKey.equals(dataKey.id)) {
-          result.add(dataChild);
-          alternative = null;
-        }
-        // Backwards-compatibility: type/graph-type
-        if (alternative == null
-            && result.isEmpty()
-            && dataKey.equals(KeyDef.GRAPH_TYPE)
-            && nodeKey.equals("type")) {
-          alternative = Sets.newHashSet();
-          alternative.add(dataChild);
-        }
-      }
-      if (result.isEmpty() && alternative != null) {
-        return alternative;
-      }
-      return result;
+  }
+
+  /**
+   * A graph, node or edge of a GraphML witness with its relevant attributes and data values.
+   * Instances use reference equality, just like DOM nodes.
+   */
+  private static class GraphMlElement {
+
+    private final ImmutableMap<String, String> attributes;
+    private final ImmutableSetMultimap<String, String> data;
+    private final ImmutableSet<NodeFlag> flags;
+
+    private GraphMlElement(
+        ImmutableMap<String, String> pAttributes,
+        ImmutableSetMultimap<String, String> pData,
+        ImmutableSet<NodeFlag> pFlags) {
+      attributes = pAttributes;
+      data = pData;
+      flags = pFlags;
+    }
+
+    private @Nullable String getAttribute(String pName) {
+      return attributes.get(pName);
     }
+  }
+
+  private static class GraphMlElementBuilder {
 
+    private final ImmutableMap<String, String> attributes;
+    private final ImmutableSetMultimap.Builder<String, String> data = ImmutableSetMultimap.builder();
+    private final EnumSet<NodeFlag> flags = EnumSet.noneOf(NodeFlag.class);
+
+    private GraphMlElementBuilder(ImmutableMap<String, String> pAttributes) {
+      attributes = pAttributes;
+    }
+
+    private GraphMlElement build() {
+      return new GraphMlElement(attributes, data.build(), Sets.immutableEnumSet(flags));
+    }
   }
 
   public static boolean isGraphmlAutomaton(Path pPath, LogManager pLogger) throws InvalidConfigurationException {
@@ -0,0 +1,84 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CProgramScope;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.io.ByteSource;
+
+public class AutomatonGraphmlParserTest {
+
+  private static final String WITNESS =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"
+      + "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n"
+      + " <key attr.name=\"isEntryNode\" attr.type=\"boolean\" for=\"node\" id=\"entry\">\n"
+      + "  <default>false</default>\n"
+      + " </key>\n"
+      + " <key attr.name=\"isViolationNode\" attr.type=\"boolean\" for=\"node\" id=\"violation\">\n"
+      + "  <default>false</default>\n"
+      + " </key>\n"
+      + " <graph edgedefault=\"directed\">\n"
+      + "  <data key=\"witness-type\">violation_witness</data>\n"
+      + "  <node id=\"A0\">\n"
+      + "   <data key=\"entry\">true</data>\n"
+      + "  </node>\n"
+      + "  <node id=\"A1\"/>\n"
+      + "  <node id=\"A2\">\n"
+      + "   <data key=\"violation\">true</data>\n"
+      + "  </node>\n"
+      + "  <edge source=\"A0\" target=\"A1\"/>\n"
+      + "  <edge source=\"A1\" target=\"A2\"/>\n"
+      + " </graph>\n"
+      + "</graphml>\n";
+
+  @Test
+  public void testWitnessWithUnflaggedNode() throws Exception {
+    Configuration config = TestDataTools.configurationForTest().build();
+    AutomatonGraphmlParser parser =
+        new AutomatonGraphmlParser(
+            config,
+            TestLogManager.getInstance(),
+            mock(CFA.class),
+            MachineModel.LINUX32,
+            CProgramScope.empty());
+
+    List<Automaton> automata =
+        parser.parseAutomatonFile(ByteSource.wrap(WITNESS.getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(automata).hasSize(1);
+    assertThat(automata.get(0).getStates()).isNotEmpty();
+  }
+}
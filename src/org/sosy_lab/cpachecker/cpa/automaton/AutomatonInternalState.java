@@ -27,6 +27,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.StringExpression;
 
@@ -67,6 +69,9 @@ public class AutomatonInternalState {
   /** Outgoing transitions of this state.  */
   private final List<AutomatonTransition> transitions;
 
+  /** Index for finding the transitions that may match an edge, or null if there is none. */
+  private final @Nullable AutomatonTransitionIndex transitionIndex;
+
   private final boolean mIsTarget;
 
   /**
@@ -77,6 +82,7 @@ public class AutomatonInternalState {
   public AutomatonInternalState(String pName, List<AutomatonTransition> pTransitions, boolean pIsTarget, boolean pAllTransitions) {
     this.name = pName;
     this.transitions = pTransitions;
+    this.transitionIndex = AutomatonTransitionIndex.create(pTransitions);
     this.mIsTarget = pIsTarget;
     this.mAllTransitions = pAllTransitions;
   }
@@ -134,6 +140,10 @@ public class AutomatonInternalState {
     return transitions;
   }
 
+  @Nullable AutomatonTransitionIndex getTransitionIndex() {
+    return transitionIndex;
+  }
+
   @Override
   public String toString() {
     return this.name;
@@ -58,6 +58,10 @@ class AutomatonStatistics extends AbstractStatistics {
       put(out, 1, "Time for transition actions", trans.actionTime);
     }
 
+    if (trans.candidateTransitions.getValueCount() > 0) {
+      put(out, 0, trans.candidateTransitions);
+    }
+
     if (trans.totalStrengthenTime.getNumberOfIntervals() > 0) {
       put(out, 0, "Total time for strengthen operator", trans.totalStrengthenTime);
     }
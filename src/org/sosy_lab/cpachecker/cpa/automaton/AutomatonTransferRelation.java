@@ -29,6 +29,7 @@ import static com.google.common.collect.FluentIterable.from;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -49,6 +50,7 @@ import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonState.AutomatonUnknownState;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatIntHist;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 
@@ -72,6 +74,7 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
   Timer actionTime = new Timer();
   Timer totalStrengthenTime = new Timer();
   StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
+  StatInt candidateTransitions = new StatInt(StatKind.AVG, "Candidate transitions per indexed edge");
 
   public AutomatonTransferRelation(ControlAutomatonCPA pCpa, LogManager pLogger) {
     this.cpa = pCpa;
@@ -205,7 +208,26 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
     // the list holds a Transition and the TransitionVariables generated during its match
     List<Pair<AutomatonTransition, Map<Integer, String>>> transitionsToBeTaken = new ArrayList<>(2);
 
-    for (AutomatonTransition t : state.getInternalState().getTransitions()) {
+    List<AutomatonTransition> transitions = state.getInternalState().getTransitions();
+    AutomatonTransitionIndex transitionIndex = state.getInternalState().getTransitionIndex();
+    BitSet candidates;
+    if (transitionIndex == null) {
+      candidates = new BitSet(transitions.size());
+      candidates.set(0, transitions.size());
+    } else {
+      matchTime.start();
+      candidates = transitionIndex.getCandidates(edge);
+      matchTime.stop();
+      candidateTransitions.setNextValue(candidates.cardinality());
+    }
+
+    // transitions that are not candidates do not match,
+    // they are counted as failed matches as if they had been evaluated
+    int nextTransition = 0;
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      AutomatonTransition t = transitions.get(i);
+      failedMatches += i - nextTransition;
+      nextTransition = i + 1;
       exprArgs.clearTransitionVariables();
 
       matchTime.start();
@@ -267,6 +289,11 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
       }
     }
 
+    if (!edgeMatched || nonDetState) {
+      // all remaining transitions would have been evaluated
+      failedMatches += transitions.size() - nextTransition;
+    }
+
     if (edgeMatched) {
       // execute Transitions
       for (Pair<AutomatonTransition, Map<Integer, String>> pair : transitionsToBeTaken) {
@@ -0,0 +1,182 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.NavigableMap;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.model.AssumeEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper.LocationDescriptor;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper.OffsetDescriptor;
+import org.sosy_lab.cpachecker.util.SourceLocationMapper.OriginLineDescriptor;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Index for the outgoing transitions of an {@link AutomatonInternalState}.
+ *
+ * The transitions are indexed by necessary conditions of their triggers,
+ * i.e., conjuncts that match only edges with a certain origin line, offset, or assume case.
+ * This allows to skip transitions that cannot match a given edge
+ * without evaluating their (potentially expensive) triggers,
+ * which is important for states with many outgoing transitions as in witness automata.
+ * A conjunction is false if one of its conjuncts is false,
+ * so the skipped transitions would not have matched.
+ */
+class AutomatonTransitionIndex {
+
+  private final BitSet unconstrained;
+  private final ImmutableListMultimap<Integer, Integer> byOriginLine;
+  private final ImmutableSortedMap<Integer, List<Integer>> byOffset;
+  private final BitSet requiresPositiveAssumeCase;
+  private final BitSet requiresNegativeAssumeCase;
+
+  private AutomatonTransitionIndex(BitSet pUnconstrained,
+      ListMultimap<Integer, Integer> pByOriginLine,
+      ListMultimap<Integer, Integer> pByOffset,
+      BitSet pRequiresPositiveAssumeCase, BitSet pRequiresNegativeAssumeCase) {
+    unconstrained = pUnconstrained;
+    byOriginLine = ImmutableListMultimap.copyOf(pByOriginLine);
+    ImmutableSortedMap.Builder<Integer, List<Integer>> byOffsetBuilder = ImmutableSortedMap.naturalOrder();
+    for (Integer offset : pByOffset.keySet()) {
+      byOffsetBuilder.put(offset, ImmutableList.copyOf(pByOffset.get(offset)));
+    }
+    byOffset = byOffsetBuilder.build();
+    requiresPositiveAssumeCase = pRequiresPositiveAssumeCase;
+    requiresNegativeAssumeCase = pRequiresNegativeAssumeCase;
+  }
+
+  /**
+   * Create an index for the given transitions,
+   * or return null if none of them can be indexed.
+   */
+  static @Nullable AutomatonTransitionIndex create(List<AutomatonTransition> pTransitions) {
+    BitSet unconstrained = new BitSet(pTransitions.size());
+    ListMultimap<Integer, Integer> byOriginLine = ArrayListMultimap.create();
+    ListMultimap<Integer, Integer> byOffset = ArrayListMultimap.create();
+    BitSet requiresPositiveAssumeCase = new BitSet(pTransitions.size());
+    BitSet requiresNegativeAssumeCase = new BitSet(pTransitions.size());
+    boolean indexed = false;
+
+    for (int i = 0; i < pTransitions.size(); i++) {
+      Integer originLine = null;
+      Integer offset = null;
+
+      Deque<AutomatonBoolExpr> conjuncts = new ArrayDeque<>();
+      conjuncts.push(pTransitions.get(i).getTrigger());
+      while (!conjuncts.isEmpty()) {
+        AutomatonBoolExpr conjunct = conjuncts.pop();
+        if (conjunct instanceof AutomatonBoolExpr.And) {
+          conjuncts.push(((AutomatonBoolExpr.And) conjunct).getA());
+          conjuncts.push(((AutomatonBoolExpr.And) conjunct).getB());
+
+        } else if (conjunct instanceof AutomatonBoolExpr.MatchLocationDescriptor) {
+          LocationDescriptor descriptor =
+              ((AutomatonBoolExpr.MatchLocationDescriptor) conjunct).getLocationDescriptor();
+          if (descriptor instanceof OriginLineDescriptor) {
+            originLine = ((OriginLineDescriptor) descriptor).originLineNumber;
+          } else if (descriptor instanceof OffsetDescriptor) {
+            offset = ((OffsetDescriptor) descriptor).offset;
+          }
+
+        } else if (conjunct instanceof AutomatonBoolExpr.MatchAssumeCase) {
+          indexed = true;
+          if (((AutomatonBoolExpr.MatchAssumeCase) conjunct).matchesPositiveCase()) {
+            requiresPositiveAssumeCase.set(i);
+          } else {
+            requiresNegativeAssumeCase.set(i);
+          }
+        }
+      }
+
+      // one location condition is enough to find the transition,
+      // the remaining conditions are checked when the trigger is evaluated
+      if (originLine != null) {
+        byOriginLine.put(originLine, i);
+        indexed = true;
+      } else if (offset != null) {
+        byOffset.put(offset, i);
+        indexed = true;
+      } else {
+        unconstrained.set(i);
+      }
+    }
+
+    if (!indexed) {
+      return null;
+    }
+    return new AutomatonTransitionIndex(unconstrained, byOriginLine, byOffset,
+        requiresPositiveAssumeCase, requiresNegativeAssumeCase);
+  }
+
+  /**
+   * Get the indices of all transitions that may match the given edge.
+   * All other transitions are guaranteed not to match.
+   */
+  BitSet getCandidates(CFAEdge pEdge) {
+    BitSet candidates = (BitSet) unconstrained.clone();
+
+    if (!byOriginLine.isEmpty() || !byOffset.isEmpty()) {
+      for (FileLocation location : SourceLocationMapper.getFileLocationsFromCfaEdge(pEdge)) {
+        for (int i : byOriginLine.get(location.getStartingLineInOrigin())) {
+          candidates.set(i);
+        }
+
+        // an offset matches if it is within the range of the location
+        NavigableMap<Integer, List<Integer>> containedOffsets = byOffset.subMap(
+            location.getNodeOffset(), true,
+            location.getNodeOffset() + location.getNodeLength(), false);
+        for (List<Integer> transitions : containedOffsets.values()) {
+          for (int i : transitions) {
+            candidates.set(i);
+          }
+        }
+      }
+    }
+
+    if (pEdge instanceof AssumeEdge) {
+      if (((AssumeEdge) pEdge).getTruthAssumption()) {
+        candidates.andNot(requiresNegativeAssumeCase);
+      } else {
+        candidates.andNot(requiresPositiveAssumeCase);
+      }
+    } else {
+      candidates.andNot(requiresPositiveAssumeCase);
+      candidates.andNot(requiresNegativeAssumeCase);
+    }
+    return candidates;
+  }
+}
@@ -139,6 +139,12 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
 
     if (handleRecursiveProcedures) {
 
+      if (cache.isBounded()) {
+        // the fixpoint-algorithm for recursion needs all cached reached sets
+        throw new InvalidConfigurationException(
+            "Option cpa.bam.cache.maxSize cannot be used together with cpa.bam.handleRecursiveProcedures.");
+      }
+
       if (cfa.getVarClassification().isPresent() && !cfa.getVarClassification().get().getRelevantFields().isEmpty()) {
         // TODO remove this ugly hack as soon as possible :-)
         throw new UnsupportedCCodeException("BAM does not support pointer-analysis for recursive programs.", cfa.getMainFunction().getLeavingEdge(0));
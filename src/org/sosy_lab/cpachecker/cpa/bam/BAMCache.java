@@ -25,14 +25,19 @@ package org.sosy_lab.cpachecker.cpa.bam;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -46,16 +51,56 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 
 import com.google.common.base.Preconditions;
-
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+
+/**
+ * The cache of BAM, which stores the reached set for each analyzed block
+ * (together with its reduced initial state and precision) and its result states.
+ *
+ * The cache can be bounded by the number of reached sets.
+ * If the bound is exceeded, entries are evicted according to the configured strategy.
+ * Only entries whose analysis is finished can be evicted;
+ * an evicted block is simply re-analyzed if it is needed again.
+ * Note that the memory of an evicted reached set is only freed if it is not referenced
+ * from elsewhere, e.g., from the ARG needed for counterexample reconstruction.
+ *
+ * All public methods are synchronized, such that a single instance can be shared
+ * by several threads. A single lock (instead of lock striping) is used
+ * because the cache relies on a deterministic iteration order over all entries.
+ */
 @Options(prefix = "cpa.bam")
 public class BAMCache {
 
+  static enum EvictionStrategy {
+    /** evict the entry that was not accessed for the longest time */
+    LEAST_RECENTLY_USED,
+    /** evict the entry with the largest reached set */
+    LARGEST_REACHED_SET,
+    /** evict the entry that was reused least often */
+    LEAST_REUSED,
+  }
+
   @Option(secure=true, description = "if enabled, cache queries also consider blocks with non-matching precision for reuse.")
   private boolean aggressiveCaching = true;
 
   @Option(secure=true, description = "if enabled, the reached set cache is analysed for each cache miss to find the cause of the miss.")
   boolean gatherCacheMissStatistics = false;
 
+  @Option(secure=true, name = "cache.maxSize",
+      description = "maximum number of reached sets of blocks that are stored in the cache "
+          + "(-1 for unbounded). If the limit is exceeded, finished entries are evicted "
+          + "and recomputed if needed again.")
+  @IntegerOption(min=-1)
+  private int maxCacheSize = -1;
+
+  @Option(secure=true, name = "cache.evictionStrategy",
+      description = "which entries to evict from the cache if cpa.bam.cache.maxSize is exceeded")
+  private EvictionStrategy evictionStrategy = EvictionStrategy.LEAST_RECENTLY_USED;
+
   final Timer hashingTimer = new Timer();
   final Timer equalsTimer = new Timer();
   final Timer searchingTimer = new Timer();
@@ -68,12 +113,21 @@ public class BAMCache {
   int precisionCausedMisses = 0;
   int noSimilarCausedMisses = 0;
 
+  int evictions = 0;
+  private final Multiset<Block> hitsPerBlock = HashMultiset.create();
+  private final Multiset<Block> evictionsPerBlock = HashMultiset.create();
+
   // we use LinkedHashMaps to avoid non-determinism
   private final Map<AbstractStateHash, ReachedSet> preciseReachedCache = new LinkedHashMap<>();
   private final Map<AbstractStateHash, ReachedSet> unpreciseReachedCache = new HashMap<>();
   private final Map<AbstractStateHash, Collection<AbstractState>> returnCache = new HashMap<>();
   private final Map<AbstractStateHash, ARGState> blockARGCache = new HashMap<>();
 
+  /** Keys of {@link #preciseReachedCache} in access order (least recently used first),
+   * only maintained if the cache is bounded. The values are the number of reuses. */
+  private final LinkedHashMap<AbstractStateHash, Integer> accessOrder =
+      new LinkedHashMap<>(16, 0.75f, true);
+
   private ARGState lastAnalyzedBlock = null;
   private final Reducer reducer;
 
@@ -85,6 +139,10 @@ public class BAMCache {
     this.logger = logger;
   }
 
+  boolean isBounded() {
+    return maxCacheSize >= 0;
+  }
+
   public boolean doesAggressiveCaching() {
     return aggressiveCaching;
   }
@@ -93,13 +151,17 @@ public class BAMCache {
     return new AbstractStateHash(stateKey, precisionKey, context);
   }
 
-  public void put(AbstractState stateKey, Precision precisionKey, Block context, ReachedSet item) {
+  public synchronized void put(AbstractState stateKey, Precision precisionKey, Block context, ReachedSet item) {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     assert !preciseReachedCache.containsKey(hash);
     preciseReachedCache.put(hash, item);
+    if (isBounded()) {
+      accessOrder.put(hash, 0);
+      evictIfNecessary();
+    }
   }
 
-  public void put(AbstractState stateKey, Precision precisionKey, Block context, Collection<AbstractState> item,
+  public synchronized void put(AbstractState stateKey, Precision precisionKey, Block context, Collection<AbstractState> item,
                    ARGState rootOfBlock) {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     assert preciseReachedCache.get(hash) != null : "key not found in cache";
@@ -107,6 +169,10 @@ public class BAMCache {
     returnCache.put(hash, item);
     blockARGCache.put(hash, rootOfBlock);
     setLastAnalyzedBlock(hash);
+    if (isBounded()) {
+      // the entry is finished now, so it (or an older one) may be evicted
+      evictIfNecessary();
+    }
   }
 
   private boolean allStatesContainedInReachedSet(Collection<AbstractState> pElements, ReachedSet reached) {
@@ -116,18 +182,18 @@ public class BAMCache {
     return true;
   }
 
-  public void removeReturnEntry(AbstractState stateKey, Precision precisionKey, Block context) {
+  public synchronized void removeReturnEntry(AbstractState stateKey, Precision precisionKey, Block context) {
     returnCache.remove(getHashCode(stateKey, precisionKey, context));
   }
 
-  public void removeBlockEntry(AbstractState stateKey, Precision precisionKey, Block context) {
+  public synchronized void removeBlockEntry(AbstractState stateKey, Precision precisionKey, Block context) {
     blockARGCache.remove(getHashCode(stateKey, precisionKey, context));
   }
 
   /** This function returns a Pair of the reached-set and the returnStates for the given keys.
    * Both members of the returned Pair are NULL, if there is a cache miss.
    * For a partial cache hit we return the partly computed reached-set and NULL as returnStates. */
-  public Pair<ReachedSet, Collection<AbstractState>> get(final AbstractState stateKey, final Precision precisionKey, final Block context) {
+  public synchronized Pair<ReachedSet, Collection<AbstractState>> get(final AbstractState stateKey, final Precision precisionKey, final Block context) {
 
     final Pair<ReachedSet, Collection<AbstractState>> pair = get0(stateKey, precisionKey, context);
     Preconditions.checkNotNull(pair);
@@ -139,8 +205,10 @@ public class BAMCache {
     if (reached != null && returnStates != null) { // we have reached-set and elements
       assert allStatesContainedInReachedSet(returnStates, reached) : "output-states must be in reached-set";
       fullCacheHits++;
+      hitsPerBlock.add(context);
     } else if (reached != null) { // we have cached a partly computed reached-set
       partialCacheHits++;
+      hitsPerBlock.add(context);
     } else if (returnStates == null) {
       cacheMisses++;
       if (gatherCacheMissStatistics) {
@@ -158,6 +226,7 @@ public class BAMCache {
 
     ReachedSet result = preciseReachedCache.get(hash);
     if (result != null) {
+      recordReuse(hash);
       setLastAnalyzedBlock(hash);
       logger.log(Level.FINEST, "CACHE_ACCESS: precise entry");
       return Pair.of(result, returnCache.get(hash));
@@ -167,6 +236,7 @@ public class BAMCache {
       result = unpreciseReachedCache.get(hash);
       if (result != null) {
         AbstractStateHash unpreciseHash = getHashCode(stateKey, result.getPrecision(result.getFirstState()), context);
+        recordReuse(unpreciseHash);
         setLastAnalyzedBlock(unpreciseHash);
         logger.log(Level.FINEST, "CACHE_ACCESS: imprecise entry, directly from cache");
         return Pair.of(result, returnCache.get(unpreciseHash));
@@ -177,8 +247,10 @@ public class BAMCache {
       if (pair != null) {
         //found similar element, use this
         unpreciseReachedCache.put(hash, pair.getFirst());
-        setLastAnalyzedBlock(getHashCode(stateKey, pair.getFirst().getPrecision(pair.getFirst().getFirstState()),
-                context));
+        AbstractStateHash similarHash = getHashCode(stateKey, pair.getFirst().getPrecision(pair.getFirst().getFirstState()),
+                context);
+        recordReuse(similarHash);
+        setLastAnalyzedBlock(similarHash);
         logger.log(Level.FINEST, "CACHE_ACCESS: imprecise entry, searched in cache");
         return pair;
       }
@@ -195,10 +267,111 @@ public class BAMCache {
     }
   }
 
-  public ARGState getLastAnalyzedBlock() {
+  public synchronized ARGState getLastAnalyzedBlock() {
     return lastAnalyzedBlock;
   }
 
+  private void recordReuse(AbstractStateHash pHash) {
+    if (isBounded()) {
+      Integer reuses = accessOrder.get(pHash);
+      if (reuses != null) {
+        accessOrder.put(pHash, reuses + 1);
+      }
+    }
+  }
+
+  /**
+   * Evict entries from the cache until its size is within the configured bound.
+   * Only entries with a finished analysis (i.e., with cached return states) are evicted,
+   * all other entries belong to blocks that are currently analyzed or were partially removed
+   * by a refinement.
+   */
+  private void evictIfNecessary() {
+    while (preciseReachedCache.size() > maxCacheSize) {
+      AbstractStateHash victim = chooseEvictionVictim();
+      if (victim == null) {
+        // nothing can be evicted currently
+        return;
+      }
+      evict(victim);
+    }
+  }
+
+  private AbstractStateHash chooseEvictionVictim() {
+    AbstractStateHash victim = null;
+    int victimValue = -1;
+    // accessOrder iterates from the least recently used entry
+    for (Map.Entry<AbstractStateHash, Integer> entry : accessOrder.entrySet()) {
+      AbstractStateHash hash = entry.getKey();
+      if (!returnCache.containsKey(hash)) {
+        continue;
+      }
+
+      switch (evictionStrategy) {
+      case LEAST_RECENTLY_USED:
+        return hash;
+
+      case LARGEST_REACHED_SET:
+        int size = preciseReachedCache.get(hash).size();
+        if (size > victimValue) {
+          victim = hash;
+          victimValue = size;
+        }
+        break;
+
+      case LEAST_REUSED:
+        int reuses = entry.getValue();
+        if (victim == null || reuses < victimValue) {
+          victim = hash;
+          victimValue = reuses;
+        }
+        break;
+
+      default:
+        throw new AssertionError("unhandled eviction strategy " + evictionStrategy);
+      }
+    }
+    return victim;
+  }
+
+  private void evict(AbstractStateHash pHash) {
+    logger.log(Level.FINEST, "CACHE_EVICTION:", pHash);
+    removeEntry(pHash);
+    evictions++;
+    evictionsPerBlock.add(pHash.context);
+  }
+
+  /**
+   * Remove all entries of the given reached-set from the cache,
+   * e.g., because its analysis was aborted and it is incomplete.
+   */
+  synchronized void removeReachedSet(ReachedSet pReached) {
+    List<AbstractStateHash> keys = new ArrayList<>();
+    for (Map.Entry<AbstractStateHash, ReachedSet> entry : preciseReachedCache.entrySet()) {
+      if (entry.getValue() == pReached) {
+        keys.add(entry.getKey());
+      }
+    }
+    for (AbstractStateHash key : keys) {
+      removeEntry(key);
+    }
+  }
+
+  private void removeEntry(AbstractStateHash pHash) {
+    ReachedSet reached = preciseReachedCache.remove(pHash);
+    returnCache.remove(pHash);
+    blockARGCache.remove(pHash);
+    accessOrder.remove(pHash);
+
+    // imprecise entries point to reached sets of precise entries
+    Iterator<ReachedSet> unpreciseEntries = unpreciseReachedCache.values().iterator();
+    while (unpreciseEntries.hasNext()) {
+      if (unpreciseEntries.next() == reached) {
+        unpreciseEntries.remove();
+      }
+    }
+  }
+
   private Pair<ReachedSet, Collection<AbstractState>> lookForSimilarState(AbstractState pStateKey,
                                                                           Precision pPrecisionKey, Block pContext) {
     searchingTimer.start();
@@ -246,29 +419,55 @@ public class BAMCache {
     noSimilarCausedMisses++;
   }
 
-  public void clear() {
+  public synchronized void clear() {
     preciseReachedCache.clear();
     unpreciseReachedCache.clear();
     returnCache.clear();
+    accessOrder.clear();
   }
 
-  public boolean containsPreciseKey(AbstractState stateKey, Precision precisionKey, Block context) {
+  public synchronized boolean containsPreciseKey(AbstractState stateKey, Precision precisionKey, Block context) {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     return preciseReachedCache.containsKey(hash);
   }
 
-  public void updatePrecisionForEntry(AbstractState stateKey, Precision precisionKey, Block context,
+  public synchronized void updatePrecisionForEntry(AbstractState stateKey, Precision precisionKey, Block context,
                                       Precision newPrecisionKey) {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
     ReachedSet reachedSet = preciseReachedCache.get(hash);
     if (reachedSet != null) {
+      AbstractStateHash newHash = getHashCode(stateKey, newPrecisionKey, context);
       preciseReachedCache.remove(hash);
-      preciseReachedCache.put(getHashCode(stateKey, newPrecisionKey, context), reachedSet);
+      preciseReachedCache.put(newHash, reachedSet);
+      if (isBounded()) {
+        Integer reuses = accessOrder.remove(hash);
+        accessOrder.put(newHash, reuses == null ? 0 : reuses);
+      }
     }
   }
 
-  public Collection<ReachedSet> getAllCachedReachedStates() {
-    return preciseReachedCache.values();
+  /** Returns a snapshot of all reached sets that are currently in the cache. */
+  public synchronized Collection<ReachedSet> getAllCachedReachedStates() {
+    return ImmutableList.copyOf(preciseReachedCache.values());
+  }
+
+  /** Print statistics about the size of the cache and evictions. */
+  synchronized void printCacheStatistics(PrintStream out) {
+    int cachedStates = 0;
+    for (ReachedSet reached : preciseReachedCache.values()) {
+      cachedStates += reached.size();
+    }
+    out.println("  Number of cached reached sets:                                " + preciseReachedCache.size());
+    out.println("  Number of states in cached reached sets:                      " + cachedStates);
+    if (isBounded()) {
+      out.println("  Number of evicted cache entries:                              " + evictions);
+      out.println("  Number of blocks with evicted entries:                        " + evictionsPerBlock.elementSet().size());
+      Block mostEvicted = Iterables.getFirst(Multisets.copyHighestCountFirst(evictionsPerBlock).elementSet(), null);
+      if (mostEvicted != null) {
+        out.println("  Block with most evictions:                                    " + mostEvicted.getCallNodes()
+            + " (" + evictionsPerBlock.count(mostEvicted) + " evictions, " + hitsPerBlock.count(mostEvicted) + " hits)");
+      }
+    }
   }
 
   private class AbstractStateHash {
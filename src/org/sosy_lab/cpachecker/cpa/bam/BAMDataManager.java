@@ -24,6 +24,7 @@
 package org.sosy_lab.cpachecker.cpa.bam;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,7 +40,8 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import com.google.common.collect.Lists;
 
 /** This class contains all additional data-structures needed to run BAM.
- * If possible, we should clear some data sometimes to avoid memory-leaks. */
+ * If possible, we should clear some data sometimes to avoid memory-leaks.
+ * The maps are synchronized, because blocks may be analyzed in parallel (cf. {@link ParallelBAMAlgorithm}). */
 public class BAMDataManager {
 
   final LogManager logger;
@@ -52,19 +54,23 @@ public class BAMDataManager {
 
   /** abstractStateToReachedSet contains the mapping of non-reduced initial states
    *  to the reached-sets, where the root-state is the corresponding reduced state. */
-  final Map<AbstractState, ReachedSet> initialStateToReachedSet = new HashMap<>();
+  final Map<AbstractState, ReachedSet> initialStateToReachedSet =
+      Collections.synchronizedMap(new HashMap<AbstractState, ReachedSet>());
 
   /** expandedToReducedCache contains the mapping of an expanded state at a block-end towards
    * the corresponding reduced state, from which it was expanded. */
-  final Map<AbstractState, AbstractState> expandedStateToReducedState = new HashMap<>();
+  final Map<AbstractState, AbstractState> expandedStateToReducedState =
+      Collections.synchronizedMap(new HashMap<AbstractState, AbstractState>());
 
   /** expandedToBlockCache contains the mapping of an expanded state at a block-end towards
    * the inner block of the corresponding reduced state, from which it was expanded. */
-  private final Map<AbstractState, Block> expandedStateToBlock = new HashMap<>();
+  private final Map<AbstractState, Block> expandedStateToBlock =
+      Collections.synchronizedMap(new HashMap<AbstractState, Block>());
 
   /** expandedStateToExpandedPrecision contains the mapping an expanded state at a block-end towards
    * the corresponding expanded precision. */
-  final Map<AbstractState, Precision> expandedStateToExpandedPrecision = new HashMap<>();
+  final Map<AbstractState, Precision> expandedStateToExpandedPrecision =
+      Collections.synchronizedMap(new HashMap<AbstractState, Precision>());
 
   public BAMDataManager(BAMCache pArgCache, ReachedSetFactory pReachedSetFactory, LogManager pLogger) {
     bamCache = pArgCache;
@@ -105,7 +105,7 @@ public class BAMTransferRelation implements TransferRelation {
 
   protected final LogManager logger;
   private final CPAAlgorithmFactory algorithmFactory;
-  private final TransferRelation wrappedTransfer;
+  protected final TransferRelation wrappedTransfer;
   protected final Reducer wrappedReducer;
   protected final BAMCPA bamCPA;
   private final ProofChecker wrappedProofChecker;
@@ -461,20 +461,26 @@ public class BAMTransferRelation implements TransferRelation {
       returnStates =  Collections.singletonList(lastState);
 
     } else {
-      // get only those states, that are at block-exit.
-      // in case of recursion, the block-exit-nodes might also appear in the middle of the block,
-      // but the middle states have children, the exit-states have not.
-      returnStates = new ArrayList<>();
-      for (AbstractState returnState : AbstractStates.filterLocations(reached, currentBlock.getReturnNodes())) {
-        if (((ARGState)returnState).getChildren().isEmpty()) {
-          returnStates.add(returnState);
-        }
-      }
+      returnStates = getBlockExitStates(reached, currentBlock);
     }
 
     return returnStates;
   }
 
+  /** Get the states of a completely analyzed reached-set that are at the exit of the block. */
+  static List<AbstractState> getBlockExitStates(final ReachedSet reached, final Block block) {
+    // get only those states, that are at block-exit.
+    // in case of recursion, the block-exit-nodes might also appear in the middle of the block,
+    // but the middle states have children, the exit-states have not.
+    final List<AbstractState> returnStates = new ArrayList<>();
+    for (AbstractState returnState : AbstractStates.filterLocations(reached, block.getReturnNodes())) {
+      if (((ARGState)returnState).getChildren().isEmpty()) {
+        returnStates.add(returnState);
+      }
+    }
+    return returnStates;
+  }
+
   protected List<Pair<AbstractState, Precision>> imbueAbstractStatesWithPrecision(
       ReachedSet pReached, Collection<AbstractState> pElements) {
     List<Pair<AbstractState, Precision>> result = new ArrayList<>();
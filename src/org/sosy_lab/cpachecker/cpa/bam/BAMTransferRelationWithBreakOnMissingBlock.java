@@ -0,0 +1,148 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import static org.sosy_lab.cpachecker.util.AbstractStates.isTargetState;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * Transfer relation for the analysis of a single block (i.e., a single reached-set) with BAM,
+ * which does not start a recursive analysis for nested blocks.
+ * If the summary of a nested block is available in the cache, it is used,
+ * otherwise a {@link BlockSummaryMissingException} is thrown
+ * and the nested block has to be analyzed separately (cf. {@link ParallelBAMAlgorithm}).
+ *
+ * An instance of this class is only used for one block and by one thread at a time.
+ */
+class BAMTransferRelationWithBreakOnMissingBlock extends BAMTransferRelation {
+
+  BAMTransferRelationWithBreakOnMissingBlock(Configuration pConfig, LogManager pLogger,
+      BAMCPA bamCpa, BAMDataManager pData, ShutdownNotifier pShutdownNotifier,
+      BlockPartitioning pPartitioning, @Nullable Block pBlock) throws InvalidConfigurationException {
+    super(pConfig, pLogger, bamCpa, null, pData, pShutdownNotifier);
+    setBlockPartitioning(pPartitioning);
+    currentBlock = pBlock;
+  }
+
+  @Override
+  public Collection<? extends AbstractState> getAbstractSuccessors(
+      final AbstractState pState, final Precision pPrecision)
+      throws CPATransferException, InterruptedException {
+    try {
+      return getAbstractSuccessorsWithoutWrapping(pState, pPrecision);
+    } catch (BlockSummaryMissingException e) {
+      throw e;
+    } catch (CPAException e) {
+      throw new RecursiveAnalysisFailedException(e);
+    }
+  }
+
+  @Override
+  protected Collection<? extends AbstractState> getAbstractSuccessorsWithoutWrapping(
+      final AbstractState pState, final Precision pPrecision)
+      throws CPAException, InterruptedException {
+
+    // In contrast to the super-class we do not clear the mapping of expanded precisions here,
+    // because other blocks might be analyzed in parallel and still need their entries.
+
+    final CFANode node = AbstractStates.extractLocation(pState);
+
+    if (exitBlockAnalysis(pState, node)) {
+      return Collections.emptySet();
+    }
+
+    if (startNewBlockAnalysis(pState, node)) {
+      return doRecursiveAnalysis(pState, pPrecision, node);
+    }
+
+    return wrappedTransfer.getAbstractSuccessors(pState, pPrecision);
+  }
+
+  /** Enters a new block and returns the result from the cache,
+   * or throws an exception if there is no finished result in the cache. */
+  @Override
+  protected Collection<? extends AbstractState> doRecursiveAnalysis(
+      final AbstractState initialState, final Precision pPrecision, final CFANode node)
+      throws CPAException, InterruptedException {
+
+    final Block outerSubtree = currentBlock;
+    final Block innerSubtree = partitioning.getBlockForCallNode(node);
+
+    final AbstractState reducedInitialState = wrappedReducer.getVariableReducedState(initialState, innerSubtree, node);
+    final Precision reducedInitialPrecision = wrappedReducer.getVariableReducedPrecision(pPrecision, innerSubtree);
+
+    final Pair<ReachedSet, Collection<AbstractState>> pair =
+        data.bamCache.get(reducedInitialState, reducedInitialPrecision, innerSubtree);
+    final ReachedSet reached = pair.getFirst();
+    final Collection<AbstractState> cachedReturnStates = pair.getSecond();
+
+    if (!isFinished(reached, cachedReturnStates)) {
+      logger.log(Level.FINEST, "Missing summary for block", innerSubtree, "with initial state", reducedInitialState);
+      throw new BlockSummaryMissingException(initialState, reducedInitialState, reducedInitialPrecision, innerSubtree);
+    }
+
+    logger.log(Level.FINEST, "Cache hit with finished reached-set with root", reached.getFirstState());
+    data.initialStateToReachedSet.put(initialState, reached);
+
+    currentBlock = innerSubtree;
+    try {
+      return expandResultStates(imbueAbstractStatesWithPrecision(reached, cachedReturnStates),
+          outerSubtree, initialState, pPrecision);
+    } finally {
+      currentBlock = outerSubtree;
+    }
+  }
+
+  /** Check whether the cached result of a block can be used,
+   * i.e., whether its analysis is finished or has found a target-state. */
+  static boolean isFinished(@Nullable ReachedSet reached, @Nullable Collection<AbstractState> returnStates) {
+    if (returnStates == null) {
+      return false;
+    }
+    if (!reached.hasWaitingState()) {
+      return true;
+    }
+    return returnStates.size() == 1 && isTargetState(reached.getLastState());
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+
+/**
+ * Exception for signaling that the analysis of a state cannot continue,
+ * because the summary of the entered block is not yet available in the cache.
+ * The block has to be analyzed first, afterwards the state can be analyzed again.
+ */
+class BlockSummaryMissingException extends CPATransferException {
+
+  private static final long serialVersionUID = 6234129868432175312L;
+
+  private final AbstractState state;
+  private final AbstractState reducedState;
+  private final Precision reducedPrecision;
+  private final Block block;
+
+  BlockSummaryMissingException(AbstractState pState, AbstractState pReducedState,
+      Precision pReducedPrecision, Block pBlock) {
+    super("Missing summary for block " + pBlock.getCallNodes());
+    state = pState;
+    reducedState = pReducedState;
+    reducedPrecision = pReducedPrecision;
+    block = pBlock;
+  }
+
+  /** The state (in the outer block) whose successors could not be computed. */
+  AbstractState getState() {
+    return state;
+  }
+
+  AbstractState getReducedState() {
+    return reducedState;
+  }
+
+  Precision getReducedPrecision() {
+    return reducedPrecision;
+  }
+
+  Block getBlock() {
+    return block;
+  }
+}
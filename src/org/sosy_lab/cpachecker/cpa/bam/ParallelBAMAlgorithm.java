@@ -0,0 +1,486 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import static org.sosy_lab.cpachecker.util.AbstractStates.isTargetState;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
+import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm.CPAAlgorithmFactory;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
+import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.CPAs;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Algorithm for BAM that analyzes independent blocks in parallel.
+ *
+ * Each reached-set (i.e., each block with a given reduced initial state and precision)
+ * is analyzed by a separate task with a {@link CPAAlgorithm}.
+ * If the analysis of a block needs the summary of a nested block that is not yet in the cache,
+ * the corresponding state is put aside and a new task for the nested block is scheduled
+ * (or the already existing task for it is reused).
+ * When the nested block is finished, its summary is stored in the {@link BAMCache}
+ * and the waiting states of all dependent blocks are analyzed again.
+ * Thus, all blocks that do not depend on each other can be analyzed at the same time.
+ *
+ * All threads share the wrapped CPA, its transfer relation and its reducer,
+ * so this algorithm requires that all wrapped CPAs are marked as
+ * {@link ThreadSafeConfigurableProgramAnalysis}.
+ * It does not support recursive procedures and proof generation.
+ */
+@Options(prefix = "cpa.bam.parallel")
+public class ParallelBAMAlgorithm implements Algorithm, StatisticsProvider {
+
+  @Option(secure=true, description = "number of threads for analyzing blocks in parallel "
+      + "(0 for the number of available processors)")
+  @IntegerOption(min=0)
+  private int threads = 0;
+
+  private final BAMCPA bamCpa;
+  private final BAMDataManager data;
+  private final Configuration config;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+
+  private final ParallelBAMStatistics stats = new ParallelBAMStatistics();
+
+  public ParallelBAMAlgorithm(ConfigurableProgramAnalysis pCpa, Configuration pConfig,
+      LogManager pLogger, ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    config = pConfig;
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+
+    if (!(pCpa instanceof BAMCPA)) {
+      throw new InvalidConfigurationException("Parallel BAM requires BAMCPA as top-level CPA");
+    }
+    bamCpa = (BAMCPA) pCpa;
+    data = bamCpa.getData();
+
+    if (bamCpa.getTransferRelation() instanceof BAMTransferRelationWithFixPointForRecursion) {
+      throw new InvalidConfigurationException(
+          "Parallel BAM does not support cpa.bam.handleRecursiveProcedures");
+    }
+    for (ConfigurableProgramAnalysis wrappedCpa : CPAs.asIterable(bamCpa.getWrappedCpa())) {
+      if (!(wrappedCpa instanceof ThreadSafeConfigurableProgramAnalysis)) {
+        throw new InvalidConfigurationException("Parallel BAM requires thread-safe CPAs, but "
+            + wrappedCpa.getClass().getSimpleName() + " is not thread-safe");
+      }
+    }
+    if (BAMTransferRelation.PCCInformation.isPCCEnabled()) {
+      throw new InvalidConfigurationException("Parallel BAM does not support proof generation");
+    }
+    if (threads == 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+  }
+
+  @Override
+  public AlgorithmStatus run(ReachedSet pReachedSet) throws CPAException, InterruptedException {
+    stats.totalTimer.start();
+    // used to stop the analyses of blocks that are not needed anymore, e.g., after finding a target-state
+    final ShutdownManager blockAnalysisShutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads,
+        Threads.threadFactoryBuilder().setNameFormat("BAM block analysis %d").setDaemon(true).build());
+    final ParallelAnalysis analysis = new ParallelAnalysis(executor, blockAnalysisShutdownManager.getNotifier());
+    try {
+      return analysis.analyze(pReachedSet);
+
+    } finally {
+      blockAnalysisShutdownManager.requestShutdown("Analysis of main block finished");
+      executor.shutdown();
+      // the tasks modify the cache, so we have to wait for them before continuing
+      while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+        logger.log(Level.FINEST, "Waiting for analyses of blocks to terminate");
+      }
+      analysis.removeUnfinishedBlocksFromCache();
+      stats.totalTimer.stop();
+    }
+  }
+
+  /** Create a CPA that behaves like BAMCPA, but with a transfer relation for a single block. */
+  private ConfigurableProgramAnalysis createCPAForBlock(@Nullable Block pBlock,
+      ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
+    final TransferRelation transfer = new BAMTransferRelationWithBreakOnMissingBlock(
+        config, logger, bamCpa, data, pShutdownNotifier,
+        bamCpa.getTransferRelation().getBlockPartitioning(), pBlock);
+
+    return new ConfigurableProgramAnalysis() {
+
+      @Override
+      public AbstractDomain getAbstractDomain() {
+        return bamCpa.getAbstractDomain();
+      }
+
+      @Override
+      public TransferRelation getTransferRelation() {
+        return transfer;
+      }
+
+      @Override
+      public MergeOperator getMergeOperator() {
+        return bamCpa.getMergeOperator();
+      }
+
+      @Override
+      public StopOperator getStopOperator() {
+        return bamCpa.getStopOperator();
+      }
+
+      @Override
+      public PrecisionAdjustment getPrecisionAdjustment() {
+        return bamCpa.getPrecisionAdjustment();
+      }
+
+      @Override
+      public AbstractState getInitialState(CFANode pNode, StateSpacePartition pPartition) {
+        return bamCpa.getInitialState(pNode, pPartition);
+      }
+
+      @Override
+      public Precision getInitialPrecision(CFANode pNode, StateSpacePartition pPartition) {
+        return bamCpa.getInitialPrecision(pNode, pPartition);
+      }
+    };
+  }
+
+  /** The state of one run of the algorithm. All fields are guarded by the instance itself. */
+  private class ParallelAnalysis {
+
+    private final ExecutorService executor;
+    private final ShutdownNotifier blockShutdownNotifier;
+
+    private final Map<ReachedSet, BlockAnalysisTask> tasks = new IdentityHashMap<>();
+    private final SettableFuture<AlgorithmStatus> result = SettableFuture.create();
+    private AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+
+    /** number of tasks that are scheduled or running */
+    private int activeTasks = 0;
+
+    private ParallelAnalysis(ExecutorService pExecutor, ShutdownNotifier pShutdownNotifier) {
+      executor = pExecutor;
+      blockShutdownNotifier = pShutdownNotifier;
+    }
+
+    private AlgorithmStatus analyze(ReachedSet pMainReachedSet) throws CPAException, InterruptedException {
+      synchronized (this) {
+        BlockAnalysisTask mainTask = new BlockAnalysisTask(pMainReachedSet, null, null);
+        tasks.put(pMainReachedSet, mainTask);
+        schedule(mainTask);
+      }
+
+      try {
+        return result.get();
+      } catch (ExecutionException e) {
+        Throwable t = e.getCause();
+        Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+
+        throw new UnexpectedCheckedException("parallel analysis of blocks", t);
+      }
+    }
+
+    private synchronized void schedule(BlockAnalysisTask pTask) {
+      assert !pTask.scheduled;
+      if (result.isDone() || pTask.finished) {
+        return;
+      }
+      pTask.scheduled = true;
+      activeTasks++;
+      stats.maxActiveTasks = Math.max(stats.maxActiveTasks, activeTasks);
+      executor.execute(pTask);
+    }
+
+    private synchronized void unschedule(BlockAnalysisTask pTask) {
+      if (!pTask.scheduled) {
+        return;
+      }
+      pTask.scheduled = false;
+      activeTasks--;
+
+      if (activeTasks == 0 && !result.isDone()) {
+        // all tasks are waiting for each other
+        result.setException(new CPAException("Analysis of blocks cannot continue because of cyclic "
+            + "dependencies between blocks. Recursive procedures are not supported by parallel BAM."));
+      }
+    }
+
+    /**
+     * Register that the state of the given exception has to wait for the nested block.
+     * @return the task for the nested block, or null if the nested block is already finished.
+     */
+    private synchronized @Nullable BlockAnalysisTask getTaskForMissingBlock(BlockSummaryMissingException e) {
+      final AbstractState reducedState = e.getReducedState();
+      final Precision reducedPrecision = e.getReducedPrecision();
+      final Block block = e.getBlock();
+
+      final ReachedSet reached;
+      if (data.bamCache.containsPreciseKey(reducedState, reducedPrecision, block)) {
+        reached = data.bamCache.get(reducedState, reducedPrecision, block).getFirst();
+      } else {
+        reached = data.createInitialReachedSet(reducedState, reducedPrecision);
+        data.bamCache.put(reducedState, reducedPrecision, block, reached);
+      }
+
+      BlockAnalysisTask task = tasks.get(reached);
+      if (task == null) {
+        task = new BlockAnalysisTask(reached, block, reducedState);
+        tasks.put(reached, task);
+        stats.numberOfBlockAnalyses++;
+        schedule(task);
+      }
+      return task.finished ? null : task;
+    }
+
+    /** Reached-sets of unfinished blocks miss some states in their waitlist and cannot be reused. */
+    private synchronized void removeUnfinishedBlocksFromCache() {
+      for (BlockAnalysisTask task : tasks.values()) {
+        if (!task.finished && task.block != null) {
+          data.bamCache.removeReachedSet(task.reached);
+        }
+      }
+    }
+
+    private class BlockAnalysisTask implements Runnable {
+
+      private final ReachedSet reached;
+      private final @Nullable Block block; // null for the main reached-set
+      private final @Nullable AbstractState reducedState;
+
+      // only accessed by the thread that executes this task
+      private CPAAlgorithm algorithm = null;
+
+      // the following fields are guarded by the enclosing ParallelAnalysis
+      private boolean scheduled = false;
+      private boolean finished = false;
+      /** states that wait for the analysis of a nested block */
+      private final ListMultimap<BlockAnalysisTask, AbstractState> waitingStates = ArrayListMultimap.create();
+      /** states whose nested block was finished, and which have to be analyzed again */
+      private final List<AbstractState> readyStates = new ArrayList<>();
+      /** tasks that wait for this task */
+      private final Set<BlockAnalysisTask> dependentTasks = new LinkedHashSet<>();
+
+      private BlockAnalysisTask(ReachedSet pReached, @Nullable Block pBlock,
+          @Nullable AbstractState pReducedState) {
+        reached = pReached;
+        block = pBlock;
+        reducedState = pReducedState;
+      }
+
+      @Override
+      public void run() {
+        try {
+          analyze();
+        } catch (Throwable t) {
+          // either an error or the analysis was stopped, because the main block is finished
+          synchronized (ParallelAnalysis.this) {
+            result.setException(t);
+            unschedule(this);
+          }
+        }
+      }
+
+      private void analyze() throws CPAException, InterruptedException {
+        if (algorithm == null) {
+          algorithm = createAlgorithm();
+        }
+
+        while (true) {
+          for (AbstractState state : takeReadyStates()) {
+            reached.reAddToWaitlist(state);
+          }
+
+          runAlgorithm();
+
+          synchronized (ParallelAnalysis.this) {
+            if (!readyStates.isEmpty()) {
+              continue;
+            }
+            if (waitingStates.isEmpty() || isTargetState(reached.getLastState())) {
+              finish();
+            }
+            // otherwise this task is re-scheduled when one of the nested blocks is finished
+            unschedule(this);
+            return;
+          }
+        }
+      }
+
+      private CPAAlgorithm createAlgorithm() throws CPAException {
+        try {
+          ConfigurableProgramAnalysis cpa = createCPAForBlock(block, blockShutdownNotifier);
+          return new CPAAlgorithmFactory(cpa, logger, config, blockShutdownNotifier, null).newInstance();
+        } catch (InvalidConfigurationException e) {
+          throw new CPAException("Could not create analysis for block: " + e.getMessage(), e);
+        }
+      }
+
+      private void runAlgorithm() throws CPAException, InterruptedException {
+        while (true) {
+          try {
+            AlgorithmStatus blockStatus = algorithm.run(reached);
+            synchronized (ParallelAnalysis.this) {
+              status = status.update(blockStatus);
+            }
+            return;
+
+          } catch (BlockSummaryMissingException e) {
+            // the state was taken from the waitlist, we keep it until the nested block is finished
+            reached.removeOnlyFromWaitlist(e.getState());
+            synchronized (ParallelAnalysis.this) {
+              stats.numberOfMissingBlocks++;
+              BlockAnalysisTask nestedTask = getTaskForMissingBlock(e);
+              if (nestedTask == null) {
+                readyStates.add(e.getState());
+              } else {
+                waitingStates.put(nestedTask, e.getState());
+                nestedTask.dependentTasks.add(this);
+              }
+            }
+          }
+        }
+      }
+
+      private List<AbstractState> takeReadyStates() {
+        synchronized (ParallelAnalysis.this) {
+          List<AbstractState> states = new ArrayList<>(readyStates);
+          readyStates.clear();
+          return states;
+        }
+      }
+
+      /** Store the result of this block in the cache and continue the analysis of dependent blocks. */
+      private void finish() {
+        assert Thread.holdsLock(ParallelAnalysis.this);
+        finished = true;
+
+        // this task must not be continued when one of the nested blocks is finished
+        for (BlockAnalysisTask nestedTask : waitingStates.keySet()) {
+          nestedTask.dependentTasks.remove(this);
+        }
+
+        final AbstractState lastState = reached.getLastState();
+        if (isTargetState(lastState)) {
+          // keep the remaining states for a later continuation of the analysis, e.g., after refinement
+          for (AbstractState state : waitingStates.values()) {
+            reached.reAddToWaitlist(state);
+          }
+          waitingStates.clear();
+        }
+
+        if (block == null) {
+          result.set(status);
+          return;
+        }
+
+        final Collection<AbstractState> returnStates = isTargetState(lastState)
+            ? Collections.singletonList(lastState)
+            : BAMTransferRelation.getBlockExitStates(reached, block);
+        data.bamCache.put(reducedState, reached.getPrecision(reached.getFirstState()), block, returnStates, null);
+
+        for (BlockAnalysisTask dependentTask : dependentTasks) {
+          dependentTask.readyStates.addAll(dependentTask.waitingStates.removeAll(this));
+          if (!dependentTask.scheduled) {
+            schedule(dependentTask);
+          }
+        }
+        dependentTasks.clear();
+      }
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
+  }
+
+  private class ParallelBAMStatistics implements Statistics {
+
+    private final Timer totalTimer = new Timer();
+    private int numberOfBlockAnalyses = 0;
+    private int numberOfMissingBlocks = 0;
+    private int maxActiveTasks = 0;
+
+    @Override
+    public String getName() {
+      return "Parallel BAM algorithm";
+    }
+
+    @Override
+    public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
+      out.println("Number of threads:                              " + threads);
+      out.println("Number of analyzed blocks:                      " + numberOfBlockAnalyses);
+      out.println("Number of states waiting for a block summary:   " + numberOfMissingBlocks);
+      out.println("Max. number of active block analyses:           " + maxActiveTasks);
+      out.println("Total time for parallel analysis of blocks:     " + totalTimer);
+    }
+  }
+}
@@ -23,7 +23,9 @@
  */
 package org.sosy_lab.cpachecker.cpa.bam;
 
-import org.sosy_lab.common.time.Timer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
@@ -34,10 +36,38 @@ import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 
 class TimedReducer implements Reducer {
 
-  final Timer reduceTime = new Timer();
-  final Timer expandTime = new Timer();
-  final Timer reducePrecisionTime = new Timer();
-  final Timer expandPrecisionTime = new Timer();
+  /**
+   * Accumulates the time of intervals that may be measured by several threads at once,
+   * as the reducer is shared by all threads of {@link ParallelBAMAlgorithm}.
+   */
+  static class ThreadSafeTimer {
+
+    private final AtomicLong sumNanos = new AtomicLong();
+    private final AtomicInteger intervals = new AtomicInteger();
+
+    long start() {
+      return System.nanoTime();
+    }
+
+    void stop(long pStartTime) {
+      sumNanos.addAndGet(System.nanoTime() - pStartTime);
+      intervals.incrementAndGet();
+    }
+
+    int getNumberOfIntervals() {
+      return intervals.get();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%.3fs", sumNanos.get() / 1e9);
+    }
+  }
+
+  final ThreadSafeTimer reduceTime = new ThreadSafeTimer();
+  final ThreadSafeTimer expandTime = new ThreadSafeTimer();
+  final ThreadSafeTimer reducePrecisionTime = new ThreadSafeTimer();
+  final ThreadSafeTimer expandPrecisionTime = new ThreadSafeTimer();
 
   private final Reducer wrappedReducer;
 
@@ -50,11 +80,11 @@ class TimedReducer implements Reducer {
       AbstractState pExpandedState, Block pContext,
       CFANode pCallNode) {
 
-    reduceTime.start();
+    long startTime = reduceTime.start();
     try {
       return wrappedReducer.getVariableReducedState(pExpandedState, pContext, pCallNode);
     } finally {
-      reduceTime.stop();
+      reduceTime.stop(startTime);
     }
   }
 
@@ -63,11 +93,11 @@ class TimedReducer implements Reducer {
       AbstractState pRootState, Block pReducedContext,
       AbstractState pReducedState) {
 
-    expandTime.start();
+    long startTime = expandTime.start();
     try {
       return wrappedReducer.getVariableExpandedState(pRootState, pReducedContext, pReducedState);
     } finally {
-      expandTime.stop();
+      expandTime.stop(startTime);
     }
   }
 
@@ -79,21 +109,21 @@ class TimedReducer implements Reducer {
   @Override
   public Precision getVariableReducedPrecision(Precision pPrecision,
       Block pContext) {
-    reducePrecisionTime.start();
+    long startTime = reducePrecisionTime.start();
     try {
       return wrappedReducer.getVariableReducedPrecision(pPrecision, pContext);
     } finally {
-      reducePrecisionTime.stop();
+      reducePrecisionTime.stop(startTime);
     }
   }
 
   @Override
   public Precision getVariableExpandedPrecision(Precision rootPrecision, Block rootContext, Precision reducedPrecision) {
-    expandPrecisionTime.start();
+    long startTime = expandPrecisionTime.start();
     try {
       return wrappedReducer.getVariableExpandedPrecision(rootPrecision, rootContext, reducedPrecision);
     } finally {
-      expandPrecisionTime.stop();
+      expandPrecisionTime.stop(startTime);
     }
 
   }
@@ -27,6 +27,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.ClassOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -73,6 +76,14 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
     description="inform Composite CPA if it is run in a CPA enabled analysis because then it must "
       + "behave differently during merge.")
     private boolean inCPAEnabledAnalysis = false;
+
+    @Option(secure=true, name="internStates",
+        description="Share a single instance between all equal component states of the given types"
+          + " (hash-consing), such that they are stored only once and mostly compared by reference."
+          + " Only types whose states are immutable and implement equals() and hashCode()"
+          + " based on their content may be given.")
+    @ClassOption(packagePrefix="org.sosy_lab.cpachecker.cpa")
+    private List<Class<? extends AbstractState>> internedStateTypes = ImmutableList.of();
   }
 
   private static class CompositeCPAFactory extends AbstractCPAFactory {
@@ -148,7 +159,9 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
       }
 
       CompositeDomain compositeDomain = new CompositeDomain(domains.build());
-      CompositeTransferRelation compositeTransfer = new CompositeTransferRelation(transferRelations.build(), getConfiguration(), cfa);
+      CompositeStateInterner interner =
+          CompositeStateInterner.create(cpas, options.internedStateTypes);
+      CompositeTransferRelation compositeTransfer = new CompositeTransferRelation(transferRelations.build(), getConfiguration(), cfa, interner);
       CompositeStopOperator compositeStop = new CompositeStopOperator(stopOps);
 
       PrecisionAdjustment compositePrecisionAdjustment;
@@ -161,7 +174,7 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
 
       return new CompositeCPA(
           compositeDomain, compositeTransfer, compositeMerge, compositeStop,
-          compositePrecisionAdjustment, cpas);
+          compositePrecisionAdjustment, cpas, interner);
     }
 
     @Override
@@ -199,6 +212,7 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
   private final CompositeStopOperator stopOperator;
   private final PrecisionAdjustment precisionAdjustment;
   private final Reducer reducer;
+  private final @Nullable CompositeStateInterner interner;
 
   private final ImmutableList<ConfigurableProgramAnalysis> cpas;
 
@@ -208,13 +222,15 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
       MergeOperator mergeOperator,
       CompositeStopOperator stopOperator,
       PrecisionAdjustment precisionAdjustment,
-      ImmutableList<ConfigurableProgramAnalysis> cpas) {
+      ImmutableList<ConfigurableProgramAnalysis> cpas,
+      @Nullable CompositeStateInterner interner) {
     this.abstractDomain = abstractDomain;
     this.transferRelation = transferRelation;
     this.mergeOperator = mergeOperator;
     this.stopOperator = stopOperator;
     this.precisionAdjustment = precisionAdjustment;
     this.cpas = cpas;
+    this.interner = interner;
 
     List<Reducer> wrappedReducers = new ArrayList<>();
     for (ConfigurableProgramAnalysis cpa : cpas) {
@@ -271,6 +287,9 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
       initialStates.add(sp.getInitialState(pNode, pPartition));
     }
 
+    if (interner != null) {
+      return new CompositeState(interner.intern(initialStates.build()));
+    }
     return new CompositeState(initialStates.build());
   }
 
@@ -296,6 +315,10 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
     if (precisionAdjustment instanceof StatisticsProvider) {
       ((StatisticsProvider)precisionAdjustment).collectStatistics(pStatsCollection);
     }
+
+    if (interner != null) {
+      pStatsCollection.add(interner);
+    }
   }
 
   @Override
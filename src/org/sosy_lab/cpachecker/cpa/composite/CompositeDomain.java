@@ -60,8 +60,14 @@ public class CompositeDomain implements AbstractDomain {
     Preconditions.checkState(comp1Elements.size() == domains.size());
 
     for (int idx = 0; idx < comp1Elements.size(); idx++) {
+      AbstractState element1 = comp1Elements.get(idx);
+      AbstractState element2 = comp2Elements.get(idx);
+      if (element1 == element2) {
+        // identical (e.g., interned) states are always covered
+        continue;
+      }
       AbstractDomain domain = domains.get(idx);
-      if (!domain.isLessOrEqual(comp1Elements.get(idx), comp2Elements.get(idx))) {
+      if (!domain.isLessOrEqual(element1, element2)) {
         return false;
       }
     }
@@ -35,6 +35,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractWrapperState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
 import org.sosy_lab.cpachecker.core.interfaces.Property;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
 import org.sosy_lab.cpachecker.core.interfaces.Targetable;
 
 import com.google.common.base.Joiner;
@@ -42,7 +43,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 
 public class CompositeState implements AbstractWrapperState,
-    Targetable, Partitionable, Serializable, Graphable {
+    Targetable, Partitionable, PseudoPartitionable, Serializable, Graphable {
   private static final long serialVersionUID = -5143296331663510680L;
   private final ImmutableList<AbstractState> states;
   private transient Object partitionKey; // lazily initialized
@@ -152,6 +153,31 @@ public class CompositeState implements AbstractWrapperState,
     return partitionKey;
   }
 
+  @Override
+  public int getPseudoPartitionKey() {
+    // the sum is monotone if the keys of all components are monotone,
+    // and it saturates such that an unknown key of a component makes the key unknown
+    int key = 0;
+    for (AbstractState element : states) {
+      if (element instanceof PseudoPartitionable) {
+        int k = ((PseudoPartitionable)element).getPseudoPartitionKey();
+        key = (int) Math.min(Integer.MAX_VALUE, (long) key + k);
+      }
+    }
+    return key;
+  }
+
+  @Override
+  public long getPseudoPartitionSignature() {
+    long signature = 0;
+    for (AbstractState element : states) {
+      if (element instanceof PseudoPartitionable) {
+        signature |= ((PseudoPartitionable)element).getPseudoPartitionSignature();
+      }
+    }
+    return signature;
+  }
+
   private static final class CompositePartitionKey {
 
     private final Object[] keys;
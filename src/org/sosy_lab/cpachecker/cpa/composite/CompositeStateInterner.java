@@ -0,0 +1,137 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.composite;
+
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsUtils.valueWithPercentage;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Hash-consing of the component states of {@link CompositeState}s.
+ * For each component, equal states of one of the configured types
+ * are replaced by a single canonical instance,
+ * such that most comparisons of these states can be decided by reference.
+ * The canonical instances are only weakly referenced.
+ *
+ * Only types whose instances are immutable and implement
+ * {@link Object#equals(Object)} and {@link Object#hashCode()} based on their content
+ * may be interned.
+ */
+class CompositeStateInterner implements Statistics {
+
+  private final ImmutableList<ConfigurableProgramAnalysis> cpas;
+  private final ImmutableSet<Class<? extends AbstractState>> internedTypes;
+
+  // one table per component, indexed like the wrapped CPAs
+  private final ImmutableList<Interner<AbstractState>> interners;
+
+  private final AtomicIntegerArray lookups;
+  private final AtomicIntegerArray hits;
+
+  CompositeStateInterner(ImmutableList<ConfigurableProgramAnalysis> pCpas,
+      Iterable<Class<? extends AbstractState>> pInternedTypes) {
+    cpas = pCpas;
+    internedTypes = ImmutableSet.copyOf(pInternedTypes);
+
+    ImmutableList.Builder<Interner<AbstractState>> interners = ImmutableList.builder();
+    for (int i = 0; i < pCpas.size(); i++) {
+      interners.add(Interners.<AbstractState>newWeakInterner());
+    }
+    this.interners = interners.build();
+    lookups = new AtomicIntegerArray(pCpas.size());
+    hits = new AtomicIntegerArray(pCpas.size());
+  }
+
+  /**
+   * Create an interner for the given CPAs, or return null if no types should be interned.
+   */
+  static @Nullable CompositeStateInterner create(ImmutableList<ConfigurableProgramAnalysis> pCpas,
+      List<Class<? extends AbstractState>> pInternedTypes) {
+    if (pInternedTypes.isEmpty()) {
+      return null;
+    }
+    return new CompositeStateInterner(pCpas, pInternedTypes);
+  }
+
+  /**
+   * Replace each component state of an interned type by its canonical instance.
+   */
+  ImmutableList<AbstractState> intern(List<AbstractState> pStates) {
+    assert pStates.size() == interners.size();
+
+    ImmutableList.Builder<AbstractState> result = ImmutableList.builder();
+    for (int i = 0; i < pStates.size(); i++) {
+      AbstractState state = pStates.get(i);
+      if (internedTypes.contains(state.getClass())) {
+        lookups.incrementAndGet(i);
+        AbstractState canonical = interners.get(i).intern(state);
+        if (canonical != state) {
+          hits.incrementAndGet(i);
+          state = canonical;
+        }
+      }
+      result.add(state);
+    }
+    return result.build();
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+    StatisticsWriter writer = StatisticsWriter.writingStatisticsTo(pOut);
+    int totalHits = 0;
+    for (int i = 0; i < cpas.size(); i++) {
+      int componentLookups = lookups.get(i);
+      if (componentLookups > 0) {
+        writer.put("Interned states of " + cpas.get(i).getClass().getSimpleName(),
+            componentLookups);
+        writer.beginLevel().put("Equal instance already present",
+            valueWithPercentage(hits.get(i), componentLookups));
+        totalHits += hits.get(i);
+      }
+    }
+    // each hit is a duplicate that is not retained in the reached set
+    writer.put("Duplicate component states avoided", totalHits);
+  }
+
+  @Override
+  public String getName() {
+    return "CompositeCPA state interning";
+  }
+}
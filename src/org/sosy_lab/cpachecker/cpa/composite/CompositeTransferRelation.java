@@ -35,6 +35,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -81,15 +83,18 @@ public final class CompositeTransferRelation implements TransferRelation {
 
   private final ImmutableList<TransferRelation> transferRelations;
   private final CFA cfa;
+  private final @Nullable CompositeStateInterner interner;
   private final int size;
   private int assumptionIndex = -1;
   private int predicatesIndex = -1;
 
   public CompositeTransferRelation(ImmutableList<TransferRelation> pTransferRelations,
-      Configuration pConfig, CFA pCFA) throws InvalidConfigurationException {
+      Configuration pConfig, CFA pCFA, @Nullable CompositeStateInterner pInterner)
+      throws InvalidConfigurationException {
     pConfig.inject(this);
     transferRelations = pTransferRelations;
     cfa = pCFA;
+    interner = pInterner;
     size = pTransferRelations.size();
 
     // prepare special case handling if both predicates and assumptions are used
@@ -286,6 +291,9 @@ public final class CompositeTransferRelation implements TransferRelation {
 
       // finally, create a CompositeState for each result of strengthen
       for (List<AbstractState> lList : lResultingElements) {
+        if (interner != null) {
+          lList = interner.intern(lList);
+        }
         compositeSuccessors.add(new CompositeState(lList));
       }
     }
@@ -81,6 +81,7 @@ public class ConstraintsCPA implements ConfigurableProgramAnalysis, StatisticsPr
   private ConstraintsPrecision precision;
 
   private Solver solver;
+  private ConstraintsSatCheckCache satCheckCache;
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(ConstraintsCPA.class);
@@ -93,13 +94,15 @@ public class ConstraintsCPA implements ConfigurableProgramAnalysis, StatisticsPr
 
     logger = pLogger;
     solver = Solver.create(pConfig, pLogger, pShutdownNotifier);
+    satCheckCache = new ConstraintsSatCheckCache(pConfig);
 
     SymbolicValues.initialize(lessOrEqualType);
     abstractDomain = initializeAbstractDomain();
     mergeOperator = initializeMergeOperator();
     stopOperator = initializeStopOperator();
     transferRelation =
-        new ConstraintsTransferRelation(solver, pCfa.getMachineModel(), logger, pConfig, pShutdownNotifier);
+        new ConstraintsTransferRelation(solver, satCheckCache, pCfa.getMachineModel(), logger,
+            pConfig, pShutdownNotifier);
     precisionAdjustment = new ConstraintsPrecisionAdjustment();
     precision = FullConstraintsPrecision.getInstance();
   }
@@ -182,6 +185,7 @@ public class ConstraintsCPA implements ConfigurableProgramAnalysis, StatisticsPr
   @Override
   public void collectStatistics(Collection<Statistics> statsCollection) {
     precisionAdjustment.collectStatistics(statsCollection);
+    statsCollection.add(satCheckCache);
 
     if (mergeOperator instanceof Statistics) {
       statsCollection.add((Statistics) mergeOperator);
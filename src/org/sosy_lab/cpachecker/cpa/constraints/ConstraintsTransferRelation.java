@@ -65,6 +65,7 @@ import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.ConstraintFactory;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.ConstraintTrivialityChecker;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.IdentifierAssignment;
+import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsSatCheckCache;
 import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsState;
 import org.sosy_lab.cpachecker.cpa.constraints.util.StateSimplifier;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
@@ -100,12 +101,14 @@ public class ConstraintsTransferRelation
   private MachineModel machineModel;
 
   private Solver solver;
+  private ConstraintsSatCheckCache satCheckCache;
   private FormulaManagerView formulaManager;
   private CtoFormulaConverter converter;
   private StateSimplifier simplifier;
 
   public ConstraintsTransferRelation(
       final Solver pSolver,
+      final ConstraintsSatCheckCache pSatCheckCache,
       final MachineModel pMachineModel,
       final LogManager pLogger,
       final Configuration pConfig,
@@ -119,6 +122,7 @@ public class ConstraintsTransferRelation
     simplifier = new StateSimplifier(pConfig);
 
     solver = pSolver;
+    satCheckCache = pSatCheckCache;
     formulaManager = solver.getFormulaManager();
     initializeCToFormulaConverter(pLogger, pConfig, pShutdownNotifier);
   }
@@ -211,7 +215,7 @@ public class ConstraintsTransferRelation
 
     final IdentifierAssignment definiteAssignment = pOldState.getDefiniteAssignment();
     FormulaCreator formulaCreator = getFormulaCreator(pFunctionName);
-    newState.initialize(solver, formulaManager, formulaCreator);
+    newState.initialize(solver, formulaManager, formulaCreator, satCheckCache);
 
     if (oNewConstraint.isPresent()) {
       final Constraint newConstraint = oNewConstraint.get();
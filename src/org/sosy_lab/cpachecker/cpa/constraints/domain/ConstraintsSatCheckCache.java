@@ -0,0 +1,149 @@
+/*
+ * CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import java.io.PrintStream;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.constraints.constraint.IdentifierAssignment;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.solver.api.BooleanFormula;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Results of satisfiability checks of {@link ConstraintsState}s, shared between all states
+ * of one analysis.
+ *
+ * <p>A result is stored for the conjunction of the constraints that were actually given
+ * to the solver. If independence slicing is enabled, this is only the set of constraints
+ * that share symbolic identifiers with the constraints added since the last check,
+ * so the same cluster of constraints is often checked on many different paths.</p>
+ */
+@Options(prefix = "cpa.constraints")
+public class ConstraintsSatCheckCache implements Statistics {
+
+  @Option(secure = true,
+      description = "Only check the satisfiability of constraints that share symbolic"
+      + " identifiers with the constraints added since the last satisfiability check."
+      + " All other constraints are already known to be satisfiable.")
+  private boolean useIndependenceSlicing = true;
+
+  @Option(secure = true,
+      description = "Maximum number of results of satisfiability checks to keep in the"
+      + " cache. Use 0 to disable caching.")
+  private int satCheckCacheSize = 10000;
+
+  /**
+   * Absent values represent unsatisfiable formulas, present values the definite assignments
+   * that were computed for a satisfiable formula.
+   */
+  private final @Nullable Cache<BooleanFormula, Optional<IdentifierAssignment>> results;
+
+  // Statistics
+  final StatCounter fullChecks = new StatCounter("Number of checks of all constraints");
+  final StatCounter slicedChecks = new StatCounter("Number of checks of independent constraints");
+  final StatCounter cachedChecks = new StatCounter("Number of checks answered from cache");
+  final StatCounter skippedChecks =
+      new StatCounter("Number of checks without new constraints");
+  final StatInt checkedConstraints =
+      new StatInt(StatKind.AVG, "Constraints given to solver per check");
+  final StatInt stateConstraints = new StatInt(StatKind.AVG, "Constraints in state per check");
+  final StatTimer solveTime = new StatTimer("Time for satisfiability checks");
+
+  public ConstraintsSatCheckCache(Configuration pConfig) throws InvalidConfigurationException {
+    pConfig.inject(this);
+
+    if (satCheckCacheSize < 0) {
+      throw new InvalidConfigurationException(
+          "Size of satisfiability check cache must not be negative: " + satCheckCacheSize);
+    }
+
+    if (satCheckCacheSize > 0) {
+      results = CacheBuilder.newBuilder().maximumSize(satCheckCacheSize).build();
+    } else {
+      results = null;
+    }
+  }
+
+  boolean useIndependenceSlicing() {
+    return useIndependenceSlicing;
+  }
+
+  /**
+   * Returns the cached result for the given formula, or <code>null</code> if no result is
+   * known. An absent result means that the formula is unsatisfiable.
+   */
+  @Nullable Optional<IdentifierAssignment> getResult(BooleanFormula pFormula) {
+    if (results == null) {
+      return null;
+    }
+    return results.getIfPresent(pFormula);
+  }
+
+  void putUnsat(BooleanFormula pFormula) {
+    if (results != null) {
+      results.put(pFormula, Optional.<IdentifierAssignment>absent());
+    }
+  }
+
+  void putSat(BooleanFormula pFormula, IdentifierAssignment pDefiniteAssignment) {
+    if (results != null) {
+      results.put(pFormula, Optional.of(new IdentifierAssignment(pDefiniteAssignment)));
+    }
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+    StatisticsWriter.writingStatisticsTo(pOut)
+        .put(fullChecks)
+        .put(slicedChecks)
+        .put(cachedChecks)
+        .put(skippedChecks)
+        .put(checkedConstraints)
+        .put(stateConstraints)
+        .put(solveTime)
+        .putIf(results != null, "Cached satisfiability results",
+            results == null ? 0 : results.size());
+  }
+
+  @Override
+  public String getName() {
+    return ConstraintsSatCheckCache.class.getSimpleName();
+  }
+}
@@ -50,12 +50,14 @@ import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.solver.SolverException;
 import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.BooleanFormulaManager;
 import org.sosy_lab.solver.api.Formula;
 import org.sosy_lab.solver.api.Model;
 import org.sosy_lab.solver.api.Model.ValueAssignment;
 import org.sosy_lab.solver.api.ProverEnvironment;
 import org.sosy_lab.solver.api.SolverContext.ProverOptions;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 
 /**
@@ -77,6 +79,13 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
   private Constraint lastAddedConstraint;
   private Map<Constraint, BooleanFormula> constraintFormulas;
 
+  /**
+   * The number of constraints at the start of {@link #constraints} that are known to be
+   * satisfiable together. Constraints are only appended to {@link #constraints} and removing
+   * a constraint from a satisfiable conjunction keeps it satisfiable.
+   */
+  private int satisfiableConstraints = 0;
+
   private Solver solver;
   private ProverEnvironment prover;
   private FormulaCreator formulaCreator;
@@ -85,6 +94,8 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
 
   private IdentifierAssignment definiteAssignment;
 
+  private ConstraintsSatCheckCache satCheckCache;
+
   /**
    * Creates a new, initial <code>ConstraintsState</code> object.
    */
@@ -123,7 +134,9 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
     prover = pState.prover;
     formulaCreator = pState.formulaCreator;
     formulaManager = pState.formulaManager;
+    satCheckCache = pState.satCheckCache;
     locator = pState.locator;
+    satisfiableConstraints = pState.satisfiableConstraints;
 
     lastAddedConstraint = pState.lastAddedConstraint;
     definiteAssignment = new IdentifierAssignment(pState.definiteAssignment);
@@ -163,14 +176,24 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
 
   @Override
   public boolean remove(Object pObject) {
-    boolean changed = constraints.remove(pObject);
+    int index = constraints.indexOf(pObject);
 
-    if (changed) {
-      constraintFormulas.remove(pObject);
-      assert constraints.size() >= constraintFormulas.size();
+    if (index < 0) {
+      return false;
     }
 
-    return changed;
+    removeAt(index);
+    return true;
+  }
+
+  private void removeAt(int pIndex) {
+    Constraint constraintToRemove = constraints.remove(pIndex);
+    constraintFormulas.remove(constraintToRemove);
+
+    if (pIndex < satisfiableConstraints) {
+      satisfiableConstraints--;
+    }
+    assert constraints.size() >= constraintFormulas.size();
   }
 
   Constraint getLastAddedConstraint() {
@@ -223,6 +246,7 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
   public void clear() {
     constraints.clear();
     constraintFormulas.clear();
+    satisfiableConstraints = 0;
   }
 
   @Override
@@ -267,6 +291,27 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
     formulaCreator = pFormulaCreator;
   }
 
+  /**
+   * Initializes this state like {@link #initialize(Solver, FormulaManagerView, FormulaCreator)}
+   * and additionally makes SAT checks of this state use the given cache.
+   * Depending on its configuration, only the constraints that depend on constraints
+   * added since the last SAT check are given to the solver then.
+   *
+   * @param pSolver the solver to use for SAT checks.
+   * @param pFormulaManager the formula manager to use for creating {@link Formula}s
+   * @param pFormulaCreator the formula creator to use for creating <code>Formula</code>s
+   * @param pSatCheckCache the cache for results of SAT checks, shared between states
+   */
+  public void initialize(
+      Solver pSolver,
+      FormulaManagerView pFormulaManager,
+      FormulaCreator pFormulaCreator,
+      ConstraintsSatCheckCache pSatCheckCache
+  ) {
+    initialize(pSolver, pFormulaManager, pFormulaCreator);
+    satCheckCache = checkNotNull(pSatCheckCache);
+  }
+
   /**
    * Returns whether this state is unsatisfiable.
    * A state without constraints (that is, an empty state), is always satisfiable.
@@ -274,6 +319,10 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
    * @return <code>true</code> if this state is unsatisfiable, <code>false</code> otherwise
    */
   public boolean isUnsat() throws SolverException, InterruptedException, UnrecognizedCCodeException {
+    if (satCheckCache != null) {
+      return isUnsatUsingCache();
+    }
+
     boolean unsat = false;
 
     try {
@@ -301,6 +350,124 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
     return unsat;
   }
 
+  private boolean isUnsatUsingCache()
+      throws SolverException, InterruptedException, UnrecognizedCCodeException {
+
+    if (satisfiableConstraints == constraints.size()) {
+      satCheckCache.skippedChecks.inc();
+      return false;
+    }
+
+    createMissingConstraintFormulas();
+
+    List<Constraint> constraintsToCheck;
+    if (satCheckCache.useIndependenceSlicing() && satisfiableConstraints > 0) {
+      constraintsToCheck = getConstraintsDependingOnUncheckedOnes();
+      satCheckCache.slicedChecks.inc();
+    } else {
+      constraintsToCheck = constraints;
+      satCheckCache.fullChecks.inc();
+    }
+    satCheckCache.checkedConstraints.setNextValue(constraintsToCheck.size());
+    satCheckCache.stateConstraints.setNextValue(constraints.size());
+
+    BooleanFormulaManager bfmgr = formulaManager.getBooleanFormulaManager();
+    List<BooleanFormula> formulasToCheck = new ArrayList<>(constraintsToCheck.size());
+    for (Constraint c : constraintsToCheck) {
+      formulasToCheck.add(constraintFormulas.get(c));
+    }
+    BooleanFormula formulaToCheck = bfmgr.and(formulasToCheck);
+
+    Optional<IdentifierAssignment> cachedResult = satCheckCache.getResult(formulaToCheck);
+    if (cachedResult != null) {
+      satCheckCache.cachedChecks.inc();
+
+      if (!cachedResult.isPresent()) {
+        definiteAssignment = null;
+        return true;
+      }
+
+      IdentifierAssignment oldDefinites = new IdentifierAssignment(definiteAssignment);
+      for (Entry<SymbolicIdentifier, Value> definite : cachedResult.get().entrySet()) {
+        if (!definiteAssignment.containsKey(definite.getKey())) {
+          definiteAssignment.put(definite.getKey(), definite.getValue());
+        }
+      }
+      updateOldFormulasDefinitesAppearIn(oldDefinites, definiteAssignment);
+      satisfiableConstraints = constraints.size();
+      return false;
+    }
+
+    satCheckCache.solveTime.start();
+    try {
+      // All constraints not in the checked set are satisfiable and share no symbolic identifiers
+      // with the checked ones, so a model of the checked set can be combined with a model
+      // of the others. Thus definite assignments can be computed on the checked set alone.
+      prover = solver.newProverEnvironment(ProverOptions.GENERATE_MODELS);
+      prover.push(formulaToCheck);
+
+      if (prover.isUnsat()) {
+        satCheckCache.putUnsat(formulaToCheck);
+        definiteAssignment = null;
+        return true;
+      }
+
+      IdentifierAssignment oldDefinites = new IdentifierAssignment(definiteAssignment);
+      resolveDefiniteAssignments();
+
+      IdentifierAssignment newDefinites = new IdentifierAssignment();
+      for (Entry<SymbolicIdentifier, Value> definite : definiteAssignment.entrySet()) {
+        if (!oldDefinites.containsKey(definite.getKey())) {
+          newDefinites.put(definite.getKey(), definite.getValue());
+        }
+      }
+      satCheckCache.putSat(formulaToCheck, newDefinites);
+      satisfiableConstraints = constraints.size();
+      return false;
+
+    } finally {
+      closeProver();
+      satCheckCache.solveTime.stop();
+    }
+  }
+
+  /**
+   * Returns all constraints that were added since the last successful SAT check, together with
+   * all constraints that are transitively connected to them by common symbolic identifiers.
+   */
+  private List<Constraint> getConstraintsDependingOnUncheckedOnes() {
+    Set<SymbolicIdentifier> relevantIdentifiers = new HashSet<>();
+    List<Constraint> relevantConstraints = new ArrayList<>();
+
+    for (Constraint c : constraints.subList(satisfiableConstraints, constraints.size())) {
+      relevantIdentifiers.addAll(c.accept(locator));
+      relevantConstraints.add(c);
+    }
+
+    List<Constraint> otherConstraints =
+        new ArrayList<>(constraints.subList(0, satisfiableConstraints));
+    boolean changed = true;
+
+    while (changed) {
+      changed = false;
+      Iterator<Constraint> it = otherConstraints.iterator();
+
+      while (it.hasNext()) {
+        Constraint c = it.next();
+        Set<SymbolicIdentifier> identifiers = c.accept(locator);
+
+        if (!Collections.disjoint(relevantIdentifiers, identifiers)) {
+          relevantIdentifiers.addAll(identifiers);
+          relevantConstraints.add(c);
+          it.remove();
+          changed = true;
+        }
+      }
+    }
+
+    return relevantConstraints;
+  }
+
   private void closeProver() {
     if (prover != null) {
       prover.close();
@@ -525,10 +692,7 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
         throw new IllegalStateException("Iterator not at valid location");
       }
 
-      Constraint constraintToRemove = constraints.get(index);
-
-      constraints.remove(index);
-      constraintFormulas.remove(constraintToRemove);
+      removeAt(index);
       index--;
     }
   }
@@ -28,13 +28,31 @@ import java.util.Iterator;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.Type;
 import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.cpa.constraints.FormulaCreator;
+import org.sosy_lab.cpachecker.cpa.constraints.FormulaCreatorUsingCConverter;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicExpression;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicIdentifier;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicValueFactory;
 import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.VariableClassification;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.CtoFormulaConverter;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.CtoFormulaTypeHandler;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.FormulaEncodingOptions;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
 
 /**
  * Unit tests for {@link ConstraintsState}
@@ -87,4 +105,94 @@ public class ConstraintsStateTest {
     Assert.assertFalse(it.hasNext());
     Assert.assertTrue(state.isEmpty());
   }
+
+  @Test
+  public void testSlicedCheckAgreesWithFullCheckOnSatisfiableConstraints() throws Exception {
+    SymbolicExpression idExp2 = factory.asConstant(factory.newIdentifier(), defType);
+    SymbolicExpression idExp3 = factory.asConstant(factory.newIdentifier(), defType);
+    SymbolicExpression zero = factory.asConstant(new NumericValue(0), defType);
+
+    // idExp1 and idExp3 are only connected by the last constraint,
+    // so the sliced checks in between do not see all constraints
+    assertSlicedAndFullChecksAgree(ImmutableList.of(
+        (Constraint) factory.greaterThan(idExp1, zero, defType, defType),
+        (Constraint) factory.lessThanOrEqual(idExp2, numExp, defType, defType),
+        factory.equal(idExp3, numExp, defType, defType),
+        (Constraint) factory.lessThanOrEqual(idExp1, numExp, defType, defType),
+        factory.equal(idExp2, idExp3, defType, defType)));
+  }
+
+  @Test
+  public void testSlicedCheckAgreesWithFullCheckOnUnsatisfiableConstraints() throws Exception {
+    SymbolicExpression idExp2 = factory.asConstant(factory.newIdentifier(), defType);
+
+    assertSlicedAndFullChecksAgree(ImmutableList.of(
+        constr2,
+        (Constraint) factory.lessThan(idExp2, numExp, defType, defType),
+        factory.equal(idExp2, idExp1, defType, defType),
+        factory.equal(idExp2, numExp, defType, defType)));
+  }
+
+  @Test
+  public void testSlicedCheckAgreesWithFullCheckOnDefiniteAssignments() throws Exception {
+    SymbolicExpression idExp2 = factory.asConstant(factory.newIdentifier(), defType);
+    SymbolicExpression idExp3 = factory.asConstant(factory.newIdentifier(), defType);
+    SymbolicExpression one = factory.asConstant(new NumericValue(1), defType);
+
+    assertSlicedAndFullChecksAgree(ImmutableList.of(
+        constr1,
+        (Constraint) factory.greaterThan(idExp2, numExp, defType, defType),
+        (Constraint) factory.greaterThan(idExp3, numExp, defType, defType),
+        factory.equal(factory.add(idExp1, one, defType, defType), idExp3, defType, defType),
+        (Constraint) factory.lessThanOrEqual(idExp2, idExp3, defType, defType)));
+  }
+
+  /**
+   * Adds the given constraints one after another to a state that checks satisfiability
+   * of all its constraints and to a state that uses a {@link ConstraintsSatCheckCache}
+   * with independence slicing, and checks after each step that both states agree.
+   */
+  private void assertSlicedAndFullChecksAgree(Iterable<Constraint> pConstraints)
+      throws Exception {
+    Configuration config = TestDataTools.configurationForTest()
+        .setOption("cpa.constraints.useIndependenceSlicing", "true")
+        .build();
+    LogManager logger = TestLogManager.getInstance();
+    ShutdownNotifier notifier = ShutdownNotifier.createDummy();
+    Solver solver = Solver.create(config, logger, notifier);
+    FormulaManagerView formulaManager = solver.getFormulaManager();
+
+    MachineModel machineModel = MachineModel.LINUX32;
+    CtoFormulaConverter converter = new CtoFormulaConverter(
+        new FormulaEncodingOptions(config),
+        formulaManager,
+        machineModel,
+        Optional.<VariableClassification>absent(),
+        logger,
+        notifier,
+        new CtoFormulaTypeHandler(logger, machineModel),
+        AnalysisDirection.FORWARD);
+    FormulaCreator formulaCreator =
+        new FormulaCreatorUsingCConverter(formulaManager, converter, "main");
+
+    ConstraintsState fullState = new ConstraintsState();
+    fullState.initialize(solver, formulaManager, formulaCreator);
+
+    ConstraintsState slicedState = new ConstraintsState();
+    slicedState.initialize(
+        solver, formulaManager, formulaCreator, new ConstraintsSatCheckCache(config));
+
+    for (Constraint c : pConstraints) {
+      fullState.add(c);
+      slicedState.add(c);
+
+      boolean fullUnsat = fullState.isUnsat();
+      Assert.assertEquals(fullUnsat, slicedState.isUnsat());
+
+      if (fullUnsat) {
+        return;
+      }
+      Assert.assertEquals(fullState.getDefiniteAssignment(), slicedState.getDefiniteAssignment());
+    }
+  }
 }
@@ -76,7 +76,7 @@ public class FormulaSlicingCPA extends SingleEdgeTransferRelation
         AnalysisDirection.FORWARD);
 
     if (useCachingPathFormulaManager) {
-      pathFormulaManager = new CachingPathFormulaManager(pathFormulaManager);
+      pathFormulaManager = new CachingPathFormulaManager(pConfiguration, pathFormulaManager);
     }
 
     inductiveWeakeningManager = new InductiveWeakeningManager(pConfiguration, solver, pLogger,
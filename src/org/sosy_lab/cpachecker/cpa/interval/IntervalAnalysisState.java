@@ -37,6 +37,7 @@ import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
 import org.sosy_lab.cpachecker.exceptions.InvalidQueryException;
 import org.sosy_lab.cpachecker.util.CheckTypesOfStringsUtil;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
@@ -48,7 +49,7 @@ import org.sosy_lab.solver.api.NumeralFormula;
 import com.google.common.base.Splitter;
 
 public class IntervalAnalysisState implements Serializable, LatticeAbstractState<IntervalAnalysisState>,
-    AbstractQueryableState, Graphable, FormulaReportingState {
+    AbstractQueryableState, Graphable, FormulaReportingState, PseudoPartitionable {
 
   private static final long serialVersionUID = -2030700797958100666L;
 
@@ -258,6 +259,25 @@ public class IntervalAnalysisState implements Serializable, LatticeAbstractState
     return true;
   }
 
+  /**
+   * A state can only be covered by states with less or equal intervals,
+   * so the number of intervals is used as key.
+   */
+  @Override
+  public int getPseudoPartitionKey() {
+    return intervals.size();
+  }
+
+  /** A bloom filter of the variables for which an interval is stored. */
+  @Override
+  public long getPseudoPartitionSignature() {
+    long signature = 0;
+    for (String variableName : intervals.keySet()) {
+      signature |= 1L << variableName.hashCode();
+    }
+    return signature;
+  }
+
   public static IntervalAnalysisState copyOf(IntervalAnalysisState old) {
     return new IntervalAnalysisState(old.intervals, old.referenceCounts);
   }
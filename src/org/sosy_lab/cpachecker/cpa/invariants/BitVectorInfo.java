@@ -46,12 +46,24 @@ public class BitVectorInfo {
 
   private final BigInteger maxValue;
 
+  private final long minValueLong;
+
+  private final long maxValueLong;
+
+  /**
+   * The maximum size of bit vectors for which the sum or difference
+   * of two values still fits into a long.
+   */
+  private static final int MAX_SIZE_FOR_LONG_ARITHMETIC = Long.SIZE - 2;
+
   private BitVectorInfo(int pSize, boolean pSigned) {
     Preconditions.checkArgument(pSize >= 0, "bit vector size must not be negative");
     size = pSize;
     signed = pSigned;
     minValue = !signed ? BigInteger.ZERO : BigInteger.valueOf(2).pow(size - 1).negate();
     maxValue = !signed ? BigInteger.valueOf(2).pow(size).subtract(BigInteger.ONE) : BigInteger.valueOf(2).pow(size - 1).subtract(BigInteger.ONE);
+    minValueLong = minValue.longValue();
+    maxValueLong = maxValue.longValue();
   }
 
   public int getSize() {
@@ -70,6 +82,46 @@ public class BitVectorInfo {
     return maxValue;
   }
 
+  /**
+   * Checks whether all values of bit vectors of this size and signedness
+   * can be represented as longs.
+   *
+   * @return <code>true</code> if all values fit into a long,
+   * <code>false</code> otherwise.
+   */
+  public boolean fitsInLong() {
+    return size < Long.SIZE || (signed && size == Long.SIZE);
+  }
+
+  /**
+   * Gets the minimum value as a long.
+   * May only be called if {@link #fitsInLong()} returns true.
+   */
+  public long getMinValueAsLong() {
+    Preconditions.checkState(fitsInLong());
+    return minValueLong;
+  }
+
+  /**
+   * Gets the maximum value as a long.
+   * May only be called if {@link #fitsInLong()} returns true.
+   */
+  public long getMaxValueAsLong() {
+    Preconditions.checkState(fitsInLong());
+    return maxValueLong;
+  }
+
+  /**
+   * Checks whether adding or subtracting two values of bit vectors of this
+   * size and signedness can be done on longs without overflowing them.
+   *
+   * @return <code>true</code> if long arithmetic can be used,
+   * <code>false</code> otherwise.
+   */
+  public boolean supportsLongArithmetic() {
+    return size <= MAX_SIZE_FOR_LONG_ARITHMETIC;
+  }
+
   public BitVectorInterval getRange() {
     return BitVectorInterval.of(this, minValue, maxValue);
   }
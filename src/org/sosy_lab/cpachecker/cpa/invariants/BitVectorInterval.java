@@ -26,7 +26,8 @@ package org.sosy_lab.cpachecker.cpa.invariants;
 import static com.google.common.base.Preconditions.*;
 
 import java.math.BigInteger;
-import java.util.Objects;
+
+import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
 
@@ -37,18 +38,40 @@ import com.google.common.base.Preconditions;
  * to be included in the range.
  *
  * All instances of this class are immutable.
+ *
+ * If all values of the bit vector fit into a long (see {@link BitVectorInfo#fitsInLong()}),
+ * the bounds are stored as longs, and big integers are only created on demand
+ * and then cached.
  */
 public class BitVectorInterval implements BitVectorType {
 
+  /**
+   * Whether the bounds are stored as longs.
+   */
+  private final boolean longBounds;
+
   /**
    * The lower bound of the interval.
+   * If the bounds are stored as longs, this is null until it is requested.
+   * (Concurrent initialization is harmless, because big integers are immutable.)
    */
-  private final BigInteger lowerBound;
+  private @Nullable BigInteger lowerBound;
 
   /**
    * The upper bound of the interval.
+   * If the bounds are stored as longs, this is null until it is requested.
    */
-  private final BigInteger upperBound;
+  private @Nullable BigInteger upperBound;
+
+  /**
+   * The lower bound of the interval if the bounds are stored as longs.
+   */
+  private final long lowerBoundLong;
+
+  /**
+   * The upper bound of the interval if the bounds are stored as longs.
+   */
+  private final long upperBoundLong;
 
   /**
    * Size and signedness.
@@ -73,8 +96,50 @@ public class BitVectorInterval implements BitVectorType {
     checkArgument(pUpperBound.compareTo(pInfo.getMaxValue()) <= 0, "upper bound must fit the bit vector");
 
     info = pInfo;
+    longBounds = pInfo.fitsInLong();
     lowerBound = pLowerBound;
     upperBound = pUpperBound;
+    if (longBounds) {
+      lowerBoundLong = pLowerBound.longValue();
+      upperBoundLong = pUpperBound.longValue();
+    } else {
+      lowerBoundLong = 0;
+      upperBoundLong = 0;
+    }
+  }
+
+  /**
+   * Creates a new interval from the given lower bound to the given upper bound.
+   * May only be used if the values of the bit vector fit into a long.
+   *
+   * The lower bound must be a value less than or equal to the upper bound.
+   *
+   * @param pLowerBound the lower bound of the interval.
+   * @param pUpperBound the upper bound of the interval.
+   */
+  private BitVectorInterval(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    checkNotNull(pInfo);
+    checkArgument(pLowerBound <= pUpperBound, "lower endpoint greater than upper end point");
+    checkArgument(pLowerBound >= pInfo.getMinValueAsLong(), "lower bound must fit the bit vector");
+    checkArgument(pUpperBound <= pInfo.getMaxValueAsLong(), "upper bound must fit the bit vector");
+
+    info = pInfo;
+    longBounds = true;
+    lowerBound = null;
+    upperBound = null;
+    lowerBoundLong = pLowerBound;
+    upperBoundLong = pUpperBound;
+  }
+
+  /**
+   * Checks whether the bounds of this interval are stored as longs,
+   * which is the case if the values of the bit vector fit into a long.
+   *
+   * @return <code>true</code> if {@link #getLowerBoundAsLong()} and
+   * {@link #getUpperBoundAsLong()} may be called, <code>false</code> otherwise.
+   */
+  public boolean hasLongBounds() {
+    return longBounds;
   }
 
   /**
@@ -91,14 +156,72 @@ public class BitVectorInterval implements BitVectorType {
    * Return lower bound (may only be called if {@link #hasLowerBound()} returns true.
    */
   public BigInteger getLowerBound() {
-    return lowerBound;
+    BigInteger result = lowerBound;
+    if (result == null) {
+      result = BigInteger.valueOf(lowerBoundLong);
+      lowerBound = result;
+    }
+    return result;
   }
 
   /**
    * Return upper bound (may only be called if {@link #hasUpperBound()} returns true.
    */
   public BigInteger getUpperBound() {
-    return upperBound;
+    BigInteger result = upperBound;
+    if (result == null) {
+      result = BigInteger.valueOf(upperBoundLong);
+      upperBound = result;
+    }
+    return result;
+  }
+
+  /**
+   * Return lower bound as a long (may only be called if {@link #hasLongBounds()} returns true.
+   */
+  public long getLowerBoundAsLong() {
+    checkState(hasLongBounds());
+    return lowerBoundLong;
+  }
+
+  /**
+   * Return upper bound as a long (may only be called if {@link #hasLongBounds()} returns true.
+   */
+  public long getUpperBoundAsLong() {
+    checkState(hasLongBounds());
+    return upperBoundLong;
+  }
+
+  /**
+   * Compares the lower bound of this interval to the given bound of another interval.
+   */
+  private int compareLowerBoundTo(BitVectorInterval pOther, boolean pOtherLowerBound) {
+    if (hasLongBounds() && pOther.hasLongBounds()) {
+      long other = pOtherLowerBound ? pOther.lowerBoundLong : pOther.upperBoundLong;
+      return Long.compare(lowerBoundLong, other);
+    }
+    BigInteger other = pOtherLowerBound ? pOther.getLowerBound() : pOther.getUpperBound();
+    return getLowerBound().compareTo(other);
+  }
+
+  /**
+   * Compares the upper bound of this interval to the given bound of another interval.
+   */
+  private int compareUpperBoundTo(BitVectorInterval pOther, boolean pOtherLowerBound) {
+    if (hasLongBounds() && pOther.hasLongBounds()) {
+      long other = pOtherLowerBound ? pOther.lowerBoundLong : pOther.upperBoundLong;
+      return Long.compare(upperBoundLong, other);
+    }
+    BigInteger other = pOtherLowerBound ? pOther.getLowerBound() : pOther.getUpperBound();
+    return getUpperBound().compareTo(other);
+  }
+
+  private int lowerBoundSignum() {
+    return hasLongBounds() ? Long.signum(lowerBoundLong) : lowerBound.signum();
+  }
+
+  private int upperBoundSignum() {
+    return hasLongBounds() ? Long.signum(upperBoundLong) : upperBound.signum();
   }
 
   /**
@@ -132,8 +255,13 @@ public class BitVectorInterval implements BitVectorType {
     if (pOther.isSingleton() || contains(pOther)) {
       return pOther;
     }
+    if (hasLongBounds() && pOther.hasLongBounds()) {
+      return new BitVectorInterval(info,
+          Math.max(lowerBoundLong, pOther.lowerBoundLong),
+          Math.min(upperBoundLong, pOther.upperBoundLong));
+    }
     // The lower bound of this interval is a candidate for the new lower bound
-    BigInteger lowerBound = this.lowerBound;
+    BigInteger lowerBound = this.getLowerBound();
 
     // The lower bound of the other interval is a candidate as well
     BigInteger otherLowerBound = pOther.getLowerBound();
@@ -143,7 +271,7 @@ public class BitVectorInterval implements BitVectorType {
     lowerBound = lowerBound.max(otherLowerBound);
 
     // The upper bound of this interval is a candidate for the new lower bound
-    BigInteger upperBound = this.upperBound;
+    BigInteger upperBound = this.getUpperBound();
     // The upper bound of the other interval is a candidate as well
     BigInteger otherUpperBound = pOther.getUpperBound();
     /*
@@ -156,11 +284,17 @@ public class BitVectorInterval implements BitVectorType {
 
   public BitVectorInterval getNegativePart() {
     Preconditions.checkArgument(containsNegative(), "This interval has no negative part.");
+    if (hasLongBounds()) {
+      return new BitVectorInterval(info, lowerBoundLong, Math.min(-1, upperBoundLong));
+    }
     return BitVectorInterval.of(info, lowerBound, BigInteger.valueOf(-1).min(upperBound));
   }
 
   public BitVectorInterval getPositivePart() {
     Preconditions.checkArgument(containsPositive(), "This interval has no positive part.");
+    if (hasLongBounds()) {
+      return new BitVectorInterval(info, Math.max(1, lowerBoundLong), upperBoundLong);
+    }
     return BitVectorInterval.of(info, BigInteger.ONE.max(lowerBound), upperBound);
   }
 
@@ -186,7 +320,7 @@ public class BitVectorInterval implements BitVectorType {
    * positive value, <code>false</code> otherwise.
    */
   public boolean containsPositive() {
-    return upperBound.signum() == 1;
+    return upperBoundSignum() == 1;
   }
 
   /**
@@ -195,8 +329,8 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean containsZero() {
-    return upperBound.signum() >= 0
-        && lowerBound.signum() <= 0;
+    return upperBoundSignum() >= 0
+        && lowerBoundSignum() <= 0;
   }
 
   /**
@@ -205,6 +339,13 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean contains(BigInteger pValue) {
+    if (hasLongBounds()) {
+      if (pValue.bitLength() >= Long.SIZE) {
+        return false;
+      }
+      long value = pValue.longValue();
+      return upperBoundLong >= value && lowerBoundLong <= value;
+    }
     return upperBound.compareTo(pValue) >= 0
         && lowerBound.compareTo(pValue) <= 0;
   }
@@ -215,7 +356,7 @@ public class BitVectorInterval implements BitVectorType {
    * negative value, <code>false</code> otherwise.
    */
   public boolean containsNegative() {
-    return lowerBound.signum() == -1;
+    return lowerBoundSignum() == -1;
   }
 
   /**
@@ -225,7 +366,7 @@ public class BitVectorInterval implements BitVectorType {
    * @return The upper bound minus the lower bound plus one.
    */
   public BigInteger size() {
-    return upperBound.subtract(lowerBound).add(BigInteger.ONE);
+    return getUpperBound().subtract(getLowerBound()).add(BigInteger.ONE);
   }
 
   /**
@@ -237,6 +378,9 @@ public class BitVectorInterval implements BitVectorType {
    * single value, <code>false</code> otherwise.
    */
   public boolean isSingleton() {
+    if (hasLongBounds()) {
+      return lowerBoundLong == upperBoundLong;
+    }
     return lowerBound.equals(upperBound);
   }
 
@@ -251,8 +395,8 @@ public class BitVectorInterval implements BitVectorType {
    * @return the mathematical negation of this interval.
    */
   public BitVectorInterval negate(boolean pAllowSignedWrapAround, OverflowEventHandler pOverflowEventHandler) {
-    BigInteger newLowerBound = upperBound.negate();
-    BigInteger newUpperBound = lowerBound.negate();
+    BigInteger newLowerBound = getUpperBound().negate();
+    BigInteger newUpperBound = getLowerBound().negate();
 
     boolean lbExceedsBelow = newLowerBound.compareTo(info.getMinValue()) < 0;
     boolean lbExceedsAbove = !lbExceedsBelow && newLowerBound.compareTo(info.getMaxValue()) > 0;
@@ -384,6 +528,79 @@ public class BitVectorInterval implements BitVectorType {
     return BitVectorInterval.of(pInfo, lowerBound, upperBound);
   }
 
+  /**
+   * Casts the interval from the given lower bound to the given upper bound
+   * to the given bit vector type like
+   * {@link #cast(BitVectorInfo, BigInteger, BigInteger, boolean, OverflowEventHandler)},
+   * but computes on longs.
+   * May only be used if {@link BitVectorInfo#supportsLongArithmetic()} returns true
+   * and the bounds are the result of adding or subtracting values of such bit vectors,
+   * so that no computation overflows.
+   */
+  public static BitVectorInterval cast(BitVectorInfo pInfo,
+      long pLowerBound,
+      long pUpperBound,
+      boolean pAllowSignedWrapAround,
+      OverflowEventHandler pOverflowEventHandler) {
+    checkArgument(pInfo.supportsLongArithmetic());
+    checkArgument(pLowerBound <= pUpperBound, "lower endpoint greater than upper end point");
+    long minValue = pInfo.getMinValueAsLong();
+    long maxValue = pInfo.getMaxValueAsLong();
+
+    boolean lbExceedsBelow = pLowerBound < minValue;
+    boolean lbExceedsAbove = !lbExceedsBelow && pLowerBound > maxValue;
+    boolean ubExceedsBelow = pUpperBound < minValue;
+    boolean ubExceedsAbove = !ubExceedsBelow && pUpperBound > maxValue;
+
+    // If the value fits in the range, there is no problem
+    if (!(lbExceedsBelow || lbExceedsAbove || ubExceedsBelow || ubExceedsAbove)) {
+      return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+    }
+
+    // If the type is signed, wrap-around is implementation defined
+    if (!pAllowSignedWrapAround && pInfo.isSigned()) {
+      pOverflowEventHandler.signedOverflow();
+      return pInfo.getRange();
+    }
+
+    long rangeLength = 1L << pInfo.getSize();
+
+    // If the value is larger than the full range, just return the full range
+    if (pUpperBound - pLowerBound + 1 >= rangeLength) {
+      return pInfo.getRange();
+    }
+
+    long lowerBound;
+    long upperBound;
+    if (ubExceedsBelow) { // Full interval is below the minimum value
+      lowerBound = pLowerBound % rangeLength;
+      if (lowerBound < minValue) {
+        lowerBound += rangeLength;
+      }
+      upperBound = lowerBound + (pUpperBound - pLowerBound);
+
+      // If the interval still exceeds the range, there is nothing we can do here
+      if (upperBound > maxValue) {
+        return pInfo.getRange();
+      }
+    } else if (lbExceedsAbove) { // Full interval is above the maximum value
+      upperBound = pUpperBound % rangeLength;
+      if (upperBound > maxValue) {
+        upperBound -= rangeLength;
+      }
+      lowerBound = upperBound - (pUpperBound - pLowerBound);
+
+      // If the interval still exceeds the range, there is nothing we can do here
+      if (lowerBound < minValue) {
+        return pInfo.getRange();
+      }
+    } else { // Part of the interval is outside of the range
+      return pInfo.getRange();
+    }
+
+    return new BitVectorInterval(pInfo, lowerBound, upperBound);
+  }
+
   /**
    * Returns an interval from this interval's lower bound to the maximum value
    * allowed by the bit vector size.
@@ -392,6 +609,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMaxValue() {
+    if (hasLongBounds()) {
+      if (upperBoundLong == info.getMaxValueAsLong()) {
+        return this;
+      }
+      return new BitVectorInterval(info, lowerBoundLong, info.getMaxValueAsLong());
+    }
     if (upperBound.equals(info.getMaxValue())) {
       return this;
     }
@@ -406,6 +629,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMinValue() {
+    if (hasLongBounds()) {
+      if (lowerBoundLong == info.getMinValueAsLong()) {
+        return this;
+      }
+      return new BitVectorInterval(info, info.getMinValueAsLong(), upperBoundLong);
+    }
     if (lowerBound.equals(info.getMinValue())) {
       return this;
     }
@@ -421,17 +650,39 @@ public class BitVectorInterval implements BitVectorType {
     }
 
     BitVectorInterval other = (BitVectorInterval) pObj;
-    return Objects.equals(this.lowerBound, other.lowerBound)
-        && Objects.equals(this.upperBound, other.upperBound);
+    if (hasLongBounds() && other.hasLongBounds()) {
+      return lowerBoundLong == other.lowerBoundLong
+          && upperBoundLong == other.upperBoundLong;
+    }
+    return getLowerBound().equals(other.getLowerBound())
+        && getUpperBound().equals(other.getUpperBound());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(lowerBound, upperBound);
+    // must be independent of the representation of the bounds
+    if (hasLongBounds()) {
+      return 31 * hashCode(lowerBoundLong) + hashCode(upperBoundLong);
+    }
+    return 31 * hashCode(lowerBound) + hashCode(upperBound);
+  }
+
+  private static int hashCode(BigInteger pValue) {
+    if (pValue.bitLength() < Long.SIZE) {
+      return hashCode(pValue.longValue());
+    }
+    return pValue.hashCode();
+  }
+
+  private static int hashCode(long pValue) {
+    return (int) (pValue ^ (pValue >>> 32));
   }
 
   @Override
   public String toString() {
+    if (hasLongBounds()) {
+      return "[" + lowerBoundLong + ", " + upperBoundLong + "]";
+    }
     return "[" + lowerBound + ", " + upperBound + "]";
   }
 
@@ -449,8 +700,8 @@ public class BitVectorInterval implements BitVectorType {
       return false;
     }
 
-    return this.lowerBound.compareTo(pOther.lowerBound) <= 0
-        && this.upperBound.compareTo(pOther.upperBound) >= 0;
+    return compareLowerBoundTo(pOther, true) <= 0
+        && compareUpperBoundTo(pOther, false) >= 0;
   }
 
   /**
@@ -466,8 +717,13 @@ public class BitVectorInterval implements BitVectorType {
   public boolean touches(BitVectorInterval pOther) {
     if (pOther == null) { return false; }
     if (intersectsWith(pOther)) { return true; }
-    return pOther.upperBound.add(BigInteger.ONE).equals(this.lowerBound)
-        || this.upperBound.add(BigInteger.ONE).equals(pOther.lowerBound);
+    if (hasLongBounds() && pOther.hasLongBounds()) {
+      // the bounds are within the range of the bit vector, so adding one cannot overflow
+      return pOther.upperBoundLong + 1 == this.lowerBoundLong
+          || this.upperBoundLong + 1 == pOther.lowerBoundLong;
+    }
+    return pOther.getUpperBound().add(BigInteger.ONE).equals(this.getLowerBound())
+        || this.getUpperBound().add(BigInteger.ONE).equals(pOther.getLowerBound());
   }
 
   /**
@@ -481,8 +737,8 @@ public class BitVectorInterval implements BitVectorType {
 
     // this is [a, b]; other is [c, d]
     // result is true if a <= d and b >= c
-    boolean aLessThanOrEqB = this.lowerBound.compareTo(other.upperBound) <= 0;
-    boolean bGreaterThanOrEqC = this.upperBound.compareTo(other.lowerBound) >= 0;
+    boolean aLessThanOrEqB = compareLowerBoundTo(other, false) <= 0;
+    boolean bGreaterThanOrEqC = compareUpperBoundTo(other, true) >= 0;
     return aLessThanOrEqB && bGreaterThanOrEqC;
   }
 
@@ -516,6 +772,14 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pI, pI);
   }
 
+  /**
+   * Creates a singleton interval of the given value.
+   * May only be used if the values of the bit vector fit into a long.
+   */
+  public static BitVectorInterval singleton(BitVectorInfo pInfo, long pI) {
+    return new BitVectorInterval(pInfo, pI, pI);
+  }
+
   public static BitVectorInterval greaterOrEqual(BitVectorInfo pInfo, BigInteger pI) {
     return singleton(pInfo, pI).extendToMaxValue();
   }
@@ -528,31 +792,31 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
   }
 
+  /**
+   * Creates an interval from the given lower bound to the given upper bound.
+   * May only be used if the values of the bit vector fit into a long.
+   */
+  public static BitVectorInterval of(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+  }
+
   /**
    * Create the smallest interval that contains two given intervals;
    */
   public static BitVectorInterval span(BitVectorInterval a, BitVectorInterval b) {
     a.checkBitVectorCompatibilityWith(b);
-    BigInteger lower;
-    if (a.lowerBound == null || b.lowerBound == null) {
-      lower = null;
-    } else {
-      lower = a.lowerBound.min(b.lowerBound);
-    }
-
-    BigInteger upper;
-    if (a.upperBound == null || b.upperBound == null) {
-      upper = null;
-    } else {
-      upper = a.upperBound.max(b.upperBound);
-    }
-
-    if (lower == a.lowerBound && upper == a.upperBound) {
+    if (a.contains(b)) {
       return a;
-    } else if (lower == b.lowerBound && upper == b.upperBound) {
+    } else if (b.contains(a)) {
       return b;
+    } else if (a.hasLongBounds()) {
+      return new BitVectorInterval(a.info,
+          Math.min(a.lowerBoundLong, b.lowerBoundLong),
+          Math.max(a.upperBoundLong, b.upperBoundLong));
     } else {
-      return new BitVectorInterval(a.info, lower, upper);
+      return new BitVectorInterval(a.info,
+          a.lowerBound.min(b.lowerBound),
+          a.upperBound.max(b.upperBound));
     }
   }
 }
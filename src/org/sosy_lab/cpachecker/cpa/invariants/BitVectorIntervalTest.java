@@ -0,0 +1,109 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.invariants;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class BitVectorIntervalTest {
+
+  private static final BitVectorInfo INT = BitVectorInfo.from(32, true);
+
+  private static final BitVectorInfo UINT = BitVectorInfo.from(32, false);
+
+  private static final BitVectorInfo ULONG = BitVectorInfo.from(64, false);
+
+  @Test
+  public void testRepresentation() {
+    assertTrue(BitVectorInterval.of(INT, BigInteger.ZERO, BigInteger.TEN).hasLongBounds());
+    assertTrue(BitVectorInfo.from(64, true).getRange().hasLongBounds());
+    assertFalse(BitVectorInterval.of(ULONG, BigInteger.ZERO, BigInteger.TEN).hasLongBounds());
+  }
+
+  @Test
+  public void testEqualityIndependentOfRepresentation() {
+    BitVectorInterval longBounds = BitVectorInterval.of(UINT, BigInteger.ZERO, BigInteger.TEN);
+    BitVectorInterval bigBounds = BitVectorInterval.of(ULONG, BigInteger.ZERO, BigInteger.TEN);
+    assertEquals(longBounds, bigBounds);
+    assertEquals(longBounds.hashCode(), bigBounds.hashCode());
+    assertEquals(BitVectorInterval.of(INT, 0, 10), longBounds);
+  }
+
+  @Test
+  public void testLongCastInRange() {
+    assertEquals(BitVectorInterval.of(INT, -5, 5), castLong(INT, -5, 5, false));
+    assertEquals(BitVectorInterval.of(UINT, 0, 0), castLong(UINT, 0, 0, false));
+  }
+
+  @Test
+  public void testLongCastMatchesBigIntegerCast() {
+    long[] values = {
+        0, 1, -1, 42,
+        Integer.MAX_VALUE, Integer.MIN_VALUE,
+        Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L,
+        0xFFFFFFFFL, 0x100000000L, 0x1FFFFFFFFL, -0x100000000L };
+    for (BitVectorInfo info : new BitVectorInfo[] { INT, UINT }) {
+      for (boolean allowSignedWrapAround : new boolean[] { true, false }) {
+        for (long lower : values) {
+          for (long upper : values) {
+            if (lower <= upper) {
+              assertEquals(
+                  castBig(info, lower, upper, allowSignedWrapAround),
+                  castLong(info, lower, upper, allowSignedWrapAround));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPredicates() {
+    BitVectorInterval zeroToTen = BitVectorInterval.of(INT, 0, 10);
+    BitVectorInterval elevenToTwenty = BitVectorInterval.of(INT, 11, 20);
+    assertFalse(zeroToTen.intersectsWith(elevenToTwenty));
+    assertTrue(zeroToTen.touches(elevenToTwenty));
+    assertEquals(BitVectorInterval.of(INT, 0, 20), BitVectorInterval.span(zeroToTen, elevenToTwenty));
+    assertTrue(zeroToTen.contains(BigInteger.TEN));
+    assertFalse(zeroToTen.contains(BigInteger.ONE.shiftLeft(Long.SIZE)));
+    assertTrue(zeroToTen.containsZero());
+    assertFalse(zeroToTen.containsNegative());
+  }
+
+  private static BitVectorInterval castLong(BitVectorInfo pInfo, long pLowerBound, long pUpperBound,
+      boolean pAllowSignedWrapAround) {
+    return BitVectorInterval.cast(
+        pInfo, pLowerBound, pUpperBound, pAllowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+
+  private static BitVectorInterval castBig(BitVectorInfo pInfo, long pLowerBound, long pUpperBound,
+      boolean pAllowSignedWrapAround) {
+    return BitVectorInterval.cast(
+        pInfo, BigInteger.valueOf(pLowerBound), BigInteger.valueOf(pUpperBound),
+        pAllowSignedWrapAround, OverflowEventHandler.EMPTY);
+  }
+}
@@ -1877,6 +1877,9 @@ public class CompoundBitVectorInterval implements CompoundInterval, BitVectorTyp
    * @return a compound state representing the given long value.
    */
   public static CompoundBitVectorInterval singleton(BitVectorInfo pInfo, long pValue) {
+    if (pInfo.fitsInLong()) {
+      return CompoundBitVectorInterval.of(BitVectorInterval.singleton(pInfo, pValue));
+    }
     return singleton(pInfo, BigInteger.valueOf(pValue));
   }
 
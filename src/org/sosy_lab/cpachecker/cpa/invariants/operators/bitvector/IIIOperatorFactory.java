@@ -80,6 +80,13 @@ public enum IIIOperatorFactory {
          * bounds for the new upper bound. If any of the summands is not
          * finite, the resulting bound isn't finite either.
          */
+        BitVectorInfo info = pOperand1.getBitVectorInfo();
+        if (info.supportsLongArithmetic()) {
+          return BitVectorInterval.cast(info,
+              pOperand1.getLowerBoundAsLong() + pOperand2.getLowerBoundAsLong(),
+              pOperand1.getUpperBoundAsLong() + pOperand2.getUpperBoundAsLong(),
+              pAllowSignedWrapAround, pOverflowEventHandler);
+        }
         BigInteger lowerBound = pOperand1.getLowerBound();
         BigInteger upperBound = pOperand1.getUpperBound();
         BigInteger pLowerBound = pOperand2.getLowerBound();
@@ -27,6 +27,7 @@ import java.math.BigInteger;
 
 import javax.annotation.Nullable;
 
+import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInfo;
 import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInterval;
 import org.sosy_lab.cpachecker.cpa.invariants.OverflowEventHandler;
 import org.sosy_lab.cpachecker.cpa.invariants.operators.Operator;
@@ -61,6 +62,15 @@ public enum ISIOperatorFactory {
         if (pFirstOperand.isTop() || pSecondOperand.equals(BigInteger.ZERO)) {
           return pFirstOperand;
         }
+        BitVectorInfo info = pFirstOperand.getBitVectorInfo();
+        if (info.supportsLongArithmetic() && pSecondOperand.bitLength() <= info.getSize()) {
+          // Neither the bounds nor the value are too large to add them up as longs
+          long value = pSecondOperand.longValue();
+          return BitVectorInterval.cast(info,
+              pFirstOperand.getLowerBoundAsLong() + value,
+              pFirstOperand.getUpperBoundAsLong() + value,
+              pAllowSignedWrapAround, pOverflowEventHandler);
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().add(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().add(pSecondOperand);
         return BitVectorInterval.cast(pFirstOperand.getBitVectorInfo(), lowerBound, upperBound, pAllowSignedWrapAround, pOverflowEventHandler);
@@ -48,6 +48,7 @@ import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.octagon.OctagonFloatManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonIntManager;
+import org.sosy_lab.cpachecker.util.octagon.OctagonJavaIntManager;
 import org.sosy_lab.cpachecker.util.octagon.OctagonManager;
 
 @Options(prefix="cpa.octagon")
@@ -57,9 +58,10 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
     return AutomaticCPAFactory.forType(OctagonCPA.class);
   }
 
-  @Option(secure=true, name="octagonLibrary", toUppercase=true, values={"INT", "FLOAT"},
+  @Option(secure=true, name="octagonLibrary", toUppercase=true, values={"INT", "FLOAT", "JAVA_INT"},
       description="with this option the number representation in the"
-          + " library will be changed between floats and ints.")
+          + " library will be changed between floats and ints."
+          + " JAVA_INT uses ints and an implementation in Java instead of the native library.")
   private String octagonLibrary = "INT";
 
   @Option(secure=true, name="initialPrecisionType", toUppercase=true, values={"STATIC_FULL", "REFINEABLE_EMPTY"},
@@ -90,6 +92,8 @@ public final class OctagonCPA implements ConfigurableProgramAnalysis {
 
     if (octagonLibrary.equals("FLOAT")) {
       octagonManager = new OctagonFloatManager();
+    } else if (octagonLibrary.equals("JAVA_INT")) {
+      octagonManager = new OctagonJavaIntManager(logger);
     } else {
       octagonManager = new OctagonIntManager();
     }
@@ -35,6 +35,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 import org.sosy_lab.cpachecker.core.interfaces.NonMergeableAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionFormula;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 
@@ -44,7 +45,8 @@ import com.google.common.base.Predicate;
 /**
  * AbstractState for Symbolic Predicate Abstraction CPA
  */
-public abstract class PredicateAbstractState implements AbstractState, Partitionable, Serializable {
+public abstract class PredicateAbstractState implements AbstractState, Partitionable,
+    PseudoPartitionable, Serializable {
 
   private static final long serialVersionUID = -265763837277453447L;
 
@@ -95,6 +97,20 @@ public abstract class PredicateAbstractState implements AbstractState, Partition
       return true;
     }
 
+    /**
+     * Abstraction states are covered if their abstraction entails the one of the other state,
+     * so the literals implied by the abstraction are used as key and signature.
+     */
+    @Override
+    public int getPseudoPartitionKey() {
+      return super.abstractionFormula.getImpliedLiteralsCount();
+    }
+
+    @Override
+    public long getPseudoPartitionSignature() {
+      return super.abstractionFormula.getImpliedLiteralsSignature();
+    }
+
     @Override
     public String toString() {
       return "Abstraction location: true, Abstraction: " + super.abstractionFormula;
@@ -190,6 +206,20 @@ public abstract class PredicateAbstractState implements AbstractState, Partition
 
   public abstract boolean isAbstractionState();
 
+  /**
+   * Non-abstraction states may be covered by abstraction states with arbitrary abstractions
+   * (cf. symbolic coverage checks), so they are not pruned.
+   */
+  @Override
+  public int getPseudoPartitionKey() {
+    return UNKNOWN_KEY;
+  }
+
+  @Override
+  public long getPseudoPartitionSignature() {
+    return UNKNOWN_SIGNATURE;
+  }
+
   PredicateAbstractState getMergedInto() {
     throw new UnsupportedOperationException("Assuming wrong PredicateAbstractStates were merged!");
   }
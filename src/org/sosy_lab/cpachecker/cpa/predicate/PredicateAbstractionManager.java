@@ -56,7 +56,10 @@ import org.sosy_lab.common.time.NestedTimer;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
 import org.sosy_lab.cpachecker.cpa.predicate.InvariantsManager.RegionInvariantsSupplier;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PersistentAbstractionCache;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage.AbstractionNode;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
@@ -86,6 +89,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
 
 @Options(prefix = "cpa.predicate")
 public class PredicateAbstractionManager {
@@ -99,6 +103,9 @@ public class PredicateAbstractionManager {
     public int numSatCheckAbstractions = 0; // precision was {false}, only sat check
     public int numCallsAbstractionCached = 0; // result was cached, no computation
     public int numInductivePathFormulaCacheUsed = 0; // loop was cached, no new computation
+    public int numCallsAbstractionPersistentlyCached = 0; // result was in persistent cache, no computation
+    public int numPersistentCacheEntriesLoaded = 0;
+    public int numPersistentCacheEntriesAdded = 0;
 
     public int numTotalPredicates = 0;
     public int maxPredicates = 0;
@@ -117,6 +124,7 @@ public class PredicateAbstractionManager {
     public final Timer booleanAbstractionTime = new Timer();
     public final NestedTimer abstractionEnumTime = new NestedTimer(); // outer: solver time, inner: bdd time
     public final Timer abstractionSolveTime = new Timer(); // only the time for solving, not for model enumeration
+    public final Timer persistentCacheTime = new Timer();
 
     public long allSatCount = 0;
     public int maxAllSatCount = 0;
@@ -165,6 +173,15 @@ public class PredicateAbstractionManager {
   @Option(secure=true, name = "abs.useCache", description = "use caching of abstractions")
   private boolean useCache = true;
 
+  @Option(secure=true, name = "abs.persistentCacheFile",
+      description = "File in which abstraction results are cached persistently, "
+          + "such that they can be reused by later runs (no persistent cache if empty). "
+          + "Use an absolute path to share the cache between runs with different output directories. "
+          + "The content is discarded automatically if the solver, the machine model, "
+          + "or the type of abstraction computation changes.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path persistentCacheFile = null;
+
   @Option(secure=true, name="refinement.splitItpAtoms",
       description="split each arithmetic equality into two inequalities when extracting predicates from interpolants")
   private boolean splitItpAtoms = false;
@@ -197,6 +214,8 @@ public class PredicateAbstractionManager {
 
   private final PredicateAbstractionsStorage abstractionStorage;
 
+  private final @Nullable PersistentAbstractionCache persistentCache;
+
   private final Configuration config;
 
   public PredicateAbstractionManager(
@@ -206,7 +225,8 @@ public class PredicateAbstractionManager {
       Configuration pConfig,
       LogManager pLogger,
       ShutdownNotifier pShutdownNotifier,
-      RegionInvariantsSupplier pRegionInvariantsSupplier)
+      RegionInvariantsSupplier pRegionInvariantsSupplier,
+      MachineModel pMachineModel)
       throws InvalidConfigurationException, PredicateParsingFailedException {
     shutdownNotifier = pShutdownNotifier;
     config = pConfig;
@@ -244,6 +264,42 @@ public class PredicateAbstractionManager {
     }
 
     abstractionStorage = new PredicateAbstractionsStorage(reuseAbstractionsFrom, logger, fmgr, null);
+
+    persistentCache = openPersistentCache(pMachineModel);
+  }
+
+  private @Nullable PersistentAbstractionCache openPersistentCache(MachineModel pMachineModel) {
+    if (persistentCacheFile == null) {
+      return null;
+    }
+
+    // everything that may change the result of an abstraction for the same formula
+    String fingerprint = Joiner.on(';').join(
+        "solver=" + solver.getVersion(),
+        "machineModel=" + pMachineModel,
+        "abstraction=" + abstractionType);
+    try {
+      PersistentAbstractionCache cache =
+          new PersistentAbstractionCache(persistentCacheFile, fingerprint, fmgr, logger);
+      stats.numPersistentCacheEntriesLoaded = cache.getNumberOfLoadedEntries();
+      return cache;
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not open persistent abstraction cache");
+      return null;
+    }
+  }
+
+  /**
+   * Release the resources held by this instance (e.g., the persistent cache file).
+   */
+  void close() {
+    if (persistentCache != null) {
+      try {
+        persistentCache.close();
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not close persistent abstraction cache");
+      }
+    }
   }
 
   /**
@@ -312,7 +368,8 @@ public class PredicateAbstractionManager {
         BooleanFormula instantiatedFormula = fmgr.instantiate(stateFormula, ssa);
 
         result = new AbstractionFormula(fmgr, result.asRegion(), stateFormula,
-            instantiatedFormula, pathFormula, result.getIdsOfStoredAbstractionReused());
+            instantiatedFormula, pathFormula, result.getIdsOfStoredAbstractionReused(),
+            result.getImpliedLiteralsCount(), result.getImpliedLiteralsSignature());
         logger.log(Level.FINEST, "Abstraction", stats.numCallsAbstraction, "was cached");
         logger.log(Level.ALL, "Abstraction result is", result.asFormula());
         stats.numCallsAbstractionCached++;
@@ -325,12 +382,38 @@ public class PredicateAbstractionManager {
         // block is infeasible
         logger.log(Level.FINEST, "Block feasibility of abstraction", stats.numCallsAbstraction, "was cached and is false.");
         stats.numCallsAbstractionCached++;
-        return new AbstractionFormula(fmgr, rmgr.makeFalse(),
+        return newAbstractionFormula(rmgr.makeFalse(),
             bfmgr.makeBoolean(false), bfmgr.makeBoolean(false),
             pathFormula, noAbstractionReuse);
       }
     }
 
+    // Invariants are added to the abstraction and may be different in other runs,
+    // so we do not use the persistent cache if there are any.
+    HashCode persistentKey = null;
+    if (persistentCache != null && locationBasedInvariantSupplier.getInvariantFor(location) == null) {
+      stats.persistentCacheTime.start();
+      try {
+        persistentKey = persistentCache.computeKey(f, remainingPredicates);
+        BooleanFormula stateFormula = persistentCache.get(persistentKey);
+
+        if (stateFormula != null) {
+          AbstractionFormula result =
+              makeAbstractionFormula(amgr.convertFormulaToRegion(stateFormula), ssa, pathFormula);
+          logger.log(Level.FINEST, "Abstraction", stats.numCallsAbstraction, "was cached persistently");
+          logger.log(Level.ALL, "Abstraction result is", result.asFormula());
+          stats.numCallsAbstractionPersistentlyCached++;
+
+          if (useCache) {
+            abstractionCache.put(absKey, result);
+          }
+          return result;
+        }
+      } finally {
+        stats.persistentCacheTime.stop();
+      }
+    }
+
 
 
     // We update statistics here because we want to ignore calls
@@ -422,6 +505,19 @@ public class PredicateAbstractionManager {
       }
     }
 
+    // The invariants may have changed during the abstraction computation.
+    if (persistentKey != null && locationBasedInvariantSupplier.getInvariantFor(location) == null) {
+      stats.persistentCacheTime.start();
+      try {
+        persistentCache.put(persistentKey, result.asFormula());
+        stats.numPersistentCacheEntriesAdded = persistentCache.getNumberOfAddedEntries();
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write to persistent abstraction cache");
+      } finally {
+        stats.persistentCacheTime.stop();
+      }
+    }
+
     long abstractionTime = TimeSpan.sum(stats.abstractionSolveTime.getLengthOfLastInterval(),
                                         stats.abstractionEnumTime.getLengthOfLastOuterInterval())
                                    .asMillis();
@@ -539,8 +635,7 @@ public class PredicateAbstractionManager {
           stats.numAbstractionReuses++;
 
           Region reuseFormulaRegion = amgr.convertFormulaToRegion(reuseFormula);
-          return new AbstractionFormula(
-              fmgr,
+          return newAbstractionFormula(
               reuseFormulaRegion,
               reuseFormula,
               instantiatedReuseFormula,
@@ -707,7 +802,8 @@ public class PredicateAbstractionManager {
     // fix block formula in result
     return new AbstractionFormula(fmgr, newAbstraction.asRegion(),
         newAbstraction.asFormula(), newAbstraction.asInstantiatedFormula(),
-        blockFormula, noAbstractionReuse);
+        blockFormula, noAbstractionReuse,
+        newAbstraction.getImpliedLiteralsCount(), newAbstraction.getImpliedLiteralsSignature());
   }
 
   /**
@@ -1053,7 +1149,7 @@ public class PredicateAbstractionManager {
     BooleanFormula formula = fmgr.makeAnd(a1.asFormula(), a2.asFormula());
     BooleanFormula instantiatedFormula = fmgr.makeAnd(a1.asInstantiatedFormula(), a2.asInstantiatedFormula());
 
-    return new AbstractionFormula(fmgr, region, formula, instantiatedFormula, a1.getBlockFormula(), noAbstractionReuse);
+    return newAbstractionFormula(region, formula, instantiatedFormula, a1.getBlockFormula(), noAbstractionReuse);
   }
 
   private AbstractionFormula makeAbstractionFormula(Region abs, SSAMap ssaMap, PathFormula blockFormula) {
@@ -1065,7 +1161,32 @@ public class PredicateAbstractionManager {
       instantiatedSymbolicAbs = fmgr.simplify(instantiatedSymbolicAbs);
     }
 
-    return new AbstractionFormula(fmgr, abs, symbolicAbs, instantiatedSymbolicAbs, blockFormula, noAbstractionReuse);
+    return newAbstractionFormula(abs, symbolicAbs, instantiatedSymbolicAbs, blockFormula, noAbstractionReuse);
+  }
+
+  /**
+   * Create an abstraction formula together with the information about the literals
+   * implied by its region, which is used for pruning coverage checks.
+   */
+  private AbstractionFormula newAbstractionFormula(Region pRegion, BooleanFormula pFormula,
+      BooleanFormula pInstantiatedFormula, PathFormula pBlockFormula,
+      Set<Integer> pIdsOfStoredAbstractionReused) {
+    Map<AbstractionPredicate, Boolean> impliedLiterals = amgr.extractImpliedLiterals(pRegion);
+    int count;
+    long signature = 0;
+    if (impliedLiterals == null) {
+      // false implies all literals
+      count = PseudoPartitionable.UNKNOWN_KEY;
+      signature = PseudoPartitionable.UNKNOWN_SIGNATURE;
+    } else {
+      count = impliedLiterals.size();
+      for (Map.Entry<AbstractionPredicate, Boolean> literal : impliedLiterals.entrySet()) {
+        int bit = 2 * literal.getKey().getVariableNumber() + (literal.getValue() ? 1 : 0);
+        signature |= 1L << bit;
+      }
+    }
+    return new AbstractionFormula(fmgr, pRegion, pFormula, pInstantiatedFormula, pBlockFormula,
+        pIdsOfStoredAbstractionReused, count, signature);
   }
 
   /**
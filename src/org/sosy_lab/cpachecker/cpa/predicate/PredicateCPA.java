@@ -23,7 +23,9 @@
  */
 package org.sosy_lab.cpachecker.cpa.predicate;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.ShutdownNotifier;
@@ -59,6 +61,7 @@ import org.sosy_lab.cpachecker.util.blocking.interfaces.BlockComputer;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
 import org.sosy_lab.cpachecker.util.predicates.BlockOperator;
 import org.sosy_lab.cpachecker.util.predicates.bdd.BDDManagerFactory;
+import org.sosy_lab.cpachecker.util.predicates.interpolation.InterpolationManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.CachingPathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
@@ -127,6 +130,9 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
   private final InvariantsManager invariantsManager;
   private final BlockOperator blk;
 
+  /** interpolation managers that use additional solvers and have to be closed with this CPA */
+  private final List<InterpolationManager> interpolationManagers = new ArrayList<>();
+
   protected PredicateCPA(
       Configuration config,
       LogManager logger,
@@ -155,7 +161,7 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
 
     PathFormulaManager pfMgr = new PathFormulaManagerImpl(formulaManager, config, logger, shutdownNotifier, cfa, direction);
     if (useCache) {
-      pfMgr = new CachingPathFormulaManager(pfMgr);
+      pfMgr = new CachingPathFormulaManager(config, pfMgr);
     }
     pathFormulaManager = pfMgr;
 
@@ -192,7 +198,8 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
             config,
             logger,
             pShutdownNotifier,
-            invariantsManager.asRegionInvariantsSupplier());
+            invariantsManager.asRegionInvariantsSupplier(),
+            cfa.getMachineModel());
 
     transfer =
         new PredicateTransferRelation(
@@ -328,6 +335,12 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
 
   @Override
   public void close() {
+    synchronized (this) {
+      for (InterpolationManager interpolationManager : interpolationManagers) {
+        interpolationManager.close();
+      }
+    }
+    predicateManager.close();
     solver.close();
   }
 
@@ -374,6 +387,11 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
     return invariantsManager;
   }
 
+  /** Register an interpolation manager that should be closed together with this CPA. */
+  synchronized void registerInterpolationManager(InterpolationManager pInterpolationManager) {
+    interpolationManagers.add(pInterpolationManager);
+  }
+
   public void changeExplicitAbstractionNodes(final ImmutableSet<CFANode> explicitlyAbstractAt) {
     blk.setExplicitAbstractionNodes(explicitlyAbstractAt);
   }
@@ -29,6 +29,7 @@ import static org.sosy_lab.cpachecker.util.AbstractStates.toState;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -54,6 +55,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGPath;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath.PathIterator;
 import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.arg.ARGUtils;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
@@ -127,6 +129,9 @@ public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider
   private final StatInt totalPrefixes = new StatInt(StatKind.SUM, "Number of infeasible sliced prefixes");
   private final StatTimer prefixSelectionTime = new StatTimer("Selecting infeasible sliced prefixes");
 
+  private final StatTimer otherTargetsRefinement = new StatTimer("Refinement of other target paths");
+  private final StatInt otherTargetsRefined = new StatInt(StatKind.SUM, "Number of refined other target paths");
+
   // the previously analyzed counterexample to detect repeated counterexamples
   private List<CFANode> lastErrorPath = null;
 
@@ -148,6 +153,7 @@ public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider
   private final FormulaManagerView fmgr;
   private final InterpolationManager formulaManager;
   private final RefinementStrategy strategy;
+  private final boolean refineAllTargets;
 
   public PredicateCPARefiner(
       final Configuration pConfig,
@@ -160,7 +166,8 @@ public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider
       final PrefixProvider pPrefixProvider,
       final PrefixSelector pPrefixSelector,
       final InvariantsManager pInvariantsManager,
-      final RefinementStrategy pStrategy)
+      final RefinementStrategy pStrategy,
+      final boolean pRefineAllTargets)
       throws InvalidConfigurationException {
     pConfig.inject(this, PredicateCPARefiner.class);
 
@@ -176,6 +183,7 @@ public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider
     prefixProvider = pPrefixProvider;
     prefixSelector = pPrefixSelector;
     invariantsManager = pInvariantsManager;
+    refineAllTargets = pRefineAllTargets;
 
     logger.log(Level.INFO, "Using refinement for predicate analysis with " + strategy.getClass().getSimpleName() + " strategy.");
   }
@@ -275,6 +283,10 @@ public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider
         wereInvariantsUsedInLastRefinement = wereInvariantsusedInCurrentRefinement;
         wereInvariantsusedInCurrentRefinement = false;
 
+        if (refineAllTargets) {
+          refineOtherTargets(pReached);
+        }
+
         return CounterexampleInfo.spurious();
 
       } else {
@@ -311,6 +323,68 @@ public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider
         true);
   }
 
+  /**
+   * Refine the paths to all target states that are still in the reached set,
+   * such that the predicates for all of them are added in one refinement round.
+   * Feasible paths are ignored here, they will be found again by the analysis.
+   */
+  private void refineOtherTargets(final ARGReachedSet pReached)
+      throws CPAException, InterruptedException {
+    otherTargetsRefinement.start();
+    try {
+      List<ARGState> targets =
+          from(pReached.asReachedSet())
+              .filter(AbstractStates.IS_TARGET_STATE)
+              .transform(toState(ARGState.class))
+              .toList();
+      if (targets.isEmpty()) {
+        return;
+      }
+
+      List<List<ARGState>> abstractionStatesTraces = new ArrayList<>(targets.size());
+      List<List<AbstractState>> abstractionStates = new ArrayList<>(targets.size());
+      List<List<BooleanFormula>> formulas = new ArrayList<>(targets.size());
+      for (ARGState target : targets) {
+        ARGPath path = ARGUtils.getOnePathTo(target);
+        List<ARGState> abstractionStatesTrace = transformPath(path);
+        abstractionStatesTraces.add(abstractionStatesTrace);
+        abstractionStates.add(Lists.<AbstractState>newArrayList(abstractionStatesTrace));
+        formulas.add(getFormulasForPath(abstractionStatesTrace, path.getFirstState()));
+      }
+
+      List<Optional<List<BooleanFormula>>> interpolants =
+          formulaManager.interpolateTraces(formulas, abstractionStates);
+
+      if (strategy instanceof PredicateAbstractionRefinementStrategy) {
+        ((PredicateAbstractionRefinementStrategy) strategy)
+            .setUseAtomicPredicates(atomicInterpolants);
+      }
+
+      int refinedPaths = 0;
+      for (int i = 0; i < targets.size(); i++) {
+        List<ARGState> abstractionStatesTrace = abstractionStatesTraces.get(i);
+        if (!interpolants.get(i).isPresent()
+            || from(abstractionStatesTrace).anyMatch(IS_DESTROYED)) {
+          // feasible, or already removed by the refinement of a previous path
+          continue;
+        }
+        strategy.performRefinement(pReached, abstractionStatesTrace, interpolants.get(i).get(), false);
+        refinedPaths++;
+      }
+      otherTargetsRefined.setNextValue(refinedPaths);
+
+    } finally {
+      otherTargetsRefinement.stop();
+    }
+  }
+
+  private static final Predicate<ARGState> IS_DESTROYED = new Predicate<ARGState>() {
+    @Override
+    public boolean apply(ARGState pInput) {
+      return pInput.isDestroyed();
+    }
+  };
+
   private CounterexampleTraceInfo performInvariantsRefinement(
       final ARGPath allStatesTrace,
       final Set<ARGState> elementsOnPath,
@@ -551,6 +625,10 @@ public class PredicateCPARefiner implements ARGBasedRefiner, StatisticsProvider
           w1.put(prefixSelectionTime);
         }
         w1.put(errorPathProcessing);
+        if (refineAllTargets) {
+          w1.put(otherTargetsRefinement);
+          w1.put(otherTargetsRefined);
+        }
 
         statistics.printStatistics(out, result, reached);
       }
@@ -65,6 +65,16 @@ public class PredicateCPARefinerFactory {
   )
   private boolean performInitialStaticRefinement = false;
 
+  @Option(
+    secure = true,
+    description =
+        "After refining a spurious counterexample, also refine the paths"
+            + " to all other target states in the reached set in the same refinement round."
+            + " These paths are checked and interpolated in parallel"
+            + " if cpa.predicate.refinement.parallelSolvers is set."
+  )
+  private boolean refineAllTargets = false;
+
   private final PredicateCPA predicateCpa;
 
   private @Nullable BlockFormulaStrategy blockFormulaStrategy = null;
@@ -148,6 +158,7 @@ public class PredicateCPARefinerFactory {
     InterpolationManager interpolationManager =
         new InterpolationManager(
             pfmgr, solver, loopStructure, variableClassification, config, shutdownNotifier, logger);
+    predicateCpa.registerInterpolationManager(interpolationManager);
 
     PathChecker pathChecker =
         new PathChecker(config, logger, shutdownNotifier, machineModel, pfmgr, solver);
@@ -159,6 +170,11 @@ public class PredicateCPARefinerFactory {
             "Block-formula slicing is not supported with this refiner, "
                 + "please turn cpa.predicate.refinement.sliceBlockFormula off.");
       }
+      if (refineAllTargets) {
+        throw new InvalidConfigurationException(
+            "Refining all target states is not supported with this refiner, "
+                + "please turn cpa.predicate.refinement.refineAllTargets off.");
+      }
       bfs = blockFormulaStrategy;
     } else {
       bfs = sliceBlockFormulas ? new BlockFormulaSlicer(pfmgr) : new BlockFormulaStrategy();
@@ -176,7 +192,8 @@ public class PredicateCPARefinerFactory {
             prefixProvider,
             prefixSelector,
             invariantsManager,
-            pRefinementStrategy);
+            pRefinementStrategy,
+            refineAllTargets);
 
     if (performInitialStaticRefinement) {
       refiner =
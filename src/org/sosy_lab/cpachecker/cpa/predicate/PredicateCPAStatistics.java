@@ -299,6 +299,11 @@ class PredicateCPAStatistics extends AbstractStatistics {
       out.println("  Times precision was empty:       " + valueWithPercentage(as.numSymbolicAbstractions, as.numCallsAbstraction));
       out.println("  Times precision was {false}:     " + valueWithPercentage(as.numSatCheckAbstractions, as.numCallsAbstraction));
       out.println("  Times result was cached:         " + valueWithPercentage(as.numCallsAbstractionCached, as.numCallsAbstraction));
+      if (as.persistentCacheTime.getNumberOfIntervals() > 0) {
+        out.println("  Times result was cached on disk: " + valueWithPercentage(as.numCallsAbstractionPersistentlyCached, as.numCallsAbstraction));
+        out.println("  Entries loaded from disk cache:  " + as.numPersistentCacheEntriesLoaded);
+        out.println("  Entries added to disk cache:     " + as.numPersistentCacheEntriesAdded);
+      }
       out.println("  Times cartesian abs was used:    " + valueWithPercentage(as.cartesianAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
       out.println("  Times boolean abs was used:      " + valueWithPercentage(as.booleanAbstractionTime.getNumberOfIntervals(), as.numCallsAbstraction));
       out.println("  Times result was 'false':        " + valueWithPercentage(prec.numAbstractionsFalse, prec.numAbstractions));
@@ -325,6 +330,7 @@ class PredicateCPAStatistics extends AbstractStatistics {
     out.println("Number of SMT sat checks:          " + solver.satChecks);
     out.println("  trivial:                         " + solver.trivialSatChecks);
     out.println("  cached:                          " + solver.cachedSatChecks);
+    solver.printUnsatCacheStatistics(out);
     out.println();
     out.println("Max ABE block size:                       " + prec.maxBlockSize);
     out.println("Number of predicates discovered:          " + allDistinctPreds);
@@ -335,7 +341,8 @@ class PredicateCPAStatistics extends AbstractStatistics {
     }
     int numAbstractions = as.numCallsAbstraction-as.numSymbolicAbstractions;
     if (numAbstractions > 0) {
-      int numRealAbstractions = as.numCallsAbstraction - as.numSymbolicAbstractions - as.numCallsAbstractionCached;
+      int numRealAbstractions = as.numCallsAbstraction - as.numSymbolicAbstractions - as.numCallsAbstractionCached
+          - as.numCallsAbstractionPersistentlyCached;
       out.println("Total predicates per abstraction:         " + as.numTotalPredicates);
       out.println("Max number of predicates per abstraction: " + as.maxPredicates);
       out.println("Avg number of predicates per abstraction: " + div(as.numTotalPredicates, numRealAbstractions));
@@ -361,9 +368,10 @@ class PredicateCPAStatistics extends AbstractStatistics {
     }
     out.println();
     if (pfMgr != null) {
-      int pathFormulaCacheHits = pfMgr.pathFormulaCacheHits;
-      int totalPathFormulaComputations = pfMgr.pathFormulaComputationTimer.getNumberOfIntervals() + pathFormulaCacheHits;
+      int pathFormulaCacheHits = pfMgr.getNumberOfCacheHits();
+      int totalPathFormulaComputations = pfMgr.getNumberOfCacheMisses() + pathFormulaCacheHits;
       out.println("Number of path formula cache hits:   " + pathFormulaCacheHits + " (" + toPercent(pathFormulaCacheHits, totalPathFormulaComputations) + ")");
+      pfMgr.printCacheStatistics(out);
     }
 
     out.println();
@@ -395,6 +403,9 @@ class PredicateCPAStatistics extends AbstractStatistics {
       if (as.booleanAbstractionTime.getNumberOfIntervals() > 0) {
         out.println("    Boolean abstraction:             " + as.booleanAbstractionTime);
       }
+      if (as.persistentCacheTime.getNumberOfIntervals() > 0) {
+        out.println("    Persistent cache:                " + as.persistentCacheTime);
+      }
       if (as.abstractionReuseTime.getNumberOfIntervals() > 0) {
         out.println("    Abstraction reuse:              " + as.abstractionReuseTime);
         out.println("    Abstraction reuse implication:  " + as.abstractionReuseImplicationTime);
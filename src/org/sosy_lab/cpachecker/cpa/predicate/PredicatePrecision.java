@@ -24,11 +24,15 @@
 package org.sosy_lab.cpachecker.cpa.predicate;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentSortedMap;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
@@ -41,9 +45,8 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 
 /**
@@ -54,35 +57,101 @@ import com.google.common.collect.Sets;
  * ("global" predicates), and some predicates which are used for all locations
  * within a specific function.
  *
+ * The location-specific and function-specific predicates are stored in persistent maps,
+ * so that creating a new precision with additional predicates for some keys
+ * shares all other entries with the old precision.
+ *
  * All instances of this class are immutable.
  */
 public class PredicatePrecision implements Precision {
 
-  // do not access theses sets directly except in their getters
-  // (overrides from subclass need to be used)
   private final ImmutableSetMultimap<Pair<CFANode, Integer>, AbstractionPredicate> mLocationInstancePredicates;
-  private final ImmutableSetMultimap<CFANode, AbstractionPredicate> mLocalPredicates;
-  private final ImmutableSetMultimap<String, AbstractionPredicate> mFunctionPredicates;
+  private final PersistentSortedMap<CFANode, ImmutableSet<AbstractionPredicate>> mLocalPredicates;
+  private final PersistentSortedMap<String, ImmutableSet<AbstractionPredicate>> mFunctionPredicates;
   private final ImmutableSet<AbstractionPredicate> mGlobalPredicates;
 
+  // multimap views of the persistent maps above, created on first use
+  private @Nullable ImmutableSetMultimap<CFANode, AbstractionPredicate> mLocalPredicatesView;
+  private @Nullable ImmutableSetMultimap<String, AbstractionPredicate> mFunctionPredicatesView;
+
+  // union of local, function and global predicates per location, created on first use
+  private final ConcurrentMap<CFANode, ImmutableSet<AbstractionPredicate>> mPredicatesPerLocation =
+      Maps.newConcurrentMap();
+
   public PredicatePrecision(
       Multimap<Pair<CFANode, Integer>, AbstractionPredicate> pLocationInstancePredicates,
       Multimap<CFANode, AbstractionPredicate> pLocalPredicates,
       Multimap<String, AbstractionPredicate> pFunctionPredicates,
       Collection<AbstractionPredicate> pGlobalPredicates) {
-    mLocationInstancePredicates = ImmutableSetMultimap.copyOf(pLocationInstancePredicates);
-    mLocalPredicates = sortedImmutableSetCopyOf(pLocalPredicates);
-    mFunctionPredicates = sortedImmutableSetCopyOf(pFunctionPredicates);
-    mGlobalPredicates = ImmutableSet.copyOf(pGlobalPredicates);
+    this(ImmutableSetMultimap.copyOf(pLocationInstancePredicates),
+        toPersistentMap(pLocalPredicates),
+        toPersistentMap(pFunctionPredicates),
+        ImmutableSet.copyOf(pGlobalPredicates));
   }
 
-  private static <K extends Comparable<? super K>, V>
-      ImmutableSetMultimap<K, V> sortedImmutableSetCopyOf(Multimap<K, V> m) {
-    return ImmutableSetMultimap
-        .<K, V>builder()
-        .orderKeysBy(Ordering.natural())
-        .putAll(m)
-        .build();
+  private PredicatePrecision(
+      ImmutableSetMultimap<Pair<CFANode, Integer>, AbstractionPredicate> pLocationInstancePredicates,
+      PersistentSortedMap<CFANode, ImmutableSet<AbstractionPredicate>> pLocalPredicates,
+      PersistentSortedMap<String, ImmutableSet<AbstractionPredicate>> pFunctionPredicates,
+      ImmutableSet<AbstractionPredicate> pGlobalPredicates) {
+    mLocationInstancePredicates = pLocationInstancePredicates;
+    mLocalPredicates = pLocalPredicates;
+    mFunctionPredicates = pFunctionPredicates;
+    mGlobalPredicates = pGlobalPredicates;
+  }
+
+  private static <K extends Comparable<? super K>>
+      PersistentSortedMap<K, ImmutableSet<AbstractionPredicate>> toPersistentMap(
+          Multimap<K, AbstractionPredicate> m) {
+    PersistentSortedMap<K, ImmutableSet<AbstractionPredicate>> result =
+        PathCopyingPersistentTreeMap.of();
+    for (Map.Entry<K, Collection<AbstractionPredicate>> entry : m.asMap().entrySet()) {
+      result = putAll(result, entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  private static <K extends Comparable<? super K>>
+      ImmutableSetMultimap<K, AbstractionPredicate> toMultimap(
+          PersistentSortedMap<K, ImmutableSet<AbstractionPredicate>> m) {
+    // the persistent map is sorted, so the keys of the multimap are sorted, too
+    ImmutableSetMultimap.Builder<K, AbstractionPredicate> builder = ImmutableSetMultimap.builder();
+    for (Map.Entry<K, ImmutableSet<AbstractionPredicate>> entry : m.entrySet()) {
+      builder.putAll(entry.getKey(), entry.getValue());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Add predicates for one key to a persistent map.
+   * The given map is returned unchanged if it already contains all predicates.
+   */
+  private static <K extends Comparable<? super K>>
+      PersistentSortedMap<K, ImmutableSet<AbstractionPredicate>> putAll(
+          PersistentSortedMap<K, ImmutableSet<AbstractionPredicate>> m,
+          K key, Iterable<AbstractionPredicate> predicates) {
+    ImmutableSet<AbstractionPredicate> oldPredicates = m.get(key);
+    ImmutableSet<AbstractionPredicate> newPredicates;
+    if (oldPredicates == null) {
+      newPredicates = ImmutableSet.copyOf(predicates);
+    } else {
+      newPredicates = ImmutableSet.<AbstractionPredicate>builder()
+          .addAll(oldPredicates)
+          .addAll(predicates)
+          .build();
+    }
+
+    if (newPredicates.isEmpty()
+        || (oldPredicates != null && oldPredicates.size() == newPredicates.size())) {
+      return m;
+    }
+    return m.putAndCopy(key, newPredicates);
+  }
+
+  private static <K extends Comparable<? super K>> ImmutableSet<AbstractionPredicate> getOrEmpty(
+      PersistentSortedMap<K, ImmutableSet<AbstractionPredicate>> m, K key) {
+    ImmutableSet<AbstractionPredicate> result = m.get(key);
+    return result == null ? ImmutableSet.<AbstractionPredicate>of() : result;
   }
 
   /**
@@ -91,8 +160,8 @@ public class PredicatePrecision implements Precision {
   public static PredicatePrecision empty() {
     return new PredicatePrecision(
         ImmutableSetMultimap.<Pair<CFANode, Integer>, AbstractionPredicate>of(),
-        ImmutableSetMultimap.<CFANode, AbstractionPredicate>of(),
-        ImmutableSetMultimap.<String, AbstractionPredicate>of(),
+        PathCopyingPersistentTreeMap.<CFANode, ImmutableSet<AbstractionPredicate>>of(),
+        PathCopyingPersistentTreeMap.<String, ImmutableSet<AbstractionPredicate>>of(),
         ImmutableSet.<AbstractionPredicate>of());
   }
 
@@ -109,14 +178,24 @@ public class PredicatePrecision implements Precision {
    * Return a map view of the location-specific predicates of this precision.
    */
   public ImmutableSetMultimap<CFANode, AbstractionPredicate> getLocalPredicates() {
-    return mLocalPredicates;
+    ImmutableSetMultimap<CFANode, AbstractionPredicate> result = mLocalPredicatesView;
+    if (result == null) {
+      result = toMultimap(mLocalPredicates);
+      mLocalPredicatesView = result;
+    }
+    return result;
   }
 
   /**
    * Return a map view of the function-specific predicates of this precision.
    */
   public ImmutableSetMultimap<String, AbstractionPredicate> getFunctionPredicates() {
-    return mFunctionPredicates;
+    ImmutableSetMultimap<String, AbstractionPredicate> result = mFunctionPredicatesView;
+    if (result == null) {
+      result = toMultimap(mFunctionPredicates);
+      mFunctionPredicatesView = result;
+    }
+    return result;
   }
 
   /**
@@ -132,10 +211,20 @@ public class PredicatePrecision implements Precision {
    * @param locInstance How often this location has appeared in the current path.
    */
   public Set<AbstractionPredicate> getPredicates(CFANode loc, Integer locInstance) {
-    Set<AbstractionPredicate> result = getLocationInstancePredicates().get(Pair.of(loc, locInstance));
-    result = Sets.union(result, getLocalPredicates().get(loc));
-    result = Sets.union(result, getFunctionPredicates().get(loc.getFunctionName()));
-    return Sets.union(result, getGlobalPredicates());
+    ImmutableSet<AbstractionPredicate> result = mPredicatesPerLocation.get(loc);
+    if (result == null) {
+      result = ImmutableSet.<AbstractionPredicate>builder()
+          .addAll(getOrEmpty(mLocalPredicates, loc))
+          .addAll(getOrEmpty(mFunctionPredicates, loc.getFunctionName()))
+          .addAll(mGlobalPredicates)
+          .build();
+      mPredicatesPerLocation.put(loc, result);
+    }
+
+    if (mLocationInstancePredicates.isEmpty()) {
+      return result;
+    }
+    return Sets.union(mLocationInstancePredicates.get(Pair.of(loc, locInstance)), result);
   }
 
   /**
@@ -143,10 +232,12 @@ public class PredicatePrecision implements Precision {
    * additional global predicates.
    */
   public PredicatePrecision addGlobalPredicates(Collection<AbstractionPredicate> newPredicates) {
-    List<AbstractionPredicate> predicates = Lists.newArrayList(getGlobalPredicates());
-    predicates.addAll(newPredicates);
-    return new PredicatePrecision(getLocationInstancePredicates(),
-        getLocalPredicates(), getFunctionPredicates(), predicates);
+    ImmutableSet<AbstractionPredicate> predicates = ImmutableSet.<AbstractionPredicate>builder()
+        .addAll(mGlobalPredicates)
+        .addAll(newPredicates)
+        .build();
+    return new PredicatePrecision(mLocationInstancePredicates,
+        mLocalPredicates, mFunctionPredicates, predicates);
   }
 
   /**
@@ -154,20 +245,19 @@ public class PredicatePrecision implements Precision {
    * additional function-specific predicates.
    */
   public PredicatePrecision addFunctionPredicates(Multimap<String, AbstractionPredicate> newPredicates) {
-    Multimap<String, AbstractionPredicate> predicates = ArrayListMultimap.create(getFunctionPredicates());
-    predicates.putAll(newPredicates);
+    PersistentSortedMap<String, ImmutableSet<AbstractionPredicate>> predicates = mFunctionPredicates;
 
     // During lookup, we do not look into getGlobalPredicates(),
     // if there is something for the key in predicates.
     // Thus, we copy the relevant items into the predicates set here.
-    if (!getGlobalPredicates().isEmpty()) {
-      for (String function : newPredicates.keySet()) {
-        predicates.putAll(function, getGlobalPredicates());
-      }
+    for (Map.Entry<String, Collection<AbstractionPredicate>> entry : newPredicates.asMap().entrySet()) {
+      String function = entry.getKey();
+      predicates = putAll(predicates, function, entry.getValue());
+      predicates = putAll(predicates, function, mGlobalPredicates);
     }
 
-    return new PredicatePrecision(getLocationInstancePredicates(),
-        getLocalPredicates(), predicates, getGlobalPredicates());
+    return new PredicatePrecision(mLocationInstancePredicates,
+        mLocalPredicates, predicates, mGlobalPredicates);
   }
 
   /**
@@ -175,21 +265,20 @@ public class PredicatePrecision implements Precision {
    * additional location-specific predicates.
    */
   public PredicatePrecision addLocalPredicates(Multimap<CFANode, AbstractionPredicate> newPredicates) {
-    Multimap<CFANode, AbstractionPredicate> predicates = ArrayListMultimap.create(getLocalPredicates());
-    predicates.putAll(newPredicates);
+    PersistentSortedMap<CFANode, ImmutableSet<AbstractionPredicate>> predicates = mLocalPredicates;
 
     // During lookup, we do not look into getGlobalPredicates() and getFunctionPredicates(),
     // if there is something for the key in predicates.
     // Thus, we copy the relevant items into the predicates set here.
-    if (!getGlobalPredicates().isEmpty() || !getFunctionPredicates().isEmpty()) {
-      for (CFANode newLoc : newPredicates.keySet()) {
-        predicates.putAll(newLoc, getFunctionPredicates().get(newLoc.getFunctionName()));
-        predicates.putAll(newLoc, getGlobalPredicates());
-      }
+    for (Map.Entry<CFANode, Collection<AbstractionPredicate>> entry : newPredicates.asMap().entrySet()) {
+      CFANode newLoc = entry.getKey();
+      predicates = putAll(predicates, newLoc, entry.getValue());
+      predicates = putAll(predicates, newLoc, getOrEmpty(mFunctionPredicates, newLoc.getFunctionName()));
+      predicates = putAll(predicates, newLoc, mGlobalPredicates);
     }
 
-    return new PredicatePrecision(getLocationInstancePredicates(),
-        predicates, getFunctionPredicates(), getGlobalPredicates());
+    return new PredicatePrecision(mLocationInstancePredicates,
+        predicates, mFunctionPredicates, mGlobalPredicates);
   }
 
   /**
@@ -198,24 +287,24 @@ public class PredicatePrecision implements Precision {
    */
   public PredicatePrecision addLocationInstancePredicates(
       Multimap<Pair<CFANode, Integer>, AbstractionPredicate> newPredicates) {
-    Multimap<Pair<CFANode, Integer>, AbstractionPredicate> predicates = ArrayListMultimap.create(getLocationInstancePredicates());
+    ImmutableSetMultimap.Builder<Pair<CFANode, Integer>, AbstractionPredicate> predicates =
+        ImmutableSetMultimap.builder();
+    predicates.putAll(mLocationInstancePredicates);
     predicates.putAll(newPredicates);
 
     // During lookup, we do not look into getGlobalPredicates(),
     // getFunctionPredicates(), and getLocalPredicates(),
     // if there is something for the key in predicates.
     // Thus, we copy the relevant items into the predicates set here.
-    if (!getGlobalPredicates().isEmpty() || !getFunctionPredicates().isEmpty() || !getLocalPredicates().isEmpty()) {
-      for (Pair<CFANode, Integer> key : newPredicates.keySet()) {
-        CFANode loc = key.getFirst();
-        predicates.putAll(key, getLocalPredicates().get(loc));
-        predicates.putAll(key, getFunctionPredicates().get(loc.getFunctionName()));
-        predicates.putAll(key, getGlobalPredicates());
-      }
+    for (Pair<CFANode, Integer> key : newPredicates.keySet()) {
+      CFANode loc = key.getFirst();
+      predicates.putAll(key, getOrEmpty(mLocalPredicates, loc));
+      predicates.putAll(key, getOrEmpty(mFunctionPredicates, loc.getFunctionName()));
+      predicates.putAll(key, mGlobalPredicates);
     }
 
-    return new PredicatePrecision(predicates, getLocalPredicates(),
-        getFunctionPredicates(), getGlobalPredicates());
+    return new PredicatePrecision(predicates.build(), mLocalPredicates,
+        mFunctionPredicates, mGlobalPredicates);
   }
 
   /**
@@ -224,29 +313,34 @@ public class PredicatePrecision implements Precision {
    */
   public PredicatePrecision mergeWith(PredicatePrecision prec) {
     // create new set of global predicates
-    Collection<AbstractionPredicate> newGlobalPredicates = Lists.newArrayList(getGlobalPredicates());
-    newGlobalPredicates.addAll(prec.getGlobalPredicates());
-    newGlobalPredicates = ImmutableSet.copyOf(newGlobalPredicates);
+    ImmutableSet<AbstractionPredicate> newGlobalPredicates = ImmutableSet.<AbstractionPredicate>builder()
+        .addAll(mGlobalPredicates)
+        .addAll(prec.mGlobalPredicates)
+        .build();
 
-    // create new multimap of function-specific predicates
-    Multimap<String, AbstractionPredicate> newFunctionPredicates = ArrayListMultimap.create(getFunctionPredicates());
-    newFunctionPredicates.putAll(prec.getFunctionPredicates());
+    // create new map of function-specific predicates
+    PersistentSortedMap<String, ImmutableSet<AbstractionPredicate>> newFunctionPredicates = mFunctionPredicates;
+    for (Map.Entry<String, ImmutableSet<AbstractionPredicate>> entry : prec.mFunctionPredicates.entrySet()) {
+      newFunctionPredicates = putAll(newFunctionPredicates, entry.getKey(), entry.getValue());
+    }
 
     if (!newGlobalPredicates.isEmpty()) {
       for (String function : newFunctionPredicates.keySet()) {
-        newFunctionPredicates.putAll(function, newGlobalPredicates);
+        newFunctionPredicates = putAll(newFunctionPredicates, function, newGlobalPredicates);
       }
     }
-    newFunctionPredicates = ImmutableSetMultimap.copyOf(newFunctionPredicates);
 
-    // create new multimap of location-specific predicates
-    Multimap<CFANode, AbstractionPredicate> newLocalPredicates = ArrayListMultimap.create(getLocalPredicates());
-    newLocalPredicates.putAll(prec.getLocalPredicates());
+    // create new map of location-specific predicates
+    PersistentSortedMap<CFANode, ImmutableSet<AbstractionPredicate>> newLocalPredicates = mLocalPredicates;
+    for (Map.Entry<CFANode, ImmutableSet<AbstractionPredicate>> entry : prec.mLocalPredicates.entrySet()) {
+      newLocalPredicates = putAll(newLocalPredicates, entry.getKey(), entry.getValue());
+    }
 
     if (!newGlobalPredicates.isEmpty() || !newFunctionPredicates.isEmpty()) {
       for (CFANode loc : newLocalPredicates.keySet()) {
-        newLocalPredicates.putAll(loc, newGlobalPredicates);
-        newLocalPredicates.putAll(loc, newFunctionPredicates.get(loc.getFunctionName()));
+        newLocalPredicates = putAll(newLocalPredicates, loc, newGlobalPredicates);
+        newLocalPredicates = putAll(newLocalPredicates, loc,
+            getOrEmpty(newFunctionPredicates, loc.getFunctionName()));
       }
     }
 
@@ -257,12 +351,12 @@ public class PredicatePrecision implements Precision {
     if (!newGlobalPredicates.isEmpty() || !newFunctionPredicates.isEmpty() || !newLocalPredicates.isEmpty()) {
       for (Pair<CFANode, Integer> key : newLocationInstanceSpecificPredicates.keySet()) {
         newLocationInstanceSpecificPredicates.putAll(key, newGlobalPredicates);
-        newLocationInstanceSpecificPredicates.putAll(key, newFunctionPredicates.get(key.getFirst().getFunctionName()));
-        newLocationInstanceSpecificPredicates.putAll(key, newLocalPredicates.get(key.getFirst()));
+        newLocationInstanceSpecificPredicates.putAll(key, getOrEmpty(newFunctionPredicates, key.getFirst().getFunctionName()));
+        newLocationInstanceSpecificPredicates.putAll(key, getOrEmpty(newLocalPredicates, key.getFirst()));
       }
     }
 
-    return new PredicatePrecision(newLocationInstanceSpecificPredicates,
+    return new PredicatePrecision(ImmutableSetMultimap.copyOf(newLocationInstanceSpecificPredicates),
         newLocalPredicates, newFunctionPredicates, newGlobalPredicates);
   }
 
@@ -281,23 +375,36 @@ public class PredicatePrecision implements Precision {
     difference += Sets.difference(this.getGlobalPredicates(),
                                   other.getGlobalPredicates()).size();
 
-    difference += Sets.difference(this.getFunctionPredicates().entries(),
-                                  other.getFunctionPredicates().entries()).size();
+    difference += calculateDifference(this.mFunctionPredicates, other.mFunctionPredicates);
 
-    difference += Sets.difference(this.getLocalPredicates().entries(),
-                                  other.getLocalPredicates().entries()).size();
+    difference += calculateDifference(this.mLocalPredicates, other.mLocalPredicates);
 
     difference += Sets.difference(this.getLocationInstancePredicates().entries(),
                                   other.getLocationInstancePredicates().entries()).size();
     return difference;
   }
 
+  private static <K extends Comparable<? super K>> int calculateDifference(
+      PersistentSortedMap<K, ImmutableSet<AbstractionPredicate>> m1,
+      PersistentSortedMap<K, ImmutableSet<AbstractionPredicate>> m2) {
+    int difference = 0;
+    for (Map.Entry<K, ImmutableSet<AbstractionPredicate>> entry : m1.entrySet()) {
+      ImmutableSet<AbstractionPredicate> otherPredicates = m2.get(entry.getKey());
+      if (otherPredicates == null) {
+        difference += entry.getValue().size();
+      } else if (otherPredicates != entry.getValue()) {
+        difference += Sets.difference(entry.getValue(), otherPredicates).size();
+      }
+    }
+    return difference;
+  }
+
   @Override
   public int hashCode() {
-    return Objects.hash(getGlobalPredicates(),
-                             getFunctionPredicates(),
-                             getLocalPredicates(),
-                             getLocationInstancePredicates());
+    return Objects.hash(mGlobalPredicates,
+                             mFunctionPredicates,
+                             mLocalPredicates,
+                             mLocationInstancePredicates);
   }
 
   @Override
@@ -310,10 +417,10 @@ public class PredicatePrecision implements Precision {
       return false;
     } else {
       PredicatePrecision other = (PredicatePrecision)pObj;
-      return getLocationInstancePredicates().equals(other.getLocationInstancePredicates())
-          && getLocalPredicates().equals(other.getLocalPredicates())
-          && getFunctionPredicates().equals(other.getFunctionPredicates())
-          && getGlobalPredicates().equals(other.getGlobalPredicates());
+      return mLocationInstancePredicates.equals(other.mLocationInstancePredicates)
+          && mLocalPredicates.equals(other.mLocalPredicates)
+          && mFunctionPredicates.equals(other.mFunctionPredicates)
+          && mGlobalPredicates.equals(other.mGlobalPredicates);
     }
   }
 
@@ -324,14 +431,14 @@ public class PredicatePrecision implements Precision {
       sb.append("global predicates: ");
       sb.append(getGlobalPredicates());
     }
-    if (!getFunctionPredicates().isEmpty()) {
+    if (!mFunctionPredicates.isEmpty()) {
       if (sb.length() > 0) {
         sb.append(", ");
       }
       sb.append("function predicates: ");
       sb.append(getFunctionPredicates());
     }
-    if (!getLocalPredicates().isEmpty()) {
+    if (!mLocalPredicates.isEmpty()) {
       if (sb.length() > 0) {
         sb.append(", ");
       }
@@ -0,0 +1,331 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Appenders;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.solver.api.BooleanFormula;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Ints;
+
+/**
+ * A store for results of abstraction computations that is kept in a file
+ * and can be reused by later runs of CPAchecker.
+ *
+ * Entries are content-addressed: the key is a hash of the SMT-LIB2 representation
+ * of the abstracted formula and of the (sorted) SMT-LIB2 representations of the predicates.
+ * The value is the SMT-LIB2 representation of the uninstantiated abstraction formula.
+ *
+ * The file starts with a header that contains a fingerprint of everything
+ * that may influence the result (e.g., solver version and abstraction type).
+ * If the fingerprint does not match, the file is discarded and rewritten.
+ * The header is followed by a sequence of records
+ * (32 bytes key, 4 bytes length, UTF-8 encoded formula).
+ * Existing records are memory-mapped and only decoded and parsed on a hit,
+ * new records are appended to the file immediately.
+ *
+ * The file is locked while it is open, so if several runs use the same file concurrently,
+ * only the first one gets the cache.
+ */
+public class PersistentAbstractionCache implements AutoCloseable {
+
+  private static final int MAGIC = 0x43504143; // "CPAC"
+  private static final int FORMAT_VERSION = 1;
+  private static final int KEY_BYTES = 32;
+  private static final int RECORD_HEADER_BYTES = KEY_BYTES + Integer.SIZE / Byte.SIZE;
+
+  private final Path file;
+  private final FormulaManagerView fmgr;
+  private final LogManager logger;
+
+  private final RandomAccessFile fileHandle;
+  private final FileChannel channel;
+  private final FileLock lock;
+
+  /** The records that existed when the file was opened. */
+  private final MappedByteBuffer existingRecords;
+
+  /** Offsets of the formulas of existing records into {@link #existingRecords}. */
+  private final Map<HashCode, Integer> existingIndex = new HashMap<>();
+
+  /** Formulas of records that were added during this run. */
+  private final Map<HashCode, String> addedRecords = new HashMap<>();
+
+  public PersistentAbstractionCache(Path pFile, String pFingerprint,
+      FormulaManagerView pFmgr, LogManager pLogger) throws IOException {
+    file = pFile;
+    fmgr = pFmgr;
+    logger = pLogger;
+
+    Files.createParentDirs(file);
+    fileHandle = new RandomAccessFile(file.toFile(), "rw");
+    channel = fileHandle.getChannel();
+    try {
+      lock = lockFile();
+      existingRecords = open(pFingerprint);
+    } catch (IOException | RuntimeException e) {
+      fileHandle.close();
+      throw e;
+    }
+    channel.position(channel.size());
+
+    logger.log(Level.FINE, "Loaded", existingIndex.size(),
+        "entries from persistent abstraction cache", file);
+  }
+
+  private FileLock lockFile() throws IOException {
+    FileLock result;
+    try {
+      result = channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // locked by another instance in this JVM
+      result = null;
+    }
+    if (result == null) {
+      throw new IOException("File " + file + " is in use by another analysis");
+    }
+    return result;
+  }
+
+  /**
+   * Check the header, index the existing records and map them into memory.
+   */
+  private MappedByteBuffer open(String pFingerprint) throws IOException {
+    byte[] fingerprint = pFingerprint.getBytes(StandardCharsets.UTF_8);
+    int headerSize = 3 * Integer.SIZE / Byte.SIZE + fingerprint.length;
+
+    if (!hasValidHeader(fingerprint)) {
+      if (channel.size() > 0) {
+        logger.log(Level.INFO, "Discarding persistent abstraction cache", file,
+            "because it was created with a different configuration or solver.");
+      }
+      channel.truncate(0);
+      ByteBuffer header = ByteBuffer.allocate(headerSize);
+      header.putInt(MAGIC);
+      header.putInt(FORMAT_VERSION);
+      header.putInt(fingerprint.length);
+      header.put(fingerprint);
+      header.flip();
+      writeFully(header, 0);
+    }
+
+    int validLength = buildIndex(headerSize);
+    if (headerSize + validLength < channel.size()) {
+      // last record was not written completely, e.g., because the previous run was killed;
+      // truncate before mapping, because mapped files cannot be truncated on all platforms
+      logger.log(Level.INFO, "Ignoring incomplete last entry of persistent abstraction cache", file);
+      channel.truncate(headerSize + validLength);
+    }
+    return channel.map(MapMode.READ_ONLY, headerSize, validLength);
+  }
+
+  private boolean hasValidHeader(byte[] pFingerprint) throws IOException {
+    int headerSize = 3 * Integer.SIZE / Byte.SIZE + pFingerprint.length;
+    if (channel.size() < headerSize) {
+      return false;
+    }
+    ByteBuffer header = ByteBuffer.allocate(headerSize);
+    while (header.hasRemaining()) {
+      if (channel.read(header, header.position()) < 0) {
+        return false;
+      }
+    }
+    header.flip();
+    if (header.getInt() != MAGIC
+        || header.getInt() != FORMAT_VERSION
+        || header.getInt() != pFingerprint.length) {
+      return false;
+    }
+    byte[] storedFingerprint = new byte[pFingerprint.length];
+    header.get(storedFingerprint);
+    return Arrays.equals(storedFingerprint, pFingerprint);
+  }
+
+  /**
+   * Scan the records after the header and fill {@link #existingIndex}
+   * with the offsets of the formulas relative to the end of the header.
+   * @return The number of bytes that contain complete records.
+   */
+  private int buildIndex(int pHeaderSize) throws IOException {
+    long limit = channel.size() - pHeaderSize;
+    channel.position(pHeaderSize);
+    // not closed, because this would close the channel
+    DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+    long pos = 0;
+    byte[] key = new byte[KEY_BYTES];
+    while (pos + RECORD_HEADER_BYTES <= limit) {
+      in.readFully(key);
+      int length = in.readInt();
+      long formulaStart = pos + RECORD_HEADER_BYTES;
+      if (length < 0 || formulaStart + length > limit) {
+        break;
+      }
+      existingIndex.put(HashCode.fromBytes(key.clone()), Ints.checkedCast(formulaStart));
+      ByteStreams.skipFully(in, length);
+      pos = formulaStart + length;
+    }
+    return Ints.checkedCast(pos);
+  }
+
+  /**
+   * Compute the key for an abstraction computation.
+   * @param pFormula The formula that should be abstracted.
+   * @param pPredicates The predicates that are relevant for the abstraction.
+   */
+  public HashCode computeKey(BooleanFormula pFormula, Collection<AbstractionPredicate> pPredicates) {
+    List<String> predicates = new ArrayList<>(pPredicates.size());
+    for (AbstractionPredicate predicate : pPredicates) {
+      predicates.add(Appenders.toString(fmgr.dumpFormula(predicate.getSymbolicAtom())));
+    }
+    // the order of the predicates is irrelevant for the result
+    Collections.sort(predicates);
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(Appenders.toString(fmgr.dumpFormula(pFormula)), StandardCharsets.UTF_8);
+    for (String predicate : predicates) {
+      hasher.putChar('\0');
+      hasher.putString(predicate, StandardCharsets.UTF_8);
+    }
+    return hasher.hash();
+  }
+
+  /**
+   * Look up the result of an abstraction computation.
+   * @param pKey A key as returned by {@link #computeKey(BooleanFormula, Collection)}.
+   * @return The uninstantiated abstraction formula, or null if there is no entry.
+   */
+  public @Nullable BooleanFormula get(HashCode pKey) {
+    String formula = addedRecords.get(pKey);
+    if (formula == null) {
+      Integer offset = existingIndex.get(pKey);
+      if (offset != null) {
+        formula = readFormula(offset);
+      }
+    }
+
+    if (formula == null) {
+      return null;
+    }
+
+    BooleanFormula result;
+    try {
+      result = fmgr.parse(formula);
+    } catch (IllegalArgumentException e) {
+      logger.logDebugException(e, "Invalid entry in persistent abstraction cache");
+      return null;
+    }
+    return result;
+  }
+
+  private String readFormula(int pOffset) {
+    ByteBuffer record = existingRecords.duplicate();
+    record.position(pOffset - Integer.SIZE / Byte.SIZE);
+    int length = record.getInt();
+    byte[] bytes = new byte[length];
+    record.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Store the result of an abstraction computation.
+   * @param pKey A key as returned by {@link #computeKey(BooleanFormula, Collection)}.
+   * @param pAbstraction The uninstantiated abstraction formula.
+   */
+  public void put(HashCode pKey, BooleanFormula pAbstraction) throws IOException {
+    checkState(channel.isOpen());
+    if (existingIndex.containsKey(pKey) || addedRecords.containsKey(pKey)) {
+      return;
+    }
+
+    String formula = Appenders.toString(fmgr.dumpFormula(pAbstraction));
+    byte[] formulaBytes = formula.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer record = ByteBuffer.allocate(KEY_BYTES + Integer.SIZE / Byte.SIZE + formulaBytes.length);
+    record.put(pKey.asBytes());
+    record.putInt(formulaBytes.length);
+    record.put(formulaBytes);
+    record.flip();
+    writeFully(record, channel.size());
+
+    addedRecords.put(pKey, formula);
+  }
+
+  private void writeFully(ByteBuffer pBuffer, long pPosition) throws IOException {
+    long position = pPosition;
+    while (pBuffer.hasRemaining()) {
+      position += channel.write(pBuffer, position);
+    }
+  }
+
+  public int getNumberOfLoadedEntries() {
+    return existingIndex.size();
+  }
+
+  public int getNumberOfAddedEntries() {
+    return addedRecords.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      lock.release();
+    } finally {
+      fileHandle.close();
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Files.DeleteOnCloseFile;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.test.SolverBasedTest0;
+
+import com.google.common.hash.HashCode;
+
+public class PersistentAbstractionCacheTest extends SolverBasedTest0 {
+
+  private static final String FINGERPRINT = "test-fingerprint";
+
+  private FormulaManagerView mgrv;
+
+  private BooleanFormula formula1;
+  private BooleanFormula formula2;
+  private BooleanFormula abstraction1;
+  private BooleanFormula abstraction2;
+
+  @Before
+  public void init() throws InvalidConfigurationException {
+    mgrv = new FormulaManagerView(mgr, config, logger);
+
+    formula1 = imgr.greaterThan(imgr.makeVariable("x"), imgr.makeNumber(1));
+    formula2 = imgr.lessThan(imgr.makeVariable("y"), imgr.makeNumber(2));
+    abstraction1 = imgr.greaterThan(imgr.makeVariable("x"), imgr.makeNumber(0));
+    abstraction2 = bmgr.makeBoolean(true);
+  }
+
+  private PersistentAbstractionCache open(Path pFile, String pFingerprint) throws IOException {
+    return new PersistentAbstractionCache(pFile, pFingerprint, mgrv, logger);
+  }
+
+  private HashCode keyOf(PersistentAbstractionCache pCache, BooleanFormula pFormula) {
+    return pCache.computeKey(pFormula, Collections.<AbstractionPredicate>emptySet());
+  }
+
+  @Test
+  public void testEntriesAreFoundAfterReopening() throws IOException {
+    try (DeleteOnCloseFile file = Files.createTempFile("abstractions", ".cache")) {
+      try (PersistentAbstractionCache cache = open(file.toPath(), FINGERPRINT)) {
+        assertThat(cache.getNumberOfLoadedEntries()).isEqualTo(0);
+        cache.put(keyOf(cache, formula1), abstraction1);
+        cache.put(keyOf(cache, formula2), abstraction2);
+
+        assertThat(cache.get(keyOf(cache, formula1))).isEqualTo(abstraction1);
+        assertThat(cache.getNumberOfAddedEntries()).isEqualTo(2);
+      }
+
+      try (PersistentAbstractionCache cache = open(file.toPath(), FINGERPRINT)) {
+        assertThat(cache.getNumberOfLoadedEntries()).isEqualTo(2);
+        assertThat(cache.getNumberOfAddedEntries()).isEqualTo(0);
+        assertThat(cache.get(keyOf(cache, formula1))).isEqualTo(abstraction1);
+        assertThat(cache.get(keyOf(cache, formula2))).isEqualTo(abstraction2);
+        assertThat(cache.get(keyOf(cache, abstraction1))).isNull();
+      }
+    }
+  }
+
+  @Test
+  public void testChangedFingerprintDiscardsEntries() throws IOException {
+    try (DeleteOnCloseFile file = Files.createTempFile("abstractions", ".cache")) {
+      try (PersistentAbstractionCache cache = open(file.toPath(), FINGERPRINT)) {
+        cache.put(keyOf(cache, formula1), abstraction1);
+      }
+
+      try (PersistentAbstractionCache cache = open(file.toPath(), "other-fingerprint")) {
+        assertThat(cache.getNumberOfLoadedEntries()).isEqualTo(0);
+        assertThat(cache.get(keyOf(cache, formula1))).isNull();
+      }
+
+      // the file was rewritten for the other fingerprint
+      try (PersistentAbstractionCache cache = open(file.toPath(), FINGERPRINT)) {
+        assertThat(cache.getNumberOfLoadedEntries()).isEqualTo(0);
+      }
+    }
+  }
+
+  @Test
+  public void testIncompleteLastRecordIsTruncated() throws IOException {
+    try (DeleteOnCloseFile file = Files.createTempFile("abstractions", ".cache")) {
+      long lengthOfCompleteRecords;
+      try (PersistentAbstractionCache cache = open(file.toPath(), FINGERPRINT)) {
+        cache.put(keyOf(cache, formula1), abstraction1);
+        lengthOfCompleteRecords = file.toPath().toFile().length();
+        cache.put(keyOf(cache, formula2), abstraction2);
+      }
+
+      // simulate a run that was killed while writing the second record
+      try (RandomAccessFile raw = new RandomAccessFile(file.toPath().toFile(), "rw")) {
+        raw.setLength(raw.length() - 1);
+      }
+
+      try (PersistentAbstractionCache cache = open(file.toPath(), FINGERPRINT)) {
+        assertThat(cache.getNumberOfLoadedEntries()).isEqualTo(1);
+        assertThat(cache.get(keyOf(cache, formula1))).isEqualTo(abstraction1);
+        assertThat(cache.get(keyOf(cache, formula2))).isNull();
+      }
+      assertThat(file.toPath().toFile().length()).isEqualTo(lengthOfCompleteRecords);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testFileInUseIsRejected() throws IOException {
+    try (DeleteOnCloseFile file = Files.createTempFile("abstractions", ".cache");
+        PersistentAbstractionCache cache = open(file.toPath(), FINGERPRINT)) {
+      cache.put(keyOf(cache, formula1), abstraction1);
+
+      // fails because the file is locked by the first cache
+      open(file.toPath(), FINGERPRINT).close();
+    }
+  }
+}
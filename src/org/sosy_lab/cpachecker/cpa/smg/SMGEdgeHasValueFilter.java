@@ -48,6 +48,13 @@ public class SMGEdgeHasValueFilter {
   private Integer offset = null;
   private CType type = null;
 
+  /**
+   * Get the object to which this filter restricts the edges, or null if it does not.
+   */
+  public SMGObject getObject() {
+    return object;
+  }
+
   public SMGEdgeHasValueFilter filterByObject(SMGObject pObject) {
     object = pObject;
     return this;
@@ -23,11 +23,13 @@
  */
 package org.sosy_lab.cpachecker.cpa.smg.graphs;
 
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -49,7 +51,7 @@ import com.google.common.annotations.VisibleForTesting;
 public class SMG {
   private Set<SMGObject> objects = new HashSet<>();
   private Set<Integer> values = new HashSet<>();
-  private Set<SMGEdgeHasValue> hv_edges = new HashSet<>();
+  private SMGHasValueEdgeSet hv_edges = new SMGHasValueEdgeSet();
   private Map<Integer, SMGEdgePointsTo> pt_edges = new HashMap<>();
   private Map<SMGObject, Boolean> object_validity = new HashMap<>();
   private Map<SMGObject, SMG.ExternalObjectFlag> objectAllocationIdentity = new HashMap<>();
@@ -99,7 +101,7 @@ public class SMG {
    */
   public SMG(final SMG pHeap) {
     machine_model = pHeap.machine_model;
-    hv_edges.addAll(pHeap.hv_edges);
+    hv_edges = pHeap.hv_edges.copy();
     neq.putAll(pHeap.neq);
     symbolicRelations.putAll(pHeap.symbolicRelations);
     object_validity.putAll(pHeap.object_validity);
@@ -193,14 +195,9 @@ public class SMG {
    */
   final public void removeObjectAndEdges(final SMGObject pObj) {
     removeObject(pObj);
-    Iterator<SMGEdgeHasValue> hv_iter = hv_edges.iterator();
-    Iterator<SMGEdgePointsTo> pt_iter = pt_edges.values().iterator();
-    while (hv_iter.hasNext()) {
-      if (hv_iter.next().getObject() == pObj) {
-        hv_iter.remove();
-      }
-    }
+    hv_edges.removeEdgesOfObject(pObj);
 
+    Iterator<SMGEdgePointsTo> pt_iter = pt_edges.values().iterator();
     while (pt_iter.hasNext()) {
       if (pt_iter.next().getObject() == pObj) {
         pt_iter.remove();
@@ -253,7 +250,7 @@ public class SMG {
    * @param pEdge Has-Value edge to add
    */
   final public void addHasValueEdge(SMGEdgeHasValue pEdge) {
-    hv_edges.add(pEdge);
+    hv_edges.addEdge(pEdge);
   }
 
   /**
@@ -264,7 +261,7 @@ public class SMG {
    * @param pEdge Has-Value edge to remove
    */
   final public void removeHasValueEdge(SMGEdgeHasValue pEdge) {
-    hv_edges.remove(pEdge);
+    hv_edges.removeEdge(pEdge);
   }
 
   /**
@@ -321,8 +318,10 @@ public class SMG {
    * Keeps consistency: no
    */
   public void replaceHVSet(Set<SMGEdgeHasValue> pNewHV) {
-    hv_edges.clear();
-    hv_edges.addAll(pNewHV);
+    hv_edges.removeAllEdges();
+    for (SMGEdgeHasValue edge : pNewHV) {
+      hv_edges.addEdge(edge);
+    }
   }
 
   /**
@@ -437,6 +436,11 @@ public class SMG {
    * @return A set of Has-Value edges for which the criteria in p hold
    */
   final public Set<SMGEdgeHasValue> getHVEdges(SMGEdgeHasValueFilter pFilter) {
+    SMGObject object = pFilter.getObject();
+    if (object != null) {
+      // only the edges of this object can match
+      return pFilter.filterSet(hv_edges.getEdgesOfObject(object));
+    }
     return Collections.unmodifiableSet(pFilter.filterSet(hv_edges));
   }
 
@@ -587,16 +591,16 @@ public class SMG {
       symbolicRelations.mergeValues(pV1, pV2);
     }
     removeValue(pV2);
-    Set<SMGEdgeHasValue> new_hv_edges = new HashSet<>();
+    List<SMGEdgeHasValue> old_hv_edges = new ArrayList<>();
     for (SMGEdgeHasValue hv : hv_edges) {
-      if (hv.getValue() != pV2) {
-        new_hv_edges.add(hv);
-      } else {
-        new_hv_edges.add(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
+      if (hv.getValue() == pV2) {
+        old_hv_edges.add(hv);
       }
     }
-    hv_edges.clear();
-    hv_edges.addAll(new_hv_edges);
+    for (SMGEdgeHasValue hv : old_hv_edges) {
+      hv_edges.removeEdge(hv);
+      hv_edges.addEdge(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
+    }
     // TODO: Handle PT Edges: I'm not entirely sure how they should be handled
   }
 
@@ -0,0 +1,183 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.smg.graphs;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+
+/**
+ * The set of Has-Value edges of an SMG, indexed by their source object.
+ *
+ * Copies share their data with the original (copy-on-write):
+ * {@link #copy()} takes constant time, and the first modification afterwards
+ * copies only the index and the edges of the modified object.
+ *
+ * The set itself cannot be modified through the {@link Set} interface,
+ * only through the specific methods of this class.
+ */
+final class SMGHasValueEdgeSet extends AbstractSet<SMGEdgeHasValue> {
+
+  private Map<SMGObject, Set<SMGEdgeHasValue>> edgesByObject;
+
+  /** Whether {@link #edgesByObject} may be shared with other instances. */
+  private boolean indexShared;
+
+  /**
+   * The edge sets in {@link #edgesByObject} that were created by this instance
+   * after the last copy and can thus be modified in place (lazily initialized).
+   */
+  private Set<Set<SMGEdgeHasValue>> ownedEdgeSets = null;
+
+  private int size;
+
+  SMGHasValueEdgeSet() {
+    edgesByObject = new HashMap<>();
+    indexShared = false;
+    size = 0;
+  }
+
+  private SMGHasValueEdgeSet(SMGHasValueEdgeSet pOther) {
+    edgesByObject = pOther.edgesByObject;
+    indexShared = true;
+    size = pOther.size;
+  }
+
+  /**
+   * Create a copy of this set in constant time.
+   */
+  SMGHasValueEdgeSet copy() {
+    // from now on, both instances must not modify the shared data anymore
+    indexShared = true;
+    ownedEdgeSets = null;
+    return new SMGHasValueEdgeSet(this);
+  }
+
+  private Set<SMGEdgeHasValue> getModifiableEdges(SMGObject pObject) {
+    if (indexShared) {
+      edgesByObject = new HashMap<>(edgesByObject);
+      indexShared = false;
+    }
+    if (ownedEdgeSets == null) {
+      ownedEdgeSets = Collections.newSetFromMap(new IdentityHashMap<Set<SMGEdgeHasValue>, Boolean>());
+    }
+
+    Set<SMGEdgeHasValue> edges = edgesByObject.get(pObject);
+    if (edges == null) {
+      edges = new HashSet<>();
+    } else if (!ownedEdgeSets.contains(edges)) {
+      edges = new HashSet<>(edges);
+    } else {
+      return edges;
+    }
+    edgesByObject.put(pObject, edges);
+    ownedEdgeSets.add(edges);
+    return edges;
+  }
+
+  void addEdge(SMGEdgeHasValue pEdge) {
+    if (getModifiableEdges(pEdge.getObject()).add(pEdge)) {
+      size++;
+    }
+  }
+
+  void removeEdge(SMGEdgeHasValue pEdge) {
+    if (!contains(pEdge)) {
+      return;
+    }
+    Set<SMGEdgeHasValue> edges = getModifiableEdges(pEdge.getObject());
+    edges.remove(pEdge);
+    size--;
+    if (edges.isEmpty()) {
+      edgesByObject.remove(pEdge.getObject());
+      ownedEdgeSets.remove(edges);
+    }
+  }
+
+  /**
+   * Remove all edges that lead from the given object.
+   */
+  void removeEdgesOfObject(SMGObject pObject) {
+    if (!edgesByObject.containsKey(pObject)) {
+      return;
+    }
+    if (indexShared) {
+      edgesByObject = new HashMap<>(edgesByObject);
+      indexShared = false;
+    }
+    Set<SMGEdgeHasValue> edges = edgesByObject.remove(pObject);
+    size -= edges.size();
+    if (ownedEdgeSets != null) {
+      ownedEdgeSets.remove(edges);
+    }
+  }
+
+  void removeAllEdges() {
+    edgesByObject = new HashMap<>();
+    indexShared = false;
+    ownedEdgeSets = null;
+    size = 0;
+  }
+
+  /**
+   * Get all edges that lead from the given object.
+   * @return An unmodifiable view.
+   */
+  Set<SMGEdgeHasValue> getEdgesOfObject(SMGObject pObject) {
+    Set<SMGEdgeHasValue> edges = edgesByObject.get(pObject);
+    return edges == null
+        ? Collections.<SMGEdgeHasValue>emptySet()
+        : Collections.unmodifiableSet(edges);
+  }
+
+  @Override
+  public boolean contains(Object pO) {
+    if (!(pO instanceof SMGEdgeHasValue)) {
+      return false;
+    }
+    Set<SMGEdgeHasValue> edges = edgesByObject.get(((SMGEdgeHasValue) pO).getObject());
+    return edges != null && edges.contains(pO);
+  }
+
+  @Override
+  public Iterator<SMGEdgeHasValue> iterator() {
+    return Iterators.unmodifiableIterator(Iterables.concat(edgesByObject.values()).iterator());
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+}
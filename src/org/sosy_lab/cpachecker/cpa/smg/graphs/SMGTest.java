@@ -36,6 +36,7 @@ import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.smg.AnonymousTypes;
 import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValueFilter;
 import org.sosy_lab.cpachecker.cpa.smg.SMGEdgePointsTo;
 import org.sosy_lab.cpachecker.cpa.smg.SMGValueFactory;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
@@ -179,6 +180,29 @@ public class SMGTest {
     Assert.assertFalse(smg.getHVEdges().contains(hv));
   }
 
+  @Test
+  public void copyHasValueEdgesTest() {
+    SMG smg_copy = new SMG(smg);
+    SMGEdgeHasValue hv1has2at0 = new SMGEdgeHasValue(mockType, 0, obj1, val2);
+
+    smg_copy.addHasValueEdge(hv1has2at0);
+    smg_copy.removeHasValueEdge(hv2has1at4);
+    smg.removeHasValueEdge(hv2has2at0);
+
+    Assert.assertEquals(1, smg.getHVEdges().size());
+    Assert.assertTrue(smg.getHVEdges().contains(hv2has1at4));
+    Assert.assertFalse(smg.getHVEdges().contains(hv1has2at0));
+
+    Assert.assertEquals(2, smg_copy.getHVEdges().size());
+    Assert.assertTrue(smg_copy.getHVEdges().contains(hv2has2at0));
+    Assert.assertTrue(smg_copy.getHVEdges().contains(hv1has2at0));
+    Assert.assertFalse(smg_copy.getHVEdges().contains(hv2has1at4));
+
+    Set<SMGEdgeHasValue> edgesOfObj2 = smg_copy.getHVEdges(SMGEdgeHasValueFilter.objectFilter(obj2));
+    Assert.assertEquals(1, edgesOfObj2.size());
+    Assert.assertTrue(edgesOfObj2.contains(hv2has2at0));
+  }
+
   @Test
   public void removeObjectTest() {
     SMG smg = getNewSMG64();
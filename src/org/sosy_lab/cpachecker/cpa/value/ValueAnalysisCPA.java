@@ -106,6 +106,7 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
   private final ValueAnalysisReducer reducer;
   private final ValueAnalysisCPAStatistics statistics;
   private final StateToFormulaWriter writer;
+  private final ValueAnalysisStateFactory stateFactory;
 
   private final Configuration config;
   private final LogManager logger;
@@ -124,6 +125,7 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
 
     config.inject(this);
 
+    stateFactory        = ValueAnalysisStateFactory.fromConfiguration(config);
     abstractDomain      = DelegateAbstractDomain.<ValueAnalysisState>getInstance();
     transferRelation    = new ValueAnalysisTransferRelation(config, logger, cfa);
     precision           = initializePrecision(config, cfa);
@@ -255,7 +257,7 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
 
   @Override
   public AbstractState getInitialState(CFANode pNode, StateSpacePartition pPartition) {
-    return new ValueAnalysisState(cfa.getMachineModel());
+    return stateFactory.createEmptyState(cfa.getMachineModel());
   }
 
   @Override
@@ -47,6 +47,7 @@ import org.sosy_lab.cpachecker.core.defaults.LatticeAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractQueryableState;
 import org.sosy_lab.cpachecker.core.interfaces.FormulaReportingState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.ConstantSymbolicExpression;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicIdentifier;
@@ -60,6 +61,8 @@ import org.sosy_lab.cpachecker.util.predicates.smt.FloatingPointFormulaManagerVi
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.refinement.ForgetfulState;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.states.PersistentMemoryLocationMap;
+import org.sosy_lab.cpachecker.util.states.PersistentMemoryLocationMap.LongRepresentation;
 import org.sosy_lab.solver.api.BitvectorFormula;
 import org.sosy_lab.solver.api.BooleanFormula;
 import org.sosy_lab.solver.api.BooleanFormulaManager;
@@ -75,7 +78,7 @@ import com.google.common.collect.Multimap;
 
 public class ValueAnalysisState implements AbstractQueryableState, FormulaReportingState,
     ForgetfulState<ValueAnalysisInformation>, Serializable, Graphable,
-    LatticeAbstractState<ValueAnalysisState> {
+    LatticeAbstractState<ValueAnalysisState>, PseudoPartitionable {
 
   private static final long serialVersionUID = -3152134511524554357L;
 
@@ -112,6 +115,59 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     this.memLocToType = pLocToTypeMap;
   }
 
+  /**
+   * Creates an empty state that stores its values in {@link PersistentMemoryLocationMap}s
+   * instead of sorted maps, with numeric values of type long stored unboxed.
+   * All copies and successors of the state use the same representation.
+   * Use {@link ValueAnalysisStateFactory} to create states in the configured representation.
+   */
+  static ValueAnalysisState createCompact(Optional<MachineModel> pMachineModel) {
+    return new ValueAnalysisState(pMachineModel,
+        PersistentMemoryLocationMap.of(NumericValueLongRepresentation.INSTANCE),
+        PersistentMemoryLocationMap.<Type>of());
+  }
+
+  /** Creates a state in the compact representation with the given values and types. */
+  static ValueAnalysisState createCompact(Optional<MachineModel> pMachineModel,
+      Map<MemoryLocation, Value> pValues, Map<MemoryLocation, Type> pTypes) {
+    PersistentMap<MemoryLocation, Value> values =
+        PersistentMemoryLocationMap.of(NumericValueLongRepresentation.INSTANCE);
+    for (Map.Entry<MemoryLocation, Value> entry : pValues.entrySet()) {
+      values = values.putAndCopy(entry.getKey(), entry.getValue());
+    }
+    PersistentMap<MemoryLocation, Type> types = PersistentMemoryLocationMap.of();
+    for (Map.Entry<MemoryLocation, Type> entry : pTypes.entrySet()) {
+      types = types.putAndCopy(entry.getKey(), entry.getValue());
+    }
+    return new ValueAnalysisState(pMachineModel, values, types);
+  }
+
+  /** Whether the state uses the representation created by {@link #createCompact(Optional)}. */
+  boolean isCompact() {
+    return constantsMap instanceof PersistentMemoryLocationMap;
+  }
+
+  private static enum NumericValueLongRepresentation implements LongRepresentation<Value> {
+    INSTANCE;
+
+    @Override
+    public boolean hasLongRepresentation(Value pValue) {
+      // only for this class the restored value is equal to the original one
+      return pValue.getClass() == NumericValue.class
+          && ((NumericValue) pValue).getNumber() instanceof Long;
+    }
+
+    @Override
+    public long toLong(Value pValue) {
+      return ((NumericValue) pValue).getNumber().longValue();
+    }
+
+    @Override
+    public Value fromLong(long pValue) {
+      return new NumericValue(pValue);
+    }
+  }
+
   public static ValueAnalysisState copyOf(ValueAnalysisState state) {
     return new ValueAnalysisState(state.machineModel, state.constantsMap, state.memLocToType);
   }
@@ -137,7 +193,11 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
       valueToAdd = ((SymbolicValue) valueToAdd).copyForLocation(pMemLoc);
     }
 
-    constantsMap = constantsMap.putAndCopy(pMemLoc, checkNotNull(valueToAdd));
+    checkNotNull(valueToAdd);
+    // avoid copying the map if the value does not change
+    if (!valueToAdd.equals(constantsMap.get(pMemLoc))) {
+      constantsMap = constantsMap.putAndCopy(pMemLoc, valueToAdd);
+    }
   }
 
   /**
@@ -153,7 +213,9 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     }
 
     addToConstantsMap(pMemoryLocation, value);
-    memLocToType = memLocToType.putAndCopy(pMemoryLocation, pType);
+    if (!Objects.equals(pType, memLocToType.get(pMemoryLocation))) {
+      memLocToType = memLocToType.putAndCopy(pMemoryLocation, pType);
+    }
   }
 
   /**
@@ -349,24 +411,36 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
    */
   @Override
   public ValueAnalysisState join(ValueAnalysisState reachedState) {
-    PersistentMap<MemoryLocation, Value> newConstantsMap = PathCopyingPersistentTreeMap.of();
-    PersistentMap<MemoryLocation, Type> newlocToTypeMap = PathCopyingPersistentTreeMap.of();
+    if (constantsMap == reachedState.constantsMap) {
+      return reachedState;
+    }
+
+    // start with the reached state and remove all differing values,
+    // such that nothing is copied if both states are equal
+    PersistentMap<MemoryLocation, Value> newConstantsMap = reachedState.constantsMap;
 
     for (Map.Entry<MemoryLocation, Value> otherEntry : reachedState.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
 
-      if (Objects.equals(otherEntry.getValue(), constantsMap.get(key))) {
-        newConstantsMap = newConstantsMap.putAndCopy(key, otherEntry.getValue());
-        newlocToTypeMap = newlocToTypeMap.putAndCopy(key, memLocToType.get(key));
+      if (!Objects.equals(otherEntry.getValue(), constantsMap.get(key))) {
+        newConstantsMap = newConstantsMap.removeAndCopy(key);
       }
     }
 
     // return the reached state if both maps are equal
     if (newConstantsMap.size() == reachedState.constantsMap.size()) {
       return reachedState;
-    } else {
-      return new ValueAnalysisState(machineModel, newConstantsMap, newlocToTypeMap);
     }
+
+    // the types are taken from this state, but only for the remaining values
+    PersistentMap<MemoryLocation, Type> newlocToTypeMap = memLocToType;
+    for (MemoryLocation key : memLocToType.keySet()) {
+      if (!newConstantsMap.containsKey(key)) {
+        newlocToTypeMap = newlocToTypeMap.removeAndCopy(key);
+      }
+    }
+
+    return new ValueAnalysisState(machineModel, newConstantsMap, newlocToTypeMap);
   }
 
   /**
@@ -378,6 +452,11 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    // states that share their map are equal
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
@@ -399,6 +478,25 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     return true;
   }
 
+  /**
+   * A state can only be covered by states with less or equal tracked variables,
+   * so the number of tracked variables is used as key.
+   */
+  @Override
+  public int getPseudoPartitionKey() {
+    return constantsMap.size();
+  }
+
+  /** A bloom filter of the tracked variables. */
+  @Override
+  public long getPseudoPartitionSignature() {
+    long signature = 0;
+    for (MemoryLocation memoryLocation : constantsMap.keySet()) {
+      signature |= 1L << memoryLocation.hashCode();
+    }
+    return signature;
+  }
+
   @Override
   public boolean equals(Object other) {
     if (this == other) {
@@ -709,7 +807,8 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
    * @return the value-analysis interpolant reflecting the value assignment of this state
    */
   public ValueAnalysisInterpolant createInterpolant() {
-    return new ValueAnalysisInterpolant(new HashMap<>(constantsMap), new HashMap<>(memLocToType));
+    return new ValueAnalysisInterpolant(new HashMap<>(constantsMap), new HashMap<>(memLocToType),
+        ValueAnalysisStateFactory.of(this));
   }
 
   public ValueAnalysisInformation getInformation() {
@@ -801,6 +900,8 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     } catch (ClassNotFoundException e) {
       throw new IOException("",e);
     }
-    memLocToType = PathCopyingPersistentTreeMap.of();
+    memLocToType = isCompact()
+        ? PersistentMemoryLocationMap.<Type>of()
+        : PathCopyingPersistentTreeMap.<MemoryLocation, Type>of();
   }
 }
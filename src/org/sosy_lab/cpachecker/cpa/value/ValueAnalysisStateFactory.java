@@ -0,0 +1,108 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import java.util.Map;
+
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.Type;
+import org.sosy_lab.cpachecker.cpa.value.type.Value;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+import com.google.common.base.Optional;
+
+/**
+ * Creates value-analysis states in the representation that is selected
+ * by the option <code>cpa.value.compactStates</code>.
+ * All states of an analysis, including the states of its refinements
+ * and the states reconstructed from interpolants,
+ * are created by the same factory, such that they share one representation.
+ */
+public final class ValueAnalysisStateFactory {
+
+  @Options(prefix="cpa.value")
+  private static final class RepresentationOptions {
+
+    @Option(secure=true, description="store the values of each state in a hash array mapped trie"
+        + " over ids of the memory locations, with numeric values stored unboxed,"
+        + " instead of in a sorted tree map. This needs less memory and is faster for states"
+        + " with many variables, but the variables are no longer printed in sorted order.")
+    private boolean compactStates = false;
+  }
+
+  /** Factory for states that store their values in sorted tree maps. */
+  public static final ValueAnalysisStateFactory TREE = new ValueAnalysisStateFactory(false);
+
+  /** Factory for states that store their values in hash tries over memory locations. */
+  public static final ValueAnalysisStateFactory COMPACT = new ValueAnalysisStateFactory(true);
+
+  private final boolean compact;
+
+  private ValueAnalysisStateFactory(boolean pCompact) {
+    compact = pCompact;
+  }
+
+  /** Returns the factory for the representation selected in the given configuration. */
+  public static ValueAnalysisStateFactory fromConfiguration(Configuration pConfig)
+      throws InvalidConfigurationException {
+    RepresentationOptions options = new RepresentationOptions();
+    pConfig.inject(options);
+    return options.compactStates ? COMPACT : TREE;
+  }
+
+  /** Returns the factory that creates states in the same representation as the given state. */
+  public static ValueAnalysisStateFactory of(ValueAnalysisState pState) {
+    return pState.isCompact() ? COMPACT : TREE;
+  }
+
+  public ValueAnalysisState createEmptyState(MachineModel pMachineModel) {
+    return createEmptyState(Optional.of(pMachineModel));
+  }
+
+  public ValueAnalysisState createEmptyState(Optional<MachineModel> pMachineModel) {
+    if (compact) {
+      return ValueAnalysisState.createCompact(pMachineModel);
+    }
+    return new ValueAnalysisState(pMachineModel);
+  }
+
+  /** Creates a state with the given values and types, which are copied. */
+  public ValueAnalysisState createState(
+      Optional<MachineModel> pMachineModel,
+      Map<MemoryLocation, Value> pValues,
+      Map<MemoryLocation, Type> pTypes) {
+    if (compact) {
+      return ValueAnalysisState.createCompact(pMachineModel, pValues, pTypes);
+    }
+    return new ValueAnalysisState(
+        pMachineModel,
+        PathCopyingPersistentTreeMap.copyOf(pValues),
+        PathCopyingPersistentTreeMap.copyOf(pTypes));
+  }
+}
@@ -37,6 +37,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.SortingPathExtractor;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisFeasibilityChecker;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisInterpolantManager;
@@ -54,6 +55,8 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
       description = "whether to use the top-down interpolation strategy or the bottom-up interpolation strategy")
   private boolean useTopDownInterpolationStrategy = true;
 
+  private final ValueAnalysisInterpolantManager interpolantManager;
+
   public static ValueAnalysisGlobalRefiner create(final ConfigurableProgramAnalysis pCpa)
       throws InvalidConfigurationException {
 
@@ -109,6 +112,8 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
         pCfa);
 
     pConfig.inject(this, ValueAnalysisGlobalRefiner.class);
+    interpolantManager = ValueAnalysisInterpolantManager.getInstance(
+        ValueAnalysisStateFactory.fromConfiguration(pConfig));
   }
 
   /**
@@ -118,7 +123,7 @@ public class ValueAnalysisGlobalRefiner extends ValueAnalysisRefiner {
   protected InterpolationTree<ValueAnalysisState, ValueAnalysisInterpolant> createInterpolationTree(
       final List<ARGPath> targetsPaths) {
     return new InterpolationTree<>(
-        ValueAnalysisInterpolantManager.getInstance(),
+        interpolantManager,
         logger,
         targetsPaths,
         useTopDownInterpolationStrategy);
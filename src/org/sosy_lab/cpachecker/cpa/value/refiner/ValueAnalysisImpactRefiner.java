@@ -49,6 +49,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.arg.ARGUtils;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisFeasibilityChecker;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisInterpolantManager;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisPrefixProvider;
@@ -135,7 +136,8 @@ public class ValueAnalysisImpactRefiner
             pStrongestPostOperator,
             pPrefixProvider,
             pConfig, pLogger, pShutdownNotifier, pCfa),
-        ValueAnalysisInterpolantManager.getInstance(),
+        ValueAnalysisInterpolantManager.getInstance(
+            ValueAnalysisStateFactory.fromConfiguration(pConfig)),
         pPathExtractor,
         pConfig,
         pLogger);
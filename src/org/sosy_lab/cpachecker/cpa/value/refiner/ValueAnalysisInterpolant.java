@@ -32,11 +32,11 @@ import java.util.Set;
 
 import javax.annotation.Nullable;
 
-import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.Type;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.type.Value;
 import org.sosy_lab.cpachecker.util.refinement.Interpolant;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
@@ -54,39 +54,51 @@ public class ValueAnalysisInterpolant implements Interpolant<ValueAnalysisState>
   private @Nullable final Map<MemoryLocation, Value> assignment;
   private @Nullable final Map<MemoryLocation, Type> assignmentTypes;
 
+  /**
+   * the factory for states reconstructed from the interpolant
+   */
+  private final ValueAnalysisStateFactory stateFactory;
+
   /**
    * the interpolant representing "true"
    */
-  public static final ValueAnalysisInterpolant TRUE  = new ValueAnalysisInterpolant();
+  public static final ValueAnalysisInterpolant TRUE  =
+      new ValueAnalysisInterpolant(ValueAnalysisStateFactory.TREE);
 
   /**
    * the interpolant representing "false"
    */
-  public static final ValueAnalysisInterpolant FALSE = new ValueAnalysisInterpolant((Map<MemoryLocation, Value>)null,(Map<MemoryLocation, Type>)null);
+  public static final ValueAnalysisInterpolant FALSE = new ValueAnalysisInterpolant((Map<MemoryLocation, Value>)null,(Map<MemoryLocation, Type>)null, ValueAnalysisStateFactory.TREE);
 
   /**
    * Constructor for a new, empty interpolant, i.e. the interpolant representing "true"
    */
-  private ValueAnalysisInterpolant() {
+  private ValueAnalysisInterpolant(ValueAnalysisStateFactory pStateFactory) {
     assignment = new HashMap<>();
     assignmentTypes = new HashMap<>();
+    stateFactory = pStateFactory;
   }
 
   /**
    * Constructor for a new interpolant representing the given variable assignment
    *
    * @param pAssignment the variable assignment to be represented by the interpolant
+   * @param pStateFactory the factory for states reconstructed from the interpolant
    */
-  public ValueAnalysisInterpolant(Map<MemoryLocation, Value> pAssignment, Map<MemoryLocation, Type> pAssignmentToType) {
+  public ValueAnalysisInterpolant(Map<MemoryLocation, Value> pAssignment, Map<MemoryLocation, Type> pAssignmentToType,
+      ValueAnalysisStateFactory pStateFactory) {
     assignment = pAssignment;
     assignmentTypes = pAssignmentToType;
+    stateFactory = pStateFactory;
   }
 
   /**
    * This method serves as factory method for an initial, i.e. an interpolant representing "true"
+   *
+   * @param pStateFactory the factory for states reconstructed from the interpolant
    */
-  public static ValueAnalysisInterpolant createInitial() {
-    return new ValueAnalysisInterpolant();
+  public static ValueAnalysisInterpolant createInitial(ValueAnalysisStateFactory pStateFactory) {
+    return new ValueAnalysisInterpolant(pStateFactory);
   }
 
   @Override
@@ -140,7 +152,7 @@ public class ValueAnalysisInterpolant implements Interpolant<ValueAnalysisState>
     }
 
 
-    return new ValueAnalysisInterpolant(newAssignment, newAssignmentTypes);
+    return new ValueAnalysisInterpolant(newAssignment, newAssignmentTypes, stateFactory);
   }
 
   @Override
@@ -208,10 +220,7 @@ public class ValueAnalysisInterpolant implements Interpolant<ValueAnalysisState>
       throw new IllegalStateException("Can't reconstruct state from FALSE-interpolant");
 
     } else {
-      return new ValueAnalysisState(
-          Optional.<MachineModel>absent(),
-          PathCopyingPersistentTreeMap.copyOf(assignment),
-          PathCopyingPersistentTreeMap.copyOf(assignmentTypes));
+      return stateFactory.createState(Optional.<MachineModel>absent(), assignment, assignmentTypes);
     }
   }
 
@@ -263,7 +272,7 @@ public class ValueAnalysisInterpolant implements Interpolant<ValueAnalysisState>
       return this;
     }
 
-    ValueAnalysisInterpolant weakenedItp = new ValueAnalysisInterpolant(new HashMap<>(assignment), new HashMap<>(assignmentTypes));
+    ValueAnalysisInterpolant weakenedItp = new ValueAnalysisInterpolant(new HashMap<>(assignment), new HashMap<>(assignmentTypes), stateFactory);
 
     for (Iterator<MemoryLocation> it = weakenedItp.assignment.keySet().iterator(); it.hasNext(); ) {
       MemoryLocation current = it.next();
@@ -41,6 +41,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGPath.PathIterator;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.conditions.path.AssignmentsInPathCondition.UniqueAssignmentsInPathConditionState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.UseDefBasedInterpolator;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisEdgeInterpolator;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisInterpolantManager;
@@ -81,6 +82,7 @@ public class ValueAnalysisPathInterpolator
 
   private final CFA cfa;
 
+  private final ValueAnalysisStateFactory stateFactory;
   private final ValueAnalysisInterpolantManager interpolantManager;
 
   public ValueAnalysisPathInterpolator(
@@ -100,7 +102,8 @@ public class ValueAnalysisPathInterpolator
             pCfa),
         pFeasibilityChecker,
         pPrefixProvider,
-        ValueAnalysisInterpolantManager.getInstance(),
+        ValueAnalysisInterpolantManager.getInstance(
+            ValueAnalysisStateFactory.fromConfiguration(pConfig)),
         pConfig,
         pLogger,
         pShutdownNotifier,
@@ -108,7 +111,8 @@ public class ValueAnalysisPathInterpolator
 
     pConfig.inject(this);
     cfa = pCfa;
-    interpolantManager = ValueAnalysisInterpolantManager.getInstance();
+    stateFactory = ValueAnalysisStateFactory.fromConfiguration(pConfig);
+    interpolantManager = ValueAnalysisInterpolantManager.getInstance(stateFactory);
   }
 
   @Override
@@ -157,7 +161,8 @@ public class ValueAnalysisPathInterpolator
     Map<ARGState, ValueAnalysisInterpolant> interpolants = new UseDefBasedInterpolator(
         errorPathPrefix,
         useDefRelation,
-        cfa.getMachineModel()).obtainInterpolantsAsMap();
+        cfa.getMachineModel(),
+        stateFactory).obtainInterpolantsAsMap();
 
     totalInterpolationQueries.setNextValue(1);
 
@@ -59,6 +59,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGUtils;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisFeasibilityChecker;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisInterpolantManager;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisPrefixProvider;
@@ -157,7 +158,8 @@ public class ValueAnalysisRefiner
             pStrongestPostOperator,
             pPrefixProvider,
             pConfig, pLogger, pShutdownNotifier, pCfa),
-        ValueAnalysisInterpolantManager.getInstance(),
+        ValueAnalysisInterpolantManager.getInstance(
+            ValueAnalysisStateFactory.fromConfiguration(pConfig)),
         pPathExtractor,
         pConfig,
         pLogger);
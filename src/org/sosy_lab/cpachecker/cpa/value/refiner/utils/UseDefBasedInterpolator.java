@@ -54,6 +54,7 @@ import org.sosy_lab.cpachecker.cfa.types.c.CVoidType;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath.PathIterator;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
 import org.sosy_lab.cpachecker.cpa.value.type.Value;
 import org.sosy_lab.cpachecker.cpa.value.type.Value.UnknownValue;
@@ -82,6 +83,11 @@ public class UseDefBasedInterpolator {
    */
   private final MachineModel machineModel;
 
+  /**
+   * the factory for states reconstructed from the interpolants
+   */
+  private final ValueAnalysisStateFactory stateFactory;
+
   /**
    * This class allows the creation of (fake) interpolants by using the use-def-relation.
    * This interpolation approach only works if the given path is a sliced prefix,
@@ -90,11 +96,13 @@ public class UseDefBasedInterpolator {
   public UseDefBasedInterpolator(
       final ARGPath pSlicedPrefix,
       final UseDefRelation pUseDefRelation,
-      final MachineModel pMachineModel
+      final MachineModel pMachineModel,
+      final ValueAnalysisStateFactory pStateFactory
   ) {
     slicedPrefix   = pSlicedPrefix;
     useDefRelation = pUseDefRelation;
     machineModel   = pMachineModel;
+    stateFactory   = pStateFactory;
   }
 
   /**
@@ -124,7 +132,7 @@ public class UseDefBasedInterpolator {
       // as the traversal goes backwards, once the interpolant was non-trivial once,
       // the next time it is trivial, it has to be TRUE, and no longer FALSE
       if (interpolant != trivialItp) {
-        trivialItp = ValueAnalysisInterpolant.TRUE;
+        trivialItp = ValueAnalysisInterpolantManager.getInstance(stateFactory).getTrueInterpolant();
       }
     }
 
@@ -168,7 +176,8 @@ public class UseDefBasedInterpolator {
       }
     }
 
-    return new ValueAnalysisInterpolant(useDefInterpolant, Collections.<MemoryLocation, Type>emptyMap());
+    return new ValueAnalysisInterpolant(useDefInterpolant, Collections.<MemoryLocation, Type>emptyMap(),
+        stateFactory);
   }
 
   /**
@@ -32,6 +32,7 @@ import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisInformation;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
 import org.sosy_lab.cpachecker.util.refinement.FeasibilityChecker;
 import org.sosy_lab.cpachecker.util.refinement.GenericEdgeInterpolator;
@@ -55,8 +56,10 @@ public class ValueAnalysisEdgeInterpolator
     super(
         pStrongestPostOperator,
         pFeasibilityChecker,
-        ValueAnalysisInterpolantManager.getInstance(),
-        new ValueAnalysisState(pCfa.getMachineModel()),
+        ValueAnalysisInterpolantManager.getInstance(
+            ValueAnalysisStateFactory.fromConfiguration(pConfig)),
+        ValueAnalysisStateFactory.fromConfiguration(pConfig)
+            .createEmptyState(pCfa.getMachineModel()),
         ValueAnalysisCPA.class,
         pConfig,
         pShutdownNotifier,
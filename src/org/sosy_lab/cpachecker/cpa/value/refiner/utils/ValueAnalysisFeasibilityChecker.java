@@ -37,6 +37,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGPath;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath.PathIterator;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.Pair;
@@ -51,6 +52,7 @@ public class ValueAnalysisFeasibilityChecker
   private final StrongestPostOperator<ValueAnalysisState> strongestPostOp;
   private final VariableTrackingPrecision precision;
   private final MachineModel machineModel;
+  private final ValueAnalysisStateFactory stateFactory;
 
   /**
    * This method acts as the constructor of the class.
@@ -67,7 +69,8 @@ public class ValueAnalysisFeasibilityChecker
 
     super(
         pStrongestPostOp,
-        new ValueAnalysisState(pCfa.getMachineModel()),
+        ValueAnalysisStateFactory.fromConfiguration(config)
+            .createEmptyState(pCfa.getMachineModel()),
         ValueAnalysisCPA.class,
         pLogger,
         config,
@@ -76,6 +79,7 @@ public class ValueAnalysisFeasibilityChecker
     strongestPostOp = pStrongestPostOp;
     precision = VariableTrackingPrecision.createStaticPrecision(config, pCfa.getVarClassification(), ValueAnalysisCPA.class);
     machineModel = pCfa.getMachineModel();
+    stateFactory = ValueAnalysisStateFactory.fromConfiguration(config);
   }
 
   public List<Pair<ValueAnalysisState, CFAEdge>> evaluate(final ARGPath path)
@@ -83,7 +87,7 @@ public class ValueAnalysisFeasibilityChecker
 
     try {
       List<Pair<ValueAnalysisState, CFAEdge>> reevaluatedPath = new ArrayList<>();
-      ValueAnalysisState next = new ValueAnalysisState(machineModel);
+      ValueAnalysisState next = stateFactory.createEmptyState(machineModel);
 
       PathIterator iterator = path.pathIterator();
       while (iterator.hasNext()) {
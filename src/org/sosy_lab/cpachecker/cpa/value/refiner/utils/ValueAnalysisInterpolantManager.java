@@ -24,6 +24,7 @@
 package org.sosy_lab.cpachecker.cpa.value.refiner.utils;
 
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
 import org.sosy_lab.cpachecker.util.refinement.InterpolantManager;
 
@@ -33,20 +34,31 @@ import org.sosy_lab.cpachecker.util.refinement.InterpolantManager;
 public class ValueAnalysisInterpolantManager
     implements InterpolantManager<ValueAnalysisState, ValueAnalysisInterpolant> {
 
-  private static final ValueAnalysisInterpolantManager SINGLETON =
-      new ValueAnalysisInterpolantManager();
+  private static final ValueAnalysisInterpolantManager TREE_INSTANCE =
+      new ValueAnalysisInterpolantManager(ValueAnalysisStateFactory.TREE);
 
-  private ValueAnalysisInterpolantManager() {
-    // DO NOTHING
+  private static final ValueAnalysisInterpolantManager COMPACT_INSTANCE =
+      new ValueAnalysisInterpolantManager(ValueAnalysisStateFactory.COMPACT);
+
+  private final ValueAnalysisStateFactory stateFactory;
+  private final ValueAnalysisInterpolant trueInterpolant;
+
+  private ValueAnalysisInterpolantManager(ValueAnalysisStateFactory pStateFactory) {
+    stateFactory = pStateFactory;
+    trueInterpolant = ValueAnalysisInterpolant.createInitial(pStateFactory);
   }
 
-  public static ValueAnalysisInterpolantManager getInstance() {
-    return SINGLETON;
+  /**
+   * Returns the manager for interpolants whose states are created by the given factory.
+   */
+  public static ValueAnalysisInterpolantManager getInstance(
+      ValueAnalysisStateFactory pStateFactory) {
+    return pStateFactory == ValueAnalysisStateFactory.COMPACT ? COMPACT_INSTANCE : TREE_INSTANCE;
   }
 
   @Override
   public ValueAnalysisInterpolant createInitialInterpolant() {
-    return ValueAnalysisInterpolant.createInitial();
+    return ValueAnalysisInterpolant.createInitial(stateFactory);
   }
 
   @Override
@@ -56,7 +68,7 @@ public class ValueAnalysisInterpolantManager
 
   @Override
   public ValueAnalysisInterpolant getTrueInterpolant() {
-    return ValueAnalysisInterpolant.TRUE;
+    return trueInterpolant;
   }
 
   @Override
@@ -29,6 +29,7 @@ import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisStrongestPostOperator;
 import org.sosy_lab.cpachecker.util.refinement.GenericPrefixProvider;
 
@@ -45,7 +46,8 @@ public class ValueAnalysisPrefixProvider extends GenericPrefixProvider<ValueAnal
 
     super(
         new ValueAnalysisStrongestPostOperator(pLogger, config, pCfa),
-        new ValueAnalysisState(pCfa.getMachineModel()),
+        ValueAnalysisStateFactory.fromConfiguration(config)
+            .createEmptyState(pCfa.getMachineModel()),
         pLogger,
         pCfa,
         config,
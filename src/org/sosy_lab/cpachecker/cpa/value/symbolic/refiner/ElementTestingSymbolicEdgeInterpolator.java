@@ -43,6 +43,7 @@ import org.sosy_lab.cpachecker.cpa.constraints.constraint.IdentifierAssignment;
 import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisInformation;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.interpolant.SymbolicInterpolant;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.refinement.FeasibilityChecker;
@@ -77,6 +78,7 @@ public class ElementTestingSymbolicEdgeInterpolator
   private final InterpolantManager<ForgettingCompositeState, SymbolicInterpolant>
       interpolantManager;
   private final MachineModel machineModel;
+  private final ValueAnalysisStateFactory stateFactory;
 
   private final ShutdownNotifier shutdownNotifier;
   private Precision valuePrecision;
@@ -101,6 +103,7 @@ public class ElementTestingSymbolicEdgeInterpolator
     valuePrecision = VariableTrackingPrecision.createStaticPrecision(
             pConfig, pCfa.getVarClassification(), ValueAnalysisCPA.class);
     machineModel = pCfa.getMachineModel();
+    stateFactory = ValueAnalysisStateFactory.fromConfiguration(pConfig);
   }
 
   @Override
@@ -132,7 +135,7 @@ public class ElementTestingSymbolicEdgeInterpolator
     ARGPath suffix = pLocationInPath.iterator().getSuffixExclusive();
 
     // if the suffix is contradicting by itself, the interpolant can be true
-    if (!isPathFeasible(suffix, ForgettingCompositeState.getInitialState(machineModel))) {
+    if (!isPathFeasible(suffix, ForgettingCompositeState.getInitialState(machineModel, stateFactory))) {
       return interpolantManager.getTrueInterpolant();
     }
 
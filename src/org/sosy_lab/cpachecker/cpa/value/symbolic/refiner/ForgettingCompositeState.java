@@ -31,6 +31,7 @@ import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
 import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisInformation;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.util.refinement.ForgetfulState;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 
@@ -44,9 +45,10 @@ public class ForgettingCompositeState
   private final ValueAnalysisState values;
   private final ConstraintsState constraints;
 
-  public static ForgettingCompositeState getInitialState(MachineModel pMachineModel) {
+  public static ForgettingCompositeState getInitialState(
+      MachineModel pMachineModel, ValueAnalysisStateFactory pStateFactory) {
     return new ForgettingCompositeState(
-        new ValueAnalysisState(pMachineModel), new ConstraintsState());
+        pStateFactory.createEmptyState(pMachineModel), new ConstraintsState());
   }
 
   /**
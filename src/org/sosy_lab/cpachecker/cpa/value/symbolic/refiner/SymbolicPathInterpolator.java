@@ -29,6 +29,7 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.interpolant.SymbolicInterpolant;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.interpolant.SymbolicInterpolantManager;
 import org.sosy_lab.cpachecker.util.refinement.FeasibilityChecker;
@@ -56,7 +57,8 @@ public class SymbolicPathInterpolator
     super(pEdgeInterpolator,
         pFeasibilityChecker,
         pPrefixProvider,
-        SymbolicInterpolantManager.getInstance(),
+        SymbolicInterpolantManager.getInstance(
+            ValueAnalysisStateFactory.fromConfiguration(pConfig)),
         pConfig,
         pLogger, pShutdownNotifier, pCfa);
 
@@ -27,11 +27,9 @@ import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
-import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsTransferRelation;
-import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
-import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisTransferRelation;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisFeasibilityChecker;
 import org.sosy_lab.cpachecker.util.refinement.GenericFeasibilityChecker;
@@ -56,17 +54,11 @@ public class SymbolicValueAnalysisFeasibilityChecker
 
     super(
         pStrongestPostOperator,
-        getInitialCompositeState(pCfa.getMachineModel()),
+        ForgettingCompositeState.getInitialState(
+            pCfa.getMachineModel(), ValueAnalysisStateFactory.fromConfiguration(pConfig)),
         ValueAnalysisCPA.class,
         pLogger,
         pConfig,
         pCfa);
   }
-
-  private static ForgettingCompositeState getInitialCompositeState(MachineModel pMachineModel) {
-    final ValueAnalysisState valueState = new ValueAnalysisState(pMachineModel);
-    final ConstraintsState constraintsState = new ConstraintsState();
-
-    return new ForgettingCompositeState(valueState, constraintsState);
-  }
 }
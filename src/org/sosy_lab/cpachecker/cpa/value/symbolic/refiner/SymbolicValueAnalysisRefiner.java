@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
 import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
@@ -48,6 +50,7 @@ import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
 import org.sosy_lab.cpachecker.cpa.constraints.refiner.precision.ConstraintsPrecision;
 import org.sosy_lab.cpachecker.cpa.constraints.refiner.precision.RefinableConstraintsPrecision;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.interpolant.SymbolicInterpolant;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.interpolant.SymbolicInterpolantManager;
 import org.sosy_lab.cpachecker.util.AbstractStates;
@@ -72,6 +75,8 @@ public class SymbolicValueAnalysisRefiner
   @Option(secure = true, description = "whether or not to do lazy-abstraction", name = "restart", toUppercase = true)
   private RestartStrategy restartStrategy = RestartStrategy.PIVOT;
 
+  private final SymbolicStrongestPostOperator strongestPost;
+
   public static SymbolicValueAnalysisRefiner create(final ConfigurableProgramAnalysis pCpa)
       throws InvalidConfigurationException {
 
@@ -89,6 +94,8 @@ public class SymbolicValueAnalysisRefiner
     final ShutdownNotifier shutdownNotifier = valueAnalysisCpa.getShutdownNotifier();
 
     final Solver solver = Solver.create(config, logger, shutdownNotifier);
+    final ValueAnalysisStateFactory stateFactory =
+        ValueAnalysisStateFactory.fromConfiguration(config);
 
     final SymbolicStrongestPostOperator strongestPostOperator =
         new ValueTransferBasedStrongestPostOperator(solver, logger, config, cfa, shutdownNotifier);
@@ -103,7 +110,7 @@ public class SymbolicValueAnalysisRefiner
     final GenericPrefixProvider<ForgettingCompositeState> prefixProvider =
         new GenericPrefixProvider<>(
             strongestPostOperator,
-            ForgettingCompositeState.getInitialState(cfa.getMachineModel()),
+            ForgettingCompositeState.getInitialState(cfa.getMachineModel(), stateFactory),
             logger,
             cfa,
             config,
@@ -112,7 +119,7 @@ public class SymbolicValueAnalysisRefiner
     final ElementTestingSymbolicEdgeInterpolator edgeInterpolator =
         new ElementTestingSymbolicEdgeInterpolator(feasibilityChecker,
                                         strongestPostOperator,
-                                        SymbolicInterpolantManager.getInstance(),
+                                        SymbolicInterpolantManager.getInstance(stateFactory),
                                         config,
                                         shutdownNotifier,
                                         cfa);
@@ -129,6 +136,7 @@ public class SymbolicValueAnalysisRefiner
     return new SymbolicValueAnalysisRefiner(argCpa,
         feasibilityChecker,
         pathInterpolator,
+        strongestPostOperator,
         new PathExtractor(logger, config),
         config,
         logger);
@@ -137,6 +145,7 @@ public class SymbolicValueAnalysisRefiner
   public SymbolicValueAnalysisRefiner(final ARGCPA pCpa,
       final FeasibilityChecker<ForgettingCompositeState> pFeasibilityChecker,
       final PathInterpolator<SymbolicInterpolant> pInterpolator,
+      final SymbolicStrongestPostOperator pStrongestPost,
       final PathExtractor pPathExtractor,
       final Configuration pConfig,
       final LogManager pLogger
@@ -145,10 +154,13 @@ public class SymbolicValueAnalysisRefiner
     super(pCpa,
           pFeasibilityChecker,
           pInterpolator,
-          SymbolicInterpolantManager.getInstance(),
+          SymbolicInterpolantManager.getInstance(
+              ValueAnalysisStateFactory.fromConfiguration(pConfig)),
           pPathExtractor,
           pConfig,
           pLogger);
+
+    strongestPost = pStrongestPost;
   }
 
   @Override
@@ -199,6 +211,14 @@ public class SymbolicValueAnalysisRefiner
     return increment.build();
   }
 
+  @Override
+  public void collectStatistics(final Collection<Statistics> pStatsCollection) {
+    super.collectStatistics(pStatsCollection);
+    if (strongestPost instanceof StatisticsProvider) {
+      ((StatisticsProvider) strongestPost).collectStatistics(pStatsCollection);
+    }
+  }
+
   @Override
   protected void printAdditionalStatistics(PrintStream out, Result pResult,
       ReachedSet pReached) {
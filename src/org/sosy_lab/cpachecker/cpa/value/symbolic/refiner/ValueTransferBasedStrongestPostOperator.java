@@ -38,8 +38,11 @@ import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
 import org.sosy_lab.cpachecker.core.defaults.VariableTrackingPrecision;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath;
 import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsTransferRelation;
+import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsSatCheckCache;
 import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisTransferRelation;
@@ -56,12 +59,13 @@ import com.google.common.collect.Iterables;
  * Strongest post-operator based on symbolic value analysis.
  */
 public class ValueTransferBasedStrongestPostOperator
-    implements SymbolicStrongestPostOperator {
+    implements SymbolicStrongestPostOperator, StatisticsProvider {
 
   private final ValueAnalysisTransferRelation valueTransfer;
   // used for abstraction
   private final ValueAnalysisStrongestPostOperator valueStrongestPost;
   private final ConstraintsTransferRelation constraintsTransfer;
+  private final ConstraintsSatCheckCache satCheckCache;
 
   public ValueTransferBasedStrongestPostOperator(
       final Solver pSolver,
@@ -77,8 +81,12 @@ public class ValueTransferBasedStrongestPostOperator
 
     valueStrongestPost = new ValueAnalysisStrongestPostOperator(pLogger, pConfig, pCfa);
 
+    // the refinement uses its own solver, so results of the analysis' cache can not be reused
+    satCheckCache = new ConstraintsSatCheckCache(pConfig);
+
     constraintsTransfer =
         new ConstraintsTransferRelation(pSolver,
+                                        satCheckCache,
                                         pCfa.getMachineModel(),
                                         pLogger,
                                         pConfig,
@@ -257,4 +265,9 @@ public class ValueTransferBasedStrongestPostOperator
 
     return new ForgettingCompositeState(pNextValueState, pConstraints);
   }
+
+  @Override
+  public void collectStatistics(final Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(satCheckCache);
+  }
 }
@@ -45,6 +45,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
 import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsCPA;
 import org.sosy_lab.cpachecker.cpa.constraints.refiner.precision.RefinableConstraintsPrecision;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.ElementTestingSymbolicEdgeInterpolator;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.ForgettingCompositeState;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.SymbolicFeasibilityChecker;
@@ -76,6 +77,7 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
 
   private final SymbolicValueAnalysisRefiner explicitRefiner;
   private final SymbolicValueAnalysisRefiner symbolicRefiner;
+  private final SymbolicStrongestPostOperator symbolicStrongestPost;
 
   private final LogManager logger;
 
@@ -118,6 +120,8 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
     final ShutdownNotifier shutdownNotifier = valueAnalysisCpa.getShutdownNotifier();
 
     final Solver solver = Solver.create(config, logger, shutdownNotifier);
+    final ValueAnalysisStateFactory stateFactory =
+        ValueAnalysisStateFactory.fromConfiguration(config);
 
     final SymbolicStrongestPostOperator symbolicStrongestPost =
         new ValueTransferBasedStrongestPostOperator(solver, logger, config, cfa, shutdownNotifier);
@@ -131,7 +135,7 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
     final GenericPrefixProvider<ForgettingCompositeState> symbolicPrefixProvider =
         new GenericPrefixProvider<>(
             symbolicStrongestPost,
-            ForgettingCompositeState.getInitialState(cfa.getMachineModel()),
+            ForgettingCompositeState.getInitialState(cfa.getMachineModel(), stateFactory),
             logger,
             cfa,
             config,
@@ -140,7 +144,7 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
     final ElementTestingSymbolicEdgeInterpolator symbolicEdgeInterpolator =
         new ElementTestingSymbolicEdgeInterpolator(feasibilityChecker,
             symbolicStrongestPost,
-            SymbolicInterpolantManager.getInstance(),
+            SymbolicInterpolantManager.getInstance(stateFactory),
             config,
             shutdownNotifier,
             cfa);
@@ -161,7 +165,7 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
     final FeasibilityChecker<ForgettingCompositeState> explicitFeasibilityChecker =
         new GenericFeasibilityChecker<>(
             explicitStrongestPost,
-            ForgettingCompositeState.getInitialState(cfa.getMachineModel()),
+            ForgettingCompositeState.getInitialState(cfa.getMachineModel(), stateFactory),
             ValueAnalysisCPA.class, // we want to work on the ValueAnalysisCPA only
             logger,
             config,
@@ -171,8 +175,8 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
         new GenericEdgeInterpolator<>(
             explicitStrongestPost,
             explicitFeasibilityChecker,
-            SymbolicInterpolantManager.getInstance(),
-            ForgettingCompositeState.getInitialState(cfa.getMachineModel()),
+            SymbolicInterpolantManager.getInstance(stateFactory),
+            ForgettingCompositeState.getInitialState(cfa.getMachineModel(), stateFactory),
             ValueAnalysisCPA.class, // we want to work on the ValueAnalysisCPA only
             config,
             shutdownNotifier,
@@ -181,7 +185,7 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
     final GenericPrefixProvider<ForgettingCompositeState> explicitPrefixProvider =
         new GenericPrefixProvider<>(
             explicitStrongestPost,
-            ForgettingCompositeState.getInitialState(cfa.getMachineModel()),
+            ForgettingCompositeState.getInitialState(cfa.getMachineModel(), stateFactory),
             logger,
             cfa,
             config,
@@ -192,14 +196,16 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
             explicitEdgeInterpolator,
             explicitFeasibilityChecker,
             explicitPrefixProvider,
-            SymbolicInterpolantManager.getInstance(),
+            SymbolicInterpolantManager.getInstance(stateFactory),
             config, logger, shutdownNotifier, cfa);
 
     return new SymbolicDelegatingRefiner(argCpa,
         feasibilityChecker,
         pathInterpolator,
+        symbolicStrongestPost,
         explicitFeasibilityChecker,
         explicitPathInterpolator,
+        explicitStrongestPost,
         config,
         logger);
   }
@@ -208,8 +214,10 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
   public SymbolicDelegatingRefiner(final ARGCPA pArgCPA,
       final SymbolicFeasibilityChecker pSymbolicFeasibilityChecker,
       final SymbolicPathInterpolator pSymbolicInterpolator,
+      final SymbolicStrongestPostOperator pSymbolicStrongestPost,
       final FeasibilityChecker<ForgettingCompositeState> pExplicitFeasibilityChecker,
       final PathInterpolator<SymbolicInterpolant> pExplicitInterpolator,
+      final SymbolicStrongestPostOperator pExplicitStrongestPost,
       final Configuration pConfig,
       final LogManager pLogger) throws InvalidConfigurationException {
 
@@ -218,6 +226,7 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
     symbolicRefiner = new SymbolicValueAnalysisRefiner(pArgCPA,
                                                        pSymbolicFeasibilityChecker,
                                                        pSymbolicInterpolator,
+                                                       pSymbolicStrongestPost,
                                                        new PathExtractor(pLogger, pConfig),
                                                        pConfig,
                                                        pLogger);
@@ -225,9 +234,11 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
     explicitRefiner = new SymbolicValueAnalysisRefiner(pArgCPA,
                                                        pExplicitFeasibilityChecker,
                                                        pExplicitInterpolator,
+                                                       pExplicitStrongestPost,
                                                        new PathExtractor(pLogger, pConfig),
                                                        pConfig,
                                                        pLogger);
+    symbolicStrongestPost = pSymbolicStrongestPost;
     logger = pLogger;
   }
 
@@ -285,5 +296,9 @@ public class SymbolicDelegatingRefiner implements Refiner, StatisticsProvider {
         return SymbolicDelegatingRefiner.class.getSimpleName();
       }
     });
+
+    if (symbolicStrongestPost instanceof StatisticsProvider) {
+      ((StatisticsProvider) symbolicStrongestPost).collectStatistics(statsCollection);
+    }
   }
 }
@@ -34,6 +34,7 @@ import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsState;
 import org.sosy_lab.cpachecker.cpa.constraints.util.ConstraintsInformation;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisInformation;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.ForgettingCompositeState;
 import org.sosy_lab.cpachecker.util.refinement.Interpolant;
@@ -44,26 +45,28 @@ import org.sosy_lab.cpachecker.util.states.MemoryLocation;
  */
 public class SymbolicInterpolant implements Interpolant<ForgettingCompositeState> {
 
-  static final SymbolicInterpolant TRUE = new SymbolicInterpolant();
+  static final SymbolicInterpolant TRUE = new SymbolicInterpolant(ValueAnalysisStateFactory.TREE);
   static final SymbolicInterpolant FALSE =
       new SymbolicInterpolant((ValueAnalysisInterpolant) null, null);
 
   private ValueAnalysisInterpolant valueInterpolant;
   private ConstraintsInformation constraintsInformation;
 
-  private SymbolicInterpolant() {
-    valueInterpolant = ValueAnalysisInterpolant.createInitial();
+  SymbolicInterpolant(final ValueAnalysisStateFactory pStateFactory) {
+    valueInterpolant = ValueAnalysisInterpolant.createInitial(pStateFactory);
     constraintsInformation = ConstraintsInformation.EMPTY;
   }
 
   public SymbolicInterpolant(
       final ValueAnalysisInformation pValueInfo,
-      final ConstraintsInformation pConstraints
+      final ConstraintsInformation pConstraints,
+      final ValueAnalysisStateFactory pStateFactory
   ) {
     checkNotNull(pValueInfo);
     checkNotNull(pConstraints);
     valueInterpolant = new ValueAnalysisInterpolant(pValueInfo.getAssignments(),
-                                                    pValueInfo.getLocationTypes());
+                                                    pValueInfo.getLocationTypes(),
+                                                    pStateFactory);
     constraintsInformation = pConstraints;
   }
 
@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.interpolant;
 import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsState;
 import org.sosy_lab.cpachecker.cpa.constraints.util.ConstraintsInformation;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.refiner.ForgettingCompositeState;
 import org.sosy_lab.cpachecker.util.refinement.InterpolantManager;
 
@@ -34,19 +35,30 @@ import org.sosy_lab.cpachecker.util.refinement.InterpolantManager;
  */
 public class SymbolicInterpolantManager implements InterpolantManager<ForgettingCompositeState, SymbolicInterpolant> {
 
-  private static final SymbolicInterpolantManager SINGLETON = new SymbolicInterpolantManager();
+  private static final SymbolicInterpolantManager TREE_INSTANCE =
+      new SymbolicInterpolantManager(ValueAnalysisStateFactory.TREE);
 
-  public static SymbolicInterpolantManager getInstance() {
-    return SINGLETON;
+  private static final SymbolicInterpolantManager COMPACT_INSTANCE =
+      new SymbolicInterpolantManager(ValueAnalysisStateFactory.COMPACT);
+
+  private final ValueAnalysisStateFactory stateFactory;
+  private final SymbolicInterpolant trueInterpolant;
+
+  /**
+   * Returns the manager for interpolants whose value states are created by the given factory.
+   */
+  public static SymbolicInterpolantManager getInstance(ValueAnalysisStateFactory pStateFactory) {
+    return pStateFactory == ValueAnalysisStateFactory.COMPACT ? COMPACT_INSTANCE : TREE_INSTANCE;
   }
 
-  private SymbolicInterpolantManager() {
-    // DO NOTHING
+  private SymbolicInterpolantManager(ValueAnalysisStateFactory pStateFactory) {
+    stateFactory = pStateFactory;
+    trueInterpolant = new SymbolicInterpolant(pStateFactory);
   }
 
   @Override
   public SymbolicInterpolant createInitialInterpolant() {
-    return SymbolicInterpolant.TRUE;
+    return trueInterpolant;
   }
 
   @Override
@@ -55,12 +67,13 @@ public class SymbolicInterpolantManager implements InterpolantManager<Forgetting
     final ConstraintsState constraints = state.getConstraintsState();
 
     return new SymbolicInterpolant(values.getInformation(),
-                                   new ConstraintsInformation(constraints, constraints.getDefiniteAssignment()));
+                                   new ConstraintsInformation(constraints, constraints.getDefiniteAssignment()),
+                                   stateFactory);
   }
 
   @Override
   public SymbolicInterpolant getTrueInterpolant() {
-    return SymbolicInterpolant.TRUE;
+    return trueInterpolant;
   }
 
   @Override
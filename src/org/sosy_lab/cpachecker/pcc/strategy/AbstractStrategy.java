@@ -23,6 +23,8 @@
  */
 package org.sosy_lab.cpachecker.pcc.strategy;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.NotSerializableException;
@@ -79,6 +81,13 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   @IntegerOption(min=1)
   protected int numThreads = 1;
 
+  @Option(secure=true,
+      name = "compressionLevel",
+      description = "compression level (0-9) of the proof file, lower levels make writing large proofs faster"
+          + " at the cost of a larger file")
+  @IntegerOption(min=0, max=9)
+  private int compressionLevel = 9;
+
   public AbstractStrategy(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
     pConfig.inject(this, AbstractStrategy.class);
     numThreads = Math.max(1, numThreads);
@@ -93,9 +102,9 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Do not close stream o because it wraps stream zos/fos which need to remain open and would be closed if o.close() is called.")
   public void writeProof(UnmodifiableReachedSet pReached) {
 
-    try (final OutputStream fos = file.asByteSink().openStream();
+    try (final OutputStream fos = new BufferedOutputStream(file.asByteSink().openStream());
         final ZipOutputStream zos = new ZipOutputStream(fos)) {
-      zos.setLevel(9);
+      zos.setLevel(compressionLevel);
 
       ZipEntry ze = new ZipEntry("Proof");
       zos.putNextEntry(ze);
@@ -154,7 +163,7 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   }
 
   protected Triple<InputStream, ZipInputStream, ObjectInputStream> openProofStream() throws IOException {
-    InputStream fis = file.asByteSource().openStream();
+    InputStream fis = new BufferedInputStream(file.asByteSource().openStream());
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = zis.getNextEntry();
     assert entry.getName().equals("Proof");
@@ -164,7 +173,7 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   public Triple<InputStream, ZipInputStream, ObjectInputStream> openAdditionalProofStream(final int index)
       throws IOException {
     if (index < 0) { throw new IllegalArgumentException("Not a valid index. Indices must be at least zero."); }
-    InputStream fis = file.asByteSource().openStream();
+    InputStream fis = new BufferedInputStream(file.asByteSource().openStream());
     ZipInputStream zis = new ZipInputStream(fis);
     ZipEntry entry = null;
     for (int i = 0; i <= 1 + index; i++) {
@@ -25,6 +25,9 @@ package org.sosy_lab.cpachecker.pcc.strategy.arg;
 
 import static org.sosy_lab.cpachecker.util.AbstractStates.extractLocation;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -40,10 +43,13 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.PropertyChecker;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGCertificateIO;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.pcc.strategy.SequentialReadStrategy;
 
+import com.google.common.collect.ImmutableList;
+
 
 public abstract class AbstractARGStrategy extends SequentialReadStrategy {
 
@@ -175,6 +181,22 @@ public abstract class AbstractARGStrategy extends SequentialReadStrategy {
     return true;
   }
 
+  @Override
+  protected void writeProofToStream(ObjectOutputStream pOut, UnmodifiableReachedSet pReached)
+      throws IOException {
+    // write ARG as flat tables instead of letting Java serialization recurse through it
+    constructInternalProofRepresentation(pReached);
+    ARGCertificateIO.writeARGs(pOut,
+        root == null ? ImmutableList.<ARGState>of() : ImmutableList.of(root));
+  }
+
+  @Override
+  protected void readProofFromStream(ObjectInputStream pIn)
+      throws ClassNotFoundException, InvalidConfigurationException, IOException {
+    List<ARGState> roots = ARGCertificateIO.readARGs(pIn);
+    prepareForChecking(roots.isEmpty() ? null : roots.get(0));
+  }
+
   @Override
   protected Object getProofToWrite(UnmodifiableReachedSet pReached) {
     constructInternalProofRepresentation(pReached);
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util.automaton;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
@@ -30,15 +31,9 @@ import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Nullable;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
@@ -56,16 +51,15 @@ import org.sosy_lab.cpachecker.cfa.model.c.CFunctionReturnEdge;
 import org.sosy_lab.cpachecker.cfa.model.c.CFunctionSummaryStatementEdge;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.core.CPAchecker;
-import org.w3c.dom.DOMException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
@@ -268,12 +262,21 @@ public class AutomatonGraphmlCommon {
     }
   }
 
-  public static class GraphMlBuilder {
+  /**
+   * Writes a witness in GraphML format.
+   *
+   * Nodes and edges are written to the target as soon as they are appended,
+   * so the witness never needs to be kept in memory as a whole.
+   * {@link #close()} needs to be called after the last node and edge were appended.
+   */
+  public static class GraphMlBuilder implements Closeable {
 
-    private final Document doc;
-    private final Element graph;
+    private final XMLStreamWriter writer;
+
+    private int depth = 0;
 
     public GraphMlBuilder(
+        Appendable pTarget,
         GraphType pGraphType,
         String pDefaultSourceFileName,
         Language pLanguage,
@@ -281,131 +284,187 @@ public class AutomatonGraphmlCommon {
         String pMemoryModel,
         Iterable<String> pSpecifications,
         String pProgramNames)
-        throws ParserConfigurationException, DOMException, IOException {
-      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-
-      this.doc = docBuilder.newDocument();
-      Element root = doc.createElement("graphml");
-      doc.appendChild(root);
-      root.setAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
-      root.setAttribute("xmlns", "http://graphml.graphdrawing.org/xmlns");
-
-      EnumSet<KeyDef> keyDefs = EnumSet.allOf(KeyDef.class);
-      root.appendChild(
-          createKeyDefElement(KeyDef.NODETYPE, AutomatonGraphmlCommon.defaultNodeType.text));
-      keyDefs.remove(KeyDef.NODETYPE);
-      root.appendChild(createKeyDefElement(KeyDef.ORIGINFILE, pDefaultSourceFileName));
-      keyDefs.remove(KeyDef.ORIGINFILE);
-      for (NodeFlag f : NodeFlag.values()) {
-        keyDefs.remove(f.key);
-        root.appendChild(createKeyDefElement(f.key, "false"));
-      }
-      for (KeyDef keyDef : keyDefs) {
-        root.appendChild(createKeyDefElement(keyDef, null));
-      }
+        throws IOException {
+      pTarget.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+      try {
+        writer = XMLOutputFactory.newInstance().createXMLStreamWriter(CharStreams.asWriter(pTarget));
+
+        writer.writeStartElement("graphml");
+        writer.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+        writer.writeDefaultNamespace("http://graphml.graphdrawing.org/xmlns");
+        depth++;
+
+        EnumSet<KeyDef> keyDefs = EnumSet.allOf(KeyDef.class);
+        writeKeyDefElement(KeyDef.NODETYPE, AutomatonGraphmlCommon.defaultNodeType.text);
+        keyDefs.remove(KeyDef.NODETYPE);
+        writeKeyDefElement(KeyDef.ORIGINFILE, pDefaultSourceFileName);
+        keyDefs.remove(KeyDef.ORIGINFILE);
+        for (NodeFlag f : NodeFlag.values()) {
+          keyDefs.remove(f.key);
+          writeKeyDefElement(f.key, "false");
+        }
+        for (KeyDef keyDef : keyDefs) {
+          writeKeyDefElement(keyDef, null);
+        }
 
-      graph = doc.createElement("graph");
-      root.appendChild(graph);
-      graph.setAttribute("edgedefault", "directed");
-      graph.appendChild(createDataElement(KeyDef.GRAPH_TYPE, pGraphType.toString()));
-      graph.appendChild(createDataElement(KeyDef.SOURCECODELANGUAGE, pLanguage.toString()));
-      graph.appendChild(
-          createDataElement(KeyDef.PRODUCER, "CPAchecker " + CPAchecker.getCPAcheckerVersion()));
-      for (String specification : pSpecifications) {
-        graph.appendChild(createDataElement(KeyDef.SPECIFICATION, specification));
-      }
+        startElement(GraphMlTag.GRAPH);
+        writer.writeAttribute("edgedefault", "directed");
+        writeDataElement(KeyDef.GRAPH_TYPE, pGraphType.toString());
+        writeDataElement(KeyDef.SOURCECODELANGUAGE, pLanguage.toString());
+        writeDataElement(KeyDef.PRODUCER, "CPAchecker " + CPAchecker.getCPAcheckerVersion());
+        for (String specification : pSpecifications) {
+          writeDataElement(KeyDef.SPECIFICATION, specification);
+        }
 
-      /*
-       * TODO: We should allow multiple program files here.
-       * As soon as we do, we should also hash each file separately.
-       */
-      graph.appendChild(createDataElement(KeyDef.PROGRAMFILE, pProgramNames));
-      graph.appendChild(createDataElement(KeyDef.PROGRAMHASH, computeProgramHash(pProgramNames)));
-
-      graph.appendChild(createDataElement(KeyDef.MEMORYMODEL, pMemoryModel));
-      switch (pMachineModel) {
-        case LINUX32:
-          graph.appendChild(createDataElement(KeyDef.ARCHITECTURE, "32bit"));
-          break;
-        case LINUX64:
-          graph.appendChild(createDataElement(KeyDef.ARCHITECTURE, "64bit"));
-          break;
-        default:
-          graph.appendChild(createDataElement(KeyDef.ARCHITECTURE, pMachineModel.toString()));
-          break;
+        /*
+         * TODO: We should allow multiple program files here.
+         * As soon as we do, we should also hash each file separately.
+         */
+        writeDataElement(KeyDef.PROGRAMFILE, pProgramNames);
+        writeDataElement(KeyDef.PROGRAMHASH, computeProgramHash(pProgramNames));
+
+        writeDataElement(KeyDef.MEMORYMODEL, pMemoryModel);
+        switch (pMachineModel) {
+          case LINUX32:
+            writeDataElement(KeyDef.ARCHITECTURE, "32bit");
+            break;
+          case LINUX64:
+            writeDataElement(KeyDef.ARCHITECTURE, "64bit");
+            break;
+          default:
+            writeDataElement(KeyDef.ARCHITECTURE, pMachineModel.toString());
+            break;
+        }
+      } catch (XMLStreamException e) {
+        throw asIOException(e);
       }
     }
 
-    private Element createElement(GraphMlTag tag) {
-      return doc.createElement(tag.toString());
+    /**
+     * Write an edge with the given data.
+     */
+    public void appendEdge(final String from, final String to, Multimap<KeyDef, String> pData)
+        throws IOException {
+      try {
+        startElement(GraphMlTag.EDGE, pData.isEmpty());
+        writer.writeAttribute("source", from);
+        writer.writeAttribute("target", to);
+        writeDataElements(pData);
+        endElement(pData.isEmpty());
+      } catch (XMLStreamException e) {
+        throw asIOException(e);
+      }
     }
 
-    private Element createDataElement(final KeyDef key, final String value) {
-      Element result = createElement(GraphMlTag.DATA);
-      result.setAttribute("key", key.id);
-      result.setTextContent(value);
-      return result;
+    /**
+     * Write a node with the given data.
+     */
+    public void appendNode(String nodeId, NodeType nodeType, Multimap<KeyDef, String> pData)
+        throws IOException {
+      boolean empty = nodeType == defaultNodeType && pData.isEmpty();
+      try {
+        startElement(GraphMlTag.NODE, empty);
+        writer.writeAttribute("id", nodeId);
+        if (nodeType != defaultNodeType) {
+          writeDataElement(KeyDef.NODETYPE, nodeType.toString());
+        }
+        writeDataElements(pData);
+        endElement(empty);
+      } catch (XMLStreamException e) {
+        throw asIOException(e);
+      }
     }
 
-    public Element createEdgeElement(final String from, final String to) {
-      Element result = createElement(GraphMlTag.EDGE);
-      result.setAttribute("source", from);
-      result.setAttribute("target", to);
-      graph.appendChild(result);
-      return result;
+    /**
+     * Finish the graph and the document.
+     */
+    @Override
+    public void close() throws IOException {
+      try {
+        while (depth > 0) {
+          endElement(false);
+        }
+        writer.writeCharacters("\n");
+        writer.flush();
+        writer.close();
+      } catch (XMLStreamException e) {
+        throw asIOException(e);
+      }
     }
 
-    public Element createNodeElement(String nodeId, NodeType nodeType) {
-      Element result = createElement(GraphMlTag.NODE);
-      result.setAttribute("id", nodeId);
+    private void writeKeyDefElement(KeyDef keyDef, @Nullable String defaultValue)
+        throws XMLStreamException {
+      Preconditions.checkNotNull(keyDef.id);
+      Preconditions.checkNotNull(keyDef.keyFor);
+      Preconditions.checkNotNull(keyDef.attrName);
+      Preconditions.checkNotNull(keyDef.attrType);
 
-      if (nodeType != defaultNodeType) {
-        addDataElementChild(result, KeyDef.NODETYPE, nodeType.toString());
-      }
-
-      graph.appendChild(result);
+      startElement(GraphMlTag.KEY, defaultValue == null);
+      writer.writeAttribute("attr.name", keyDef.attrName);
+      writer.writeAttribute("attr.type", keyDef.attrType);
+      writer.writeAttribute("for", keyDef.keyFor.toString());
+      writer.writeAttribute("id", keyDef.id);
 
-      return result;
+      if (defaultValue != null) {
+        startElement(GraphMlTag.DEFAULT);
+        writer.writeCharacters(defaultValue);
+        depth--;
+        writer.writeEndElement();
+        endElement(false);
+      } else {
+        endElement(true);
+      }
     }
 
-    private Element createKeyDefElement(KeyDef keyDef, @Nullable String defaultValue) {
-      return createKeyDefElement(
-          keyDef.id, keyDef.keyFor, keyDef.attrName, keyDef.attrType, defaultValue);
+    private void writeDataElements(Multimap<KeyDef, String> pData) throws XMLStreamException {
+      for (Map.Entry<KeyDef, String> entry : pData.entries()) {
+        writeDataElement(entry.getKey(), entry.getValue());
+      }
     }
 
-    private Element createKeyDefElement(
-        String id,
-        ElementType keyFor,
-        String attrName,
-        String attrType,
-        @Nullable String defaultValue) {
-
-      Preconditions.checkNotNull(doc);
-      Preconditions.checkNotNull(id);
-      Preconditions.checkNotNull(keyFor);
-      Preconditions.checkNotNull(attrName);
-      Preconditions.checkNotNull(attrType);
-
-      Element result = createElement(GraphMlTag.KEY);
+    private void writeDataElement(final KeyDef key, final String value)
+        throws XMLStreamException {
+      startElement(GraphMlTag.DATA);
+      writer.writeAttribute("key", key.id);
+      writer.writeCharacters(value);
+      depth--;
+      writer.writeEndElement();
+    }
 
-      result.setAttribute("id", id);
-      result.setAttribute("for", keyFor.toString());
-      result.setAttribute("attr.name", attrName);
-      result.setAttribute("attr.type", attrType);
+    private void startElement(GraphMlTag tag) throws XMLStreamException {
+      startElement(tag, false);
+    }
 
-      if (defaultValue != null) {
-        Element defaultValueElement = createElement(GraphMlTag.DEFAULT);
-        defaultValueElement.setTextContent(defaultValue);
-        result.appendChild(defaultValueElement);
+    /**
+     * Start an element on a new line,
+     * the element must be ended by {@link #endElement(boolean)} with the same value for empty.
+     */
+    private void startElement(GraphMlTag tag, boolean empty) throws XMLStreamException {
+      writer.writeCharacters("\n" + Strings.repeat(" ", depth));
+      if (empty) {
+        writer.writeEmptyElement(tag.toString());
+      } else {
+        writer.writeStartElement(tag.toString());
+        depth++;
       }
+    }
 
-      return result;
+    /**
+     * End an element whose children are on separate lines.
+     */
+    private void endElement(boolean empty) throws XMLStreamException {
+      if (!empty) {
+        depth--;
+        writer.writeCharacters("\n" + Strings.repeat(" ", depth));
+        writer.writeEndElement();
+      }
     }
 
-    public void addDataElementChild(Element childOf, final KeyDef key, final String value) {
-      Element result = createDataElement(key, value);
-      childOf.appendChild(result);
+    private static IOException asIOException(XMLStreamException e) {
+      if (e.getNestedException() instanceof IOException) {
+        return (IOException) e.getNestedException();
+      }
+      return new IOException("Error while writing witness.", e);
     }
 
     private String computeProgramHash(String pProgramDenotations) throws IOException {
@@ -419,27 +478,6 @@ public class AutomatonGraphmlCommon {
       return BaseEncoding.base16().lowerCase().encode(hash.asBytes());
     }
 
-    public void appendTo(Appendable pTarget) throws IOException {
-      try {
-        pTarget.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
-
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer transformer = tf.newTransformer();
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "1");
-        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-
-        transformer.transform(new DOMSource(doc), new StreamResult(CharStreams.asWriter(pTarget)));
-      } catch (TransformerException ex) {
-        if (ex.getException() instanceof IOException) {
-          throw (IOException) ex.getException();
-        }
-        throw new RuntimeException("Error while writing witness.", ex);
-      }
-    }
-
   }
 
   public static boolean handleAsEpsilonEdge(CFAEdge edge) {
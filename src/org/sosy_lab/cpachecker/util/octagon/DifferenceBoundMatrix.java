@@ -0,0 +1,898 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Difference-bound matrix over integers, used as representation of octagons by
+ * {@link OctagonJavaIntManager}.
+ *
+ * <p>For an octagon with n variables, the matrix has 2n rows and columns that are stored
+ * row by row in a flat array. Index 2i stands for +v_i and index 2i+1 for -v_i,
+ * the entry in row i and column j is an upper bound for V_j - V_i.
+ * A missing bound is represented by {@link #INF}.
+ * The matrix is always coherent, i.e., the entries (i, j) and (j^1, i^1) are equal.</p>
+ *
+ * <p>Instances are immutable. Most operations return matrices that are tightly closed,
+ * i.e., no bound can be improved by adding other bounds, and an empty octagon is
+ * represented without a matrix. Only the results of widening and narrowing are not closed,
+ * their closure is computed lazily when needed. Operations that change only the bounds of
+ * one variable use an incremental closure that needs quadratic instead of cubic time.</p>
+ */
+final class DifferenceBoundMatrix {
+
+  /** Missing upper bound. This is the only infinite value that occurs in matrices. */
+  static final long INF = Long.MAX_VALUE;
+
+  /** Missing lower bound. */
+  static final long NEG_INF = Long.MIN_VALUE;
+
+  private final int dimension;
+  private final @Nullable long[] matrix;
+  private final boolean closed;
+
+  // the closure of this matrix, computed on first use if this matrix is not closed
+  private @Nullable DifferenceBoundMatrix closure = null;
+
+  private DifferenceBoundMatrix(int pDimension, @Nullable long[] pMatrix, boolean pClosed) {
+    dimension = pDimension;
+    matrix = pMatrix;
+    closed = pClosed;
+  }
+
+  static DifferenceBoundMatrix universe(int n) {
+    int size = 2 * n;
+    long[] m = new long[size * size];
+    Arrays.fill(m, INF);
+    for (int i = 0; i < size; i++) {
+      m[i * size + i] = 0;
+    }
+    return new DifferenceBoundMatrix(n, m, true);
+  }
+
+  static DifferenceBoundMatrix empty(int n) {
+    return new DifferenceBoundMatrix(n, null, true);
+  }
+
+  int getDimension() {
+    return dimension;
+  }
+
+  private DifferenceBoundMatrix close() {
+    if (closed) {
+      return this;
+    }
+    DifferenceBoundMatrix result = closure;
+    if (result == null) {
+      long[] m = matrix.clone();
+      result = closeFully(m, dimension)
+          ? new DifferenceBoundMatrix(dimension, m, true)
+          : empty(dimension);
+      closure = result;
+    }
+    return result;
+  }
+
+  boolean isEmpty() {
+    return close().matrix == null;
+  }
+
+  boolean isUniverse() {
+    long[] m = close().matrix;
+    if (m == null) {
+      return false;
+    }
+    int size = 2 * dimension;
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (i != j && m[i * size + j] != INF) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Returns the number of finite bounds that are not on the diagonal. */
+  int countConstraints() {
+    if (matrix == null) {
+      return 0;
+    }
+    int size = 2 * dimension;
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (i != j && matrix[i * size + j] != INF) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /** Returns the upper bound of a variable, or {@link #INF}. The octagon must not be empty. */
+  long getUpperBound(int v) {
+    long[] m = close().matrix;
+    int size = 2 * dimension;
+    long bound = m[(2 * v + 1) * size + 2 * v];
+    return bound == INF ? INF : bound >> 1;
+  }
+
+  /** Returns the lower bound of a variable, or {@link #NEG_INF}. The octagon must not be empty. */
+  long getLowerBound(int v) {
+    long[] m = close().matrix;
+    int size = 2 * dimension;
+    long bound = m[2 * v * size + 2 * v + 1];
+    return bound == INF ? NEG_INF : -(bound >> 1);
+  }
+
+  boolean isIncludedIn(DifferenceBoundMatrix other) {
+    assert dimension == other.dimension;
+    long[] m1 = close().matrix;
+    if (m1 == null) {
+      return true;
+    }
+    long[] m2 = other.matrix;
+    if (m2 == null || other.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < m1.length; i++) {
+      if (m1[i] > m2[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  boolean isEqualTo(DifferenceBoundMatrix other) {
+    return dimension == other.dimension
+        && Arrays.equals(close().matrix, other.close().matrix);
+  }
+
+  /** Hash code that is consistent with {@link #isEqualTo(DifferenceBoundMatrix)}. */
+  int contentHashCode() {
+    return 31 * dimension + Arrays.hashCode(close().matrix);
+  }
+
+  /** Checks whether the given point with one value per variable is in the octagon. */
+  boolean contains(long[] pPoint) {
+    long[] m = close().matrix;
+    if (m == null) {
+      return false;
+    }
+    int size = 2 * dimension;
+    for (int i = 0; i < size; i++) {
+      long vi = (i & 1) == 0 ? pPoint[i >> 1] : -pPoint[i >> 1];
+      for (int j = 0; j < size; j++) {
+        long vj = (j & 1) == 0 ? pPoint[j >> 1] : -pPoint[j >> 1];
+        long bound = m[i * size + j];
+        if (bound != INF && addDown(vj, negate(vi)) > bound) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  DifferenceBoundMatrix intersect(DifferenceBoundMatrix other) {
+    assert dimension == other.dimension;
+    if (matrix == null || other.matrix == null) {
+      return empty(dimension);
+    }
+    long[] m = new long[matrix.length];
+    for (int i = 0; i < m.length; i++) {
+      m[i] = Math.min(matrix[i], other.matrix[i]);
+    }
+    return closeFully(m, dimension) ? new DifferenceBoundMatrix(dimension, m, true) : empty(dimension);
+  }
+
+  /** Computes the smallest octagon that contains both octagons. */
+  DifferenceBoundMatrix join(DifferenceBoundMatrix other) {
+    assert dimension == other.dimension;
+    DifferenceBoundMatrix c1 = close();
+    DifferenceBoundMatrix c2 = other.close();
+    if (c1.matrix == null) {
+      return c2;
+    } else if (c2.matrix == null) {
+      return c1;
+    }
+    long[] m = new long[c1.matrix.length];
+    for (int i = 0; i < m.length; i++) {
+      m[i] = Math.max(c1.matrix[i], c2.matrix[i]);
+    }
+    // the maximum of tightly closed matrices is tightly closed
+    return new DifferenceBoundMatrix(dimension, m, true);
+  }
+
+  /**
+   * Widens this octagon with the given one. Unstable bounds are widened to 0 first,
+   * and to infinity if that does not suffice.
+   * The result is not closed, because closing it could prevent termination.
+   */
+  DifferenceBoundMatrix widen(DifferenceBoundMatrix other) {
+    assert dimension == other.dimension;
+    long[] m2 = other.close().matrix;
+    if (matrix == null) {
+      return other.close();
+    } else if (m2 == null) {
+      return this;
+    }
+    long[] m = new long[matrix.length];
+    for (int i = 0; i < m.length; i++) {
+      if (m2[i] <= matrix[i]) {
+        m[i] = matrix[i];
+      } else if (m2[i] <= 0) {
+        m[i] = 0;
+      } else {
+        m[i] = INF;
+      }
+    }
+    return new DifferenceBoundMatrix(dimension, m, false);
+  }
+
+  /** Narrows this octagon with the given one by replacing missing bounds. */
+  DifferenceBoundMatrix narrow(DifferenceBoundMatrix other) {
+    assert dimension == other.dimension;
+    long[] m1 = close().matrix;
+    long[] m2 = other.close().matrix;
+    if (m1 == null || m2 == null) {
+      return empty(dimension);
+    }
+    long[] m = new long[m1.length];
+    for (int i = 0; i < m.length; i++) {
+      m[i] = m1[i] == INF ? m2[i] : m1[i];
+    }
+    return new DifferenceBoundMatrix(dimension, m, false);
+  }
+
+  DifferenceBoundMatrix forget(int v) {
+    DifferenceBoundMatrix c = close();
+    if (c.matrix == null) {
+      return c;
+    }
+    long[] m = c.matrix.clone();
+    forget(m, 2 * dimension, v);
+    // forgetting a variable keeps a matrix closed
+    return new DifferenceBoundMatrix(dimension, m, true);
+  }
+
+  /** Adds k unconstrained variables after the existing ones. */
+  DifferenceBoundMatrix addDimensions(int k) {
+    int newDimension = dimension + k;
+    if (matrix == null) {
+      return empty(newDimension);
+    }
+    int size = 2 * dimension;
+    int newSize = 2 * newDimension;
+    long[] m = new long[newSize * newSize];
+    Arrays.fill(m, INF);
+    for (int i = 0; i < size; i++) {
+      System.arraycopy(matrix, i * size, m, i * newSize, size);
+    }
+    for (int i = size; i < newSize; i++) {
+      m[i * newSize + i] = 0;
+    }
+    return new DifferenceBoundMatrix(newDimension, m, closed);
+  }
+
+  /** Adds k variables with value 0 after the existing ones. */
+  DifferenceBoundMatrix addDimensionsWithValueZero(int k) {
+    DifferenceBoundMatrix result = close().addDimensions(k);
+    if (result.matrix == null) {
+      return result;
+    }
+    long[] m = result.matrix;
+    int size = 2 * result.dimension;
+    for (int v = dimension; v < result.dimension; v++) {
+      setBounds(m, size, v, 0, 0);
+      if (!closeIncrementally(m, result.dimension, v)) {
+        return empty(result.dimension);
+      }
+    }
+    return result;
+  }
+
+  /** Removes the last k variables. */
+  DifferenceBoundMatrix removeDimensions(int k) {
+    int newDimension = dimension - k;
+    long[] source = close().matrix;
+    if (source == null) {
+      return empty(newDimension);
+    }
+    int size = 2 * dimension;
+    int newSize = 2 * newDimension;
+    long[] m = new long[newSize * newSize];
+    for (int i = 0; i < newSize; i++) {
+      System.arraycopy(source, i * size, m, i * newSize, newSize);
+    }
+    // the projection of a closed matrix is closed
+    return new DifferenceBoundMatrix(newDimension, m, true);
+  }
+
+  /**
+   * Restricts the octagon by constraints of the form x + y <= c, where x and y may be negated.
+   * Each constraint is given by four numbers in the array:
+   * its type (the same as in the native library), x, y, and c.
+   */
+  DifferenceBoundMatrix addConstraints(long[] pConstraints, int pCount) {
+    DifferenceBoundMatrix c = close();
+    if (c.matrix == null) {
+      return c;
+    }
+    long[] m = c.matrix.clone();
+    int size = 2 * dimension;
+
+    for (int t = 0; t < pCount; t++) {
+      int type = (int) pConstraints[4 * t];
+      int x = (int) pConstraints[4 * t + 1];
+      int y = (int) pConstraints[4 * t + 2];
+      long bound = pConstraints[4 * t + 3];
+      if (bound == NEG_INF) {
+        return empty(dimension);
+      }
+
+      // all changed entries are in the rows and columns of x
+      switch (type) {
+      case 0: // x <= c
+        setMin(m, size, 2 * x + 1, 2 * x, mulUp(2, bound));
+        break;
+      case 1: // -x <= c
+        setMin(m, size, 2 * x, 2 * x + 1, mulUp(2, bound));
+        break;
+      case 2: // x + y <= c
+        setMin(m, size, 2 * y + 1, 2 * x, bound);
+        break;
+      case 3: // x - y <= c
+        setMin(m, size, 2 * y, 2 * x, bound);
+        break;
+      case 4: // -x + y <= c
+        setMin(m, size, 2 * x, 2 * y, bound);
+        break;
+      case 5: // -x - y <= c
+        setMin(m, size, 2 * y, 2 * x + 1, bound);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown type of octagon constraint: " + type);
+      }
+
+      if (!closeIncrementally(m, dimension, x)) {
+        return empty(dimension);
+      }
+    }
+    return new DifferenceBoundMatrix(dimension, m, true);
+  }
+
+  /**
+   * Assigns v := sum_i [low_i, high_i] * v_i + [low_n, high_n].
+   * The arrays contain the bounds of the coefficient of each variable,
+   * followed by the bounds of the constant.
+   */
+  DifferenceBoundMatrix assign(int v, long[] pLow, long[] pHigh) {
+    DifferenceBoundMatrix c = close();
+    if (c.matrix == null) {
+      return c;
+    }
+    int n = dimension;
+    int size = 2 * n;
+    long constLow = pLow[n];
+    long constHigh = pHigh[n];
+
+    int variables = 0;
+    int lastVariable = -1;
+    boolean onlyPointCoefficients = true;
+    for (int i = 0; i < n; i++) {
+      if (pLow[i] != 0 || pHigh[i] != 0) {
+        variables++;
+        lastVariable = i;
+        onlyPointCoefficients &= pLow[i] == pHigh[i];
+      }
+    }
+
+    // assignments that can be expressed exactly by an octagon
+    if (onlyPointCoefficients && variables == 0) {
+      long[] m = c.matrix.clone();
+      forget(m, size, v);
+      setBounds(m, size, v, constLow, constHigh);
+      return closeIncrementally(m, n, v)
+          ? new DifferenceBoundMatrix(n, m, true)
+          : empty(n);
+    }
+
+    if (onlyPointCoefficients && variables == 1
+        && (pLow[lastVariable] == 1 || pLow[lastVariable] == -1)) {
+      int y = lastVariable;
+      boolean negated = pLow[y] == -1;
+
+      if (y != v) {
+        long[] m = c.matrix.clone();
+        forget(m, size, v);
+        setRelation(m, size, v, y, negated, constLow, constHigh);
+        return closeIncrementally(m, n, v)
+            ? new DifferenceBoundMatrix(n, m, true)
+            : empty(n);
+
+      } else if (constLow == constHigh) {
+        long[] m = c.matrix.clone();
+        if (negated) {
+          negate(m, size, v);
+        }
+        if (shift(m, size, v, constLow)) {
+          // shifting and negating a variable keeps a matrix closed
+          return new DifferenceBoundMatrix(n, m, true);
+        }
+      }
+    }
+
+    // general case: use the intervals of the variables
+    long[] termLow = new long[n + 1];
+    long[] termHigh = new long[n + 1];
+    for (int i = 0; i < n; i++) {
+      if (pLow[i] == 0 && pHigh[i] == 0) {
+        continue;
+      }
+      long varLow = c.getLowerBound(i);
+      long varHigh = c.getUpperBound(i);
+      termLow[i] = Math.min(
+          Math.min(mulDown(pLow[i], varLow), mulDown(pLow[i], varHigh)),
+          Math.min(mulDown(pHigh[i], varLow), mulDown(pHigh[i], varHigh)));
+      termHigh[i] = Math.max(
+          Math.max(mulUp(pLow[i], varLow), mulUp(pLow[i], varHigh)),
+          Math.max(mulUp(pHigh[i], varLow), mulUp(pHigh[i], varHigh)));
+    }
+    termLow[n] = constLow;
+    termHigh[n] = constHigh;
+
+    long[] m = c.matrix.clone();
+    forget(m, size, v);
+    setBounds(m, size, v, sumDown(termLow, -1), sumUp(termHigh, -1));
+
+    // v - y or v + y is bounded by the remaining terms if y has the coefficient 1 or -1
+    for (int y = 0; y < n; y++) {
+      if (y != v && pLow[y] == pHigh[y] && (pLow[y] == 1 || pLow[y] == -1)) {
+        setRelation(m, size, v, y, pLow[y] == -1, sumDown(termLow, y), sumUp(termHigh, y));
+      }
+    }
+
+    return closeIncrementally(m, n, v)
+        ? new DifferenceBoundMatrix(n, m, true)
+        : empty(n);
+  }
+
+  private static long sumUp(long[] pValues, int pExcluded) {
+    long result = 0;
+    for (int i = 0; i < pValues.length; i++) {
+      if (i != pExcluded) {
+        result = addUp(result, pValues[i]);
+      }
+    }
+    return result;
+  }
+
+  private static long sumDown(long[] pValues, int pExcluded) {
+    long result = 0;
+    for (int i = 0; i < pValues.length; i++) {
+      if (i != pExcluded) {
+        result = addDown(result, pValues[i]);
+      }
+    }
+    return result;
+  }
+
+  /* Operations on matrices */
+
+  /** Sets the entry (i, j) and its coherent entry to the minimum of their value and c. */
+  private static void setMin(long[] m, int size, int i, int j, long c) {
+    if (c == INF) {
+      return;
+    }
+    int pos = i * size + j;
+    if (c < m[pos]) {
+      m[pos] = c;
+    }
+    int coherentPos = (j ^ 1) * size + (i ^ 1);
+    if (c < m[coherentPos]) {
+      m[coherentPos] = c;
+    }
+  }
+
+  private static void setBounds(long[] m, int size, int v, long low, long high) {
+    int a = 2 * v;
+    setMin(m, size, a + 1, a, mulUp(2, high));
+    setMin(m, size, a, a + 1, mulUp(-2, low));
+  }
+
+  /** Adds the constraint low <= v - y <= high, or low <= v + y <= high if negated. */
+  private static void setRelation(long[] m, int size, int v, int y,
+      boolean negated, long low, long high) {
+    int a = 2 * v;
+    int yIndex = negated ? 2 * y + 1 : 2 * y;
+    setMin(m, size, yIndex, a, high);
+    setMin(m, size, a, yIndex, negate(low));
+  }
+
+  private static void forget(long[] m, int size, int v) {
+    int a = 2 * v;
+    int b = a + 1;
+    Arrays.fill(m, a * size, (b + 1) * size, INF);
+    for (int i = 0; i < size; i++) {
+      m[i * size + a] = INF;
+      m[i * size + b] = INF;
+    }
+    m[a * size + a] = 0;
+    m[b * size + b] = 0;
+  }
+
+  /** Replaces v by -v. */
+  private static void negate(long[] m, int size, int v) {
+    int a = 2 * v;
+    int b = a + 1;
+    for (int k = 0; k < size; k++) {
+      long tmp = m[a * size + k];
+      m[a * size + k] = m[b * size + k];
+      m[b * size + k] = tmp;
+    }
+    for (int k = 0; k < size; k++) {
+      long tmp = m[k * size + a];
+      m[k * size + a] = m[k * size + b];
+      m[k * size + b] = tmp;
+    }
+  }
+
+  /**
+   * Replaces v by v + c. Returns false if a bound overflowed,
+   * in which case the matrix must not be used.
+   */
+  private static boolean shift(long[] m, int size, int v, long c) {
+    if (c == 0) {
+      return true;
+    }
+    if (Math.abs(c) > (1L << 60)) {
+      return false;
+    }
+    int a = 2 * v;
+    int b = a + 1;
+    for (int k = 0; k < size; k++) {
+      if (k == a || k == b) {
+        continue;
+      }
+      // V_k - v, V_k + v, v - V_k, and -v - V_k
+      if (!shiftEntry(m, a * size + k, -c) || !shiftEntry(m, b * size + k, c)
+          || !shiftEntry(m, k * size + a, c) || !shiftEntry(m, k * size + b, -c)) {
+        return false;
+      }
+    }
+    return shiftEntry(m, b * size + a, 2 * c) && shiftEntry(m, a * size + b, -2 * c);
+  }
+
+  private static boolean shiftEntry(long[] m, int pos, long c) {
+    long value = m[pos];
+    if (value == INF) {
+      return true;
+    }
+    long result = value + c;
+    if (((value ^ result) & (c ^ result)) < 0 || result == INF) {
+      return false;
+    }
+    m[pos] = result;
+    return true;
+  }
+
+  /**
+   * Computes the tight closure of a matrix in place with the Floyd-Warshall algorithm.
+   * Returns false if the matrix represents the empty octagon.
+   */
+  @VisibleForTesting
+  static boolean closeFully(long[] m, int n) {
+    int size = 2 * n;
+    for (int k = 0; k < size; k++) {
+      int kRow = k * size;
+      for (int i = 0; i < size; i++) {
+        long mik = m[i * size + k];
+        if (mik == INF) {
+          continue;
+        }
+        int iRow = i * size;
+        for (int j = 0; j < size; j++) {
+          long mkj = m[kRow + j];
+          if (mkj != INF) {
+            long value = addUp(mik, mkj);
+            if (value < m[iRow + j]) {
+              m[iRow + j] = value;
+            }
+          }
+        }
+      }
+    }
+    return tightenAndStrengthen(m, size);
+  }
+
+  /**
+   * Computes the tight closure of a matrix in place,
+   * if the matrix was tightly closed before the bounds in the rows and columns
+   * of variable v were changed. Needs quadratic time.
+   * Returns false if the matrix represents the empty octagon.
+   */
+  @VisibleForTesting
+  static boolean closeIncrementally(long[] m, int n, int v) {
+    int size = 2 * n;
+    int a = 2 * v;
+    int b = a + 1;
+    int aRow = a * size;
+    int bRow = b * size;
+
+    // shortest paths from each other index to a and b,
+    // consisting of a path in the unchanged part and one changed edge
+    long[] colA = new long[size];
+    long[] colB = new long[size];
+    long[] edgeToA = new long[size];
+    long[] edgeToB = new long[size];
+    for (int k = 0; k < size; k++) {
+      edgeToA[k] = m[k * size + a];
+      edgeToB[k] = m[k * size + b];
+    }
+    for (int i = 0; i < size; i++) {
+      if (i == a || i == b) {
+        continue;
+      }
+      int iRow = i * size;
+      long toA = edgeToA[i];
+      long toB = edgeToB[i];
+      for (int k = 0; k < size; k++) {
+        long mik = m[iRow + k];
+        if (mik == INF || k == a || k == b) {
+          continue;
+        }
+        toA = Math.min(toA, addUp(mik, edgeToA[k]));
+        toB = Math.min(toB, addUp(mik, edgeToB[k]));
+      }
+      colA[i] = toA;
+      colB[i] = toB;
+    }
+
+    // shortest paths from a and b to each other index, defined analogously
+    long[] rowA = Arrays.copyOfRange(m, aRow, aRow + size);
+    long[] rowB = Arrays.copyOfRange(m, bRow, bRow + size);
+    for (int k = 0; k < size; k++) {
+      long mak = m[aRow + k];
+      long mbk = m[bRow + k];
+      if ((mak == INF && mbk == INF) || k == a || k == b) {
+        continue;
+      }
+      int kRow = k * size;
+      for (int j = 0; j < size; j++) {
+        long mkj = m[kRow + j];
+        if (mkj != INF) {
+          rowA[j] = Math.min(rowA[j], addUp(mak, mkj));
+          rowB[j] = Math.min(rowB[j], addUp(mbk, mkj));
+        }
+      }
+    }
+
+    // shortest paths between a and b
+    long aToA = Math.min(0, m[aRow + a]);
+    long aToB = m[aRow + b];
+    long bToA = m[bRow + a];
+    long bToB = Math.min(0, m[bRow + b]);
+    for (int k = 0; k < size; k++) {
+      if (k == a || k == b) {
+        continue;
+      }
+      aToA = Math.min(aToA, addUp(m[aRow + k], colA[k]));
+      aToB = Math.min(aToB, addUp(m[aRow + k], colB[k]));
+      bToA = Math.min(bToA, addUp(m[bRow + k], colA[k]));
+      bToB = Math.min(bToB, addUp(m[bRow + k], colB[k]));
+    }
+    if (aToA < 0 || bToB < 0 || addUp(aToB, bToA) < 0) {
+      return false;
+    }
+
+    // paths that visit both a and b
+    for (int k = 0; k < size; k++) {
+      if (k == a || k == b) {
+        continue;
+      }
+      long fromA = rowA[k];
+      long fromB = rowB[k];
+      rowA[k] = Math.min(fromA, addUp(aToB, fromB));
+      rowB[k] = Math.min(fromB, addUp(bToA, fromA));
+      long toA = colA[k];
+      long toB = colB[k];
+      colA[k] = Math.min(toA, addUp(toB, bToA));
+      colB[k] = Math.min(toB, addUp(toA, aToB));
+    }
+
+    for (int k = 0; k < size; k++) {
+      if (k == a || k == b) {
+        continue;
+      }
+      m[aRow + k] = rowA[k];
+      m[bRow + k] = rowB[k];
+      m[k * size + a] = colA[k];
+      m[k * size + b] = colB[k];
+    }
+    m[aRow + a] = 0;
+    m[aRow + b] = aToB;
+    m[bRow + a] = bToA;
+    m[bRow + b] = 0;
+
+    // paths between other indices through a or b
+    for (int i = 0; i < size; i++) {
+      long toA = colA[i];
+      long toB = colB[i];
+      if ((toA == INF && toB == INF) || i == a || i == b) {
+        continue;
+      }
+      int iRow = i * size;
+      for (int j = 0; j < size; j++) {
+        if (j == a || j == b) {
+          continue;
+        }
+        long value = Math.min(addUp(toA, rowA[j]), addUp(toB, rowB[j]));
+        if (value < m[iRow + j]) {
+          m[iRow + j] = value;
+        }
+      }
+    }
+
+    return tightenAndStrengthen(m, size);
+  }
+
+  /**
+   * Makes a closed matrix tightly closed by rounding the unary bounds to integers
+   * and combining all pairs of unary bounds.
+   * Returns false if the matrix represents the empty octagon.
+   */
+  private static boolean tightenAndStrengthen(long[] m, int size) {
+    for (int i = 0; i < size; i++) {
+      if (m[i * size + i] < 0) {
+        return false;
+      }
+      int pos = i * size + (i ^ 1);
+      if (m[pos] != INF) {
+        // bounds of 2v are rounded down to even numbers
+        m[pos] = m[pos] & ~1L;
+      }
+    }
+    for (int i = 0; i < size; i += 2) {
+      if (addUp(m[i * size + i + 1], m[(i + 1) * size + i]) < 0) {
+        return false;
+      }
+    }
+
+    for (int i = 0; i < size; i++) {
+      long mi = m[i * size + (i ^ 1)];
+      if (mi == INF) {
+        continue;
+      }
+      int iRow = i * size;
+      for (int j = 0; j < size; j++) {
+        long mj = m[(j ^ 1) * size + j];
+        if (mj != INF) {
+          long value = addUp(mi, mj);
+          if (value != INF && (value >> 1) < m[iRow + j]) {
+            m[iRow + j] = value >> 1;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /* Arithmetic on longs with infinite values and rounding on overflow */
+
+  private static boolean isInfinite(long a) {
+    return a == INF || a == NEG_INF;
+  }
+
+  private static long negate(long a) {
+    if (a == NEG_INF) {
+      return INF;
+    } else if (a == INF) {
+      return NEG_INF;
+    }
+    return -a;
+  }
+
+  /** Adds two numbers, rounding towards positive infinity on overflow. */
+  private static long addUp(long a, long b) {
+    if (a == INF || b == INF) {
+      return INF;
+    } else if (a == NEG_INF || b == NEG_INF) {
+      return NEG_INF;
+    }
+    long result = a + b;
+    if (((a ^ result) & (b ^ result)) < 0) {
+      return a > 0 ? INF : NEG_INF + 1;
+    }
+    return result;
+  }
+
+  /** Adds two numbers, rounding towards negative infinity on overflow. */
+  private static long addDown(long a, long b) {
+    if (a == NEG_INF || b == NEG_INF) {
+      return NEG_INF;
+    } else if (a == INF || b == INF) {
+      return INF;
+    }
+    long result = a + b;
+    if (((a ^ result) & (b ^ result)) < 0) {
+      return a > 0 ? INF - 1 : NEG_INF;
+    }
+    return result;
+  }
+
+  /** Multiplies two numbers, rounding towards positive infinity on overflow. */
+  private static long mulUp(long a, long b) {
+    if (a == 0 || b == 0) {
+      return 0;
+    }
+    boolean positive = (a > 0) == (b > 0);
+    if (isInfinite(a) || isInfinite(b)) {
+      return positive ? INF : NEG_INF;
+    }
+    long result = a * b;
+    if (result / b != a || isInfinite(result)) {
+      return positive ? INF : NEG_INF + 1;
+    }
+    return result;
+  }
+
+  /** Multiplies two numbers, rounding towards negative infinity on overflow. */
+  private static long mulDown(long a, long b) {
+    if (a == 0 || b == 0) {
+      return 0;
+    }
+    boolean positive = (a > 0) == (b > 0);
+    if (isInfinite(a) || isInfinite(b)) {
+      return positive ? INF : NEG_INF;
+    }
+    long result = a * b;
+    if (result / b != a || isInfinite(result)) {
+      return positive ? INF - 1 : NEG_INF;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    DifferenceBoundMatrix c = close();
+    if (c.matrix == null) {
+      return "[Empty]";
+    }
+    StringBuilder sb = new StringBuilder();
+    for (int v = 0; v < dimension; v++) {
+      long low = c.getLowerBound(v);
+      long high = c.getUpperBound(v);
+      sb.append(" v").append(v).append(" -> [")
+        .append(low == NEG_INF ? "-INFINITY" : Long.toString(low)).append(", ")
+        .append(high == INF ? "INFINITY" : Long.toString(high)).append("]\n");
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrix.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class DifferenceBoundMatrixTest {
+
+  /** Restricts the octagon by the given constraints of the form [type, x, y, c]. */
+  private static DifferenceBoundMatrix restrict(DifferenceBoundMatrix dbm, long... constraints) {
+    return dbm.addConstraints(constraints, constraints.length / 4);
+  }
+
+  /** Creates an octagon with lower <= v_i <= upper for all variables. */
+  private static DifferenceBoundMatrix box(int n, long lower, long upper) {
+    DifferenceBoundMatrix result = DifferenceBoundMatrix.universe(n);
+    for (int v = 0; v < n; v++) {
+      result = restrict(result, 0, v, v, upper, 1, v, v, -lower);
+    }
+    return result;
+  }
+
+  /** Sets an entry and its coherent entry to the minimum of their value and c. */
+  private static void setMin(long[] m, int size, int i, int j, long c) {
+    m[i * size + j] = Math.min(m[i * size + j], c);
+    m[(j ^ 1) * size + (i ^ 1)] = Math.min(m[(j ^ 1) * size + (i ^ 1)], c);
+  }
+
+  @Test
+  public void testIncrementalClosureMatchesFullClosure() {
+    Random random = new Random(0);
+    for (int run = 0; run < 2000; run++) {
+      int n = 1 + random.nextInt(4);
+      int size = 2 * n;
+
+      // a closed matrix with some random bounds
+      long[] closed = new long[size * size];
+      Arrays.fill(closed, INF);
+      for (int i = 0; i < size; i++) {
+        closed[i * size + i] = 0;
+      }
+      for (int k = random.nextInt(2 * size); k > 0; k--) {
+        setMin(closed, size, random.nextInt(size), random.nextInt(size), 2 + random.nextInt(20));
+      }
+      if (!closeFully(closed, n)) {
+        continue;
+      }
+
+      // change some bounds in the rows and columns of one variable
+      int v = random.nextInt(n);
+      long[] changed = closed.clone();
+      for (int k = 1 + random.nextInt(3); k > 0; k--) {
+        int i = 2 * v + random.nextInt(2);
+        int j = random.nextInt(size);
+        long c = random.nextInt(20) - 6;
+        if (random.nextBoolean()) {
+          setMin(changed, size, i, j, c);
+        } else {
+          setMin(changed, size, j, i, c);
+        }
+      }
+
+      long[] incremental = changed.clone();
+      long[] full = changed.clone();
+      boolean incrementalNonEmpty = closeIncrementally(incremental, n, v);
+      boolean fullNonEmpty = closeFully(full, n);
+      Assert.assertEquals(fullNonEmpty, incrementalNonEmpty);
+      if (fullNonEmpty) {
+        Assert.assertArrayEquals(full, incremental);
+      }
+    }
+  }
+
+  @Test
+  public void testEqualMatricesHaveEqualHashCodes() {
+    // x - y <= 20 is implied by the bounds of x and y
+    DifferenceBoundMatrix dbm = box(2, 0, 10);
+    DifferenceBoundMatrix redundant = restrict(dbm, 3, 0, 1, 20);
+    Assert.assertTrue(dbm.isEqualTo(redundant));
+    Assert.assertEquals(dbm.contentHashCode(), redundant.contentHashCode());
+
+    // contradicting bounds
+    DifferenceBoundMatrix empty = restrict(box(2, 0, 10), 0, 0, 0, -1);
+    Assert.assertTrue(empty.isEqualTo(DifferenceBoundMatrix.empty(2)));
+    Assert.assertEquals(DifferenceBoundMatrix.empty(2).contentHashCode(), empty.contentHashCode());
+  }
+
+  @Test
+  public void testShiftAndNegate() {
+    // 0 <= x <= 10, 0 <= y <= 10, x - y <= 2
+    DifferenceBoundMatrix dbm = restrict(box(2, 0, 10), 3, 0, 1, 2);
+
+    // x := x + 5
+    DifferenceBoundMatrix shifted = dbm.assign(0, new long[] {1, 0, 5}, new long[] {1, 0, 5});
+    Assert.assertEquals(5, shifted.getLowerBound(0));
+    Assert.assertEquals(15, shifted.getUpperBound(0));
+    // x - y <= 7 is kept: x <= 7 if y = 0
+    Assert.assertEquals(7, restrict(shifted, 0, 1, 1, 0).getUpperBound(0));
+
+    // x := -x + 3
+    DifferenceBoundMatrix negated = dbm.assign(0, new long[] {-1, 0, 3}, new long[] {-1, 0, 3});
+    Assert.assertEquals(-7, negated.getLowerBound(0));
+    Assert.assertEquals(3, negated.getUpperBound(0));
+    // the old x - y <= 2 becomes -x + 3 - y <= 2, i.e., x + y >= 1: x >= 1 if y = 0
+    Assert.assertEquals(1, restrict(negated, 0, 1, 1, 0).getLowerBound(0));
+
+    // shifting twice in opposite directions is the identity
+    DifferenceBoundMatrix back = shifted.assign(0, new long[] {1, 0, -5}, new long[] {1, 0, -5});
+    Assert.assertTrue(back.isEqualTo(dbm));
+  }
+
+  @Test
+  public void testNarrowing() {
+    DifferenceBoundMatrix first = box(1, 0, 1);
+    DifferenceBoundMatrix second = box(1, 0, 2);
+
+    DifferenceBoundMatrix widened = first.widen(second);
+    Assert.assertEquals(INF, widened.getUpperBound(0));
+    Assert.assertEquals(0, widened.getLowerBound(0));
+
+    // narrowing only replaces missing bounds
+    DifferenceBoundMatrix narrowed = widened.narrow(box(1, -5, 100));
+    Assert.assertEquals(100, narrowed.getUpperBound(0));
+    Assert.assertEquals(0, narrowed.getLowerBound(0));
+    Assert.assertTrue(narrowed.isIncludedIn(widened));
+
+    Assert.assertTrue(widened.narrow(DifferenceBoundMatrix.empty(1)).isEmpty());
+  }
+
+  @Test
+  public void testOverflowSaturation() {
+    // the doubled bound of x does not fit into a long, so it is dropped
+    DifferenceBoundMatrix huge = box(2, 0, Long.MAX_VALUE - 1);
+    Assert.assertEquals(INF, huge.getUpperBound(0));
+    Assert.assertEquals(0, huge.getLowerBound(0));
+
+    // y := x * 4 with x unbounded above
+    DifferenceBoundMatrix product = huge.assign(1, new long[] {4, 0, 0}, new long[] {4, 0, 0});
+    Assert.assertEquals(INF, product.getUpperBound(1));
+    Assert.assertEquals(0, product.getLowerBound(1));
+
+    // y := x + c with a large bound of x rounds towards the sound side
+    long big = Long.MAX_VALUE / 4;
+    DifferenceBoundMatrix bounded = box(2, 0, big);
+    DifferenceBoundMatrix sum = bounded.assign(1, new long[] {1, 0, big}, new long[] {1, 0, big});
+    Assert.assertEquals(big, sum.getLowerBound(1));
+    Assert.assertTrue(sum.getUpperBound(1) >= 2 * big);
+
+    // x := x + c, where the shifted bound overflows
+    DifferenceBoundMatrix shifted = bounded.assign(0, new long[] {1, 0, big}, new long[] {1, 0, big});
+    Assert.assertTrue(shifted.getUpperBound(0) >= 2 * big);
+    Assert.assertTrue(shifted.contains(new long[] {2 * big, 0}));
+
+    // coefficients and bounds with a product beyond the range of long
+    DifferenceBoundMatrix large = bounded.assign(1, new long[] {big, 0, 0}, new long[] {big, 0, 0});
+    Assert.assertEquals(INF, large.getUpperBound(1));
+    Assert.assertEquals(0, large.getLowerBound(1));
+  }
+}
@@ -26,15 +26,31 @@ package org.sosy_lab.cpachecker.util.octagon;
 public class NumArray {
 
   private final long array;
+  private final long[] values;
 
   NumArray(long l) {
     array = l;
+    values = null;
+  }
+
+  /**
+   * Creates a number array of the pure-Java implementation.
+   */
+  NumArray(long[] pValues) {
+    array = 0;
+    values = pValues;
   }
 
   long getArray() {
+    assert values == null : "number arrays of the Java implementation have no pointer";
     return array;
   }
 
+  long[] getValues() {
+    assert values != null : "number arrays of the native library have no values";
+    return values;
+  }
+
   @Override
   public String toString() {
     // TODO
@@ -47,6 +63,9 @@ public class NumArray {
       return false;
     }
     NumArray otherArr = (NumArray) pObj;
+    if (values != null) {
+      return this.values == otherArr.values;
+    }
     return this.array == otherArr.array;
   }
 
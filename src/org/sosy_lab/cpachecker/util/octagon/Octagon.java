@@ -28,22 +28,36 @@ import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 
 public class Octagon {
 
   private final long octId;
+  private final @Nullable DifferenceBoundMatrix matrix;
   private final OctagonManager manager;
   private static List<OctagonPhantomReference> phantomReferences = new ArrayList<>();
   private static ReferenceQueue<Octagon> referenceQueue = new ReferenceQueue<>();
 
-  Octagon(long l, OctagonManager manager) {
+  Octagon(long l, OctagonNativeManager manager) {
     octId = l;
+    matrix = null;
+    this.manager = manager;
+    registerPhantomReference(this, manager);
+  }
+
+  /**
+   * Creates an octagon of the pure-Java implementation,
+   * which does not need to be freed explicitly.
+   */
+  Octagon(DifferenceBoundMatrix pMatrix, OctagonJavaIntManager manager) {
+    octId = 0;
+    matrix = pMatrix;
     this.manager = manager;
-    registerPhantomReference(this);
   }
 
-  private static void registerPhantomReference(Octagon oct) {
-    phantomReferences.add(new OctagonPhantomReference(oct, referenceQueue));
+  private static void registerPhantomReference(Octagon oct, OctagonNativeManager manager) {
+    phantomReferences.add(new OctagonPhantomReference(oct, manager, referenceQueue));
   }
 
   public static void removePhantomReferences() {
@@ -54,15 +68,24 @@ public class Octagon {
   }
 
   long getOctId() {
+    assert matrix == null : "octagons of the Java implementation have no id";
     return octId;
   }
 
+  DifferenceBoundMatrix getMatrix() {
+    assert matrix != null : "octagons of the native library have no matrix";
+    return matrix;
+  }
+
   public OctagonManager getManager() {
     return manager;
   }
 
   @Override
   public int hashCode() {
+    if (matrix != null) {
+      return matrix.contentHashCode();
+    }
     return (int)octId;
   }
 
@@ -78,6 +101,9 @@ public class Octagon {
 
   @Override
   public String toString() {
+    if (matrix != null) {
+      return "octagon with dimension: " + matrix.getDimension();
+    }
     return "octagon with id: " + octId;
   }
 }
\ No newline at end of file
@@ -31,7 +31,7 @@ import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 import com.google.common.collect.BiMap;
 
 
-public class OctagonFloatManager extends OctagonManager {
+public class OctagonFloatManager extends OctagonNativeManager {
 
   public OctagonFloatManager() {
     super("JOct_float");
@@ -0,0 +1,374 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static org.sosy_lab.cpachecker.util.octagon.DifferenceBoundMatrix.*;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonDoubleValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonIntValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+import com.google.common.collect.BiMap;
+
+/**
+ * Octagon manager for integer values that is implemented in Java
+ * on top of {@link DifferenceBoundMatrix}, and thus does not need a native library.
+ * Octagons are immutable and do not need to be freed.
+ *
+ * Substitutions and general linear constraints, which are not used by the octagon CPA,
+ * are only over-approximated.
+ */
+public class OctagonJavaIntManager extends OctagonManager {
+
+  // results of the lazy tests as in the native library
+  private static final int TBOOL_TRUE = 1;
+  private static final int TBOOL_FALSE = 2;
+
+  private final LogManager logger;
+
+  public OctagonJavaIntManager(LogManager pLogger) {
+    logger = pLogger;
+  }
+
+  private Octagon wrap(DifferenceBoundMatrix matrix) {
+    return new Octagon(matrix, this);
+  }
+
+  private static int toTbool(boolean value) {
+    return value ? TBOOL_TRUE : TBOOL_FALSE;
+  }
+
+  @Override
+  public NumArray init_num_t(int n) {
+    return new NumArray(new long[n]);
+  }
+
+  @Override
+  public void num_set(NumArray n1, NumArray n2) {
+    long[] source = n2.getValues();
+    System.arraycopy(source, 0, n1.getValues(), 0, source.length);
+  }
+
+  /**
+   * Restricts a variable to an interval.
+   * As in the native library, the lower bound is given negated.
+   */
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    long negatedLower = lower.getValues()[0];
+    long upperBound = upper.getValues()[0];
+    return wrap(oct.getMatrix().addConstraints(new long[] {
+        0, pos, pos, upperBound,
+        1, pos, pos, negatedLower }, 2));
+  }
+
+  @Override
+  public void num_set_int(NumArray n, int pos, long i) {
+    n.getValues()[pos] = i;
+  }
+
+  @Override
+  public void num_set_float(NumArray n, int pos, double d) {
+    // rounds towards zero like the native library, infinite values are mapped to INF and NEG_INF
+    n.getValues()[pos] = (long) d;
+  }
+
+  @Override
+  public void num_set_inf(NumArray n, int pos) {
+    n.getValues()[pos] = INF;
+  }
+
+  @Override
+  public long num_get_int(NumArray n, int pos) {
+    return n.getValues()[pos];
+  }
+
+  @Override
+  public double num_get_float(NumArray n, int pos) {
+    long value = n.getValues()[pos];
+    if (value == INF) {
+      return Double.POSITIVE_INFINITY;
+    } else if (value == NEG_INF) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    return value;
+  }
+
+  @Override
+  public boolean num_infty(NumArray n, int pos) {
+    long value = n.getValues()[pos];
+    return value == INF || value == NEG_INF;
+  }
+
+  @Override
+  public void num_clear_n(NumArray n, int size) {
+    // memory is managed by the garbage collector
+  }
+
+  @Override
+  public Octagon empty(int n) {
+    return wrap(DifferenceBoundMatrix.empty(n));
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return wrap(DifferenceBoundMatrix.universe(n));
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    // octagons are immutable
+    return oct;
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return oct;
+  }
+
+  @Override
+  public int dimension(Octagon oct) {
+    return oct.getMatrix().getDimension();
+  }
+
+  @Override
+  public int nbconstraints(Octagon oct) {
+    return oct.getMatrix().countConstraints();
+  }
+
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return oct.getMatrix().isEmpty();
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    return toTbool(isEmpty(oct));
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    return oct.getMatrix().isUniverse();
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    return oct1.getMatrix().isIncludedIn(oct2.getMatrix());
+  }
+
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    return toTbool(isIncludedIn(oct1, oct2));
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    return oct1.getMatrix().isEqualTo(oct2.getMatrix());
+  }
+
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return toTbool(isEqual(oct1, oct2));
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    return oct1.getMatrix().contains(array.getValues());
+  }
+
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().intersect(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().join(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().widen(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().narrow(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    return wrap(oct.getMatrix().forget(k));
+  }
+
+  /**
+   * Assigns a linear expression to variable k. The array contains the coefficient
+   * of each variable, followed by the constant.
+   */
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    long[] coefficients = array.getValues();
+    return wrap(oct.getMatrix().assign(k, coefficients, coefficients));
+  }
+
+  /**
+   * Restricts the octagon by binary constraints,
+   * see {@link DifferenceBoundMatrix#addConstraints(long[], int)} for the format of the array.
+   */
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    return wrap(oct.getMatrix().addConstraints(array.getValues(), noOfConstraints));
+  }
+
+  /**
+   * Over-approximates the substitution of variable x by forgetting its value,
+   * which is sound because the other variables are not changed by a substitution.
+   */
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    return forget(oct, x);
+  }
+
+  /**
+   * Over-approximates a general linear constraint by ignoring it.
+   */
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    return oct;
+  }
+
+  /**
+   * Assigns a linear expression with interval coefficients to variable k.
+   * For each variable and the constant, the array contains the upper bound
+   * and the negated lower bound of the coefficient.
+   */
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    long[] values = array.getValues();
+    long[] low = new long[values.length / 2];
+    long[] high = new long[values.length / 2];
+    for (int i = 0; i < low.length; i++) {
+      high[i] = values[2 * i];
+      long negatedLow = values[2 * i + 1];
+      low[i] = negatedLow == INF ? NEG_INF : -negatedLow;
+    }
+    return wrap(oct.getMatrix().assign(k, low, high));
+  }
+
+  /**
+   * Over-approximates the substitution like {@link #substituteVar(Octagon, int, NumArray)}.
+   */
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    return forget(oct, x);
+  }
+
+  /**
+   * Over-approximates the constraint like {@link #addConstraint(Octagon, NumArray)}.
+   */
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    return oct;
+  }
+
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    return wrap(oct.getMatrix().addDimensions(k));
+  }
+
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    return wrap(oct.getMatrix().addDimensionsWithValueZero(k));
+  }
+
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    return wrap(oct.getMatrix().removeDimensions(k));
+  }
+
+  @Override
+  public void printNum(NumArray arr, int size) {
+    logger.log(Level.INFO, Arrays.toString(Arrays.copyOf(arr.getValues(), size)));
+  }
+
+  @Override
+  public void printOct(Octagon oct) {
+    logger.log(Level.INFO, oct.getMatrix());
+  }
+
+  @Override
+  public String print(Octagon oct, BiMap<Integer, MemoryLocation> map) {
+    StringBuilder str = new StringBuilder();
+    str.append("Octagon (dimension: " + dimension(oct) + ")\n");
+    if (isEmpty(oct)) {
+      str.append("[Empty]\n");
+      return str.toString();
+    }
+
+    DifferenceBoundMatrix matrix = oct.getMatrix();
+    for (int i = 0; i < map.size(); i++) {
+      str.append(" ").append(map.get(i)).append(" -> [");
+      long lower = matrix.getLowerBound(i);
+      if (lower == NEG_INF) {
+        str.append("-INFINITY, ");
+      } else {
+        str.append(lower).append(", ");
+      }
+      long upper = matrix.getUpperBound(i);
+      if (upper == INF) {
+        str.append("INFINITY]\n");
+      } else {
+        str.append(upper).append("]\n");
+      }
+    }
+    return str.toString();
+  }
+
+  @Override
+  public OctagonInterval getVariableBounds(Octagon oct, int id) {
+    assert id < dimension(oct);
+    DifferenceBoundMatrix matrix = oct.getMatrix();
+    long lower = matrix.getLowerBound(id);
+    long upper = matrix.getUpperBound(id);
+    boolean lowerInfinite = lower == NEG_INF;
+    boolean upperInfinite = upper == INF;
+
+    if (lowerInfinite && upperInfinite) {
+      return new OctagonInterval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    } else if (lowerInfinite) {
+      return new OctagonInterval(new OctagonDoubleValue(Double.NEGATIVE_INFINITY),
+                                 OctagonIntValue.of(upper));
+    } else if (upperInfinite) {
+      return new OctagonInterval(OctagonIntValue.of(lower),
+                                 new OctagonDoubleValue(Double.POSITIVE_INFINITY));
+    } else {
+      return new OctagonInterval(lower, upper);
+    }
+  }
+}
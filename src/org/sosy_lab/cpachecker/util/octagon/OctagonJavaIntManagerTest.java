@@ -0,0 +1,135 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.octagon;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sosy_lab.common.log.TestLogManager;
+
+
+public class OctagonJavaIntManagerTest {
+
+  static OctagonManager manager;
+
+  @BeforeClass
+  public static void setUpBeforeClass() {
+    manager = new OctagonJavaIntManager(TestLogManager.getInstance());
+  }
+
+  @Test
+  public void testNum_Float() {
+    NumArray num = manager.init_num_t(2);
+    manager.num_set_float(num, 0, 3.3);
+    manager.num_set_inf(num, 1);
+    Assert.assertFalse(manager.num_infty(num, 0));
+    Assert.assertEquals(3, manager.num_get_int(num, 0));
+    Assert.assertTrue(manager.num_infty(num, 1));
+    Assert.assertEquals(Double.POSITIVE_INFINITY, manager.num_get_float(num, 1), 0);
+  }
+
+  /** Adds the constraint type(x, y) <= c. */
+  private Octagon addConstraint(Octagon oct, int type, int x, int y, long c) {
+    NumArray num = manager.init_num_t(4);
+    manager.num_set_int(num, 0, type);
+    manager.num_set_int(num, 1, x);
+    manager.num_set_int(num, 2, y);
+    manager.num_set_int(num, 3, c);
+    return manager.addBinConstraint(oct, 1, num);
+  }
+
+  @Test
+  public void testConstraints() {
+    // 0 <= x <= 10, x - y <= 2
+    Octagon oct = manager.universe(2);
+    oct = addConstraint(oct, 0, 0, 0, 10);
+    oct = addConstraint(oct, 1, 0, 0, 0);
+    oct = addConstraint(oct, 3, 0, 1, 2);
+    Assert.assertFalse(manager.isEmpty(oct));
+    Assert.assertEquals(-2, manager.getVariableBounds(oct, 1).getLow().getValue().longValue());
+    Assert.assertTrue(manager.getVariableBounds(oct, 1).getHigh().isInfinite());
+
+    // y <= -3 contradicts x >= 0
+    Octagon empty = addConstraint(oct, 0, 1, 1, -3);
+    Assert.assertTrue(manager.isEmpty(empty));
+    Assert.assertTrue(manager.isIncludedIn(empty, oct));
+    Assert.assertFalse(manager.isIncludedIn(oct, empty));
+  }
+
+  @Test
+  public void testAssignment() {
+    // 0 <= x <= 10, then y := x + 1 and x := x + 5
+    Octagon oct = manager.universe(2);
+    oct = addConstraint(oct, 0, 0, 0, 10);
+    oct = addConstraint(oct, 1, 0, 0, 0);
+
+    NumArray coefficients = manager.init_num_t(3);
+    manager.num_set_int(coefficients, 0, 1);
+    manager.num_set_int(coefficients, 1, 0);
+    manager.num_set_int(coefficients, 2, 1);
+    oct = manager.assingVar(oct, 1, coefficients);
+    manager.num_set_int(coefficients, 2, 5);
+    oct = manager.assingVar(oct, 0, coefficients);
+
+    Assert.assertEquals(1, manager.getVariableBounds(oct, 1).getLow().getValue().longValue());
+    Assert.assertEquals(11, manager.getVariableBounds(oct, 1).getHigh().getValue().longValue());
+    Assert.assertEquals(15, manager.getVariableBounds(oct, 0).getHigh().getValue().longValue());
+
+    // the relation x - y = 4 is kept
+    Octagon restricted = addConstraint(oct, 0, 1, 1, 3);
+    Assert.assertEquals(7, manager.getVariableBounds(restricted, 0).getHigh().getValue().longValue());
+  }
+
+  @Test
+  public void testWidening() {
+    Octagon first = addConstraint(manager.universe(1), 0, 0, 0, 1);
+    first = addConstraint(first, 1, 0, 0, 0);
+    Octagon second = addConstraint(manager.universe(1), 0, 0, 0, 2);
+    second = addConstraint(second, 1, 0, 0, 0);
+
+    Octagon widened = manager.widening(first, second);
+    Assert.assertTrue(manager.isIncludedIn(second, widened));
+    Assert.assertTrue(manager.getVariableBounds(widened, 0).getHigh().isInfinite());
+    Assert.assertEquals(0, manager.getVariableBounds(widened, 0).getLow().getValue().longValue());
+  }
+
+  @Test
+  public void testOverApproximations() {
+    // 0 <= x <= 10, y = x
+    Octagon oct = manager.universe(2);
+    oct = addConstraint(oct, 0, 0, 0, 10);
+    oct = addConstraint(oct, 1, 0, 0, 0);
+    oct = addConstraint(oct, 3, 0, 1, 0);
+    oct = addConstraint(oct, 4, 0, 1, 0);
+
+    NumArray coefficients = manager.init_num_t(3);
+    Assert.assertTrue(manager.isEqual(oct, manager.addConstraint(oct, coefficients)));
+
+    Octagon substituted = manager.substituteVar(oct, 0, coefficients);
+    Assert.assertTrue(manager.isIncludedIn(oct, substituted));
+    Assert.assertTrue(manager.getVariableBounds(substituted, 0).getHigh().isInfinite());
+    Assert.assertEquals(10, manager.getVariableBounds(substituted, 1).getHigh().getValue().longValue());
+  }
+
+}
@@ -22,6 +22,7 @@
  *    http://cpachecker.sosy-lab.org
  */
 /**
- * Wrapper around libJoct, Antoine Mine pre-APRON octagon library.
+ * Wrapper around libJoct, Antoine Mine pre-APRON octagon library,
+ * and an implementation of integer octagons in Java.
  */
 package org.sosy_lab.cpachecker.util.octagon;
\ No newline at end of file
@@ -34,6 +34,7 @@ import java.util.Set;
 import javax.annotation.Nullable;
 
 import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.cpachecker.core.interfaces.PseudoPartitionable;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 import org.sosy_lab.cpachecker.util.predicates.regions.Region;
@@ -75,17 +76,39 @@ public class AbstractionFormula implements Serializable {
   private final transient BooleanFormulaManager mgr;
   private final transient ImmutableSet<Integer> idsOfStoredAbstractionReused;
 
+  /**
+   * The number and a bloom filter of the literals implied by the region
+   * (cf. {@link AbstractionManager#extractImpliedLiterals(Region)}),
+   * used for pruning coverage checks. If not known, they are
+   * {@link PseudoPartitionable#UNKNOWN_KEY} and {@link PseudoPartitionable#UNKNOWN_SIGNATURE}.
+   */
+  private final transient int impliedLiteralsCount;
+  private final transient long impliedLiteralsSignature;
+
   public AbstractionFormula(
       FormulaManagerView mgr,
       Region pRegion, BooleanFormula pFormula,
       BooleanFormula pInstantiatedFormula, PathFormula pBlockFormula,
       Set<Integer> pIdOfStoredAbstractionReused) {
+    this(mgr, pRegion, pFormula, pInstantiatedFormula, pBlockFormula,
+        pIdOfStoredAbstractionReused,
+        PseudoPartitionable.UNKNOWN_KEY, PseudoPartitionable.UNKNOWN_SIGNATURE);
+  }
+
+  public AbstractionFormula(
+      FormulaManagerView mgr,
+      Region pRegion, BooleanFormula pFormula,
+      BooleanFormula pInstantiatedFormula, PathFormula pBlockFormula,
+      Set<Integer> pIdOfStoredAbstractionReused,
+      int pImpliedLiteralsCount, long pImpliedLiteralsSignature) {
     this.mgr = checkNotNull(mgr.getBooleanFormulaManager());
     this.region = checkNotNull(pRegion);
     this.formula = checkNotNull(pFormula);
     this.instantiatedFormula = checkNotNull(pInstantiatedFormula);
     this.blockFormula = checkNotNull(pBlockFormula);
     this.idsOfStoredAbstractionReused = ImmutableSet.copyOf(pIdOfStoredAbstractionReused);
+    this.impliedLiteralsCount = pImpliedLiteralsCount;
+    this.impliedLiteralsSignature = pImpliedLiteralsSignature;
   }
 
   public boolean isReusedFromStoredAbstraction() {
@@ -130,6 +153,22 @@ public class AbstractionFormula implements Serializable {
     return idsOfStoredAbstractionReused;
   }
 
+  /**
+   * Returns the number of literals implied by the region.
+   * If this abstraction entails another one, the other one has less or equal implied literals.
+   */
+  public int getImpliedLiteralsCount() {
+    return impliedLiteralsCount;
+  }
+
+  /**
+   * Returns a bloom filter of the literals implied by the region.
+   * If this abstraction entails another one, the signature of the other one is a subset.
+   */
+  public long getImpliedLiteralsSignature() {
+    return impliedLiteralsSignature;
+  }
+
   @Override
   public String toString() {
     // we print the formula only when it is small
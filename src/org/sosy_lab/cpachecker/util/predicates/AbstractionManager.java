@@ -27,6 +27,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -38,6 +39,8 @@ import java.util.Random;
 import java.util.Set;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.AbstractMBean;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -457,6 +460,61 @@ public final class AbstractionManager {
     return vars;
   }
 
+  /**
+   * Return the literals that are implied by a region,
+   * i.e., the predicates that have the same value in all models of the region,
+   * together with this value.
+   * If f1 entails f2, the literals implied by f2 are a subset of those implied by f1,
+   * so this is a cheap necessary condition for coverage.
+   *
+   * For the false region, which implies all literals, null is returned.
+   * With {@link SymbolicRegionManager} the predicates are not known
+   * (cf. {@link #extractPredicates(Region)}), and the empty map is returned.
+   */
+  public @Nullable Map<AbstractionPredicate, Boolean> extractImpliedLiterals(Region af) {
+    if (af.isFalse()) {
+      return null;
+    }
+    if (rmgr instanceof SymbolicRegionManager) {
+      return Collections.emptyMap();
+    }
+    return extractImpliedLiterals(af, new HashMap<Region, Map<AbstractionPredicate, Boolean>>());
+  }
+
+  private Map<AbstractionPredicate, Boolean> extractImpliedLiterals(Region n,
+      Map<Region, Map<AbstractionPredicate, Boolean>> cache) {
+    assert !n.isFalse();
+    if (n.isTrue()) {
+      return Collections.emptyMap();
+    }
+    Map<AbstractionPredicate, Boolean> result = cache.get(n);
+    if (result != null) {
+      return result;
+    }
+
+    Triple<Region, Region, Region> parts = rmgr.getIfThenElse(n);
+    AbstractionPredicate pred = absVarToPredicate.get(parts.getFirst());
+    assert pred != null;
+    Region thenRegion = parts.getSecond();
+    Region elseRegion = parts.getThird();
+
+    if (thenRegion.isFalse()) {
+      // ITE(atom, false, m2) <==> (!atom && m2)
+      result = new HashMap<>(extractImpliedLiterals(elseRegion, cache));
+      result.put(pred, false);
+    } else if (elseRegion.isFalse()) {
+      // ITE(atom, m1, false) <==> (atom && m1)
+      result = new HashMap<>(extractImpliedLiterals(thenRegion, cache));
+      result.put(pred, true);
+    } else {
+      // both branches are satisfiable, so only literals implied by both are implied
+      result = new HashMap<>(extractImpliedLiterals(thenRegion, cache));
+      result.entrySet().retainAll(extractImpliedLiterals(elseRegion, cache).entrySet());
+    }
+    cache.put(n, result);
+    return result;
+  }
+
   /**
    * Convert a BooleanFormula (an SMT formula) into a Region (typically a BDD over predicates).
    * Each atom of the BooleanFormula will be one predicate of the Region.
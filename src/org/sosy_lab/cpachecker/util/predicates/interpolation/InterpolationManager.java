@@ -33,19 +33,24 @@ import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -99,7 +104,9 @@ public final class InterpolationManager {
   private final Timer getInterpolantTimer = new Timer();
   private final Timer cexAnalysisGetUsefulBlocksTimer = new Timer();
   private final Timer interpolantVerificationTimer = new Timer();
+  private final Timer parallelCexAnalysisTimer = new Timer();
   private int reusedFormulasOnSolverStack = 0;
+  private int parallelCheckedTraces = 0;
 
   public void printStatistics(StatisticsWriter w0) {
     w0.put("Counterexample analysis", cexAnalysisTimer + " (Max: " + cexAnalysisTimer.getMaxTime().formatAs(TimeUnit.SECONDS) + ", Calls: " + cexAnalysisTimer.getNumberOfIntervals() + ")");
@@ -115,6 +122,9 @@ public final class InterpolationManager {
     if (interpolantVerificationTimer.getNumberOfIntervals() > 0) {
       w1.put("Interpolant verification", interpolantVerificationTimer);
     }
+    if (parallelCexAnalysisTimer.getNumberOfIntervals() > 0) {
+      w0.put("Parallel counterexample analysis", parallelCexAnalysisTimer + " (Traces: " + parallelCheckedTraces + ")");
+    }
   }
 
 
@@ -122,7 +132,7 @@ public final class InterpolationManager {
   private final ShutdownNotifier shutdownNotifier;
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManagerView bfmgr;
-  private final PathFormulaManager pmgr;
+  private final @Nullable PathFormulaManager pmgr; // null for workers
   private final Solver solver;
 
   private final Interpolator<?> interpolator;
@@ -176,12 +186,24 @@ public final class InterpolationManager {
   @Option(secure=true, description="Use a single SMT solver environment for several interpolation queries")
   private boolean reuseInterpolationEnvironment = false;
 
+  @Option(secure=true, description="number of additional SMT solver instances that are used "
+      + "for checking and interpolating several counterexamples in parallel "
+      + "(0 to handle all counterexamples with the main solver)")
+  @IntegerOption(min=0)
+  private int parallelSolvers = 0;
+
   private final ExecutorService executor;
+
+  // separate instances with their own solver, created on first use if parallelSolvers > 0
+  private final Configuration workerConfig;
+  private @Nullable ExecutorService parallelExecutor = null;
+  private @Nullable BlockingQueue<InterpolationManager> idleWorkers = null;
+  private final List<Solver> workerSolvers = new ArrayList<>();
   private final LoopStructure loopStructure;
   private final VariableClassification variableClassification;
 
   public InterpolationManager(
-      PathFormulaManager pPmgr,
+      @Nullable PathFormulaManager pPmgr,
       Solver pSolver,
       Optional<LoopStructure> pLoopStructure,
       Optional<VariableClassification> pVarClassification,
@@ -202,7 +224,7 @@ public final class InterpolationManager {
     if (itpTimeLimit.isEmpty()) {
       executor = null;
     } else {
-      // important to use daemon threads here, because we never have the chance to stop the executor
+      // important to use daemon threads here, because close() is not called in all use cases
       executor = Executors.newSingleThreadExecutor(Threads.threadFactoryBuilder().setDaemon(true).build());
     }
 
@@ -211,6 +233,87 @@ public final class InterpolationManager {
     } else {
       interpolator = null;
     }
+
+    // The workers must not create workers themselves.
+    workerConfig = Configuration.builder()
+        .copyFrom(config)
+        .setOption("cpa.predicate.refinement.parallelSolvers", "0")
+        .build();
+  }
+
+  /**
+   * Create the workers for {@link #interpolateTraces(List, List)} if not done yet.
+   * @return whether workers are available
+   */
+  private boolean startWorkers() {
+    if (parallelExecutor != null) {
+      return true;
+    }
+
+    BlockingQueue<InterpolationManager> workers = new LinkedBlockingQueue<>();
+    try {
+      for (int i = 0; i < parallelSolvers; i++) {
+        Solver workerSolver = Solver.create(workerConfig, logger, shutdownNotifier);
+        workerSolvers.add(workerSolver);
+        // The workers never compute error paths, so they do not get a PathFormulaManager
+        // (the one of this instance is not thread-safe and its formulas belong to the main solver).
+        workers.add(new InterpolationManager(
+            null,
+            workerSolver,
+            Optional.fromNullable(loopStructure),
+            Optional.fromNullable(variableClassification),
+            workerConfig,
+            shutdownNotifier,
+            logger));
+      }
+    } catch (InvalidConfigurationException e) {
+      logger.logUserException(Level.WARNING, e,
+          "Could not create parallel solvers, counterexamples are analyzed sequentially");
+      closeWorkerSolvers();
+      parallelSolvers = 0;
+      return false;
+    }
+
+    idleWorkers = workers;
+    // daemon threads as for the executor above
+    parallelExecutor = Executors.newFixedThreadPool(parallelSolvers,
+        Threads.threadFactoryBuilder().setNameFormat("Interpolation worker %d").setDaemon(true).build());
+    return true;
+  }
+
+  private void closeWorkerSolvers() {
+    for (Solver workerSolver : workerSolvers) {
+      workerSolver.close();
+    }
+    workerSolvers.clear();
+  }
+
+  /**
+   * Stop the threads and close the additional solvers of this instance.
+   * The solver that was given to the constructor is not closed.
+   */
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    if (parallelExecutor != null) {
+      parallelExecutor.shutdownNow();
+      boolean terminated = false;
+      try {
+        terminated = parallelExecutor.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (terminated) {
+        for (InterpolationManager worker : idleWorkers) {
+          worker.close();
+        }
+        closeWorkerSolvers();
+      } else {
+        // closing a solver that is still in use could crash the JVM
+        logger.log(Level.WARNING, "Parallel solvers did not terminate, not closing them.");
+      }
+    }
   }
 
   /**
@@ -278,6 +381,163 @@ public final class InterpolationManager {
             pFormulas, Collections.<AbstractState>emptyList(), Collections.<ARGState>emptySet(), true);
   }
 
+  /**
+   * Check several counterexamples for feasibility and compute interpolants
+   * for those that are infeasible.
+   * If {@link #parallelSolvers} is set, the counterexamples are handled in parallel,
+   * each one on a separate solver instance
+   * (the formulas are transferred between the solvers in SMT-LIB format).
+   * In contrast to {@link #buildCounterexampleTrace(List, List, Set, boolean)},
+   * no information about feasible counterexamples is computed.
+   *
+   * @param pTraces the formulas for each path
+   * @param pAbstractionStates the abstraction states for each path,
+   *                           as for {@link #buildCounterexampleTrace(List, List, Set, boolean)}
+   * @return for each path the list of interpolants, or {@link Optional#absent()}
+   *         if the path is feasible or the solver failed on it
+   */
+  public List<Optional<List<BooleanFormula>>> interpolateTraces(
+      final List<List<BooleanFormula>> pTraces,
+      final List<List<AbstractState>> pAbstractionStates) throws InterruptedException {
+
+    assert pTraces.size() == pAbstractionStates.size();
+
+    parallelCexAnalysisTimer.start();
+    try {
+      parallelCheckedTraces += pTraces.size();
+
+      List<Optional<List<BooleanFormula>>> result = new ArrayList<>(pTraces.size());
+
+      if (parallelSolvers == 0 || !startWorkers()) {
+        for (int i = 0; i < pTraces.size(); i++) {
+          try {
+            result.add(interpolateIfInfeasible(pTraces.get(i), pAbstractionStates.get(i)));
+          } catch (SolverException e) {
+            logger.logUserException(Level.FINEST, e, "Interpolation of counterexample failed");
+            result.add(Optional.<List<BooleanFormula>>absent());
+          }
+        }
+        return result;
+      }
+
+      List<Future<Optional<List<String>>>> futures = new ArrayList<>(pTraces.size());
+      try {
+        for (int i = 0; i < pTraces.size(); i++) {
+          // Formulas of this solver may only be accessed from this thread,
+          // so we dump them here and let the workers parse them.
+          final List<String> dumpedTrace = new ArrayList<>(pTraces.get(i).size());
+          for (BooleanFormula f : pTraces.get(i)) {
+            dumpedTrace.add(fmgr.dumpFormula(f).toString());
+          }
+          final List<AbstractState> abstractionStates = pAbstractionStates.get(i);
+
+          futures.add(parallelExecutor.submit(new Callable<Optional<List<String>>>() {
+            @Override
+            public Optional<List<String>> call() throws SolverException, InterruptedException {
+              InterpolationManager worker = idleWorkers.take();
+              try {
+                return worker.interpolateDumpedTrace(dumpedTrace, abstractionStates);
+              } finally {
+                idleWorkers.add(worker);
+              }
+            }
+          }));
+        }
+
+        for (Future<Optional<List<String>>> future : futures) {
+          result.add(parseInterpolants(getWorkerResult(future)));
+        }
+        return result;
+
+      } finally {
+        for (Future<Optional<List<String>>> future : futures) {
+          future.cancel(true);
+        }
+      }
+
+    } finally {
+      parallelCexAnalysisTimer.stop();
+    }
+  }
+
+  private Optional<List<String>> getWorkerResult(Future<Optional<List<String>>> future)
+      throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      if (t instanceof SolverException || t instanceof IllegalArgumentException) {
+        // IllegalArgumentException is thrown if a formula could not be parsed
+        logger.logUserException(Level.FINEST, t, "Interpolation of counterexample failed");
+        return Optional.absent();
+      }
+      Throwables.propagateIfPossible(t, InterruptedException.class);
+      throw new UnexpectedCheckedException("interpolation", t);
+    }
+  }
+
+  private Optional<List<BooleanFormula>> parseInterpolants(Optional<List<String>> pDumpedInterpolants) {
+    if (!pDumpedInterpolants.isPresent()) {
+      return Optional.absent();
+    }
+    List<BooleanFormula> interpolants = new ArrayList<>(pDumpedInterpolants.get().size());
+    try {
+      for (String itp : pDumpedInterpolants.get()) {
+        interpolants.add(fmgr.parse(itp));
+      }
+    } catch (IllegalArgumentException e) {
+      logger.logUserException(Level.FINEST, e, "Could not read interpolants of parallel solver");
+      return Optional.absent();
+    }
+    return Optional.of(interpolants);
+  }
+
+  /**
+   * Worker part of {@link #interpolateTraces(List, List)}:
+   * parse the formulas into this instance's solver and return the dumped interpolants.
+   */
+  private Optional<List<String>> interpolateDumpedTrace(
+      List<String> pDumpedTrace, List<AbstractState> pAbstractionStates)
+      throws SolverException, InterruptedException {
+    List<BooleanFormula> f = new ArrayList<>(pDumpedTrace.size());
+    for (String formula : pDumpedTrace) {
+      f.add(fmgr.parse(formula));
+    }
+
+    cexAnalysisTimer.start();
+    try {
+      Optional<List<BooleanFormula>> interpolants = interpolateIfInfeasible(f, pAbstractionStates);
+      if (!interpolants.isPresent()) {
+        return Optional.absent();
+      }
+
+      List<String> result = new ArrayList<>(interpolants.get().size());
+      for (BooleanFormula itp : interpolants.get()) {
+        result.add(fmgr.dumpFormula(itp).toString());
+      }
+      return Optional.of(result);
+    } finally {
+      cexAnalysisTimer.stop();
+    }
+  }
+
+  private Optional<List<BooleanFormula>> interpolateIfInfeasible(
+      List<BooleanFormula> pFormulas, List<AbstractState> pAbstractionStates)
+      throws SolverException, InterruptedException {
+    List<BooleanFormula> f = new ArrayList<>(pFormulas);
+    if (fmgr.useBitwiseAxioms()) {
+      addBitwiseAxioms(f);
+    }
+    f = Collections.unmodifiableList(f);
+
+    Interpolator<?> currentInterpolator = new Interpolator<>();
+    try {
+      return currentInterpolator.interpolateIfInfeasible(f, pAbstractionStates);
+    } finally {
+      currentInterpolator.close();
+    }
+  }
+
   private CounterexampleTraceInfo buildCounterexampleTrace0(
       final List<BooleanFormula> pFormulas,
       final List<AbstractState> pAbstractionStates,
@@ -583,6 +843,7 @@ public final class InterpolationManager {
     // get the branchingFormula
     // this formula contains predicates for all branches we took
     // this way we can figure out which branches make a feasible path
+    checkNotNull(pmgr, "workers do not compute error paths");
     BooleanFormula branchingFormula = pmgr.buildBranchingFormula(elementsOnPath);
 
     if (bfmgr.isTrue(branchingFormula)) {
@@ -685,6 +946,52 @@ public final class InterpolationManager {
         boolean computeInterpolants)
         throws SolverException, CPATransferException, InterruptedException {
 
+      List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds =
+          new ArrayList<>(f.size());
+      boolean spurious = checkTrace(f, pAbstractionStates, formulasWithStatesAndGroupdIds);
+
+      // Get either interpolants or error path information
+      CounterexampleTraceInfo info;
+      if (spurious) {
+
+        if (computeInterpolants) {
+          final List<BooleanFormula> interpolants = getInterpolants(this, formulasWithStatesAndGroupdIds);
+          if (logger.wouldBeLogged(Level.ALL)) {
+            int i = 1;
+            for (BooleanFormula itp : interpolants) {
+              logger.log(Level.ALL, "For step", i++, "got:", "interpolant", itp);
+            }
+          }
+
+          info = CounterexampleTraceInfo.infeasible(interpolants);
+        } else {
+          info = CounterexampleTraceInfo.infeasibleNoItp();
+        }
+
+      } else {
+        // this is a real bug
+        info = getErrorPath(f, itpProver, elementsOnPath);
+      }
+
+      logger.log(Level.ALL, "Counterexample information:", info);
+
+      return info;
+    }
+
+    /**
+     * Check the feasibility of a counterexample.
+     * @param f the formulas for the path
+     * @param formulasWithStatesAndGroupdIds An empty list that is filled with the formulas,
+     *        their abstraction states, and their interpolation groups.
+     * @return True if the counterexample is infeasible.
+     */
+    private boolean checkTrace(
+        List<BooleanFormula> f,
+        List<AbstractState> pAbstractionStates,
+        List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds)
+        throws SolverException, InterruptedException {
+      assert formulasWithStatesAndGroupdIds.isEmpty();
+
       // Check feasibility of counterexample
       logger.log(Level.FINEST, "Checking feasibility of counterexample trace");
       satCheckTimer.start();
@@ -703,7 +1010,6 @@ public final class InterpolationManager {
        *      Depending on different directions, different interpolants
        *      might be computed from the solver's proof for unsatisfiability.
        */
-      List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds;
       List<Triple<BooleanFormula, AbstractState, Integer>> orderedFormulas;
 
       if (pAbstractionStates.isEmpty()) {
@@ -726,7 +1032,7 @@ public final class InterpolationManager {
         assert orderedFormulas.size() == f.size();
 
         // initialize all interpolation group ids with "null"
-        formulasWithStatesAndGroupdIds = new ArrayList<>(Collections.<Triple<BooleanFormula, AbstractState, T>>nCopies(f.size(), null));
+        formulasWithStatesAndGroupdIds.addAll(Collections.<Triple<BooleanFormula, AbstractState, T>>nCopies(f.size(), null));
 
         // ask solver for satisfiability
         spurious = checkInfeasabilityOfTrace(orderedFormulas, formulasWithStatesAndGroupdIds);
@@ -739,33 +1045,23 @@ public final class InterpolationManager {
 
       logger.log(Level.FINEST, "Counterexample trace is", (spurious ? "infeasible" : "feasible"));
 
+      return spurious;
+    }
 
-      // Get either interpolants or error path information
-      CounterexampleTraceInfo info;
-      if (spurious) {
-
-        if (computeInterpolants) {
-          final List<BooleanFormula> interpolants = getInterpolants(this, formulasWithStatesAndGroupdIds);
-          if (logger.wouldBeLogged(Level.ALL)) {
-            int i = 1;
-            for (BooleanFormula itp : interpolants) {
-              logger.log(Level.ALL, "For step", i++, "got:", "interpolant", itp);
-            }
-          }
-
-          info = CounterexampleTraceInfo.infeasible(interpolants);
-        } else {
-          info = CounterexampleTraceInfo.infeasibleNoItp();
-        }
-
-      } else {
-        // this is a real bug
-        info = getErrorPath(f, itpProver, elementsOnPath);
+    /**
+     * Check the feasibility of a counterexample and compute interpolants if it is infeasible.
+     * @param f the formulas for the path
+     * @return the interpolants, or {@link Optional#absent()} if the counterexample is feasible
+     */
+    private Optional<List<BooleanFormula>> interpolateIfInfeasible(
+        List<BooleanFormula> f, List<AbstractState> pAbstractionStates)
+        throws SolverException, InterruptedException {
+      List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds =
+          new ArrayList<>(f.size());
+      if (!checkTrace(f, pAbstractionStates, formulasWithStatesAndGroupdIds)) {
+        return Optional.absent();
       }
-
-      logger.log(Level.ALL, "Counterexample information:", info);
-
-      return info;
+      return Optional.of(getInterpolants(this, formulasWithStatesAndGroupdIds));
     }
 
     /**
@@ -23,10 +23,16 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.pathformula;
 
-import java.util.HashMap;
+import java.io.PrintStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -38,49 +44,109 @@ import org.sosy_lab.solver.api.BooleanFormula;
 import org.sosy_lab.solver.api.Formula;
 import org.sosy_lab.solver.api.Model.ValueAssignment;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
 /**
  * Implementation of {@link PathFormulaManager} that delegates to another
  * instance but caches results of some methods.
+ *
+ * The caches are thread-safe and can optionally be bounded.
+ * The delegate needs to be thread-safe, too, if an instance is used concurrently.
  */
+@Options(prefix="cpa.predicate.pathFormulaCache")
 public class CachingPathFormulaManager implements PathFormulaManager {
 
+  @Option(secure=true, name="maxSize",
+      description="Maximum number of entries in each cache of path formulas "
+      + "(-1 for unbounded). If the limit is reached, the least-recently used entries are evicted.")
+  @IntegerOption(min=-1)
+  private long maxSize = -1;
+
+  @Option(secure=true, name="softReferences",
+      description="Reference the cached path formulas with soft references, "
+      + "such that the garbage collector may evict them if memory gets low.")
+  private boolean softReferences = false;
+
+  /**
+   * Measures the time during which at least one path formula is computed.
+   * Guarded by itself.
+   */
   public final Timer pathFormulaComputationTimer = new Timer();
-  public int pathFormulaCacheHits = 0;
+  private int runningComputations = 0;
+
+  private final AtomicInteger pathFormulaCacheHits = new AtomicInteger();
+  private final AtomicInteger pathFormulaCacheMisses = new AtomicInteger();
 
   public final PathFormulaManager delegate;
 
-  private final Map<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache
-            = new HashMap<>();
-  private final Map<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache
-            = new HashMap<>();
+  private final Cache<Pair<CFAEdge, PathFormula>, Pair<PathFormula, ErrorConditions>> andFormulaWithConditionsCache;
+  private final Cache<Pair<CFAEdge, PathFormula>, PathFormula> andFormulaCache;
 
-  private final Map<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache
-            = new HashMap<>();
+  private final Cache<Pair<PathFormula, PathFormula>, PathFormula> orFormulaCache;
 
-  private final Map<PathFormula, PathFormula> emptyFormulaCache
-            = new HashMap<>();
+  private final Cache<PathFormula, PathFormula> emptyFormulaCache;
 
   private final PathFormula emptyFormula;
 
-  public CachingPathFormulaManager(PathFormulaManager pDelegate) {
+  public CachingPathFormulaManager(Configuration pConfig, PathFormulaManager pDelegate)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
     delegate = pDelegate;
     emptyFormula = delegate.makeEmptyPathFormula();
+
+    andFormulaWithConditionsCache = createCache();
+    andFormulaCache = createCache();
+    orFormulaCache = createCache();
+    emptyFormulaCache = createCache();
+  }
+
+  private <K, V> Cache<K, V> createCache() {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+    if (maxSize >= 0) {
+      builder.maximumSize(maxSize);
+    }
+    if (softReferences) {
+      builder.softValues();
+    }
+    return builder.build();
+  }
+
+  private void startComputation() {
+    synchronized (pathFormulaComputationTimer) {
+      if (runningComputations++ == 0) {
+        pathFormulaComputationTimer.start();
+      }
+    }
+  }
+
+  private void stopComputation() {
+    synchronized (pathFormulaComputationTimer) {
+      if (--runningComputations == 0) {
+        pathFormulaComputationTimer.stop();
+      }
+    }
   }
 
   @Override
   public Pair<PathFormula, ErrorConditions> makeAndWithErrorConditions(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
 
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
-    Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.get(formulaCacheKey);
+    Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.getIfPresent(formulaCacheKey);
     if (result == null) {
-      pathFormulaComputationTimer.start();
-      // compute new pathFormula with the operation on the edge
-      result = delegate.makeAndWithErrorConditions(pOldFormula, pEdge);
-      pathFormulaComputationTimer.stop();
+      pathFormulaCacheMisses.incrementAndGet();
+      startComputation();
+      try {
+        // compute new pathFormula with the operation on the edge
+        result = delegate.makeAndWithErrorConditions(pOldFormula, pEdge);
+      } finally {
+        stopComputation();
+      }
       andFormulaWithConditionsCache.put(formulaCacheKey, result);
 
     } else {
-      pathFormulaCacheHits++;
+      pathFormulaCacheHits.incrementAndGet();
     }
     return result;
   }
@@ -88,16 +154,20 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   @Override
   public PathFormula makeAnd(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
-    PathFormula result = andFormulaCache.get(formulaCacheKey);
+    PathFormula result = andFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
-      pathFormulaComputationTimer.start();
-      // compute new pathFormula with the operation on the edge
-      result = delegate.makeAnd(pOldFormula, pEdge);
-      pathFormulaComputationTimer.stop();
+      pathFormulaCacheMisses.incrementAndGet();
+      startComputation();
+      try {
+        // compute new pathFormula with the operation on the edge
+        result = delegate.makeAnd(pOldFormula, pEdge);
+      } finally {
+        stopComputation();
+      }
       andFormulaCache.put(formulaCacheKey, result);
 
     } else {
-      pathFormulaCacheHits++;
+      pathFormulaCacheHits.incrementAndGet();
     }
     return result;
   }
@@ -106,17 +176,19 @@ public class CachingPathFormulaManager implements PathFormulaManager {
   public PathFormula makeOr(PathFormula pF1, PathFormula pF2) throws InterruptedException {
     final Pair<PathFormula, PathFormula> formulaCacheKey = Pair.of(pF1, pF2);
 
-    PathFormula result = orFormulaCache.get(formulaCacheKey);
+    PathFormula result = orFormulaCache.getIfPresent(formulaCacheKey);
     if (result == null) {
-      // try again with other order
-      result = orFormulaCache.get(Pair.of(pF2, pF1));
+      // try again with other order,
+      // bypassing the cache statistics to not count this lookup twice
+      result = orFormulaCache.asMap().get(Pair.of(pF2, pF1));
     }
 
     if (result == null) {
+      pathFormulaCacheMisses.incrementAndGet();
       result = delegate.makeOr(pF1, pF2);
       orFormulaCache.put(formulaCacheKey, result);
     } else {
-      pathFormulaCacheHits++;
+      pathFormulaCacheHits.incrementAndGet();
     }
     return result;
   }
@@ -131,12 +203,13 @@ public class CachingPathFormulaManager implements PathFormulaManager {
     if (pOldFormula.getFormula() == null) {
       return delegate.makeEmptyPathFormula(pOldFormula);
     }
-    PathFormula result = emptyFormulaCache.get(pOldFormula);
+    PathFormula result = emptyFormulaCache.getIfPresent(pOldFormula);
     if (result == null) {
+      pathFormulaCacheMisses.incrementAndGet();
       result = delegate.makeEmptyPathFormula(pOldFormula);
       emptyFormulaCache.put(pOldFormula, result);
     } else {
-      pathFormulaCacheHits++;
+      pathFormulaCacheHits.incrementAndGet();
     }
     return result;
   }
@@ -178,4 +251,28 @@ public class CachingPathFormulaManager implements PathFormulaManager {
     return delegate.buildImplicationTestAsUnsat(pF1, pF2);
   }
 
+  public int getNumberOfCacheHits() {
+    return pathFormulaCacheHits.get();
+  }
+
+  public int getNumberOfCacheMisses() {
+    return pathFormulaCacheMisses.get();
+  }
+
+  public void printCacheStatistics(PrintStream out) {
+    printCacheStatistics(out, "makeAnd", andFormulaCache);
+    printCacheStatistics(out, "makeAnd with error conditions", andFormulaWithConditionsCache);
+    printCacheStatistics(out, "makeOr", orFormulaCache);
+    printCacheStatistics(out, "makeEmptyPathFormula", emptyFormulaCache);
+  }
+
+  private static void printCacheStatistics(PrintStream out, String name, Cache<?, ?> cache) {
+    CacheStats cacheStats = cache.stats();
+    if (cacheStats.requestCount() == 0) {
+      return;
+    }
+    out.println("  Path formula cache for " + name + ": " + cache.size() + " entries, "
+        + cacheStats.hitCount() + " hits, " + cacheStats.missCount() + " misses, "
+        + cacheStats.evictionCount() + " evictions");
+  }
 }
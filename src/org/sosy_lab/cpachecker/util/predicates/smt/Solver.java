@@ -25,10 +25,14 @@ package org.sosy_lab.cpachecker.util.predicates.smt;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Verify;
-import com.google.common.collect.Maps;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -50,9 +54,11 @@ import org.sosy_lab.solver.api.OptimizationProverEnvironment;
 import org.sosy_lab.solver.api.ProverEnvironment;
 import org.sosy_lab.solver.api.SolverContext;
 import org.sosy_lab.solver.api.SolverContext.ProverOptions;
+import org.sosy_lab.solver.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.solver.visitors.TraversalProcess;
 
+import java.io.PrintStream;
 import java.util.List;
-import java.util.Map;
 
 import javax.annotation.Nullable;
 
@@ -87,6 +93,28 @@ public final class Solver implements AutoCloseable {
   @SuppressFBWarnings(value = "RCN_REDUNDANT_NULLCHECK_OF_NULL_VALUE")
   private @Nullable Solvers interpolationSolver = null;
 
+  @Option(secure=true, name="unsatCache.maxSize",
+      description="Maximum number of formulas in the cache for satisfiability checks "
+      + "(-1 for unbounded, 0 for disabling the cache). "
+      + "If the limit is reached, the least-recently used entries are evicted.")
+  @IntegerOption(min=-1)
+  private long unsatCacheMaxSize = -1;
+
+  @Option(secure=true, name="unsatCache.maxFormulaSize",
+      description="Maximum total size (in DAG nodes) of all formulas in the cache "
+      + "for satisfiability checks (-1 for unbounded). "
+      + "If the limit is reached, the least-recently used entries are evicted. "
+      + "Computing formula sizes requires a traversal of each cached formula. "
+      + "Cannot be combined with solver.unsatCache.maxSize.")
+  @IntegerOption(min=-1)
+  private long unsatCacheMaxFormulaSize = -1;
+
+  @Option(secure=true, name="unsatCache.softReferences",
+      description="Reference the results in the cache for satisfiability checks "
+      + "with soft references, such that the garbage collector may evict them "
+      + "if memory gets low.")
+  private boolean unsatCacheSoftReferences = false;
+
   private final UFCheckingProverOptions ufCheckingProverOptions;
 
   private final FormulaManagerView fmgr;
@@ -95,7 +123,14 @@ public final class Solver implements AutoCloseable {
   private final SolverContext solvingContext;
   private final SolverContext interpolatingContext;
 
-  private final Map<BooleanFormula, Boolean> unsatCache = Maps.newHashMap();
+  /**
+   * Rough estimate of the memory (in bytes) used by the cache itself for one entry
+   * (cache entry, reference objects, and result object),
+   * without the formula, which is shared with the rest of the analysis.
+   */
+  private static final int ESTIMATED_BYTES_PER_UNSAT_CACHE_ENTRY = 96;
+
+  private final Cache<BooleanFormula, CachedResult> unsatCache;
 
   private final LogManager logger;
 
@@ -105,6 +140,23 @@ public final class Solver implements AutoCloseable {
   public int trivialSatChecks = 0;
   public int cachedSatChecks = 0;
 
+  /**
+   * Value object for {@link #unsatCache}.
+   * Each entry needs a separate instance (instead of the canonical Boolean objects)
+   * such that soft references to it can be collected.
+   */
+  private static final class CachedResult {
+    private final boolean isUnsat;
+
+    /** Size of the formula, only computed if the cache is bounded by formula size. */
+    private final int formulaSize;
+
+    private CachedResult(boolean pIsUnsat, int pFormulaSize) {
+      isUnsat = pIsUnsat;
+      formulaSize = pFormulaSize;
+    }
+  }
+
   /**
    * Please use {@link #create(Configuration, LogManager, ShutdownNotifier)} in normal code.
    * This constructor is primarily for test code.
@@ -145,6 +197,53 @@ public final class Solver implements AutoCloseable {
     } else {
       ufCheckingProverOptions = null;
     }
+
+    unsatCache = createUnsatCache();
+  }
+
+  private Cache<BooleanFormula, CachedResult> createUnsatCache()
+      throws InvalidConfigurationException {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+
+    if (unsatCacheMaxSize >= 0 && unsatCacheMaxFormulaSize >= 0) {
+      throw new InvalidConfigurationException(
+          "Options solver.unsatCache.maxSize and solver.unsatCache.maxFormulaSize "
+          + "cannot be used at the same time.");
+    }
+    if (unsatCacheMaxSize >= 0) {
+      builder.maximumSize(unsatCacheMaxSize);
+    }
+    if (unsatCacheSoftReferences) {
+      builder.softValues();
+    }
+
+    if (unsatCacheMaxFormulaSize >= 0) {
+      return builder
+          .maximumWeight(unsatCacheMaxFormulaSize)
+          .weigher(new Weigher<BooleanFormula, CachedResult>() {
+                @Override
+                public int weigh(BooleanFormula pFormula, CachedResult pResult) {
+                  return pResult.formulaSize;
+                }
+              })
+          .build();
+    }
+    return builder.build();
+  }
+
+  /**
+   * Compute the size of a formula as the number of nodes in its DAG.
+   */
+  private int getFormulaSize(Formula pFormula) {
+    final int[] size = {0};
+    fmgr.visitRecursively(new DefaultFormulaVisitor<TraversalProcess>() {
+      @Override
+      protected TraversalProcess visitDefault(Formula f) {
+        size[0]++;
+        return TraversalProcess.CONTINUE;
+      }
+    }, pFormula);
+    return size[0];
   }
 
   /**
@@ -250,17 +349,17 @@ public final class Solver implements AutoCloseable {
       trivialSatChecks++;
       return true;
     }
-    Boolean result = unsatCache.get(f);
-    if (result != null) {
+    CachedResult cachedResult = unsatCache.getIfPresent(f);
+    if (cachedResult != null) {
       cachedSatChecks++;
-      return result;
+      return cachedResult.isUnsat;
     }
 
     solverTime.start();
     try {
-      result = isUnsatUncached(f);
+      boolean result = isUnsatUncached(f);
 
-      unsatCache.put(f, result);
+      unsatCache.put(f, newCachedResult(f, result));
       return result;
 
     } finally {
@@ -363,7 +462,7 @@ public final class Solver implements AutoCloseable {
    * @param unsat An unsatisfiable formula.
    */
   public void addUnsatisfiableFormulaToCache(BooleanFormula unsat) {
-    if (unsatCache.containsKey(unsat) || bfmgr.isFalse(unsat)) {
+    if (unsatCache.asMap().containsKey(unsat) || bfmgr.isFalse(unsat)) {
       return;
     }
     try {
@@ -374,6 +473,33 @@ public final class Solver implements AutoCloseable {
       Thread.currentThread().interrupt();
     }
 
-    unsatCache.put(unsat, true);
+    unsatCache.put(unsat, newCachedResult(unsat, true));
+  }
+
+  private CachedResult newCachedResult(BooleanFormula f, boolean isUnsat) {
+    int size = unsatCacheMaxFormulaSize >= 0 ? getFormulaSize(f) : 0;
+    return new CachedResult(isUnsat, size);
+  }
+
+  /**
+   * Print statistics about the cache for satisfiability checks.
+   * The number of cache hits is also available as {@link #cachedSatChecks}.
+   */
+  public void printUnsatCacheStatistics(PrintStream out) {
+    CacheStats cacheStats = unsatCache.stats();
+    long size = unsatCache.size();
+    out.println("Size of SMT sat-check cache:       " + size);
+    out.println("  hits / misses:                   " + cacheStats.hitCount() + " / " + cacheStats.missCount()
+        + " (hit rate " + String.format("%.0f", cacheStats.hitRate() * 100) + "%)");
+    out.println("  evictions:                       " + cacheStats.evictionCount());
+    if (unsatCacheMaxFormulaSize >= 0) {
+      long formulaSize = 0;
+      for (CachedResult result : unsatCache.asMap().values()) {
+        formulaSize += result.formulaSize;
+      }
+      out.println("  total formula size (DAG nodes):  " + formulaSize);
+    }
+    out.println("  estimated memory of cache:       "
+        + (size * ESTIMATED_BYTES_PER_UNSAT_CACHE_ENTRY / 1024) + " KB");
   }
 }
@@ -43,6 +43,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGPath;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath.ARGPathBuilder;
 import org.sosy_lab.cpachecker.cpa.arg.ARGPath.PathIterator;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisStateFactory;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisInterpolant;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.UseDefBasedInterpolator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
@@ -64,6 +65,7 @@ public class GenericPrefixProvider<S extends ForgetfulState<?>> implements Prefi
   private final VariableTrackingPrecision precision;
   private final CFA cfa;
   private final S initialState;
+  private final ValueAnalysisStateFactory valueStateFactory;
 
   /**
    * This method acts as the constructor of the class.
@@ -85,6 +87,7 @@ public class GenericPrefixProvider<S extends ForgetfulState<?>> implements Prefi
     strongestPost = pStrongestPost;
     initialState = pEmptyState;
     precision = VariableTrackingPrecision.createStaticPrecision(config, cfa.getVarClassification(), pCpaToRefine);
+    valueStateFactory = ValueAnalysisStateFactory.fromConfiguration(config);
   }
 
   /**
@@ -197,7 +200,8 @@ public class GenericPrefixProvider<S extends ForgetfulState<?>> implements Prefi
     List<Pair<ARGState, ValueAnalysisInterpolant>> interpolants = new UseDefBasedInterpolator(
         infeasiblePrefix,
         useDefRelation,
-        cfa.getMachineModel()).obtainInterpolants();
+        cfa.getMachineModel(),
+        valueStateFactory).obtainInterpolants();
 
     return InfeasiblePrefix.buildForValueDomain(infeasiblePrefix,
         FluentIterable.from(interpolants).transform(Pair.<ValueAnalysisInterpolant>getProjectionToSecond()).toList());
@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.Serializable;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentMap;
@@ -35,6 +36,8 @@ import org.sosy_lab.common.collect.PersistentMap;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Ordering;
 
 /**
@@ -47,6 +50,20 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
   private final String identifier;
   private final Optional<Long> offset;
 
+  private transient int hashCode = 0; // cache, 0 if not yet computed
+
+  // Ids of memory locations, used as keys by PersistentMemoryLocationMap.
+  // The id is stored in the canonical instance of all equal memory locations,
+  // which is interned weakly and kept alive by every instance that uses its id.
+  // Thus equal memory locations have the same id, and locations that are not used
+  // anymore are released. Ids start with 1.
+  private static final Interner<MemoryLocation> canonicalInstances = Interners.newWeakInterner();
+  private static final AtomicInteger lastId = new AtomicInteger(0);
+
+  private transient int id = 0; // cache, 0 if not yet interned
+  @SuppressWarnings("unused") // only referenced to keep the canonical instance alive
+  private transient MemoryLocation canonicalInstance = null; // null if not yet interned
+
   /**
    * This function can be used to {@link com.google.common.collect.Iterables#transform transform}
    * a collection of {@link String}s to a collection of {@link MemoryLocation}s, representing the
@@ -112,7 +129,16 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int hashCode() {
+    // memory locations are used as keys in many maps, thus we cache the hash code
+    int hc = hashCode;
+    if (hc == 0) {
+      hc = computeHashCode();
+      hashCode = hc;
+    }
+    return hc;
+  }
 
+  private int computeHashCode() {
     int hc = 17;
     int hashMultiplier = 59;
 
@@ -123,6 +149,29 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     return hc;
   }
 
+  /**
+   * Returns a positive id that is the same for all equal memory locations
+   * that exist at the same time.
+   * The id is released when no memory location with this id is reachable anymore.
+   */
+  int getId() {
+    int result = id;
+    if (result == 0) {
+      MemoryLocation canonical = canonicalInstances.intern(this);
+      canonicalInstance = canonical; // keeps the canonical instance and thus the id alive
+      result = canonical.getOrAssignOwnId();
+      id = result;
+    }
+    return result;
+  }
+
+  private synchronized int getOrAssignOwnId() {
+    if (id == 0) {
+      id = lastId.incrementAndGet();
+    }
+    return id;
+  }
+
   public static MemoryLocation valueOf(String pFunctionName, String pIdentifier) {
     return new MemoryLocation(pFunctionName, pIdentifier, Optional.<Long>absent());
   }
@@ -221,6 +270,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int compareTo(MemoryLocation other) {
+    if (this == other) {
+      return 0;
+    }
 
     int result = 0;
 
@@ -0,0 +1,555 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.states;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.collect.PersistentMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * A persistent map with {@link MemoryLocation}s as keys,
+ * implemented as a hash array mapped trie over the ids of the memory locations.
+ * Because the ids are unique, the trie needs no handling of collisions,
+ * and because they are small, it stays shallow.
+ * Each node stores its entries and its children in arrays without empty slots,
+ * and values that can be represented as long (as decided by a {@link LongRepresentation})
+ * are stored unboxed.
+ *
+ * The map is iterated in an order that depends on the ids, it is not sorted.
+ */
+public final class PersistentMemoryLocationMap<V> extends AbstractMap<MemoryLocation, V>
+    implements PersistentMap<MemoryLocation, V>, Serializable {
+
+  private static final long serialVersionUID = 5129387469823402121L;
+
+  /**
+   * Decides which values of a {@link PersistentMemoryLocationMap} are stored as unboxed longs.
+   */
+  public interface LongRepresentation<V> extends Serializable {
+
+    /**
+     * Whether the value can be stored as long, such that {@link #fromLong(long)}
+     * restores an equal value.
+     */
+    boolean hasLongRepresentation(V pValue);
+
+    long toLong(V pValue);
+
+    V fromLong(long pValue);
+  }
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS;
+
+  /** Marks entries whose value is stored in the long array of the node. */
+  private static final Object UNBOXED = new Object();
+
+  private static final MemoryLocation[] NO_KEYS = new MemoryLocation[0];
+  private static final Object[] NO_VALUES = new Object[0];
+  private static final Node[] NO_CHILDREN = new Node[0];
+  private static final Node EMPTY_NODE = new Node(0, 0, NO_KEYS, NO_VALUES, null, NO_CHILDREN);
+
+  private final transient Node root;
+  private final int size;
+  private final @Nullable LongRepresentation<V> longRepresentation;
+
+  private transient int hashCode = 0; // cache, 0 if not yet computed
+
+  private PersistentMemoryLocationMap(Node pRoot, int pSize,
+      @Nullable LongRepresentation<V> pLongRepresentation) {
+    root = pRoot;
+    size = pSize;
+    longRepresentation = pLongRepresentation;
+  }
+
+  /** Creates an empty map that stores all values boxed. */
+  public static <V> PersistentMemoryLocationMap<V> of() {
+    return new PersistentMemoryLocationMap<>(EMPTY_NODE, 0, null);
+  }
+
+  /** Creates an empty map that stores values unboxed where the given representation allows it. */
+  public static <V> PersistentMemoryLocationMap<V> of(LongRepresentation<V> pLongRepresentation) {
+    return new PersistentMemoryLocationMap<>(EMPTY_NODE, 0, checkNotNull(pLongRepresentation));
+  }
+
+  /**
+   * A node of the trie. On each level, five bits of the id select a position in the node.
+   * A position holds either an entry, if only one key of the map has these bits,
+   * or a child node for the next five bits.
+   * Child nodes always contain at least two entries, such that the trie is canonical.
+   */
+  private static final class Node {
+
+    private final int entryMap; // positions that hold an entry
+    private final int nodeMap; // positions that hold a child
+    private final MemoryLocation[] keys; // one per entry, ordered by position
+    private final Object[] values; // one per entry, UNBOXED for values in longs
+    private final @Nullable long[] longs; // one per entry, only if necessary
+    private final Node[] children; // one per child, ordered by position
+
+    private Node(int pEntryMap, int pNodeMap, MemoryLocation[] pKeys, Object[] pValues,
+        @Nullable long[] pLongs, Node[] pChildren) {
+      entryMap = pEntryMap;
+      nodeMap = pNodeMap;
+      keys = pKeys;
+      values = pValues;
+      longs = pLongs;
+      children = pChildren;
+    }
+
+    private long getLong(int i) {
+      return longs == null ? 0 : longs[i];
+    }
+
+    private boolean hasValue(int i, Object pValue, long pLong) {
+      if (pValue == UNBOXED) {
+        return values[i] == UNBOXED && longs[i] == pLong;
+      }
+      return values[i] != UNBOXED && Objects.equals(values[i], pValue);
+    }
+
+    private Node withValue(int i, Object pValue, long pLong) {
+      Object[] newValues = values.clone();
+      newValues[i] = pValue;
+      long[] newLongs = longs;
+      if (pValue == UNBOXED) {
+        newLongs = longs == null ? new long[keys.length] : longs.clone();
+        newLongs[i] = pLong;
+      }
+      return new Node(entryMap, nodeMap, keys, newValues, newLongs, children);
+    }
+
+    private Node withChild(int j, Node pChild) {
+      Node[] newChildren = children.clone();
+      newChildren[j] = pChild;
+      return new Node(entryMap, nodeMap, keys, values, longs, newChildren);
+    }
+
+    private Node withEntry(int bit, MemoryLocation pKey, Object pValue, long pLong) {
+      int i = index(entryMap, bit);
+      return new Node(entryMap | bit, nodeMap,
+          insert(keys, i, pKey, new MemoryLocation[keys.length + 1]),
+          insert(values, i, pValue, new Object[values.length + 1]),
+          insertLong(i, pValue, pLong),
+          children);
+    }
+
+    private Node withoutEntry(int bit, int i) {
+      return new Node(entryMap & ~bit, nodeMap,
+          remove(keys, i, new MemoryLocation[keys.length - 1]),
+          remove(values, i, new Object[values.length - 1]),
+          removeLong(i),
+          children);
+    }
+
+    private Node withEntryReplacedByChild(int bit, int i, Node pChild) {
+      int j = index(nodeMap, bit);
+      return new Node(entryMap & ~bit, nodeMap | bit,
+          remove(keys, i, new MemoryLocation[keys.length - 1]),
+          remove(values, i, new Object[values.length - 1]),
+          removeLong(i),
+          insert(children, j, pChild, new Node[children.length + 1]));
+    }
+
+    private Node withChildReplacedByEntry(int bit, int j, MemoryLocation pKey, Object pValue,
+        long pLong) {
+      int i = index(entryMap, bit);
+      return new Node(entryMap | bit, nodeMap & ~bit,
+          insert(keys, i, pKey, new MemoryLocation[keys.length + 1]),
+          insert(values, i, pValue, new Object[values.length + 1]),
+          insertLong(i, pValue, pLong),
+          remove(children, j, new Node[children.length - 1]));
+    }
+
+    private @Nullable long[] insertLong(int i, Object pValue, long pLong) {
+      if (longs == null && pValue != UNBOXED) {
+        return null;
+      }
+      long[] result = new long[keys.length + 1];
+      if (longs != null) {
+        System.arraycopy(longs, 0, result, 0, i);
+        System.arraycopy(longs, i, result, i + 1, longs.length - i);
+      }
+      result[i] = pLong;
+      return result;
+    }
+
+    private @Nullable long[] removeLong(int i) {
+      if (longs == null || keys.length == 1) {
+        return null;
+      }
+      long[] result = new long[longs.length - 1];
+      System.arraycopy(longs, 0, result, 0, i);
+      System.arraycopy(longs, i + 1, result, i, result.length - i);
+      return result;
+    }
+  }
+
+  private static int index(int pMap, int pBit) {
+    return Integer.bitCount(pMap & (pBit - 1));
+  }
+
+  private static int bit(int pId, int pShift) {
+    return 1 << ((pId >>> pShift) & MASK);
+  }
+
+  private static <T> T[] insert(T[] pArray, int i, T pElement, T[] pResult) {
+    System.arraycopy(pArray, 0, pResult, 0, i);
+    pResult[i] = pElement;
+    System.arraycopy(pArray, i, pResult, i + 1, pArray.length - i);
+    return pResult;
+  }
+
+  private static <T> T[] remove(T[] pArray, int i, T[] pResult) {
+    System.arraycopy(pArray, 0, pResult, 0, i);
+    System.arraycopy(pArray, i + 1, pResult, i, pResult.length - i);
+    return pResult;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V getValue(Node pNode, int i) {
+    Object value = pNode.values[i];
+    if (value == UNBOXED) {
+      return longRepresentation.fromLong(pNode.longs[i]);
+    }
+    return (V) value;
+  }
+
+  @Override
+  public V get(@Nullable Object pKey) {
+    if (!(pKey instanceof MemoryLocation)) {
+      return null;
+    }
+    int id = ((MemoryLocation) pKey).getId();
+    Node node = root;
+    for (int shift = 0; ; shift += BITS) {
+      int bit = bit(id, shift);
+      if ((node.entryMap & bit) != 0) {
+        int i = index(node.entryMap, bit);
+        return node.keys[i].getId() == id ? getValue(node, i) : null;
+      } else if ((node.nodeMap & bit) != 0) {
+        node = node.children[index(node.nodeMap, bit)];
+      } else {
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object pKey) {
+    if (!(pKey instanceof MemoryLocation)) {
+      return false;
+    }
+    int id = ((MemoryLocation) pKey).getId();
+    Node node = root;
+    for (int shift = 0; ; shift += BITS) {
+      int bit = bit(id, shift);
+      if ((node.entryMap & bit) != 0) {
+        return node.keys[index(node.entryMap, bit)].getId() == id;
+      } else if ((node.nodeMap & bit) != 0) {
+        node = node.children[index(node.nodeMap, bit)];
+      } else {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public PersistentMemoryLocationMap<V> putAndCopy(MemoryLocation pKey, V pValue) {
+    checkNotNull(pKey);
+    Object value = pValue;
+    long longValue = 0;
+    if (pValue != null && longRepresentation != null
+        && longRepresentation.hasLongRepresentation(pValue)) {
+      value = UNBOXED;
+      longValue = longRepresentation.toLong(pValue);
+    }
+
+    boolean isNewKey = !containsKey(pKey);
+    Node newRoot = put(root, pKey, pKey.getId(), value, longValue, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentMemoryLocationMap<>(newRoot, isNewKey ? size + 1 : size,
+        longRepresentation);
+  }
+
+  private static Node put(Node pNode, MemoryLocation pKey, int pId, Object pValue, long pLong,
+      int pShift) {
+    int bit = bit(pId, pShift);
+    if ((pNode.entryMap & bit) != 0) {
+      int i = index(pNode.entryMap, bit);
+      MemoryLocation otherKey = pNode.keys[i];
+      if (otherKey.getId() == pId) {
+        return pNode.hasValue(i, pValue, pLong) ? pNode : pNode.withValue(i, pValue, pLong);
+      }
+      Node child = merge(otherKey, pNode.values[i], pNode.getLong(i),
+          pKey, pValue, pLong, pShift + BITS);
+      return pNode.withEntryReplacedByChild(bit, i, child);
+
+    } else if ((pNode.nodeMap & bit) != 0) {
+      int j = index(pNode.nodeMap, bit);
+      Node child = pNode.children[j];
+      Node newChild = put(child, pKey, pId, pValue, pLong, pShift + BITS);
+      return newChild == child ? pNode : pNode.withChild(j, newChild);
+
+    } else {
+      return pNode.withEntry(bit, pKey, pValue, pLong);
+    }
+  }
+
+  /** Creates a node for two entries whose ids agree in all bits below the given shift. */
+  private static Node merge(MemoryLocation pKey1, Object pValue1, long pLong1,
+      MemoryLocation pKey2, Object pValue2, long pLong2, int pShift) {
+    int position1 = (pKey1.getId() >>> pShift) & MASK;
+    int position2 = (pKey2.getId() >>> pShift) & MASK;
+    if (position1 == position2) {
+      Node child = merge(pKey1, pValue1, pLong1, pKey2, pValue2, pLong2, pShift + BITS);
+      return new Node(0, 1 << position1, NO_KEYS, NO_VALUES, null, new Node[] { child });
+    }
+
+    int entryMap = (1 << position1) | (1 << position2);
+    boolean hasLongs = pValue1 == UNBOXED || pValue2 == UNBOXED;
+    if (position1 < position2) {
+      return new Node(entryMap, 0, new MemoryLocation[] { pKey1, pKey2 },
+          new Object[] { pValue1, pValue2 }, hasLongs ? new long[] { pLong1, pLong2 } : null,
+          NO_CHILDREN);
+    } else {
+      return new Node(entryMap, 0, new MemoryLocation[] { pKey2, pKey1 },
+          new Object[] { pValue2, pValue1 }, hasLongs ? new long[] { pLong2, pLong1 } : null,
+          NO_CHILDREN);
+    }
+  }
+
+  @Override
+  public PersistentMemoryLocationMap<V> removeAndCopy(@Nullable Object pKey) {
+    if (!(pKey instanceof MemoryLocation)) {
+      return this;
+    }
+    Node newRoot = remove(root, ((MemoryLocation) pKey).getId(), 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentMemoryLocationMap<>(newRoot, size - 1, longRepresentation);
+  }
+
+  private static Node remove(Node pNode, int pId, int pShift) {
+    int bit = bit(pId, pShift);
+    if ((pNode.entryMap & bit) != 0) {
+      int i = index(pNode.entryMap, bit);
+      return pNode.keys[i].getId() == pId ? pNode.withoutEntry(bit, i) : pNode;
+
+    } else if ((pNode.nodeMap & bit) != 0) {
+      int j = index(pNode.nodeMap, bit);
+      Node child = pNode.children[j];
+      Node newChild = remove(child, pId, pShift + BITS);
+      if (newChild == child) {
+        return pNode;
+      } else if (newChild.nodeMap == 0 && newChild.keys.length == 1) {
+        // a single entry is stored directly in this node
+        return pNode.withChildReplacedByEntry(bit, j,
+            newChild.keys[0], newChild.values[0], newChild.getLong(0));
+      }
+      return pNode.withChild(j, newChild);
+
+    } else {
+      return pNode;
+    }
+  }
+
+  public PersistentMemoryLocationMap<V> empty() {
+    return new PersistentMemoryLocationMap<>(EMPTY_NODE, 0, longRepresentation);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Map.Entry<MemoryLocation, V>> entrySet() {
+    return new AbstractSet<Map.Entry<MemoryLocation, V>>() {
+
+      @Override
+      public Iterator<Map.Entry<MemoryLocation, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /** Iterates depth-first over the trie, visiting the entries of each node before its children. */
+  private final class EntryIterator implements Iterator<Map.Entry<MemoryLocation, V>> {
+
+    private final Node[] path = new Node[MAX_DEPTH];
+    private final int[] nextChild = new int[MAX_DEPTH];
+    private int depth = 0;
+    private int nextEntry = 0; // of the node at the current depth
+
+    private EntryIterator() {
+      path[0] = root;
+    }
+
+    private void advance() {
+      while (depth >= 0) {
+        Node node = path[depth];
+        if (nextEntry < node.keys.length) {
+          return;
+        }
+        if (nextChild[depth] < node.children.length) {
+          Node child = node.children[nextChild[depth]++];
+          depth++;
+          path[depth] = child;
+          nextChild[depth] = 0;
+          nextEntry = 0;
+        } else {
+          // all entries of the parent were visited before its children
+          path[depth] = null;
+          depth--;
+          nextEntry = Integer.MAX_VALUE;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      advance();
+      return depth >= 0;
+    }
+
+    @Override
+    public Map.Entry<MemoryLocation, V> next() {
+      advance();
+      if (depth < 0) {
+        throw new NoSuchElementException();
+      }
+      Node node = path[depth];
+      int i = nextEntry++;
+      return Maps.immutableEntry(node.keys[i], getValue(node, i));
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    // the map is immutable, thus we cache the hash code
+    int hc = hashCode;
+    if (hc == 0) {
+      hc = super.hashCode();
+      hashCode = hc;
+    }
+    return hc;
+  }
+
+  @Deprecated
+  @Override
+  public V put(MemoryLocation pKey, V pValue) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Deprecated
+  @Override
+  public V remove(Object pKey) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Deprecated
+  @Override
+  public void putAll(Map<? extends MemoryLocation, ? extends V> pMap) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Deprecated
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  private Object writeReplace() {
+    return new SerializedForm<>(this);
+  }
+
+  private void readObject(@SuppressWarnings("unused") ObjectInputStream pIn)
+      throws InvalidObjectException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * Ids are only valid in the current run, so the map is serialized as a list of entries.
+   */
+  private static final class SerializedForm<V> implements Serializable {
+
+    private static final long serialVersionUID = -2361946380658342416L;
+
+    private final MemoryLocation[] keys;
+    private final Object[] values;
+    private final @Nullable LongRepresentation<V> longRepresentation;
+
+    private SerializedForm(PersistentMemoryLocationMap<V> pMap) {
+      keys = new MemoryLocation[pMap.size];
+      values = new Object[pMap.size];
+      longRepresentation = pMap.longRepresentation;
+      int i = 0;
+      for (Map.Entry<MemoryLocation, V> entry : pMap.entrySet()) {
+        keys[i] = entry.getKey();
+        values[i] = entry.getValue();
+        i++;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readResolve() {
+      PersistentMemoryLocationMap<V> result =
+          new PersistentMemoryLocationMap<>(EMPTY_NODE, 0, longRepresentation);
+      for (int i = 0; i < keys.length; i++) {
+        result = result.putAndCopy(keys[i], (V) values[i]);
+      }
+      return result;
+    }
+  }
+}
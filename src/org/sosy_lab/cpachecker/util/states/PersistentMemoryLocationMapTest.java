@@ -0,0 +1,175 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2016  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.states;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.states.PersistentMemoryLocationMap.LongRepresentation;
+
+public class PersistentMemoryLocationMapTest {
+
+  /** Stores Longs unboxed and all other values boxed. */
+  private static enum LongValues implements LongRepresentation<Object> {
+    INSTANCE;
+
+    @Override
+    public boolean hasLongRepresentation(Object pValue) {
+      return pValue instanceof Long;
+    }
+
+    @Override
+    public long toLong(Object pValue) {
+      return (Long) pValue;
+    }
+
+    @Override
+    public Object fromLong(long pValue) {
+      return pValue;
+    }
+  }
+
+  private static List<MemoryLocation> createLocations(int pCount) {
+    List<MemoryLocation> result = new ArrayList<>(pCount);
+    for (int i = 0; i < pCount; i++) {
+      result.add(MemoryLocation.valueOf("f", "x" + i));
+    }
+    return result;
+  }
+
+  private static void assertSameContent(Map<MemoryLocation, Object> pExpected,
+      PersistentMemoryLocationMap<Object> pMap, List<MemoryLocation> pLocations) {
+    assertEquals(pExpected.size(), pMap.size());
+    assertEquals(pExpected, pMap);
+    assertEquals(pMap, pExpected);
+    assertEquals(pExpected.hashCode(), pMap.hashCode());
+    for (MemoryLocation location : pLocations) {
+      assertEquals(pExpected.containsKey(location), pMap.containsKey(location));
+      assertEquals(pExpected.get(location), pMap.get(location));
+    }
+  }
+
+  @Test
+  public void testRandomOperations() {
+    Random random = new Random(0);
+    List<MemoryLocation> locations = createLocations(3000);
+    Map<MemoryLocation, Object> expected = new HashMap<>();
+    PersistentMemoryLocationMap<Object> map = PersistentMemoryLocationMap.of(LongValues.INSTANCE);
+
+    Map<MemoryLocation, Object> oldExpected = new HashMap<>();
+    PersistentMemoryLocationMap<Object> oldMap = map;
+
+    for (int step = 0; step < 20000; step++) {
+      MemoryLocation location = locations.get(random.nextInt(locations.size()));
+      if (random.nextInt(3) == 0) {
+        expected.remove(location);
+        map = map.removeAndCopy(location);
+      } else {
+        // a mix of unboxed and boxed values
+        Object value = random.nextBoolean() ? (Object) (long) random.nextInt(5) : "v" + random.nextInt(5);
+        expected.put(location, value);
+        map = map.putAndCopy(location, value);
+      }
+
+      if (step % 1000 == 0) {
+        assertSameContent(expected, map, locations);
+        // older versions are not changed
+        assertSameContent(oldExpected, oldMap, locations);
+        oldExpected = new HashMap<>(expected);
+        oldMap = map;
+      }
+    }
+    assertSameContent(expected, map, locations);
+
+    for (MemoryLocation location : locations) {
+      map = map.removeAndCopy(location);
+    }
+    assertTrue(map.isEmpty());
+    assertEquals(PersistentMemoryLocationMap.of(), map);
+  }
+
+  @Test
+  public void testUnchangedMap() {
+    MemoryLocation x = MemoryLocation.valueOf("f", "x");
+    MemoryLocation y = MemoryLocation.valueOf("f", "y");
+    PersistentMemoryLocationMap<Object> map =
+        PersistentMemoryLocationMap.of(LongValues.INSTANCE).putAndCopy(x, 1L).putAndCopy(y, "y");
+
+    assertSame(map, map.putAndCopy(x, 1L));
+    assertSame(map, map.putAndCopy(MemoryLocation.valueOf("f", "y"), "y"));
+    assertSame(map, map.removeAndCopy(MemoryLocation.valueOf("f", "z")));
+    assertSame(map, map.removeAndCopy("f::x"));
+
+    PersistentMemoryLocationMap<Object> changed = map.putAndCopy(x, "x");
+    assertEquals("x", changed.get(x));
+    assertEquals(1L, map.get(x));
+    assertEquals(2, changed.size());
+  }
+
+  @Test
+  public void testNullValues() {
+    MemoryLocation x = MemoryLocation.valueOf("f", "x");
+    PersistentMemoryLocationMap<Object> map = PersistentMemoryLocationMap.of().putAndCopy(x, null);
+
+    assertTrue(map.containsKey(x));
+    assertNull(map.get(x));
+    assertEquals(1, map.size());
+    assertFalse(map.removeAndCopy(x).containsKey(x));
+  }
+
+  @Test
+  public void testSerialization() throws IOException, ClassNotFoundException {
+    PersistentMemoryLocationMap<Object> map = PersistentMemoryLocationMap.of(LongValues.INSTANCE);
+    for (MemoryLocation location : createLocations(100)) {
+      map = map.putAndCopy(location, location.getIdentifier().length() % 2 == 0 ? 42L : "value");
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(map);
+    }
+    Object read;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      read = in.readObject();
+    }
+
+    assertTrue(read instanceof PersistentMemoryLocationMap);
+    assertEquals(map, read);
+  }
+}